@@ -1,6 +1,8 @@
 package com.crossmint.challenge;
 
 import com.crossmint.challenge.commands.MainCommand;
+import com.crossmint.challenge.commands.TracingExecutionStrategy;
+import io.opentelemetry.api.trace.Tracer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
@@ -17,13 +19,18 @@ public class CrossmintChallengeApplication implements CommandLineRunner {
     @Autowired
     private MainCommand mainCommand;
 
+    @Autowired
+    private Tracer tracer;
+
     public static void main(String[] args) {
         SpringApplication.run(CrossmintChallengeApplication.class, args);
     }
 
     @Override
     public void run(String... args) {
-        int exitCode = new CommandLine(mainCommand, picocliFactory).execute(args);
+        int exitCode = new CommandLine(mainCommand, picocliFactory)
+                .setExecutionStrategy(new TracingExecutionStrategy(tracer))
+                .execute(args);
         System.exit(exitCode);
     }
 }
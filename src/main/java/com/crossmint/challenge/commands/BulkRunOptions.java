@@ -0,0 +1,55 @@
+package com.crossmint.challenge.commands;
+
+import com.crossmint.challenge.service.RunDeadline;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import picocli.CommandLine.ITypeConverter;
+import picocli.CommandLine.Option;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Options shared by the commands that perform many operations in one run.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRunOptions {
+
+    @Option(names = "--deadline", converter = DurationConverter.class,
+            description = "Maximum duration of the run (e.g. 90s, 15m, 1h or PT15M). Close to the deadline, "
+                    + "no new operation is scheduled and the remaining ones are reported.")
+    private Duration deadline;
+
+    /**
+     * @return The deadline of a run starting now
+     */
+    public RunDeadline deadline() {
+        return RunDeadline.after(deadline);
+    }
+
+    /**
+     * Converts "90s", "15m", "1h", "250ms" or ISO-8601 values such as "PT15M" into a duration.
+     */
+    public static class DurationConverter implements ITypeConverter<Duration> {
+        @Override
+        public Duration convert(String value) {
+            String text = value.trim().toLowerCase(Locale.ROOT);
+            if (text.startsWith("pt")) {
+                return Duration.parse(text);
+            }
+            if (text.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+            }
+            long amount = Long.parseLong(text.substring(0, text.length() - 1));
+            return switch (text.charAt(text.length() - 1)) {
+                case 's' -> Duration.ofSeconds(amount);
+                case 'm' -> Duration.ofMinutes(amount);
+                case 'h' -> Duration.ofHours(amount);
+                default -> throw new IllegalArgumentException("Invalid duration: " + value);
+            };
+        }
+    }
+}
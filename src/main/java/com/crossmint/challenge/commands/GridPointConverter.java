@@ -0,0 +1,14 @@
+package com.crossmint.challenge.commands;
+
+import com.crossmint.challenge.shape.GridPoint;
+import picocli.CommandLine.ITypeConverter;
+
+/**
+ * Converts "row,col" option values into grid points.
+ */
+public class GridPointConverter implements ITypeConverter<GridPoint> {
+    @Override
+    public GridPoint convert(String value) {
+        return GridPoint.parse(value);
+    }
+}
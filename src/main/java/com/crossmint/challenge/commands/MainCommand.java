@@ -1,22 +1,29 @@
 package com.crossmint.challenge.commands;
 
 import com.crossmint.challenge.commands.create.CreateCommand;
+import com.crossmint.challenge.commands.create.CreateShapeCommand;
 import com.crossmint.challenge.commands.delete.DeleteAllCommand;
 import com.crossmint.challenge.commands.delete.DeleteCommand;
+import com.crossmint.challenge.commands.snapshot.ExportCommand;
+import com.crossmint.challenge.commands.snapshot.ImportCommand;
 import picocli.CommandLine.Command;
 import org.springframework.stereotype.Component;
 
 @Component
 @Command(name = "crossmint", mixinStandardHelpOptions = true, subcommands = {
         CreateCommand.class,
+        CreateShapeCommand.class,
         DeleteCommand.class,
         DeleteAllCommand.class,
-        ReplicateGoalCommand.class
+        ReplicateGoalCommand.class,
+        ExportCommand.class,
+        ImportCommand.class,
+        RedriveCommand.class
 })
 public class MainCommand implements Runnable {
 
     @Override
     public void run() {
-        System.out.println("Use one of the available commands: create, delete, deleteAll, replicategoal.");
+        System.out.println("Use one of the available commands: create, shape, delete, deleteAll, replicategoal, export, import, redrive.");
     }
 }
@@ -0,0 +1,81 @@
+package com.crossmint.challenge.commands;
+
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.DeadLetterFile;
+import com.crossmint.challenge.service.FailedOperation;
+import com.crossmint.challenge.service.RunReport;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Parameters;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+@Component
+@Command(name = "redrive", mixinStandardHelpOptions = true,
+        description = "Replay the operations of a dead-letter file through the normal pipeline.")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RedriveCommand implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedriveCommand.class);
+
+    @Parameters(index = "0", arity = "0..1",
+            description = "The dead-letter file to replay (default: the configured crossmint.dead-letter.file)")
+    private Path file;
+
+    @Autowired
+    private AstralObjectService service;
+
+    @Mixin
+    @Builder.Default
+    private BulkRunOptions options = new BulkRunOptions();
+
+    @Override
+    public void run() {
+        Path source = file != null ? file : service.getDeadLetters().getPath();
+        if (source == null || !Files.exists(source)) {
+            logger.info("No dead-letter file to redrive.");
+            return;
+        }
+
+        // Operations failing again are appended to the dead-letter file anew, so the replayed
+        // entries are set aside and only dropped once the run is over
+        Path replaying = source.resolveSibling(source.getFileName() + ".redriving");
+        List<CellOperation> operations;
+        try {
+            operations = DeadLetterFile.read(source).stream().map(FailedOperation::operation).toList();
+            Files.move(source, replaying, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read dead-letter file " + source, e);
+        }
+
+        logger.info("Redriving {} operations from {}...", operations.size(), source);
+        RunReport report = service.runOperations("Redrive", operations::stream, options.deadline());
+        try {
+            Files.delete(replaying);
+        } catch (IOException e) {
+            logger.warn("Failed to delete {}", replaying, e);
+        }
+
+        if (report.isComplete()) {
+            logger.info("Redrive finished: {} succeeded, {} failed again.", report.completed(), report.failed().size());
+        } else {
+            logger.warn("Deadline reached: {} operations performed, {} left.",
+                    report.completed(), report.remaining().size());
+        }
+    }
+}
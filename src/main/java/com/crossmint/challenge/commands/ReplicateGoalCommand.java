@@ -1,6 +1,7 @@
 package com.crossmint.challenge.commands;
 
 import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.RunReport;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
 
 @Component
 @Command(name = "replicategoal", description = "Create all astral objects on the map.")
@@ -21,11 +23,22 @@ public class ReplicateGoalCommand implements Runnable {
     @Autowired
     private AstralObjectService service;
 
+    @Mixin
+    @Builder.Default
+    private BulkRunOptions options = new BulkRunOptions();
+
     @Override
     public void run() {
         logger.info("Replicating goal map...");
-        service.replicateGoalMap();
-        logger.info("Goal map replicated.");
+        RunReport report = service.replicateGoalMap(options.deadline());
+        if (!report.isComplete()) {
+            logger.warn("Deadline reached: {} operations performed, {} left.",
+                    report.completed(), report.remaining().size());
+        }
+        RunReports.warnFailures(logger, report, service.getDeadLetters().getPath());
+        if (report.isSuccessful()) {
+            logger.info("Goal map replicated.");
+        }
     }
 
 }
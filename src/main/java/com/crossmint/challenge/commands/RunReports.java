@@ -0,0 +1,35 @@
+package com.crossmint.challenge.commands;
+
+import com.crossmint.challenge.service.RunReport;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+
+/**
+ * Reports the outcome of bulk runs the same way for every command.
+ */
+public final class RunReports {
+
+    private RunReports() {
+    }
+
+    /**
+     * Warns about the operations of a run that failed permanently, if any, and how to replay them.
+     *
+     * @param logger The logger of the command
+     * @param report The report of the run
+     * @param deadLetterFile The file failed operations were written to, or null if dead-lettering is disabled
+     */
+    public static void warnFailures(Logger logger, RunReport report, Path deadLetterFile) {
+        if (report.failed().isEmpty()) {
+            return;
+        }
+        if (deadLetterFile == null) {
+            logger.warn("{} operations failed; set crossmint.dead-letter.file to keep them for a later redrive.",
+                    report.failed().size());
+        } else {
+            logger.warn("{} operations failed and were written to {}; run 'redrive' to retry them.",
+                    report.failed().size(), deadLetterFile);
+        }
+    }
+}
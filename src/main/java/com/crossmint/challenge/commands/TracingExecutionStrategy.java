@@ -0,0 +1,52 @@
+package com.crossmint.challenge.commands;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import picocli.CommandLine;
+import picocli.CommandLine.IExecutionStrategy;
+import picocli.CommandLine.ParseResult;
+
+import java.util.List;
+
+/**
+ * Runs the selected command inside a root span named after it (e.g. "crossmint replicategoal"),
+ * so the fetches, phases and requests of the command form a single trace.
+ */
+public class TracingExecutionStrategy implements IExecutionStrategy {
+
+    private final Tracer tracer;
+    private final IExecutionStrategy delegate;
+
+    /**
+     * @param tracer Creates the span of the command
+     */
+    public TracingExecutionStrategy(Tracer tracer) {
+        this(tracer, new CommandLine.RunLast());
+    }
+
+    TracingExecutionStrategy(Tracer tracer, IExecutionStrategy delegate) {
+        this.tracer = tracer;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int execute(ParseResult parseResult) {
+        List<CommandLine> commands = parseResult.asCommandLineList();
+        Span span = tracer.spanBuilder(commands.getLast().getCommandSpec().qualifiedName()).startSpan();
+        try (Scope scope = span.makeCurrent()) {
+            int exitCode = delegate.execute(parseResult);
+            if (exitCode != 0) {
+                span.setStatus(StatusCode.ERROR, "Exit code " + exitCode);
+            }
+            return exitCode;
+        } catch (RuntimeException e) {
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.crossmint.challenge.commands.create;
+
+import com.crossmint.challenge.commands.BulkRunOptions;
+import com.crossmint.challenge.commands.GridPointConverter;
+import com.crossmint.challenge.commands.RunReports;
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.RunReport;
+import com.crossmint.challenge.shape.GridPoint;
+import com.crossmint.challenge.shape.LineShape;
+import com.crossmint.challenge.shape.RectangleShape;
+import com.crossmint.challenge.shape.Shape;
+import com.crossmint.challenge.shape.ShapeRasterizer;
+import com.crossmint.challenge.shape.XShape;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Component
+@Command(name = "shape", mixinStandardHelpOptions = true,
+        description = "Draws a shape of astral objects, only creating the cells missing from the current map.")
+@NoArgsConstructor(force = true)
+@AllArgsConstructor
+@Builder
+public class CreateShapeCommand implements Runnable {
+
+    /**
+     * The shapes the command can draw within the region delimited by --from and --to.
+     */
+    public enum Kind {
+        /** A straight line from --from to --to. */
+        LINE,
+        /** The diagonal from the top-left to the bottom-right corner of the region. */
+        DIAGONAL,
+        /** The diagonal from the top-right to the bottom-left corner of the region. */
+        ANTI_DIAGONAL,
+        /** The outline of the region. */
+        RECTANGLE,
+        /** The whole region. */
+        FILL,
+        /** Both diagonals of the region. */
+        X
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(CreateShapeCommand.class);
+
+    @Autowired
+    private final AstralObjectService service;
+
+    @Parameters(index = "0", description = "The shape to draw: ${COMPLETION-CANDIDATES}")
+    private final Kind kind;
+
+    @Option(names = "--from", converter = GridPointConverter.class,
+            description = "First corner of the region as row,col (default: top-left of the map)")
+    private final GridPoint from;
+
+    @Option(names = "--to", converter = GridPointConverter.class,
+            description = "Opposite corner of the region as row,col (default: bottom-right of the map)")
+    private final GridPoint to;
+
+    @Option(names = "--margin", defaultValue = "0",
+            description = "Cells left out on every side of the region (default: ${DEFAULT-VALUE})")
+    private int margin;
+
+    @Option(names = "--object", defaultValue = "POLYANET",
+            description = "The astral object to draw with, e.g. POLYANET, BLUE_SOLOON or UP_COMETH "
+                    + "(default: ${DEFAULT-VALUE})")
+    @Builder.Default
+    private final GridCell object = GridCell.POLYANET;
+
+    @Mixin
+    @Builder.Default
+    private final BulkRunOptions options = new BulkRunOptions();
+
+    @Override
+    public void run() {
+        if (object.isEmpty()) {
+            logger.error("Shapes must be drawn with an astral object, not {}", object);
+            return;
+        }
+        CellGrid current = service.fetchCurrentGrid();
+        Shape shape = toShape(current.getRows(), current.getCols());
+        if (shape == null) {
+            logger.error("The margin of {} leaves nothing to draw in the region.", margin);
+            return;
+        }
+        logger.info("Drawing {} of {} as {}...", kind, object, shape);
+
+        RunReport report = service.runOperations("Shape", current,
+                () -> ShapeRasterizer.plan(shape, object, current), options.deadline());
+        if (!report.isComplete()) {
+            logger.warn("Deadline reached: {} astral objects created, {} left.",
+                    report.completed(), report.remaining().size());
+        }
+        RunReports.warnFailures(logger, report, service.getDeadLetters().getPath());
+        if (report.isSuccessful()) {
+            logger.info("Shape drawn: {} astral objects created.", report.completed());
+        }
+    }
+
+    /**
+     * Builds the shape of the requested kind within the region, defaulting to the whole map
+     * and shrinking it by the margin on every side.
+     *
+     * @param rows The number of rows of the map
+     * @param cols The number of columns of the map
+     * @return The shape to draw, or null if the margin leaves an empty region
+     */
+    public Shape toShape(int rows, int cols) {
+        GridPoint first = from != null ? from : new GridPoint(0, 0);
+        GridPoint last = to != null ? to : new GridPoint(rows - 1, cols - 1);
+        GridPoint topLeft = new GridPoint(Math.min(first.row(), last.row()) + margin,
+                Math.min(first.col(), last.col()) + margin);
+        GridPoint bottomRight = new GridPoint(Math.max(first.row(), last.row()) - margin,
+                Math.max(first.col(), last.col()) - margin);
+        if (kind != Kind.LINE && (topLeft.row() > bottomRight.row() || topLeft.col() > bottomRight.col())) {
+            return null;
+        }
+
+        return switch (kind) {
+            case LINE -> new LineShape(first, last);
+            case DIAGONAL -> new LineShape(topLeft, bottomRight);
+            case ANTI_DIAGONAL -> new LineShape(new GridPoint(topLeft.row(), bottomRight.col()),
+                    new GridPoint(bottomRight.row(), topLeft.col()));
+            case RECTANGLE -> new RectangleShape(topLeft, bottomRight, false);
+            case FILL -> new RectangleShape(topLeft, bottomRight, true);
+            case X -> new XShape(topLeft, bottomRight);
+        };
+    }
+}
@@ -1,6 +1,16 @@
 package com.crossmint.challenge.commands.delete;
 
+import com.crossmint.challenge.commands.BulkRunOptions;
+import com.crossmint.challenge.commands.GridPointConverter;
+import com.crossmint.challenge.commands.RunReports;
+import com.crossmint.challenge.model.CellFilter;
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.ComethDirection;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.SoloonColor;
 import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.RunReport;
+import com.crossmint.challenge.shape.GridPoint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -9,24 +19,101 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 
 @Component
-@Command(name = "deleteall", description = "Delete all astral objects on the map.")
+@Command(name = "deleteall", description = "Delete all astral objects on the map, optionally only the ones "
+        + "matching every given filter.")
 @NoArgsConstructor(force = true)
 @AllArgsConstructor
 @Builder
 public class DeleteAllCommand implements Runnable {
 
+    /**
+     * The kinds of astral objects the deletion can be restricted to.
+     */
+    public enum Type {
+        POLYANET(EnumSet.of(GridCell.POLYANET)),
+        SOLOON(EnumSet.range(GridCell.WHITE_SOLOON, GridCell.PURPLE_SOLOON)),
+        COMETH(EnumSet.range(GridCell.UP_COMETH, GridCell.RIGHT_COMETH));
+
+        private final Set<GridCell> cells;
+
+        Type(Set<GridCell> cells) {
+            this.cells = cells;
+        }
+    }
+
     private static final Logger logger = LoggerFactory.getLogger(DeleteAllCommand.class);
     @Autowired
     private final AstralObjectService service;
 
+    @Option(names = "--from", converter = GridPointConverter.class,
+            description = "Top-left corner of the region to clear as row,col")
+    private final GridPoint from;
+
+    @Option(names = "--to", converter = GridPointConverter.class,
+            description = "Bottom-right corner of the region to clear as row,col")
+    private final GridPoint to;
+
+    @Option(names = "--type", description = "Only delete objects of this type: ${COMPLETION-CANDIDATES}")
+    private final Type type;
+
+    @Option(names = "--color", description = "Only delete Soloons of this color: ${COMPLETION-CANDIDATES}")
+    private final SoloonColor color;
+
+    @Option(names = "--direction", description = "Only delete Comeths facing this direction: ${COMPLETION-CANDIDATES}")
+    private final ComethDirection direction;
+
+    @Option(names = "--not-in-goal", description = "Only delete objects that don't match the goal map")
+    private boolean notInGoal;
+
+    @Mixin
+    @Builder.Default
+    private final BulkRunOptions options = new BulkRunOptions();
+
     @Override
     public void run() {
         logger.info("Deleting all astral objects...");
-        service.clearGoalMap();
-        logger.info("All astral objects deleted.");
+        RunReport report = service.clearGoalMap(filter(), options.deadline());
+        if (!report.isComplete()) {
+            logger.warn("Deadline reached: {} astral objects deleted, {} left.",
+                    report.completed(), report.remaining().size());
+        }
+        RunReports.warnFailures(logger, report, service.getDeadLetters().getPath());
+        if (report.isSuccessful()) {
+            logger.info("All astral objects deleted.");
+        }
+    }
+
+    /**
+     * @return The filter selecting the cells matching every given option
+     */
+    public CellFilter filter() {
+        CellFilter filter = CellFilter.all();
+        if (from != null || to != null) {
+            GridPoint first = from != null ? from : new GridPoint(0, 0);
+            GridPoint last = to != null ? to : new GridPoint(Integer.MAX_VALUE, Integer.MAX_VALUE);
+            filter = filter.and(CellFilter.region(first.row(), first.col(), last.row(), last.col()));
+        }
+        if (type != null) {
+            filter = filter.and(CellFilter.anyOf(type.cells));
+        }
+        if (color != null) {
+            filter = filter.and(CellFilter.anyOf(EnumSet.of(GridCell.of(color))));
+        }
+        if (direction != null) {
+            filter = filter.and(CellFilter.anyOf(EnumSet.of(GridCell.of(direction))));
+        }
+        if (notInGoal) {
+            filter = filter.and(CellFilter.notIn(CellGrid.of(service.getGoalMap())));
+        }
+        return filter;
     }
 
 }
@@ -0,0 +1,56 @@
+package com.crossmint.challenge.commands.snapshot;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.snapshot.GridSnapshotCodec;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Parameters;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+@Component
+@Command(name = "export", description = "Export the goal or the current map to a binary snapshot file.",
+        mixinStandardHelpOptions = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportCommand implements Runnable {
+
+    /**
+     * The grids that can be exported.
+     */
+    public enum Source { GOAL, MAP }
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportCommand.class);
+
+    @Parameters(index = "0", description = "The grid to export (GOAL, MAP)")
+    private Source source;
+
+    @Parameters(index = "1", description = "The snapshot file to write")
+    private Path file;
+
+    @Autowired
+    private AstralObjectService service;
+
+    @Override
+    public void run() {
+        logger.info("Exporting {} to {}...", source, file);
+        CellGrid grid = source == Source.GOAL ? CellGrid.of(service.getGoalMap()) : service.fetchCurrentGrid();
+        try {
+            GridSnapshotCodec.write(file, service.getCandidateId(), grid, Instant.now());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot " + file, e);
+        }
+        logger.info("Exported {}x{} {} to {}.", grid.getRows(), grid.getCols(), source, file);
+    }
+}
@@ -0,0 +1,66 @@
+package com.crossmint.challenge.commands.snapshot;
+
+import com.crossmint.challenge.commands.BulkRunOptions;
+import com.crossmint.challenge.commands.RunReports;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.RunReport;
+import com.crossmint.challenge.snapshot.GridSnapshot;
+import com.crossmint.challenge.snapshot.GridSnapshotCodec;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Parameters;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+@Component
+@Command(name = "import", description = "Replicate a binary snapshot file onto the current map.",
+        mixinStandardHelpOptions = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportCommand implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportCommand.class);
+
+    @Parameters(index = "0", description = "The snapshot file to import")
+    private Path file;
+
+    @Autowired
+    private AstralObjectService service;
+
+    @Mixin
+    @Builder.Default
+    private BulkRunOptions options = new BulkRunOptions();
+
+    @Override
+    public void run() {
+        GridSnapshot snapshot;
+        try {
+            snapshot = GridSnapshotCodec.read(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read snapshot " + file, e);
+        }
+        logger.info("Importing {}x{} snapshot of candidate {} taken at {}...",
+                snapshot.getRows(), snapshot.getCols(), snapshot.getCandidateId(), snapshot.getTimestamp());
+
+        // The service fetches the current map once and logs how many cells differ from the snapshot
+        RunReport report = service.replicateGoalMap(snapshot.toGoalMap(), options.deadline());
+        if (!report.isComplete()) {
+            logger.warn("Deadline reached: {} operations performed, {} left.",
+                    report.completed(), report.remaining().size());
+        }
+        RunReports.warnFailures(logger, report, service.getDeadLetters().getPath());
+        if (report.isSuccessful()) {
+            logger.info("Snapshot imported.");
+        }
+    }
+}
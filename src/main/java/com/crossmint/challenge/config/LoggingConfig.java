@@ -0,0 +1,102 @@
+package com.crossmint.challenge.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.crossmint.challenge.service.logging.JsonLogEncoder;
+import com.crossmint.challenge.service.logging.OperationLogSampler;
+import com.crossmint.challenge.service.logging.RingBufferAppender;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the console appender of Spring Boot according to the logging properties: plain text
+ * or JSON Lines, written directly or through a {@link RingBufferAppender}, with the
+ * per-operation logs thinned out by an {@link OperationLogSampler}.
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Value("${crossmint.logging.format:text}")
+    private String format;
+
+    @Value("${crossmint.logging.async:false}")
+    private boolean async;
+
+    @Value("${crossmint.logging.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${crossmint.logging.operations.sample-every:1}")
+    private int sampleEvery;
+
+    @Value("${crossmint.logging.operations.max-per-second:0}")
+    private int maxPerSecond;
+
+    private ch.qos.logback.classic.Logger root;
+    private Appender<ILoggingEvent> console;
+    private RingBufferAppender ringBuffer;
+
+    @PostConstruct
+    public void configureConsole() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        Appender<ILoggingEvent> springConsole = root.getAppender("CONSOLE");
+        console = switch (format.toLowerCase()) {
+            case "text" -> springConsole != null ? springConsole
+                    : consoleAppender(context, patternEncoder(context));
+            case "json" -> consoleAppender(context, new JsonLogEncoder());
+            default -> throw new IllegalArgumentException("Unknown logging format: " + format
+                    + " (expected text or json)");
+        };
+        Appender<ILoggingEvent> appender = console;
+        if (async) {
+            ringBuffer = new RingBufferAppender(console, bufferSize);
+            ringBuffer.setContext(context);
+            ringBuffer.start();
+            appender = ringBuffer;
+        }
+        OperationLogSampler sampler = new OperationLogSampler(sampleEvery, maxPerSecond);
+        sampler.start();
+        appender.addFilter(sampler);
+        if (appender != springConsole) {
+            root.detachAppender(springConsole);
+            root.addAppender(appender);
+        }
+    }
+
+    // Writes out the buffered events, and hands the console back for the logs of the shutdown
+    @PreDestroy
+    public void flush() {
+        if (ringBuffer != null) {
+            root.addAppender(console);
+            root.detachAppender(ringBuffer);
+            ringBuffer.stop();
+        }
+    }
+
+    private static ConsoleAppender<ILoggingEvent> consoleAppender(LoggerContext context,
+                                                                  Encoder<ILoggingEvent> encoder) {
+        encoder.setContext(context);
+        encoder.start();
+        ConsoleAppender<ILoggingEvent> appender = new ConsoleAppender<>();
+        appender.setContext(context);
+        appender.setName("CROSSMINT_CONSOLE");
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private static PatternLayoutEncoder patternEncoder(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} %-5level [%thread] %logger{36} - %msg%n");
+        return encoder;
+    }
+}
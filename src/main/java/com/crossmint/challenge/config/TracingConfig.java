@@ -0,0 +1,62 @@
+package com.crossmint.challenge.config;
+
+import com.crossmint.challenge.service.tracing.JsonLinesSpanExporter;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class TracingConfig {
+    private static final Logger logger = LoggerFactory.getLogger(TracingConfig.class);
+
+    @Value("${crossmint.tracing.exporter:none}")
+    private String exporter;
+
+    @Value("${crossmint.tracing.otlp-endpoint:http://localhost:4318/v1/traces}")
+    private String otlpEndpoint;
+
+    @Value("${crossmint.tracing.file:traces.jsonl}")
+    private String file;
+
+    // The SDK is closed with the application context, which flushes the pending spans
+    @Bean
+    public OpenTelemetry openTelemetry() {
+        SpanExporter spanExporter = switch (exporter.toLowerCase()) {
+            case "none" -> null;
+            case "otlp" -> OtlpHttpSpanExporter.builder().setEndpoint(otlpEndpoint).build();
+            case "file" -> new JsonLinesSpanExporter(Path.of(file));
+            default -> throw new IllegalArgumentException("Unknown tracing exporter: " + exporter
+                    + " (expected none, otlp or file)");
+        };
+        if (spanExporter == null) {
+            return OpenTelemetry.noop();
+        }
+        logger.info("Exporting traces to {}", exporter.equalsIgnoreCase("otlp") ? otlpEndpoint : file);
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder()
+                        .setResource(Resource.getDefault().merge(Resource.create(
+                                Attributes.of(AttributeKey.stringKey("service.name"), "crossmint-challenge"))))
+                        .addSpanProcessor(BatchSpanProcessor.builder(spanExporter).build())
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer("crossmint-challenge");
+    }
+}
@@ -1,5 +1,16 @@
 package com.crossmint.challenge.config;
 
+import com.crossmint.challenge.service.ratelimit.SharedRateLimitFilter;
+import com.crossmint.challenge.service.ratelimit.SharedRateLimiter;
+import com.crossmint.challenge.service.retry.RetryBudget;
+import com.crossmint.challenge.service.transport.CachingTransport;
+import com.crossmint.challenge.service.transport.HedgingTransport;
+import com.crossmint.challenge.service.transport.HttpTransport;
+import com.crossmint.challenge.service.transport.JdkHttpTransport;
+import com.crossmint.challenge.service.transport.LoadBalancedTransport;
+import com.crossmint.challenge.service.transport.WebClientTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,20 +18,134 @@ import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
 @Configuration
 public class WebClientConfig {
+    private static final Logger logger = LoggerFactory.getLogger(WebClientConfig.class);
 
     @Value("${crossmint.api.base-url}")
-    private String baseUrl;
+    private String baseUrls;
+
+    @Value("${crossmint.http.transport:reactor-netty}")
+    private String transport;
+
+    @Value("${crossmint.rate-limit.shared-file:}")
+    private String sharedRateLimitFile;
+
+    @Value("${crossmint.rate-limit.requests-per-second:2}")
+    private double sharedRequestsPerSecond;
+
+    @Value("${crossmint.rate-limit.burst:1}")
+    private int sharedBurst;
+
+    @Value("${crossmint.load-balancing.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${crossmint.load-balancing.ejection-seconds:30}")
+    private int ejectionSeconds;
+
+    @Value("${crossmint.hedging.enabled:false}")
+    private boolean hedging;
+
+    @Value("${crossmint.hedging.percentile:95}")
+    private double hedgingPercentile;
+
+    @Value("${crossmint.hedging.initial-delay-ms:1000}")
+    private long hedgingInitialDelayMillis;
+
+    @Value("${crossmint.hedging.budget-percent:5}")
+    private double hedgingBudgetPercent;
+
+    @Value("${crossmint.http.cache.enabled:false}")
+    private boolean cache;
+
+    @Value("${crossmint.http.cache.ttl-ms:2000}")
+    private long cacheTimeToLiveMillis;
+
+    @Value("${crossmint.request.timeout-seconds:30}")
+    private int requestTimeoutSeconds;
 
     @Bean
-    public WebClient webClient() {
+    public HttpTransport httpTransport() {
+        HttpTransport hedged = hedgedTransport();
+        if (!cache) {
+            return hedged;
+        }
+        logger.info("Concurrent GETs merged, responses cached for {} ms", cacheTimeToLiveMillis);
+        return new CachingTransport(hedged, Duration.ofMillis(cacheTimeToLiveMillis),
+                Duration.ofSeconds(requestTimeoutSeconds));
+    }
+
+    private HttpTransport hedgedTransport() {
+        HttpTransport balanced = balancedTransport();
+        if (!hedging) {
+            return balanced;
+        }
+        logger.info("GET and DELETE requests hedged after their p{} latency, within {}% of the traffic",
+                hedgingPercentile, hedgingBudgetPercent);
+        // A single hedge per window is always allowed, so that the one-off map and goal fetches can be hedged
+        return new HedgingTransport(balanced, hedgingPercentile, Duration.ofMillis(hedgingInitialDelayMillis),
+                new RetryBudget(hedgingBudgetPercent, Duration.ofSeconds(10), 1));
+    }
+
+    private HttpTransport balancedTransport() {
+        SharedRateLimiter limiter = sharedRateLimiter();
+        List<String> urls = Arrays.stream(baseUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        if (urls.size() == 1) {
+            return httpTransport(urls.getFirst(), limiter);
+        }
+        List<LoadBalancedTransport.Endpoint> endpoints = urls.stream()
+                .map(url -> new LoadBalancedTransport.Endpoint(url, httpTransport(url, limiter)))
+                .toList();
+        logger.info("Requests balanced over {} endpoints: {}", urls.size(), urls);
+        return new LoadBalancedTransport(endpoints, failureThreshold, Duration.ofSeconds(ejectionSeconds));
+    }
+
+    private HttpTransport httpTransport(String baseUrl, SharedRateLimiter limiter) {
+        return switch (transport.toLowerCase()) {
+            case "reactor-netty" -> new WebClientTransport(webClient(baseUrl, limiter));
+            case "jdk" -> new JdkHttpTransport(baseUrl, Duration.ofSeconds(10), limiter);
+            default -> throw new IllegalArgumentException("Unknown HTTP transport: " + transport
+                    + " (expected reactor-netty or jdk)");
+        };
+    }
+
+    private WebClient webClient(String baseUrl, SharedRateLimiter limiter) {
         HttpClient httpClient = HttpClient.create()
                 .followRedirect(true);
 
-        return WebClient.builder()
+        WebClient.Builder builder = WebClient.builder()
                 .baseUrl(baseUrl)
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .build();
+                .clientConnector(new ReactorClientHttpConnector(httpClient));
+        if (limiter != null) {
+            builder.filter(new SharedRateLimitFilter(limiter));
+        }
+        return builder.build();
+    }
+
+    // A null bean when disabled: the bulkheads then don't pace by it
+    @Bean
+    public SharedRateLimiter sharedRateLimiter() {
+        if (sharedRateLimitFile.isBlank()) {
+            return null;
+        }
+        try {
+            SharedRateLimiter limiter = new SharedRateLimiter(Path.of(sharedRateLimitFile), sharedRequestsPerSecond,
+                    sharedBurst);
+            logger.info("Requests limited to {}/s across processes through {}", sharedRequestsPerSecond,
+                    sharedRateLimitFile);
+            return limiter;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map shared rate limiter " + sharedRateLimitFile, e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,11 @@ package com.crossmint.challenge.model;
 
 import lombok.experimental.UtilityClass;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 /**
  * Utility class for parsing goal map data into astral object entities.
@@ -19,12 +21,27 @@ import java.util.Set;
 @UtilityClass
 public class AstralObjectParser {
 
+    /**
+     * Grids with fewer cells than this are parsed on the calling thread, since
+     * splitting them across the fork/join pool costs more than it saves.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Target number of cells handled by a single row band.
+     */
+    private static final int CELLS_PER_BAND = 1 << 14;
+
     /**
      * Parses a 2D grid of string types into a set of astral objects. This is especially
      * handy when we want to parse the current grid from the /map API.
      * <p>
      * This method processes each cell in the grid, creating the appropriate astral
      * object based on the type string. Cells containing "SPACE" are ignored.
+     * Tokens are resolved through the precomputed {@link GridCell} table, and large
+     * grids are split into row bands parsed on the common fork/join pool. Each band
+     * collects into its own list, so bands never contend with each other and are
+     * only merged once all of them are done.
      * <p>
      * IMPORTANT: This method assumes that all rows have the same number of columns
      * as the first row.
@@ -40,42 +57,58 @@ public class AstralObjectParser {
             throw new IllegalStateException("Invalid goal response: Empty grid received");
         }
 
-        Set<ApiSerializable> astralObjects = new HashSet<>();
-
-        for (int i = 0; i < goal.size(); i++) {
-            for (int j = 0; j < goal.getFirst().size(); j++) {
-                String type = goal.get(i).get(j);
+        int rows = goal.size();
+        int cols = goal.getFirst().size();
+        long cells = (long) rows * cols;
 
-                if (!type.equals("SPACE")) {
-                    astralObjects.add(AstralObjectParser.createAstralObject(type, i, j));
-                }
-            }
+        if (cells < PARALLEL_THRESHOLD) {
+            List<ApiSerializable> objects = new ArrayList<>();
+            parseBand(goal, 0, rows, cols, objects);
+            return new HashSet<>(objects);
         }
 
+        int rowsPerBand = Math.max(1, CELLS_PER_BAND / cols);
+        int bandCount = (rows + rowsPerBand - 1) / rowsPerBand;
+        @SuppressWarnings("unchecked")
+        List<ApiSerializable>[] bands = new List[bandCount];
+
+        IntStream.range(0, bandCount).parallel().forEach(band -> {
+            int from = band * rowsPerBand;
+            List<ApiSerializable> objects = new ArrayList<>();
+            parseBand(goal, from, Math.min(rows, from + rowsPerBand), cols, objects);
+            bands[band] = objects;
+        });
+
+        int total = 0;
+        for (List<ApiSerializable> band : bands) {
+            total += band.size();
+        }
+        Set<ApiSerializable> astralObjects = HashSet.newHashSet(total);
+        for (List<ApiSerializable> band : bands) {
+            astralObjects.addAll(band);
+        }
         return astralObjects;
     }
 
     /**
-     * Creates a specific astral object instance based on its type string.
-     * <p>
-     * This method matches the type string to the appropriate astral object class
-     * and constructs an instance with the given coordinates and any type-specific
-     * properties (like direction for Cometh or color for Soloon).
+     * Parses the rows in [fromRow, toRow) and appends the non-empty cells to the given list.
      *
-     * @param type The string identifying the type of astral object
-     * @param row The row coordinate in the grid
-     * @param col The column coordinate in the grid
-     * @return A concrete astral object instance implementing the ApiSerializable interface
-     * @throws IllegalArgumentException if the type string doesn't match any known astral object
+     * @param goal The grid being parsed
+     * @param fromRow The first row of the band (inclusive)
+     * @param toRow The last row of the band (exclusive)
+     * @param cols The number of columns to read from each row
+     * @param out The list receiving the parsed astral objects
      */
-    private static ApiSerializable createAstralObject(String type, int row, int col) {
-        return switch (type) {
-            case "POLYANET" -> new Polyanet(row, col);
-            case "UP_COMETH", "DOWN_COMETH", "LEFT_COMETH", "RIGHT_COMETH" ->
-                    new Cometh(row, col, ComethDirection.fromString(type.replace("_COMETH", "").toLowerCase()));
-            case "WHITE_SOLOON", "BLUE_SOLOON", "RED_SOLOON", "PURPLE_SOLOON" ->
-                    new Soloon(row, col, SoloonColor.fromString(type.replace("_SOLOON", "").toLowerCase()));
-            default -> throw new IllegalArgumentException("Unknown astral object: " + type);
-        };
+    private static void parseBand(List<List<String>> goal, int fromRow, int toRow, int cols,
+                                  List<ApiSerializable> out) {
+        for (int i = fromRow; i < toRow; i++) {
+            List<String> row = goal.get(i);
+            for (int j = 0; j < cols; j++) {
+                GridCell cell = GridCell.fromToken(row.get(j));
+                if (!cell.isEmpty()) {
+                    out.add(cell.toAstralObject(i, j));
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.crossmint.challenge.model;
+
+import java.util.Set;
+
+/**
+ * Selects grid cells by position and content, e.g. to restrict a bulk delete to a region
+ * or to one kind of astral object. Filters are evaluated cell by cell while the map is read,
+ * so they never need the whole map in memory.
+ */
+@FunctionalInterface
+public interface CellFilter {
+
+    /**
+     * @param row The row of the cell
+     * @param col The column of the cell
+     * @param cell The current content of the cell
+     * @return true if the cell is selected
+     */
+    boolean test(int row, int col, GridCell cell);
+
+    /**
+     * @param other Another filter
+     * @return A filter selecting the cells selected by both filters
+     */
+    default CellFilter and(CellFilter other) {
+        return (row, col, cell) -> test(row, col, cell) && other.test(row, col, cell);
+    }
+
+    /**
+     * @return A filter selecting every non-empty cell
+     */
+    static CellFilter all() {
+        return (row, col, cell) -> !cell.isEmpty();
+    }
+
+    /**
+     * @param top The first row of the region
+     * @param left The first column of the region
+     * @param bottom The last row of the region, inclusive
+     * @param right The last column of the region, inclusive
+     * @return A filter selecting the cells inside the region
+     */
+    static CellFilter region(int top, int left, int bottom, int right) {
+        return (row, col, cell) -> row >= top && row <= bottom && col >= left && col <= right;
+    }
+
+    /**
+     * @param cells The cell values to select
+     * @return A filter selecting the cells holding one of the given values
+     */
+    static CellFilter anyOf(Set<GridCell> cells) {
+        return (row, col, cell) -> cells.contains(cell);
+    }
+
+    /**
+     * @param goal The goal grid
+     * @return A filter selecting the non-empty cells that don't match the goal, including
+     * cells lying outside of it
+     */
+    static CellFilter notIn(CellGrid goal) {
+        return (row, col, cell) -> !cell.isEmpty()
+                && (row >= goal.getRows() || col >= goal.getCols() || goal.get(row, col) != cell);
+    }
+}
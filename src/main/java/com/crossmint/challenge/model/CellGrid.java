@@ -0,0 +1,99 @@
+package com.crossmint.challenge.model;
+
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Dense, byte-encoded view of a grid, one {@link GridCell#code()} per cell in row-major order.
+ * <p>
+ * This is the compact counterpart of {@link GoalMap}: it costs one byte per cell instead of
+ * one object per astral object, which makes it the natural format for snapshots and for
+ * comparing large grids.
+ */
+public final class CellGrid {
+
+    private static final byte SPACE = GridCell.SPACE.code();
+
+    private final byte[] cells;
+
+    @Getter
+    private final int rows;
+
+    @Getter
+    private final int cols;
+
+    /**
+     * Creates an empty grid where every cell is {@link GridCell#SPACE}.
+     *
+     * @param rows The number of rows
+     * @param cols The number of columns
+     */
+    public CellGrid(int rows, int cols) {
+        this(rows, cols, new byte[Math.multiplyExact(rows, cols)]);
+    }
+
+    /**
+     * Wraps an existing row-major array of cell codes. The array is not copied.
+     *
+     * @param rows The number of rows
+     * @param cols The number of columns
+     * @param cells The cell codes, of length rows * cols
+     * @throws IllegalArgumentException if the dimensions don't match the array length
+     */
+    public CellGrid(int rows, int cols, byte[] cells) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols != cells.length) {
+            throw new IllegalArgumentException("Invalid grid dimensions " + rows + "x" + cols
+                    + " for " + cells.length + " cells");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = cells;
+    }
+
+    /**
+     * @return The backing row-major array of cell codes (not a copy)
+     */
+    public byte[] cells() {
+        return cells;
+    }
+
+    public GridCell get(int row, int col) {
+        return GridCell.fromCode(cells[row * cols + col]);
+    }
+
+    public void set(int row, int col, GridCell cell) {
+        cells[row * cols + col] = cell.code();
+    }
+
+    /**
+     * Builds a grid from the astral objects of a goal map.
+     *
+     * @param goalMap The goal map to encode
+     * @return The byte-encoded grid
+     */
+    public static CellGrid of(GoalMap goalMap) {
+        CellGrid grid = new CellGrid(goalMap.rows(), goalMap.cols());
+        for (ApiSerializable astralObject : goalMap.astralObjects()) {
+            AstralObject position = (AstralObject) astralObject;
+            grid.set(position.getRow(), position.getColumn(), GridCell.of(astralObject));
+        }
+        return grid;
+    }
+
+    /**
+     * Converts this grid back into a goal map holding one astral object per non-empty cell.
+     *
+     * @return The equivalent goal map
+     */
+    public GoalMap toGoalMap() {
+        Set<ApiSerializable> astralObjects = new HashSet<>();
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != SPACE) {
+                astralObjects.add(GridCell.fromCode(cells[i]).toAstralObject(i / cols, i % cols));
+            }
+        }
+        return new GoalMap(rows, cols, astralObjects);
+    }
+}
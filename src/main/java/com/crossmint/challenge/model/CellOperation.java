@@ -0,0 +1,45 @@
+package com.crossmint.challenge.model;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * A single API operation on one cell of the map, e.g. creating a Polyanet or deleting
+ * whatever occupies a cell.
+ *
+ * @param target The astral object the operation is about
+ * @param method The HTTP method to perform (POST for creation, DELETE for removal)
+ * @param ontoEmptyCell true if the planner knows the cell is empty when the operation runs, so
+ *                      that a later deletion of the same object just undoes it
+ */
+public record CellOperation(ApiSerializable target, HttpMethod method, boolean ontoEmptyCell) {
+
+    /**
+     * Creates an operation on a cell whose state isn't known.
+     *
+     * @param target The astral object the operation is about
+     * @param method The HTTP method to perform (POST for creation, DELETE for removal)
+     */
+    public CellOperation(ApiSerializable target, HttpMethod method) {
+        this(target, method, false);
+    }
+
+    public int row() {
+        return ((AstralObject) target).getRow();
+    }
+
+    public int column() {
+        return ((AstralObject) target).getColumn();
+    }
+
+    /**
+     * @return A key identifying the cell the operation touches, equal for all operations on that cell
+     */
+    public long cellKey() {
+        return (long) row() << Integer.SIZE | Integer.toUnsignedLong(column());
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + target.getCreationPath() + " (" + row() + ", " + column() + ")";
+    }
+}
@@ -2,8 +2,6 @@ package com.crossmint.challenge.model;
 
 import lombok.Getter;
 
-import java.util.Arrays;
-
 @Getter
 public enum ComethDirection {
     UP("up"),
@@ -11,6 +9,8 @@ public enum ComethDirection {
     LEFT("left"),
     RIGHT("right");
 
+    private static final ComethDirection[] VALUES = values();
+
     private final String apiValue;
 
     ComethDirection(String apiValue) {
@@ -18,9 +18,11 @@ public enum ComethDirection {
     }
 
     public static ComethDirection fromString(String value) {
-        return Arrays.stream(ComethDirection.values())
-                .filter(dir -> dir.apiValue.equalsIgnoreCase(value))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Invalid Cometh direction: " + value));
+        for (ComethDirection direction : VALUES) {
+            if (direction.apiValue.equalsIgnoreCase(value)) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException("Invalid Cometh direction: " + value);
     }
 }
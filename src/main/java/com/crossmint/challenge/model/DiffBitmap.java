@@ -0,0 +1,126 @@
+package com.crossmint.challenge.model;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * One bit per cell of a grid, in row-major order, set for the cells where two grids differ.
+ * <p>
+ * It costs one bit per cell, and walking it skips 64 matching cells at a time, so listing the
+ * few differences of a large, mostly replicated map never touches the cells that match.
+ */
+public final class DiffBitmap {
+
+    private final long[] words;
+    private final int size;
+
+    /**
+     * @param size The number of cells, all initially matching
+     */
+    DiffBitmap(int size) {
+        this.size = size;
+        this.words = new long[(size + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /**
+     * @return The number of cells the bitmap covers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index The row-major index of a cell
+     * @return true if the cell differs
+     */
+    public boolean get(int index) {
+        return (words[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * @return The number of cells that differ
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return true if the grids match
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param from The index to start from
+     * @return The index of the first differing cell at or after {@code from}, or -1 if there's none
+     */
+    public int nextSetBit(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = words[word] & -1L << from;
+        while (bits == 0) {
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+        return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * @return The indices of the differing cells, in ascending order
+     */
+    public IntStream stream() {
+        PrimitiveIterator.OfInt iterator = new PrimitiveIterator.OfInt() {
+            private int next = nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                int current = next;
+                next = nextSetBit(current + 1);
+                return current;
+            }
+        };
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Sets the bits of up to 64 consecutive cells at once.
+     *
+     * @param index The index of the first cell
+     * @param bits The bits to set, bit i standing for cell {@code index + i}
+     */
+    void set(int index, long bits) {
+        int word = index >>> 6;
+        int shift = index & 63;
+        words[word] |= bits << shift;
+        if (shift != 0 && word + 1 < words.length) {
+            words[word + 1] |= bits >>> (Long.SIZE - shift);
+        }
+    }
+}
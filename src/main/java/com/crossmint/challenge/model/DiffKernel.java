@@ -0,0 +1,53 @@
+package com.crossmint.challenge.model;
+
+/**
+ * Compares runs of byte-encoded cells and marks the ones that differ in a {@link DiffBitmap}.
+ * <p>
+ * Two implementations exist: {@link VectorDiffKernel} compares a whole SIMD register of cells
+ * per instruction, but is only built by the {@code vector} Maven profile and needs the incubating
+ * {@code jdk.incubator.vector} module at run time ({@code --add-modules jdk.incubator.vector});
+ * {@link ScalarDiffKernel} is the default.
+ */
+interface DiffKernel {
+
+    /**
+     * Marks the cells where {@code a[aFrom + i] != b[bFrom + i]} as cells {@code outFrom + i}.
+     *
+     * @param a The cells of a grid
+     * @param aFrom The index of the first cell of {@code a} to compare
+     * @param b The cells of another grid
+     * @param bFrom The index of the first cell of {@code b} to compare
+     * @param length The number of cells to compare
+     * @param out The bitmap the differences are marked in
+     * @param outFrom The index of the first cell in the bitmap
+     */
+    void compare(byte[] a, int aFrom, byte[] b, int bFrom, int length, DiffBitmap out, int outFrom);
+
+    /**
+     * Marks the cells where {@code a[aFrom + i] != value} as cells {@code outFrom + i}.
+     *
+     * @param a The cells of a grid
+     * @param aFrom The index of the first cell of {@code a} to compare
+     * @param value The cell code every cell is compared to
+     * @param length The number of cells to compare
+     * @param out The bitmap the differences are marked in
+     * @param outFrom The index of the first cell in the bitmap
+     */
+    void compare(byte[] a, int aFrom, byte value, int length, DiffBitmap out, int outFrom);
+
+    /**
+     * @return The vector kernel when the Vector API is available, else the scalar one
+     */
+    static DiffKernel select() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Loaded by name: the class is missing from default builds, and can't be linked without the module
+                return (DiffKernel) Class.forName("com.crossmint.challenge.model.VectorDiffKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarDiffKernel();
+            }
+        }
+        return new ScalarDiffKernel();
+    }
+}
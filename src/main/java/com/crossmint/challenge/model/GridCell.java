@@ -0,0 +1,173 @@
+package com.crossmint.challenge.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enumerates every value a single grid cell can take, together with the goal token
+ * used by the API and a compact byte code.
+ * <p>
+ * The token table is built once, so looking up a cell does not allocate any
+ * intermediate string. The byte code is the ordinal of the constant and is stable
+ * as long as new constants are only appended.
+ */
+public enum GridCell {
+    SPACE,
+    POLYANET,
+    WHITE_SOLOON,
+    BLUE_SOLOON,
+    RED_SOLOON,
+    PURPLE_SOLOON,
+    UP_COMETH,
+    DOWN_COMETH,
+    LEFT_COMETH,
+    RIGHT_COMETH;
+
+    private static final GridCell[] BY_CODE = values();
+    private static final Map<String, GridCell> BY_TOKEN = new HashMap<>();
+
+    static {
+        for (GridCell cell : BY_CODE) {
+            BY_TOKEN.put(cell.name(), cell);
+        }
+    }
+
+    /**
+     * @return The byte code of this cell
+     */
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * @return true if this cell holds no astral object
+     */
+    public boolean isEmpty() {
+        return this == SPACE;
+    }
+
+    /**
+     * Resolves a goal token (e.g. "BLUE_SOLOON") to its cell value.
+     *
+     * @param token The goal token returned by the API
+     * @return The matching cell value
+     * @throws IllegalArgumentException if the token doesn't match any known astral object
+     */
+    public static GridCell fromToken(String token) {
+        GridCell cell = BY_TOKEN.get(token);
+        if (cell == null) {
+            throw new IllegalArgumentException("Unknown astral object: " + token);
+        }
+        return cell;
+    }
+
+    /**
+     * Resolves a byte code back to its cell value.
+     *
+     * @param code The byte code previously returned by {@link #code()}
+     * @return The matching cell value
+     * @throws IllegalArgumentException if the code is out of range
+     */
+    public static GridCell fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown cell code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Resolves the cell value of an existing astral object.
+     *
+     * @param astralObject The astral object to classify
+     * @return The cell value describing the object
+     * @throws IllegalArgumentException if the object type isn't known
+     */
+    public static GridCell of(ApiSerializable astralObject) {
+        return switch (astralObject) {
+            case Polyanet ignored -> POLYANET;
+            case Soloon soloon -> of(soloon.getColor());
+            case Cometh cometh -> of(cometh.getDirection());
+            default -> throw new IllegalArgumentException("Unknown astral object: " + astralObject);
+        };
+    }
+
+    /**
+     * @param color The color of a Soloon
+     * @return The cell value of a Soloon with that color
+     */
+    public static GridCell of(SoloonColor color) {
+        return switch (color) {
+            case WHITE -> WHITE_SOLOON;
+            case BLUE -> BLUE_SOLOON;
+            case RED -> RED_SOLOON;
+            case PURPLE -> PURPLE_SOLOON;
+        };
+    }
+
+    /**
+     * @param direction The direction of a Cometh
+     * @return The cell value of a Cometh facing that direction
+     */
+    public static GridCell of(ComethDirection direction) {
+        return switch (direction) {
+            case UP -> UP_COMETH;
+            case DOWN -> DOWN_COMETH;
+            case LEFT -> LEFT_COMETH;
+            case RIGHT -> RIGHT_COMETH;
+        };
+    }
+
+    /**
+     * Resolves a cell of the /map API content into its cell value.
+     * <p>
+     * Empty cells are null. Non-empty cells are objects whose "type" is either the numeric
+     * API type (0 = Polyanet, 1 = Soloon, 2 = Cometh, with "color" or "direction" attributes)
+     * or a goal token such as "POLYANET".
+     *
+     * @param cell The raw cell as deserialized from the map response
+     * @return The matching cell value
+     * @throws IllegalArgumentException if the cell can't be recognized
+     */
+    public static GridCell fromMapCell(Object cell) {
+        if (cell == null) {
+            return SPACE;
+        }
+        if (cell instanceof Map<?, ?> attributes) {
+            Object type = attributes.get("type");
+            if (type instanceof String token) {
+                return fromToken(token);
+            }
+            if (type instanceof Number number) {
+                return switch (number.intValue()) {
+                    case 0 -> POLYANET;
+                    case 1 -> of(SoloonColor.fromString(String.valueOf(attributes.get("color"))));
+                    case 2 -> of(ComethDirection.fromString(String.valueOf(attributes.get("direction"))));
+                    default -> throw new IllegalArgumentException("Unknown map cell: " + cell);
+                };
+            }
+        }
+        throw new IllegalArgumentException("Unknown map cell: " + cell);
+    }
+
+    /**
+     * Creates the astral object this cell describes at the given coordinates.
+     *
+     * @param row The row coordinate in the grid
+     * @param col The column coordinate in the grid
+     * @return A concrete astral object, or null for {@link #SPACE}
+     */
+    public ApiSerializable toAstralObject(int row, int col) {
+        return switch (this) {
+            case SPACE -> null;
+            case POLYANET -> new Polyanet(row, col);
+            case WHITE_SOLOON -> new Soloon(row, col, SoloonColor.WHITE);
+            case BLUE_SOLOON -> new Soloon(row, col, SoloonColor.BLUE);
+            case RED_SOLOON -> new Soloon(row, col, SoloonColor.RED);
+            case PURPLE_SOLOON -> new Soloon(row, col, SoloonColor.PURPLE);
+            case UP_COMETH -> new Cometh(row, col, ComethDirection.UP);
+            case DOWN_COMETH -> new Cometh(row, col, ComethDirection.DOWN);
+            case LEFT_COMETH -> new Cometh(row, col, ComethDirection.LEFT);
+            case RIGHT_COMETH -> new Cometh(row, col, ComethDirection.RIGHT);
+        };
+    }
+}
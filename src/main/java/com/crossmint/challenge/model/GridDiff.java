@@ -0,0 +1,94 @@
+package com.crossmint.challenge.model;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpMethod;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Computes the operations turning the current map into a target grid.
+ * <p>
+ * The grids are compared as byte arrays by a {@link DiffKernel}, vectorized when the Vector API
+ * is available, into a {@link DiffBitmap} of the cells that differ; only those cells are then
+ * turned into operations.
+ */
+@UtilityClass
+public class GridDiff {
+
+    private static final DiffKernel KERNEL = DiffKernel.select();
+    private static final byte SPACE = GridCell.SPACE.code();
+
+    /**
+     * Marks the cells of the current map that don't match the target. Target cells outside the
+     * current map are ignored, and current cells outside the target must be empty to match.
+     *
+     * @param target The grid to replicate
+     * @param current The current state of the map
+     * @return One bit per cell of the current map, set where it differs from the target
+     */
+    public DiffBitmap differences(CellGrid target, CellGrid current) {
+        byte[] cells = current.cells();
+        int cols = current.getCols();
+        DiffBitmap differences = new DiffBitmap(cells.length);
+        if (target.getRows() == current.getRows() && target.getCols() == cols) {
+            KERNEL.compare(cells, 0, target.cells(), 0, cells.length, differences, 0);
+            return differences;
+        }
+        int rows = Math.min(current.getRows(), target.getRows());
+        int shared = Math.min(cols, target.getCols());
+        for (int row = 0; row < rows; row++) {
+            int from = row * cols;
+            KERNEL.compare(cells, from, target.cells(), row * target.getCols(), shared, differences, from);
+            KERNEL.compare(cells, from + shared, SPACE, cols - shared, differences, from + shared);
+        }
+        KERNEL.compare(cells, rows * cols, SPACE, cells.length - rows * cols, differences, rows * cols);
+        return differences;
+    }
+
+    /**
+     * Lists, in row-major order, the operations needed to make the current map match the target:
+     * objects the target doesn't have are deleted, missing objects are created, and objects of the
+     * wrong kind are deleted then re-created, the deletion always coming right before the creation.
+     * Cells that already match are left untouched, and target cells outside the current map are ignored.
+     *
+     * @param target The grid to replicate
+     * @param current The current state of the map
+     * @return The operations, generated lazily from the {@link #differences} of the grids
+     */
+    public Stream<CellOperation> operations(CellGrid target, CellGrid current) {
+        return operations(target, current, differences(target, current));
+    }
+
+    /**
+     * Like {@link #operations(CellGrid, CellGrid)}, from differences already computed, so that a
+     * plan streamed several times only compares the grids once.
+     *
+     * @param target The grid to replicate
+     * @param current The current state of the map
+     * @param differences The {@link #differences} of the grids
+     * @return The operations, lazily generated
+     */
+    public Stream<CellOperation> operations(CellGrid target, CellGrid current, DiffBitmap differences) {
+        byte[] cells = current.cells();
+        int cols = current.getCols();
+        return differences.stream()
+                .boxed()
+                .mapMulti((Integer i, Consumer<CellOperation> operations) -> {
+                    int row = i / cols, col = i % cols;
+                    // Delete on Polyanet works on any astral object
+                    if (cells[i] != SPACE) {
+                        operations.accept(new CellOperation(new Polyanet(row, col), HttpMethod.DELETE));
+                    }
+                    GridCell wanted = targetCell(target, row, col);
+                    // Either empty or deleted just before
+                    if (!wanted.isEmpty()) {
+                        operations.accept(new CellOperation(wanted.toAstralObject(row, col), HttpMethod.POST, true));
+                    }
+                });
+    }
+
+    private static GridCell targetCell(CellGrid target, int row, int col) {
+        return row < target.getRows() && col < target.getCols() ? target.get(row, col) : GridCell.SPACE;
+    }
+}
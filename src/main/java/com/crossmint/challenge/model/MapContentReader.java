@@ -0,0 +1,198 @@
+package com.crossmint.challenge.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Incrementally parses the body of the /map API as its chunks arrive, reporting each
+ * cell of {@code map.content} as soon as it is read.
+ * <p>
+ * Nothing but the attributes of the cell being read is kept in memory, so callers can
+ * filter or encode the map while it streams instead of deserializing the whole response
+ * into nested lists first.
+ * <p>
+ * IMPORTANT: Like {@link AstralObjectParser}, every row must have as many columns as the first one.
+ */
+public final class MapContentReader {
+
+    /**
+     * Receives the cells of the map in row-major order.
+     */
+    @FunctionalInterface
+    public interface CellConsumer {
+        void accept(int row, int col, GridCell cell);
+    }
+
+    private enum State { SEEK, CONTENT_START, CONTENT, ROW, CELL, DONE }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final CellConsumer consumer;
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+
+    private State state = State.SEEK;
+    // Reused for every object cell: the attributes are only read while the cell is resolved
+    private final Map<String, Object> attributes = new HashMap<>();
+    private String attribute;
+    private int nesting;
+    private int row;
+    private int col;
+    private int cols = -1;
+
+    /**
+     * @param consumer Receives every cell of the map
+     */
+    public MapContentReader(CellConsumer consumer) {
+        this.consumer = consumer;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create the map parser", e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Parses the next chunk of the response body. The buffer is fully consumed on return.
+     *
+     * @param chunk The next bytes of the body
+     * @throws IllegalStateException if the body isn't a valid map response
+     */
+    public void feed(ByteBuffer chunk) {
+        try {
+            feeder.feedInput(chunk);
+            drain();
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid response received from API", e);
+        }
+    }
+
+    /**
+     * Signals the end of the body.
+     *
+     * @throws IllegalStateException if the body didn't contain a complete, non-empty map
+     */
+    public void endOfInput() {
+        try {
+            feeder.endOfInput();
+            drain();
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid response received from API", e);
+        }
+        if (state != State.DONE) {
+            throw new IllegalStateException("Invalid response received from API");
+        }
+        if (row == 0 || cols == 0) {
+            throw new IllegalStateException("Invalid map response: Empty grid received");
+        }
+    }
+
+    /**
+     * @return The number of rows read so far
+     */
+    public int rows() {
+        return row;
+    }
+
+    /**
+     * @return The number of columns of the map, or -1 until the first row is read
+     */
+    public int cols() {
+        return cols;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            handle(token);
+        }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        switch (state) {
+            case SEEK -> {
+                if (token == JsonToken.FIELD_NAME && isMapContentField()) {
+                    state = State.CONTENT_START;
+                }
+            }
+            case CONTENT_START -> state = token == JsonToken.START_ARRAY ? State.CONTENT : State.SEEK;
+            case CONTENT -> {
+                if (token == JsonToken.START_ARRAY) {
+                    state = State.ROW;
+                } else if (token == JsonToken.END_ARRAY) {
+                    state = State.DONE;
+                } else {
+                    throw new IllegalStateException("Invalid map response: row " + row + " is not an array");
+                }
+            }
+            case ROW -> {
+                if (token == JsonToken.VALUE_NULL) {
+                    accept(GridCell.SPACE);
+                } else if (token == JsonToken.START_OBJECT) {
+                    attributes.clear();
+                    state = State.CELL;
+                } else if (token == JsonToken.END_ARRAY) {
+                    endRow();
+                } else {
+                    throw new IllegalArgumentException("Unknown map cell: " + parser.getText());
+                }
+            }
+            case CELL -> readAttribute(token);
+            case DONE -> {
+                // The rest of the response is irrelevant
+            }
+        }
+    }
+
+    private boolean isMapContentField() throws IOException {
+        // {"map": {"content": ...}}
+        JsonStreamContext map = parser.getParsingContext();
+        JsonStreamContext root = map.getParent();
+        return "content".equals(parser.currentName()) && map.inObject()
+                && root != null && root.inObject() && "map".equals(root.getCurrentName())
+                && root.getParent() != null && root.getParent().inRoot();
+    }
+
+    private void readAttribute(JsonToken token) throws IOException {
+        if (token.isStructStart()) {
+            nesting++;
+        } else if (token.isStructEnd() && nesting > 0) {
+            nesting--;
+        } else if (token == JsonToken.END_OBJECT) {
+            accept(GridCell.fromMapCell(attributes));
+            state = State.ROW;
+        } else if (nesting == 0 && token == JsonToken.FIELD_NAME) {
+            attribute = parser.currentName();
+        } else if (nesting == 0 && token.isScalarValue()) {
+            attributes.put(attribute, token.isNumeric() ? parser.getNumberValue() : parser.getText());
+        }
+    }
+
+    private void accept(GridCell cell) {
+        if (cols >= 0 && col >= cols) {
+            throw new IllegalStateException("Invalid map response: row " + row + " has more than " + cols + " cols");
+        }
+        consumer.accept(row, col++, cell);
+    }
+
+    private void endRow() {
+        if (cols < 0) {
+            cols = col;
+        } else if (col != cols) {
+            throw new IllegalStateException("Invalid map response: row " + row + " has " + col
+                    + " cols instead of " + cols);
+        }
+        row++;
+        col = 0;
+        state = State.CONTENT;
+    }
+}
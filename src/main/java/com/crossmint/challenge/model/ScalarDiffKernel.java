@@ -0,0 +1,56 @@
+package com.crossmint.challenge.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Compares cells 8 at a time as longs, and only looks at the individual cells of the longs
+ * that differ: a matching stretch of the map costs one comparison per 8 cells.
+ */
+final class ScalarDiffKernel implements DiffKernel {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+    private static final long BROADCAST = 0x0101010101010101L;
+
+    @Override
+    public void compare(byte[] a, int aFrom, byte[] b, int bFrom, int length, DiffBitmap out, int outFrom) {
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            if ((long) LONGS.get(a, aFrom + i) != (long) LONGS.get(b, bFrom + i)) {
+                compareBytes(a, aFrom + i, b, bFrom + i, Long.BYTES, out, outFrom + i);
+            }
+        }
+        compareBytes(a, aFrom + i, b, bFrom + i, length - i, out, outFrom + i);
+    }
+
+    @Override
+    public void compare(byte[] a, int aFrom, byte value, int length, DiffBitmap out, int outFrom) {
+        long pattern = (value & 0xFF) * BROADCAST;
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            if ((long) LONGS.get(a, aFrom + i) != pattern) {
+                compareBytes(a, aFrom + i, value, Long.BYTES, out, outFrom + i);
+            }
+        }
+        compareBytes(a, aFrom + i, value, length - i, out, outFrom + i);
+    }
+
+    private static void compareBytes(byte[] a, int aFrom, byte[] b, int bFrom, int length, DiffBitmap out,
+                                     int outFrom) {
+        for (int i = 0; i < length; i++) {
+            if (a[aFrom + i] != b[bFrom + i]) {
+                out.set(outFrom + i);
+            }
+        }
+    }
+
+    private static void compareBytes(byte[] a, int aFrom, byte value, int length, DiffBitmap out, int outFrom) {
+        for (int i = 0; i < length; i++) {
+            if (a[aFrom + i] != value) {
+                out.set(outFrom + i);
+            }
+        }
+    }
+}
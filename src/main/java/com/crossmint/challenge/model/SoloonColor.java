@@ -2,8 +2,6 @@ package com.crossmint.challenge.model;
 
 import lombok.Getter;
 
-import java.util.Arrays;
-
 @Getter
 public enum SoloonColor {
     WHITE("white"),
@@ -11,6 +9,8 @@ public enum SoloonColor {
     RED("red"),
     PURPLE("purple");
 
+    private static final SoloonColor[] VALUES = values();
+
     private final String apiValue;
 
     SoloonColor(String apiValue) {
@@ -18,9 +18,12 @@ public enum SoloonColor {
     }
 
     public static SoloonColor fromString(String value) {
-        return Arrays.stream(SoloonColor.values())
-                .filter(color -> color.apiValue.equalsIgnoreCase(value))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Invalid Soloon color: " + value));
+        // Called for every cell of the map: no stream, and no copy of values()
+        for (SoloonColor color : VALUES) {
+            if (color.apiValue.equalsIgnoreCase(value)) {
+                return color;
+            }
+        }
+        throw new IllegalArgumentException("Invalid Soloon color: " + value);
     }
 }
@@ -0,0 +1,46 @@
+package com.crossmint.challenge.model;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Compares a full vector of cells per step with the Vector API, and turns the lane mask of the
+ * comparison straight into bitmap bits. The tail shorter than a vector goes through the
+ * {@link ScalarDiffKernel}.
+ * <p>
+ * Bytes have at most 64 lanes (512-bit vectors), so a mask always fits in one long.
+ */
+final class VectorDiffKernel implements DiffKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final ScalarDiffKernel TAIL = new ScalarDiffKernel();
+
+    @Override
+    public void compare(byte[] a, int aFrom, byte[] b, int bFrom, int length, DiffBitmap out, int outFrom) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            long bits = ByteVector.fromArray(SPECIES, a, aFrom + i)
+                    .compare(VectorOperators.NE, ByteVector.fromArray(SPECIES, b, bFrom + i))
+                    .toLong();
+            if (bits != 0) {
+                out.set(outFrom + i, bits);
+            }
+        }
+        TAIL.compare(a, aFrom + i, b, bFrom + i, length - i, out, outFrom + i);
+    }
+
+    @Override
+    public void compare(byte[] a, int aFrom, byte value, int length, DiffBitmap out, int outFrom) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            long bits = ByteVector.fromArray(SPECIES, a, aFrom + i).compare(VectorOperators.NE, value).toLong();
+            if (bits != 0) {
+                out.set(outFrom + i, bits);
+            }
+        }
+        TAIL.compare(a, aFrom + i, value, length - i, out, outFrom + i);
+    }
+}
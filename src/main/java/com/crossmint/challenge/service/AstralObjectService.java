@@ -1,31 +1,69 @@
 package com.crossmint.challenge.service;
 
 import com.crossmint.challenge.model.AstralObjectParser;
+import com.crossmint.challenge.model.CellFilter;
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.DiffBitmap;
 import com.crossmint.challenge.model.GoalMap;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.GridDiff;
+import com.crossmint.challenge.model.MapContentReader;
 import com.crossmint.challenge.model.ApiSerializable;
 import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.service.bulkhead.AdaptiveConcurrencyLimit;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.jfr.ApiRequestEvent;
+import com.crossmint.challenge.service.jfr.PacingWaitEvent;
+import com.crossmint.challenge.service.jfr.PipelineStageEvent;
+import com.crossmint.challenge.service.logging.OperationLogSampler;
+import com.crossmint.challenge.service.ratelimit.SharedRateLimiter;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import com.crossmint.challenge.service.tracing.TraceAttributes;
+import com.crossmint.challenge.service.transport.AttemptHistory;
+import com.crossmint.challenge.service.transport.HttpTransport;
+import com.crossmint.challenge.service.transport.WebClientTransport;
+import com.crossmint.challenge.service.validation.OperationValidator;
+import com.crossmint.challenge.service.validation.PlanValidation;
+import com.crossmint.challenge.snapshot.GridSnapshot;
+import com.crossmint.challenge.snapshot.GridSnapshotCodec;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for managing astral objects in the Crossmint challenge.
@@ -36,45 +74,76 @@ import java.util.stream.IntStream;
 public class AstralObjectService {
     private static final Logger logger = LoggerFactory.getLogger(AstralObjectService.class);
 
-    private final WebClient webClient;
+    /**
+     * The HTTP client used for every API request.
+     */
+    private final HttpTransport transport;
 
     /**
-     * The goal map representing the desired state of astral objects.
+     * The goal map representing the desired state of astral objects, loaded on first use and cached.
      */
-    @Getter
-    private final GoalMap goalMap;
+    private final Mono<GoalMap> goalMap;
 
     /**
      * The candidate identifier used for all API requests.
      */
+    @Getter
     @NotBlank(message = "Candidate id is required")
     private final String candidateId;
 
     /**
-     * The maximum number of parallel operations allowed.
+     * The maximum number of parallel operations allowed, also the default concurrency of each bulkhead.
      */
     @Positive
     private final int parallelDegree;
 
     /**
-     * The maximum number of retry attempts for failed requests.
+     * The strategy deciding whether, when and how often failed requests are retried.
+     */
+    @Getter
+    private final RetryStrategy retryStrategy;
+
+    /**
+     * The delay in seconds between each API request to prevent rate limiting.
      */
-    private final int maxRetryAttempts;
+    private final int requestDelaySeconds;
 
     /**
-     * The base duration in seconds for the exponential backoff strategy.
+     * The maximum time a single request attempt may take before it fails with a retryable timeout.
      */
-    private final int backoffSeconds;
+    private final Duration requestTimeout;
 
     /**
-     * The jitter factor (0-1) applied to retry backoff durations to prevent thundering herd problems.
+     * The interval between two progress reports of a bulk run.
      */
-    private final double jitterFactor;
+    private final Duration progressInterval;
 
     /**
-     * The delay in seconds between each API request to prevent rate limiting.
+     * The file collecting the operations of bulk runs that failed permanently.
      */
-    private final int requestDelaySeconds;
+    @Getter
+    private final DeadLetterFile deadLetters;
+
+    /**
+     * Isolates the request slots, rate limits and retries of each endpoint and method.
+     */
+    @Getter
+    private final Bulkheads bulkheads;
+
+    /**
+     * The number of operations of a bulk run that may wait out a backoff without holding a slot.
+     */
+    private final int parkingCapacity;
+
+    /**
+     * Creates the spans of fetches, phases, operations and request attempts.
+     */
+    private final Tracer tracer;
+
+    /**
+     * Serializes the operations on each cell while running different cells in parallel.
+     */
+    private final CellExecutor cellExecutor = new CellExecutor(this::perform);
 
     /**
      * The format string for the map API path.
@@ -87,7 +156,8 @@ public class AstralObjectService {
     private final String goalPathFormat;
 
     /**
-     * Constructs a new AstralObjectService with the specified configuration.
+     * Constructs a new AstralObjectService with the specified configuration and the
+     * default exponential retry strategy.
      *
      * @param webClient The WebClient for making HTTP requests
      * @param candidateId The candidate ID for API authentication
@@ -100,54 +170,251 @@ public class AstralObjectService {
      * @param goalPathFormat The format string for the goal API path
      */
     public AstralObjectService(WebClient webClient,
+                               String candidateId,
+                               int parallelDegree,
+                               int maxRetryAttempts,
+                               int backoffSeconds,
+                               double jitterFactor,
+                               int requestDelaySeconds,
+                               String mapPathFormat,
+                               String goalPathFormat) {
+        this(webClient, RetryStrategy.exponential(maxRetryAttempts, backoffSeconds, jitterFactor), candidateId,
+                parallelDegree, requestDelaySeconds, mapPathFormat, goalPathFormat);
+    }
+
+    private AstralObjectService(WebClient webClient, RetryStrategy retryStrategy, String candidateId,
+                                int parallelDegree, int requestDelaySeconds, String mapPathFormat,
+                                String goalPathFormat) {
+        this(new WebClientTransport(webClient), retryStrategy, Bulkheads.uniform(retryStrategy, parallelDegree),
+                candidateId, parallelDegree, requestDelaySeconds, 30, 10, mapPathFormat, goalPathFormat, "", "", 64);
+    }
+
+    /**
+     * Constructs a new AstralObjectService with the specified configuration, without tracing.
+     *
+     * @param transport The HTTP client used for every API request
+     * @param retryStrategy The strategy used to retry failed requests
+     * @param bulkheads The bulkheads isolating the requests of each endpoint and method
+     * @param candidateId The candidate ID for API authentication
+     * @param parallelDegree The maximum number of parallel operations
+     * @param requestDelaySeconds The delay between API requests
+     * @param requestTimeoutSeconds The maximum duration in seconds of a single request attempt
+     * @param progressIntervalSeconds The interval in seconds between progress reports of bulk runs
+     * @param mapPathFormat The format string for the map API path
+     * @param goalPathFormat The format string for the goal API path
+     * @param goalSnapshot Path of a grid snapshot to load the goal from instead of the API (blank to fetch it)
+     * @param deadLetterFile Path of the file permanently failed operations are appended to (blank to disable)
+     * @param parkingCapacity The number of bulk operations that may wait out a backoff without holding a slot
+     */
+    public AstralObjectService(HttpTransport transport, RetryStrategy retryStrategy, Bulkheads bulkheads,
+                               String candidateId, int parallelDegree, int requestDelaySeconds,
+                               int requestTimeoutSeconds, int progressIntervalSeconds, String mapPathFormat,
+                               String goalPathFormat, String goalSnapshot, String deadLetterFile,
+                               int parkingCapacity) {
+        this(transport, retryStrategy, bulkheads, candidateId, parallelDegree, requestDelaySeconds,
+                requestTimeoutSeconds, progressIntervalSeconds, mapPathFormat, goalPathFormat, goalSnapshot,
+                deadLetterFile, parkingCapacity, OpenTelemetry.noop().getTracer("crossmint-challenge"));
+    }
+
+    /**
+     * Constructs a new AstralObjectService with the specified configuration.
+     *
+     * @param transport The HTTP client used for every API request
+     * @param retryStrategy The strategy used to retry failed requests
+     * @param bulkheads The bulkheads isolating the requests of each endpoint and method
+     * @param candidateId The candidate ID for API authentication
+     * @param parallelDegree The maximum number of parallel operations
+     * @param requestDelaySeconds The delay between API requests
+     * @param requestTimeoutSeconds The maximum duration in seconds of a single request attempt
+     * @param progressIntervalSeconds The interval in seconds between progress reports of bulk runs
+     * @param mapPathFormat The format string for the map API path
+     * @param goalPathFormat The format string for the goal API path
+     * @param goalSnapshot Path of a grid snapshot to load the goal from instead of the API (blank to fetch it)
+     * @param deadLetterFile Path of the file permanently failed operations are appended to (blank to disable)
+     * @param parkingCapacity The number of bulk operations that may wait out a backoff without holding a slot
+     * @param tracer Creates the spans of fetches, phases, operations and request attempts
+     */
+    @Autowired
+    public AstralObjectService(HttpTransport transport,
+                               RetryStrategy retryStrategy,
+                               Bulkheads bulkheads,
                                @Value("${crossmint.candidate-id}") String candidateId,
                                @Value("${crossmint.parallel-degree:3}") int parallelDegree,
-                               @Value("${crossmint.retry.max-attempts:5}") int maxRetryAttempts,
-                               @Value("${crossmint.retry.backoff-seconds:10}") int backoffSeconds,
-                               @Value("${crossmint.retry.jitter-factor:0.5}") double jitterFactor,
                                @Value("${crossmint.request.delay-seconds:5}") int requestDelaySeconds,
+                               @Value("${crossmint.request.timeout-seconds:30}") int requestTimeoutSeconds,
+                               @Value("${crossmint.progress.interval-seconds:10}") int progressIntervalSeconds,
                                @Value("${crossmint.api.map-path:/map/%s}") String mapPathFormat,
-                               @Value("${crossmint.api.goal-path:/map/%s/goal}") String goalPathFormat) {
-        this.webClient = webClient;
+                               @Value("${crossmint.api.goal-path:/map/%s/goal}") String goalPathFormat,
+                               @Value("${crossmint.goal.snapshot:}") String goalSnapshot,
+                               @Value("${crossmint.dead-letter.file:}") String deadLetterFile,
+                               @Value("${crossmint.retry.parking-capacity:64}") int parkingCapacity,
+                               Tracer tracer) {
+        this.transport = transport;
+        this.tracer = tracer;
+        this.retryStrategy = retryStrategy;
         this.candidateId = candidateId;
         this.parallelDegree = parallelDegree;
-        this.maxRetryAttempts = maxRetryAttempts;
-        this.backoffSeconds = backoffSeconds;
-        this.jitterFactor = jitterFactor;
         this.requestDelaySeconds = requestDelaySeconds;
+        this.requestTimeout = Duration.ofSeconds(requestTimeoutSeconds);
+        this.progressInterval = Duration.ofSeconds(progressIntervalSeconds);
         this.mapPathFormat = mapPathFormat;
         this.goalPathFormat = goalPathFormat;
-        this.goalMap = fetchGoalMap();
+        this.bulkheads = bulkheads;
+        this.parkingCapacity = parkingCapacity;
+        this.deadLetters = new DeadLetterFile(deadLetterFile.isBlank() ? null : Path.of(deadLetterFile));
+        this.goalMap = (goalSnapshot.isBlank()
+                ? fetchGoalMap()
+                : Mono.fromCallable(() -> loadGoalSnapshot(Path.of(goalSnapshot)))).cache();
     }
 
     /**
      * Processes a single astral object by performing the specified HTTP method on it.
-     * This method includes built-in retry logic for handling rate limiting and server errors.
+     * Failed requests, including attempts that time out, are retried according to the
+     * configured {@link RetryStrategy}.
+     * <p>
+     * The operation is queued behind any other operation on the same cell, whether it comes
+     * from a command or a bulk run, so concurrent operations on one cell never race.
      *
      * @param astralObject The astral object to process
      * @param method The HTTP method to use (POST for creation, DELETE for removal)
      */
     public void processAstralObject(ApiSerializable astralObject, HttpMethod method) {
-        webClient.method(method)
-                .uri(astralObject.getCreationPath())
-                .bodyValue(astralObject.toRequestBody(candidateId))
-                .retrieve()
-                .bodyToMono(Void.class)
+        cellExecutor.submit(new CellOperation(astralObject, method)).block();
+    }
+
+    /**
+     * Performs a single operation, with retries. Only called by the {@link CellExecutor} once the
+     * previous operations on the same cell are over, so the cell stays reserved while a retry
+     * is parked, but the request slot of its bulkhead does not.
+     * <p>
+     * The operation is traced as a span, child of the span current when it was submitted. Its
+     * attempts are child spans, each preceded by a "pacing" span (waiting for a request slot, the
+     * rate limits and the adaptive concurrency limit) or, for retries, a "backoff" span.
+     *
+     * @param operation The operation to perform
+     * @return A Mono completing once the operation succeeded
+     */
+    private Mono<Void> perform(CellOperation operation) {
+        Context parent = Context.current();
+        return Mono.defer(() -> {
+            Span span = tracer.spanBuilder(operation.method() == HttpMethod.DELETE ? "delete" : "create")
+                    .setParent(parent)
+                    .setAttribute(TraceAttributes.ROW, (long) operation.row())
+                    .setAttribute(TraceAttributes.COLUMN, (long) operation.column())
+                    .setAttribute(TraceAttributes.CELL_TYPE, GridCell.of(operation.target()).name())
+                    .startSpan();
+            Context context = parent.with(span);
+            Instant[] waitStart = {Instant.now()};
+            AttemptHistory history = new AttemptHistory();
+            return bulkheads.forOperation(operation)
+                    .submit(attempt -> attempt(operation, attempt, history, context, waitStart[0])
+                            .doFinally(signal -> waitStart[0] = Instant.now()))
+                    .doOnError(error -> span.setStatus(StatusCode.ERROR, error.getMessage()))
+                    .doFinally(signal -> span.end());
+        });
+    }
+
+    /**
+     * Sends the request of a single operation, once, recording it as an {@link ApiRequestEvent}
+     * and as a span.
+     * <p>
+     * The attempt starts once the adaptive concurrency limit, if any, lets the request through:
+     * the wait is part of the pacing span, while the event, the attempt span and the request
+     * timeout only cover the exchange itself.
+     *
+     * @param operation The operation to perform
+     * @param attempt The number of the attempt, starting at 1
+     * @param history The endpoints the previous attempts failed on
+     * @param parent The context of the span of the operation
+     * @param waitStart The moment the attempt started waiting for its turn
+     * @return A Mono completing once the request succeeded
+     */
+    private Mono<Void> attempt(CellOperation operation, int attempt, AttemptHistory history, Context parent,
+                               Instant waitStart) {
+        ApiSerializable astralObject = operation.target();
+        HttpMethod method = operation.method();
+        String path = astralObject.getCreationPath();
+        return limited(() -> {
+                    Instant start = Instant.now();
+                    tracer.spanBuilder(attempt == 1 ? "pacing" : "backoff")
+                            .setParent(parent)
+                            .setStartTimestamp(waitStart)
+                            .startSpan()
+                            .end(start);
+                    history.nextAttempt();
+                    ApiRequestEvent event = ApiRequestEvent.begin(method.name(), path, attempt);
+                    event.row = operation.row();
+                    event.column = operation.column();
+                    Span span = requestSpan(method, path, attempt, parent, start);
+                    return transport.send(method, path, astralObject.toRequestBody(candidateId), history)
+                            // Tells the transport its request is cancelled because it timed out
+                            .timeout(Mono.delay(requestTimeout).doOnNext(tick -> history.timedOut()))
+                            .doOnNext(response -> {
+                                event.status = response.status();
+                                event.bytes = response.bytes();
+                            })
+                            .doOnError(event::fail)
+                            .doFinally(signal -> {
+                                event.commit();
+                                endRequestSpan(span, event);
+                            })
+                            .then();
+                })
                 .delayElement(Duration.ofSeconds(requestDelaySeconds))
-                .doOnRequest(r ->
-                        logger.info("Processing astralObject: {}", astralObject))
-                .doOnSuccess(v ->
-                        logger.info("Successfully performed {} on astralObject: {}", method, astralObject))
-                .onErrorResume(WebClientResponseException.class, this::handleWebClientError)
-                .retryWhen(Retry.backoff(maxRetryAttempts, Duration.ofSeconds(backoffSeconds))
-                        .jitter(jitterFactor)
-                        .filter(this::isRetryableError)
-                        .doBeforeRetry(signal ->
-                                logger.warn("Retrying {}/{} after error: {}",
-                                        signal.totalRetries() + 1,
-                                        maxRetryAttempts,
-                                        signal.failure().getMessage())))
-                .block();
+                .doOnSuccess(v -> logger.atDebug()
+                        .addMarker(OperationLogSampler.OPERATION)
+                        .addKeyValue("method", method.name())
+                        .addKeyValue("path", path)
+                        .addKeyValue("row", operation.row())
+                        .addKeyValue("column", operation.column())
+                        .addKeyValue("attempt", attempt)
+                        .log("Performed {} {}", method.name(), path))
+                .doOnSubscribe(subscription -> retryStrategy.recordAttempt())
+                .onErrorResume(WebClientResponseException.class, this::handleWebClientError);
+    }
+
+    /**
+     * Holds a request until the adaptive concurrency limit, if any, has room for it, and feeds its
+     * outcome back to the limit: throttled, server-failed and timed out requests are drops.
+     *
+     * @param request Creates the request to send, once it has a permit
+     * @return The request, sent once under the limit
+     */
+    private <T> Mono<T> limited(Supplier<Mono<T>> request) {
+        AdaptiveConcurrencyLimit limit = bulkheads.concurrencyLimit();
+        if (limit == null) {
+            return Mono.defer(request);
+        }
+        return limit.acquire().flatMap(permit -> request.get()
+                .doOnSuccess(response -> permit.success())
+                .doOnError(error -> {
+                    if (error instanceof WebClientResponseException response && !retryStrategy.isRetryable(response)) {
+                        permit.ignore();
+                    } else {
+                        permit.dropped();
+                    }
+                })
+                .doOnCancel(permit::dropped));
+    }
+
+    private Span requestSpan(HttpMethod method, String path, int attempt, Context parent, Instant start) {
+        return tracer.spanBuilder(method.name() + " " + path)
+                .setParent(parent)
+                .setStartTimestamp(start)
+                .setAttribute(TraceAttributes.HTTP_METHOD, method.name())
+                .setAttribute(TraceAttributes.URL_PATH, path)
+                .setAttribute(TraceAttributes.ATTEMPT, (long) attempt)
+                .startSpan();
+    }
+
+    private static void endRequestSpan(Span span, ApiRequestEvent event) {
+        if (event.status != 0) {
+            span.setAttribute(TraceAttributes.HTTP_STATUS, (long) event.status);
+        }
+        if (event.error != null) {
+            span.setStatus(StatusCode.ERROR, event.error);
+        }
+        span.end();
     }
 
     /**
@@ -155,84 +422,447 @@ public class AstralObjectService {
      * This is used before replicating a new goal map.
      */
     public void clearGoalMap() {
-        logger.info("Fetching map for candidate: {}", candidateId);
+        clearGoalMap(RunDeadline.none());
+    }
 
-        // Inline record to represent the map response structure
-        record MapContent(List<List<Object>> content) {}
-        record MapResponse(MapContent map) {}
+    /**
+     * Clears all astral objects from the current map, stopping early if the deadline gets close.
+     *
+     * @param deadline The moment by which the run must be over
+     * @return The report of the run, listing the deletions that were not scheduled
+     */
+    public RunReport clearGoalMap(RunDeadline deadline) {
+        return clearGoalMap(CellFilter.all(), deadline);
+    }
 
+    /**
+     * Deletes the astral objects of the current map selected by a filter, stopping early if
+     * the deadline gets close. The filter is applied while the map response is streamed, so
+     * only the selected deletions are ever materialized.
+     *
+     * @param filter Selects the cells to delete
+     * @param deadline The moment by which the run must be over
+     * @return The report of the run, listing the deletions that were not scheduled
+     */
+    public RunReport clearGoalMap(CellFilter filter, RunDeadline deadline) {
+        List<CellOperation> deletions;
         try {
-            MapResponse response = webClient.get()
-                    .uri(String.format(mapPathFormat, candidateId))
-                    .retrieve()
-                    .bodyToMono(MapResponse.class)
-                    .block();
-
-            if (response == null || response.map() == null || response.map().content() == null) {
-                throw new IllegalStateException("Invalid response received from API");
-            }
+            deletions = readMap(() -> new MapReading<List<CellOperation>>() {
+                private final List<CellOperation> selected = new ArrayList<>();
 
-            List<List<Object>> content = response.map().content();
-            logger.info("Processing map with {} rows and {} cols", content.size(), content.getFirst().size());
-
-            // Identify non-null objects and mark them to delete
-            Set<ApiSerializable> objectsToDelete = IntStream.range(0, content.size())
-                    .boxed()
-                    .flatMap(row -> IntStream.range(0, content.get(row).size())
-                            .mapToObj(col -> {
-                                // Delete on Polyanet works on any astral object
-                                return (content.get(row).get(col) != null) ? new Polyanet(row, col) : null;
-                            }))
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toSet());
-
-            logger.info("Found {} objects to delete.", objectsToDelete.size());
-
-            Flux.fromIterable(objectsToDelete)
-                    .flatMap(obj -> Mono.fromRunnable(() ->
-                            processAstralObject(obj, HttpMethod.DELETE)
-                    ).subscribeOn(Schedulers.boundedElastic()), parallelDegree)
-                    .blockLast();
+                @Override
+                public void accept(int row, int col, GridCell cell) {
+                    // Delete on Polyanet works on any astral object
+                    if (!cell.isEmpty() && filter.test(row, col, cell)) {
+                        selected.add(new CellOperation(new Polyanet(row, col), HttpMethod.DELETE));
+                    }
+                }
 
-        } catch (Exception e) {
-            logger.error("Failed to fetch and delete objects", e);
+                @Override
+                public List<CellOperation> finish(int rows, int cols) {
+                    logger.info("Processed map with {} rows and {} cols", rows, cols);
+                    return selected;
+                }
+            }).block();
+        } catch (RuntimeException e) {
+            // Without the map there is nothing to delete; failed deletions are isolated by runOperations
+            logger.error("Failed to fetch the map", e);
+            return RunReport.empty();
         }
+
+        logger.info("Found {} objects to delete.", deletions.size());
+        return runOperations("Delete", deletions::stream, deadline);
     }
 
     /**
-     * Replicates the goal map by creating all the required astral objects.
-     * This method first clears the existing map and then creates new objects
-     * according to the goal map.
+     * Returns the goal map, fetching it (or loading its snapshot) on first use.
+     *
+     * @return The goal map representing the desired state of astral objects
+     */
+    public GoalMap getGoalMap() {
+        return goalMap.block();
+    }
+
+    /**
+     * Replicates the goal map on the current map.
      */
     public void replicateGoalMap() {
-        clearGoalMap();
-        Flux.fromIterable(goalMap.astralObjects())
-                .flatMap(astralObject -> Mono.fromRunnable(() ->
-                        processAstralObject(astralObject, HttpMethod.POST)
-                ).subscribeOn(Schedulers.boundedElastic()), parallelDegree)
-                .blockLast();
+        replicateGoalMap(RunDeadline.none());
+    }
+
+    /**
+     * Replicates the goal map, stopping early if the deadline gets close. The goal and the
+     * current map are fetched concurrently.
+     *
+     * @param deadline The moment by which the run must be over
+     * @return The report of the run, listing the operations that were not scheduled
+     */
+    public RunReport replicateGoalMap(RunDeadline deadline) {
+        Tuple2<GoalMap, CellGrid> state = Mono.zip(goalMap, readMap(gridReading())).block();
+        return replicate(CellGrid.of(state.getT1()), state.getT2(), deadline);
+    }
+
+    /**
+     * Replicates the given target map on the current map.
+     *
+     * @param target The map to replicate, e.g. the goal map or an imported snapshot
+     */
+    public void replicateGoalMap(GoalMap target) {
+        replicateGoalMap(target, RunDeadline.none());
+    }
+
+    /**
+     * Replicates the given target map, stopping early if the deadline gets close.
+     *
+     * @param target The map to replicate, e.g. the goal map or an imported snapshot
+     * @param deadline The moment by which the run must be over
+     * @return The report of the run, listing the operations that were not scheduled
+     */
+    public RunReport replicateGoalMap(GoalMap target, RunDeadline deadline) {
+        return replicate(CellGrid.of(target), fetchCurrentGrid(), deadline);
+    }
+
+    /**
+     * Runs the deletions and creations turning the current map into the target as a single
+     * pipeline: they interleave from the start, and the operations on one cell stay ordered
+     * (see {@link GridDiff} and {@link #runOperations}). Only Soloon creations wait for the rest
+     * of the pipeline when the target also has new Polyanets.
+     */
+    private RunReport replicate(CellGrid target, CellGrid current, RunDeadline deadline) {
+        if (target.getRows() != current.getRows() || target.getCols() != current.getCols()) {
+            logger.warn("Replicating a {}x{} grid onto a {}x{} map: cells outside the map are ignored.",
+                    target.getRows(), target.getCols(), current.getRows(), current.getCols());
+        }
+        DiffBitmap differences = GridDiff.differences(target, current);
+        logger.info("{} of {} cells differ from the target.", differences.cardinality(), differences.size());
+        return runOperations("Replicate", current, () -> GridDiff.operations(target, current, differences), deadline);
+    }
+
+    /**
+     * Validates a plan against the current map, then performs its valid operations like
+     * {@link #runOperations(String, Supplier, RunDeadline)}. Operations the API would reject
+     * (see {@link OperationValidator}) are logged with their reason and never sent.
+     * <p>
+     * If the plan creates Polyanets and Soloons, its Soloons are only created once every other
+     * operation is over, in a second run, so that the Polyanets they were validated against exist.
+     *
+     * @param phase The name of the phase, used in progress reports
+     * @param current The current state of the map the plan applies to
+     * @param operations Supplies the stream of operations to perform
+     * @param deadline The moment by which the run must be over
+     * @return The report of the run
+     */
+    public RunReport runOperations(String phase, CellGrid current, Supplier<Stream<CellOperation>> operations,
+                                   RunDeadline deadline) {
+        PipelineStageEvent plan = PipelineStageEvent.begin(PipelineStageEvent.PLAN_VALIDATION, phase);
+        Span span = tracer.spanBuilder("plan-validation").setAttribute(TraceAttributes.PHASE, phase).startSpan();
+        PlanValidation validation = OperationValidator.validatePlan(current, operations);
+        span.end();
+        plan.items = validation.violations().size();
+        plan.commit();
+        if (!validation.violations().isEmpty()) {
+            logger.warn("{} operations would be rejected by the API and are skipped.", validation.violations().size());
+            validation.violations().forEach(violation -> logger.warn("Rejected: {}", violation));
+        }
+        Supplier<Stream<CellOperation>> valid = () -> operations.get().filter(operation -> !validation.rejects(operation));
+        if (!validation.soloonsNeedCreatedPolyanets()) {
+            return runOperations(phase, valid, deadline);
+        }
+        // The API checks the neighbours of a Soloon when it is created: run them once the Polyanets exist
+        RunReport report = runOperations(phase,
+                () -> valid.get().filter(operation -> !OperationValidator.isSoloonCreation(operation)), deadline);
+        return report.plus(runOperations(phase + " Soloons",
+                () -> valid.get().filter(OperationValidator::isSoloonCreation), deadline));
+    }
+
+    /**
+     * Performs the given operations, reporting the progress of the run at a fixed interval.
+     * <p>
+     * The operations are pulled lazily from the stream as slots free up, so large plans (e.g.
+     * rasterized shapes) are never materialized. The supplier is invoked twice: once to count
+     * the operations for progress reports, and once to perform them.
+     * <p>
+     * Operations go through the {@link CellExecutor}: the ones on the same cell (e.g. a deletion
+     * followed by a creation) are performed one after the other, in order, while operations on
+     * different cells run in parallel.
+     * <p>
+     * All operations come from the one plan, but their requests run in the {@link Bulkheads} of
+     * their endpoint and method, each with its own slots and rate limit, so a throttled endpoint
+     * doesn't starve the others. Operations waiting out a retry backoff are parked outside of
+     * the request slots, so up to {@code parkingCapacity} of them can wait while other cells keep
+     * every slot busy. The counters of each bulkhead are logged at the end of the run.
+     * <p>
+     * Once starting another operation could make the run finish past the deadline, no new
+     * operation is scheduled: the in-flight ones are completed and the others are reported
+     * as remaining.
+     * <p>
+     * Each operation succeeds or fails on its own: a permanent failure is recorded in the
+     * report and the dead-letter file, and never cancels the other operations.
+     *
+     * @param phase The name of the phase, used in progress reports
+     * @param operations Supplies the stream of operations to perform
+     * @param deadline The moment by which the run must be over
+     * @return The report of the run
+     */
+    public RunReport runOperations(String phase, Supplier<Stream<CellOperation>> operations, RunDeadline deadline) {
+        // An operation started now may take a full attempt plus the pacing delay
+        Duration margin = requestTimeout.plusSeconds(requestDelaySeconds);
+        PipelineStageEvent plan = PipelineStageEvent.begin(PipelineStageEvent.PLAN, phase);
+        Span planSpan = tracer.spanBuilder("plan").setAttribute(TraceAttributes.PHASE, phase).startSpan();
+        int total = Math.toIntExact(operations.get().count());
+        planSpan.setAttribute(TraceAttributes.OPERATIONS, (long) total).end();
+        plan.items = total;
+        plan.commit();
+        PipelineStageEvent run = PipelineStageEvent.begin(PipelineStageEvent.RUN, phase);
+        Span runSpan = tracer.spanBuilder("run").setAttribute(TraceAttributes.PHASE, phase).startSpan();
+        // Operations are submitted from whichever thread frees a slot: make the run their parent
+        Context runContext = Context.current().with(runSpan);
+        AtomicInteger completed = new AtomicInteger();
+        List<FailedOperation> failed = Collections.synchronizedList(new ArrayList<>());
+        List<CellOperation> remaining = new ArrayList<>();
+
+        try (Stream<CellOperation> stream = operations.get();
+             ProgressReporter progress = new ProgressReporter(phase, total, progressInterval)) {
+            Iterator<CellOperation> iterator = stream.iterator();
+            Flux.fromIterable(() -> iterator)
+                    .takeWhile(operation -> {
+                        if (deadline.isNear(margin)) {
+                            remaining.add(operation);
+                            return false;
+                        }
+                        return true;
+                    })
+                    .flatMap(runContext.wrapFunction((CellOperation operation) -> progress
+                            .track(cellExecutor.submit(operation))
+                            .doOnSuccess(v -> completed.incrementAndGet())
+                            // A failed operation never cancels its siblings
+                            .onErrorResume(error -> {
+                                FailedOperation failure = FailedOperation.of(operation, error);
+                                failed.add(failure);
+                                deadLetters.append(failure);
+                                return Mono.empty();
+                            })), concurrency() + parkingCapacity)
+                    .blockLast();
+            iterator.forEachRemaining(remaining::add);
+        }
+
+        if (!failed.isEmpty()) {
+            logger.warn("{} of {} operations failed permanently{}.", failed.size(), total,
+                    deadLetters.getPath() == null ? "" : " and were written to " + deadLetters.getPath());
+            failed.forEach(failure -> logger.info("Failed: {}", failure));
+        }
+        if (!remaining.isEmpty()) {
+            logger.warn("Deadline {} is near: {} of {} operations were not scheduled.",
+                    deadline, remaining.size(), total);
+            remaining.forEach(operation -> logger.info("Remaining: {}", operation));
+        }
+        bulkheads.metrics().forEach(metrics -> logger.info("Bulkhead {}", metrics));
+        if (bulkheads.concurrencyLimit() != null) {
+            logger.info("Concurrency limit {}", bulkheads.concurrencyLimit());
+        }
+        run.items = completed.get();
+        run.commit();
+        runSpan.setAttribute(TraceAttributes.OPERATIONS, (long) completed.get()).end();
+        return new RunReport(completed.get(), List.copyOf(failed), List.copyOf(remaining));
+    }
+
+    // With an adaptive limit, as many operations as it may grow to are let through to the bulkheads
+    private int concurrency() {
+        AdaptiveConcurrencyLimit limit = bulkheads.concurrencyLimit();
+        return limit == null ? parallelDegree : Math.max(parallelDegree, limit.ceiling());
+    }
+
+    /**
+     * Fetches the current map from the API and encodes it as a dense grid.
+     *
+     * @return The current state of the map
+     * @throws IllegalStateException if the API returns an invalid response
+     */
+    public CellGrid fetchCurrentGrid() {
+        return readMap(gridReading()).block();
+    }
+
+    private static Supplier<MapReading<CellGrid>> gridReading() {
+        return () -> new MapReading<>() {
+            private final ByteArrayOutputStream cells = new ByteArrayOutputStream();
+
+            @Override
+            public void accept(int row, int col, GridCell cell) {
+                cells.write(cell.code());
+            }
+
+            @Override
+            public CellGrid finish(int rows, int cols) {
+                return new CellGrid(rows, cols, cells.toByteArray());
+            }
+        };
+    }
+
+    /**
+     * Consumes the cells of a map response and turns them into a result once it is complete.
+     */
+    private interface MapReading<T> extends MapContentReader.CellConsumer {
+        T finish(int rows, int cols);
+    }
+
+    /**
+     * Streams the current map from the API through a {@link MapContentReader}, so cells are
+     * consumed as the response body arrives. Every attempt, including retries, starts over
+     * with a fresh reading.
+     *
+     * @param readings Creates the reading of one attempt
+     * @return The result of the successful reading, failing with an IllegalStateException if
+     * the API returns an invalid response
+     */
+    private <T> Mono<T> readMap(Supplier<MapReading<T>> readings) {
+        return traced("map-fetch", context -> readMap(readings, context));
+    }
+
+    private <T> Mono<T> readMap(Supplier<MapReading<T>> readings, Context context) {
+        AtomicInteger attempts = new AtomicInteger();
+        return sharedPacing("GET /map").then(Mono.defer(() -> {
+                    logger.info("Fetching map for candidate: {}", candidateId);
+                    MapReading<T> reading = readings.get();
+                    MapContentReader reader = new MapContentReader(reading);
+                    String path = String.format(mapPathFormat, candidateId);
+                    ApiRequestEvent request = ApiRequestEvent.begin("GET", path, attempts.incrementAndGet());
+                    Span span = requestSpan(HttpMethod.GET, path, request.attempt, context, Instant.now());
+                    PipelineStageEvent fetch = PipelineStageEvent.begin(PipelineStageEvent.MAP_FETCH, "map");
+                    PipelineStageEvent parse = PipelineStageEvent.begin(PipelineStageEvent.PARSE, "map");
+                    return transport.stream(path)
+                            .doOnNext(buffer -> {
+                                long start = System.nanoTime();
+                                request.bytes += buffer.readableByteCount();
+                                try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                                    chunks.forEachRemaining(reader::feed);
+                                } finally {
+                                    DataBufferUtils.release(buffer);
+                                }
+                                parse.activeTime += System.nanoTime() - start;
+                            })
+                            .doOnComplete(() -> request.status = HttpStatus.OK.value())
+                            .doOnError(request::fail)
+                            .doFinally(signal -> {
+                                request.commit();
+                                endRequestSpan(span, request);
+                            })
+                            .then(Mono.fromCallable(() -> {
+                                long start = System.nanoTime();
+                                reader.endOfInput();
+                                T result = reading.finish(reader.rows(), reader.cols());
+                                parse.activeTime += System.nanoTime() - start;
+                                parse.items = (long) reader.rows() * reader.cols();
+                                parse.bytes = request.bytes;
+                                parse.commit();
+                                fetch.items = parse.items;
+                                fetch.bytes = request.bytes;
+                                fetch.commit();
+                                return result;
+                            }));
+                })
+                .timeout(requestTimeout))
+                .doOnSubscribe(subscription -> retryStrategy.recordAttempt())
+                .retryWhen(retryStrategy.toRetry("GET /map"));
+    }
+
+    /**
+     * Waits for the rate limit shared with the other processes, if any, before a request that
+     * doesn't go through a bulkhead. The wait comes before the request timeout starts.
+     *
+     * @param operation The paced request, e.g. "GET /map"
+     * @return A Mono completing once the request may be sent
+     */
+    private Mono<Void> sharedPacing(String operation) {
+        SharedRateLimiter limiter = bulkheads.sharedRateLimiter();
+        if (limiter == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            Duration wait = limiter.reserve();
+            return wait.isZero() ? Mono.empty() : PacingWaitEvent.delay("shared", operation, wait).then();
+        });
+    }
+
+    /**
+     * Loads the goal map from a grid snapshot instead of the API.
+     *
+     * @param path The snapshot file
+     * @return The goal map stored in the snapshot
+     * @throws UncheckedIOException if the snapshot can't be read
+     */
+    private GoalMap loadGoalSnapshot(Path path) {
+        try {
+            GridSnapshot snapshot = GridSnapshotCodec.read(path);
+            if (!snapshot.getCandidateId().equals(candidateId)) {
+                logger.warn("Goal snapshot {} belongs to candidate {}, not {}",
+                        path, snapshot.getCandidateId(), candidateId);
+            }
+            logger.info("Loaded goal with {} rows and {} cols from snapshot {}.",
+                    snapshot.getRows(), snapshot.getCols(), path);
+            return snapshot.toGoalMap();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read goal snapshot " + path, e);
+        }
     }
 
     /**
      * Fetches the goal map from the API.
-     * This method is called during service initialization to load the target
-     * configuration of astral objects.
+     * The request is only sent on subscription, so the goal can be fetched on first use or
+     * concurrently with the current map.
      *
      * @return The parsed goal map object
      */
-    private GoalMap fetchGoalMap() {
+    private Mono<GoalMap> fetchGoalMap() {
         record GoalResponse(List<List<String>> goal) {}
 
-        return webClient.get()
-                .uri(String.format(goalPathFormat, candidateId))
-                .retrieve()
-                .bodyToMono(GoalResponse.class)
-                .doOnNext(response -> logger.info("Fetched goal with {} rows and {} cols.",
-                        response.goal().size(), response.goal().getFirst().size()))
-                .doOnError(WebClientResponseException.class, this::handleWebClientError)
-                .map(response -> new GoalMap(response.goal().size(), response.goal().getFirst().size(),
-                        AstralObjectParser.parseAstralObjects(response.goal)))
-                .block();
+        String path = String.format(goalPathFormat, candidateId);
+        return traced("goal-fetch", context -> {
+            AtomicInteger attempts = new AtomicInteger();
+            return sharedPacing("GET /goal").then(Mono.defer(() -> {
+                        PipelineStageEvent fetch = PipelineStageEvent.begin(PipelineStageEvent.GOAL_FETCH, "goal");
+                        ApiRequestEvent request = ApiRequestEvent.begin("GET", path, attempts.incrementAndGet());
+                        Span span = requestSpan(HttpMethod.GET, path, request.attempt, context, Instant.now());
+                        return transport.getJson(path, GoalResponse.class)
+                                .timeout(requestTimeout)
+                                .doOnNext(response -> request.status = HttpStatus.OK.value())
+                                .doOnError(request::fail)
+                                .doFinally(signal -> {
+                                    request.commit();
+                                    endRequestSpan(span, request);
+                                })
+                                .doOnSuccess(response -> fetch.commit());
+                    }))
+                    .doOnSubscribe(subscription -> retryStrategy.recordAttempt())
+                    .doOnError(WebClientResponseException.class, this::handleWebClientError)
+                    .retryWhen(retryStrategy.toRetry("GET /goal"))
+                    .doOnNext(response -> logger.info("Fetched goal with {} rows and {} cols.",
+                            response.goal().size(), response.goal().getFirst().size()))
+                    .map(response -> {
+                        PipelineStageEvent parse = PipelineStageEvent.begin(PipelineStageEvent.PARSE, "goal");
+                        GoalMap goal = new GoalMap(response.goal().size(), response.goal().getFirst().size(),
+                                AstralObjectParser.parseAstralObjects(response.goal));
+                        parse.items = (long) goal.rows() * goal.cols();
+                        parse.commit();
+                        return goal;
+                    });
+        });
+    }
+
+    /**
+     * Traces a fetch as a span, child of the span current when the fetch is subscribed to.
+     *
+     * @param name The name of the span
+     * @param fetch Performs the fetch given the context of the span, so its requests can be children of it
+     * @return The traced fetch
+     */
+    private <T> Mono<T> traced(String name, Function<Context, Mono<T>> fetch) {
+        return Mono.defer(() -> {
+            Context parent = Context.current();
+            Span span = tracer.spanBuilder(name).setParent(parent).startSpan();
+            return fetch.apply(parent.with(span))
+                    .doOnError(error -> span.setStatus(StatusCode.ERROR, error.getMessage()))
+                    .doFinally(signal -> span.end());
+        });
     }
 
     /**
@@ -243,12 +873,9 @@ public class AstralObjectService {
      * @return A Mono that either completes or errors based on the error handling strategy
      */
     private Mono<Void> handleWebClientError(WebClientResponseException ex) {
-        if (ex.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
-            logger.warn("Too Many Requests (retryable): Status: {}, Body: {}",
-                    ex.getStatusCode(), ex.getResponseBodyAsString());
-            return Mono.error(ex); // Will trigger retry
-        } else if (ex.getStatusCode().is5xxServerError()) {
-            logger.warn("Server error (retryable): Status: {}, Body: {}",
+        if (retryStrategy.isRetryable(ex)) {
+            logger.warn("{} (retryable): Status: {}, Body: {}",
+                    ex.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS ? "Too Many Requests" : "Server error",
                     ex.getStatusCode(), ex.getResponseBodyAsString());
             return Mono.error(ex); // Will trigger retry
         } else if (ex.getStatusCode().is4xxClientError()) {
@@ -261,18 +888,4 @@ public class AstralObjectService {
                 ex.getStatusCode(), ex.getResponseBodyAsString());
         return Mono.error(ex);
     }
-
-    /**
-     * Determines if an error should be retried based on its type and status code.
-     * Retries are performed on too many requests and 5xx errors only.
-     *
-     * @param throwable The error to check
-     * @return true if the error is retryable, false otherwise
-     */
-    private boolean isRetryableError(Throwable throwable) {
-        if (throwable instanceof WebClientResponseException ex) {
-            return ex.getStatusCode().is5xxServerError() || ex.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
-        }
-        return false;
-    }
-}
\ No newline at end of file
+}
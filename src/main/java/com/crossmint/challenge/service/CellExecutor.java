@@ -0,0 +1,197 @@
+package com.crossmint.challenge.service;
+
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.GridCell;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Runs cell operations so that the operations on one cell are performed one at a time, in
+ * submission order, while operations on different cells run fully in parallel.
+ * <p>
+ * Every cell with pending operations has a small FIFO queue, guarded by one of a fixed set of
+ * lock stripes, so no global lock is ever taken. Operations still waiting in a queue are
+ * coalesced when superseded: a deletion following a pending creation of the same object, planned
+ * onto an empty cell, cancels both; any other pending creation followed by a deletion is dropped,
+ * the deletion still running, as the cell may have held an object before. An operation identical
+ * to the last pending one shares its outcome.
+ * <p>
+ * The OpenTelemetry context current when an operation is submitted is current again when it
+ * is performed, so its spans join the trace of the submitter whichever thread runs it.
+ */
+public class CellExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(CellExecutor.class);
+
+    private static final int STRIPES = 64;
+
+    private final Function<CellOperation, Mono<Void>> performer;
+    private final Object[] stripes = new Object[STRIPES];
+    private final Map<Long, CellQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * @param performer Performs a single operation; only subscribed to once its turn has come
+     */
+    public CellExecutor(Function<CellOperation, Mono<Void>> performer) {
+        this.performer = performer;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    private static final class Pending {
+        private final CellOperation operation;
+        private final Context context;
+        private final Sinks.Empty<Void> done = Sinks.empty();
+
+        private Pending(CellOperation operation, Context context) {
+            this.operation = operation;
+            this.context = context;
+        }
+    }
+
+    private static final class CellQueue {
+        private final ArrayDeque<Pending> waiting = new ArrayDeque<>();
+        private boolean running;
+    }
+
+    /**
+     * Queues an operation behind the other operations on its cell.
+     *
+     * @param operation The operation to perform
+     * @return A Mono completing when the operation has been performed (or coalesced away),
+     * failing with the error of the operation
+     */
+    public Mono<Void> submit(CellOperation operation) {
+        Context context = Context.current();
+        return Mono.defer(() -> {
+            long key = operation.cellKey();
+            Pending pending = new Pending(operation, context);
+            Pending superseded = null;
+            boolean undone = false;
+            Pending duplicate = null;
+            CellQueue queue;
+            boolean start = false;
+
+            synchronized (stripe(key)) {
+                queue = queues.computeIfAbsent(key, k -> new CellQueue());
+                Pending last = queue.waiting.peekLast();
+                if (last != null && supersedes(last.operation, operation)) {
+                    queue.waiting.pollLast();
+                    superseded = last;
+                    undone = undoes(operation, last.operation);
+                    last = queue.waiting.peekLast();
+                }
+                if (undone) {
+                    if (queue.waiting.isEmpty() && !queue.running) {
+                        queues.remove(key);
+                    }
+                } else if (last != null && isSame(last.operation, operation)) {
+                    duplicate = last;
+                } else {
+                    queue.waiting.addLast(pending);
+                    start = !queue.running;
+                    queue.running = true;
+                }
+            }
+
+            if (superseded != null) {
+                logger.debug(undone ? "Coalesced {} and {}: they cancel each other" : "Coalesced {} into {}",
+                        superseded.operation, operation);
+                superseded.done.tryEmitEmpty();
+            }
+            if (undone) {
+                return Mono.empty();
+            }
+            if (duplicate != null) {
+                logger.debug("Coalesced duplicate {}", operation);
+                return duplicate.done.asMono();
+            }
+            if (start) {
+                drain(key, queue);
+            }
+            return pending.done.asMono();
+        });
+    }
+
+    /**
+     * @return The number of cells with queued or running operations
+     */
+    public int activeCells() {
+        return queues.size();
+    }
+
+    private void drain(long key, CellQueue queue) {
+        Pending next = pollNext(key, queue);
+        if (next != null) {
+            perform(key, queue, next);
+        }
+    }
+
+    private void perform(long key, CellQueue queue, Pending current) {
+        try (Scope scope = current.context.makeCurrent()) {
+            subscribe(key, queue, current);
+        }
+    }
+
+    private void subscribe(long key, CellQueue queue, Pending current) {
+        Mono.defer(() -> performer.apply(current.operation)).subscribe(
+                null,
+                error -> {
+                    // The cell moves on before the submitter hears about the outcome
+                    Pending next = pollNext(key, queue);
+                    current.done.tryEmitError(error);
+                    if (next != null) {
+                        perform(key, queue, next);
+                    }
+                },
+                () -> {
+                    Pending next = pollNext(key, queue);
+                    current.done.tryEmitEmpty();
+                    if (next != null) {
+                        perform(key, queue, next);
+                    }
+                });
+    }
+
+    private Pending pollNext(long key, CellQueue queue) {
+        synchronized (stripe(key)) {
+            Pending next = queue.waiting.pollFirst();
+            if (next == null) {
+                queue.running = false;
+                queues.remove(key);
+            }
+            return next;
+        }
+    }
+
+    private Object stripe(long key) {
+        return stripes[Long.hashCode(key * 0x9E3779B97F4A7C15L) & (STRIPES - 1)];
+    }
+
+    private static boolean supersedes(CellOperation pending, CellOperation next) {
+        return pending.method() == HttpMethod.POST && next.method() == HttpMethod.DELETE;
+    }
+
+    /**
+     * @return true if the deletion leaves the cell as it was before the creation: empty
+     */
+    private static boolean undoes(CellOperation deletion, CellOperation creation) {
+        return creation.ontoEmptyCell()
+                && deletion.target().getCreationPath().equals(creation.target().getCreationPath());
+    }
+
+    private static boolean isSame(CellOperation pending, CellOperation next) {
+        return pending.method() == next.method()
+                && (next.method() == HttpMethod.DELETE || GridCell.of(pending.target()) == GridCell.of(next.target()));
+    }
+}
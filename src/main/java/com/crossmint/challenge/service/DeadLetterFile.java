@@ -0,0 +1,95 @@
+package com.crossmint.challenge.service;
+
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.GridCell;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only JSON Lines file collecting the operations of bulk runs that failed permanently,
+ * with the status and body of the last response, so they can be inspected and replayed later
+ * with the {@code redrive} command.
+ */
+public class DeadLetterFile {
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterFile.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * One line of the file.
+     */
+    record Entry(String method, String path, int row, int column, GridCell cell, int status, String body,
+                 String failedAt) {}
+
+    /**
+     * The file failures are appended to, or null if dead-lettering is disabled.
+     */
+    @Getter
+    private final Path path;
+
+    /**
+     * @param path The file failures are appended to, or null to disable dead-lettering
+     */
+    public DeadLetterFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Appends a failure to the file. Errors writing the file are logged, never thrown, so a
+     * full disk can't fail the run itself.
+     *
+     * @param failure The failure to record
+     */
+    public synchronized void append(FailedOperation failure) {
+        if (path == null) {
+            return;
+        }
+        CellOperation operation = failure.operation();
+        Entry entry = new Entry(operation.method().name(), operation.target().getCreationPath(), operation.row(),
+                operation.column(), GridCell.of(operation.target()), failure.status(), failure.body(),
+                Instant.now().toString());
+        try {
+            Files.writeString(path, MAPPER.writeValueAsString(entry) + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Failed to dead-letter {} to {}", failure, path, e);
+        }
+    }
+
+    /**
+     * Reads the failures recorded in a dead-letter file.
+     *
+     * @param path The dead-letter file
+     * @return The recorded failures, in the order they were appended
+     * @throws IOException if the file can't be read or holds an invalid line
+     */
+    public static List<FailedOperation> read(Path path) throws IOException {
+        List<FailedOperation> failures = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Entry entry = MAPPER.readValue(line, Entry.class);
+                HttpMethod method = HttpMethod.valueOf(entry.method());
+                CellOperation operation = new CellOperation(entry.cell().toAstralObject(entry.row(), entry.column()),
+                        method);
+                failures.add(new FailedOperation(operation, entry.status(), entry.body()));
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,33 @@
+package com.crossmint.challenge.service;
+
+import com.crossmint.challenge.model.CellOperation;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+
+/**
+ * An operation of a bulk run that failed permanently, i.e. after its retries.
+ *
+ * @param operation The failed operation
+ * @param status The HTTP status of the last response, or 0 if no response was received
+ * @param body The body of the last response, or the error message if no response was received
+ */
+public record FailedOperation(CellOperation operation, int status, String body) {
+
+    /**
+     * @param operation The failed operation
+     * @param error The error the operation failed with
+     * @return The failure, with the status and body of the underlying API error if any
+     */
+    public static FailedOperation of(CellOperation operation, Throwable error) {
+        Throwable cause = Exceptions.isRetryExhausted(error) && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof WebClientResponseException response) {
+            return new FailedOperation(operation, response.getStatusCode().value(), response.getResponseBodyAsString());
+        }
+        return new FailedOperation(operation, 0, String.valueOf(cause));
+    }
+
+    @Override
+    public String toString() {
+        return operation + " failed with status " + status + ": " + body;
+    }
+}
@@ -0,0 +1,72 @@
+package com.crossmint.challenge.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (16 sub-buckets per power of two),
+ * giving percentiles within ~6% of the recorded values at a fixed memory cost.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+
+    /**
+     * @param micros A latency in microseconds (negative values are recorded as 0)
+     */
+    public void record(long micros) {
+        counts.incrementAndGet(index(Math.max(0, micros)));
+    }
+
+    /**
+     * @return The number of recorded latencies
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param percentile The percentile to compute, in (0, 100]
+     * @return The latency in microseconds below which the given percentage of values fall, or 0 if empty
+     */
+    public long percentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length() - 1);
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
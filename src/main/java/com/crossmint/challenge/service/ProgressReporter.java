@@ -0,0 +1,153 @@
+package com.crossmint.challenge.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the progress of one phase of a bulk run and reports it at a fixed interval:
+ * completed, failed, in-flight and remaining operations, the current request rate,
+ * p50/p99 latency and an ETA. A summary of the phase is logged when it is closed.
+ */
+public class ProgressReporter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ProgressReporter.class);
+
+    private final String phase;
+    private final int total;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private final Disposable ticker;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    private long lastTickNanos;
+    private int lastTickDone;
+
+    /**
+     * Starts tracking a phase, reporting its progress every {@code interval}.
+     *
+     * @param phase The name of the phase, used as prefix of every report
+     * @param total The number of operations of the phase
+     * @param interval The interval between reports (zero or negative to only log the summary)
+     */
+    public ProgressReporter(String phase, int total, Duration interval) {
+        this(phase, total, interval, System::nanoTime);
+    }
+
+    ProgressReporter(String phase, int total, Duration interval, LongSupplier nanoClock) {
+        this.phase = phase;
+        this.total = total;
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        this.lastTickNanos = startNanos;
+        this.ticker = interval.isNegative() || interval.isZero() || total == 0
+                ? Flux.<Long>empty().subscribe()
+                : Flux.interval(interval, interval).subscribe(tick -> logger.info(progressLine()));
+    }
+
+    /**
+     * Wraps an operation so that its start, outcome and latency are tracked.
+     *
+     * @param operation The operation to track
+     * @return The tracked operation
+     */
+    public Mono<Void> track(Mono<Void> operation) {
+        return Mono.defer(() -> {
+            long start = nanoClock.getAsLong();
+            inFlight.incrementAndGet();
+            return operation
+                    .doOnSuccess(v -> finish(start, completed))
+                    .doOnError(e -> finish(start, failed));
+        });
+    }
+
+    private void finish(long startNanos, AtomicInteger outcome) {
+        latencies.record(TimeUnit.NANOSECONDS.toMicros(nanoClock.getAsLong() - startNanos));
+        outcome.incrementAndGet();
+        inFlight.decrementAndGet();
+    }
+
+    public int completed() {
+        return completed.get();
+    }
+
+    public int failed() {
+        return failed.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int remaining() {
+        return total - completed.get() - failed.get() - inFlight.get();
+    }
+
+    /**
+     * @return The current progress report, also resetting the window of the request rate
+     */
+    synchronized String progressLine() {
+        long now = nanoClock.getAsLong();
+        int done = completed.get() + failed.get();
+        double rate = ratePerSecond(done - lastTickDone, now - lastTickNanos);
+        lastTickNanos = now;
+        lastTickDone = done;
+
+        double averageRate = ratePerSecond(done, now - startNanos);
+        int left = total - done;
+        String eta = averageRate > 0 ? formatDuration(Duration.ofMillis((long) (left / averageRate * 1000))) : "unknown";
+        return String.format("%s: %d/%d completed, %d failed, %d in flight, %d remaining, %.1f req/s, "
+                        + "p50 %d ms, p99 %d ms, ETA %s",
+                phase, completed.get(), total, failed.get(), inFlight.get(), remaining(), rate,
+                latencies.percentile(50) / 1000, latencies.percentile(99) / 1000, eta);
+    }
+
+    /**
+     * @return The summary of the phase
+     */
+    String summaryLine() {
+        Duration elapsed = Duration.ofNanos(nanoClock.getAsLong() - startNanos);
+        int done = completed.get() + failed.get();
+        return String.format("%s finished in %s: %d/%d completed, %d failed, %d not started, %.1f req/s, "
+                        + "p50 %d ms, p99 %d ms",
+                phase, formatDuration(elapsed), completed.get(), total, failed.get(), remaining(),
+                ratePerSecond(done, elapsed.toNanos()),
+                latencies.percentile(50) / 1000, latencies.percentile(99) / 1000);
+    }
+
+    /**
+     * Stops the periodic reports and logs the summary of the phase.
+     */
+    @Override
+    public void close() {
+        ticker.dispose();
+        if (total > 0) {
+            logger.info(summaryLine());
+        }
+    }
+
+    private static double ratePerSecond(long count, long nanos) {
+        return nanos <= 0 ? 0 : count * 1e9 / nanos;
+    }
+
+    private static String formatDuration(Duration duration) {
+        long seconds = duration.toSeconds();
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        if (seconds < 3600) {
+            return (seconds / 60) + "m " + (seconds % 60) + "s";
+        }
+        return (seconds / 3600) + "h " + (seconds % 3600 / 60) + "m";
+    }
+}
@@ -0,0 +1,64 @@
+package com.crossmint.challenge.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The moment by which a bulk run must be over.
+ * <p>
+ * Bulk runs stop scheduling new operations once the deadline is near, i.e. once
+ * starting another operation could make it finish past the deadline, and let the
+ * in-flight ones complete.
+ */
+public final class RunDeadline {
+
+    private static final RunDeadline NONE = new RunDeadline(Instant.MAX, Clock.systemUTC());
+
+    private final Instant deadline;
+    private final Clock clock;
+
+    private RunDeadline(Instant deadline, Clock clock) {
+        this.deadline = deadline;
+        this.clock = clock;
+    }
+
+    /**
+     * @return A deadline that is never reached
+     */
+    public static RunDeadline none() {
+        return NONE;
+    }
+
+    /**
+     * @param budget The time the run may take from now, or null for no deadline
+     * @return The deadline
+     */
+    public static RunDeadline after(Duration budget) {
+        return after(budget, Clock.systemUTC());
+    }
+
+    static RunDeadline after(Duration budget, Clock clock) {
+        return budget == null ? NONE : new RunDeadline(clock.instant().plus(budget), clock);
+    }
+
+    /**
+     * @param margin The time an operation started now may take
+     * @return true if an operation started now could finish past the deadline
+     */
+    public boolean isNear(Duration margin) {
+        return this != NONE && !clock.instant().plus(margin).isBefore(deadline);
+    }
+
+    /**
+     * @return true if this deadline can be reached at all
+     */
+    public boolean isSet() {
+        return this != NONE;
+    }
+
+    @Override
+    public String toString() {
+        return this == NONE ? "none" : deadline.toString();
+    }
+}
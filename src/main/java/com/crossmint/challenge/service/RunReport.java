@@ -0,0 +1,58 @@
+package com.crossmint.challenge.service;
+
+import com.crossmint.challenge.model.CellOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of a bulk run.
+ *
+ * @param completed The number of operations that were performed successfully
+ * @param failed The operations that failed permanently, without affecting the others
+ * @param remaining The operations that were not scheduled because the deadline was near
+ */
+public record RunReport(int completed, List<FailedOperation> failed, List<CellOperation> remaining) {
+
+    /**
+     * Creates the report of a run without failures.
+     *
+     * @param completed The number of operations that were performed successfully
+     * @param remaining The operations that were not scheduled because the deadline was near
+     */
+    public RunReport(int completed, List<CellOperation> remaining) {
+        this(completed, List.of(), remaining);
+    }
+
+    public static RunReport empty() {
+        return new RunReport(0, List.of());
+    }
+
+    /**
+     * @return true if every operation of the run was scheduled, whether it succeeded or not
+     */
+    public boolean isComplete() {
+        return remaining.isEmpty();
+    }
+
+    /**
+     * @return true if every operation of the run was scheduled and succeeded
+     */
+    public boolean isSuccessful() {
+        return failed.isEmpty() && remaining.isEmpty();
+    }
+
+    /**
+     * Combines the reports of two consecutive phases of the same run.
+     *
+     * @param next The report of the following phase
+     * @return The combined report
+     */
+    public RunReport plus(RunReport next) {
+        List<FailedOperation> allFailed = new ArrayList<>(failed);
+        allFailed.addAll(next.failed);
+        List<CellOperation> allRemaining = new ArrayList<>(remaining);
+        allRemaining.addAll(next.remaining);
+        return new RunReport(completed + next.completed, allFailed, allRemaining);
+    }
+}
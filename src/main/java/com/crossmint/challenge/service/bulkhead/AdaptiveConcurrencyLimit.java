@@ -0,0 +1,232 @@
+package com.crossmint.challenge.service.bulkhead;
+
+import com.crossmint.challenge.service.jfr.ConcurrencyLimitEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the number of requests in flight across every bulkhead, tuning the limit from their
+ * round-trip times (a gradient limit, in the style of TCP Vegas).
+ * <p>
+ * While requests take no longer than {@value #TOLERANCE} times the minimum round-trip time
+ * observed, the server isn't queueing them and the limit grows by about its square root per
+ * sample. Beyond that, the limit shrinks in proportion to how much slower requests got, by at
+ * most half. Throttled requests, server errors and timeouts cut it by
+ * {@code 1 - }{@value #DROP_RATIO}. Changes are smoothed, and the limit always stays between
+ * the floor and the ceiling.
+ * <p>
+ * The minimum round-trip time is measured again every {@value #PROBE_INTERVAL} samples, so
+ * that it follows the server if it gets durably slower. Samples taken while less than half of
+ * the limit was in use don't grow the limit: they say nothing about how many more requests the
+ * server could take.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimit.class);
+
+    static final double TOLERANCE = 1.5;
+    static final double DROP_RATIO = 0.9;
+    static final double SMOOTHING = 0.2;
+    static final int PROBE_INTERVAL = 500;
+
+    /**
+     * The slot of one request in flight, released once with its outcome.
+     */
+    public final class Permit {
+        private final long startNanos = nanoClock.getAsLong();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Releases the permit of a request the server answered in time.
+         */
+        public void success() {
+            release(Outcome.SUCCESS);
+        }
+
+        /**
+         * Releases the permit of a request throttled, failed on the server or timed out.
+         */
+        public void dropped() {
+            release(Outcome.DROPPED);
+        }
+
+        /**
+         * Releases the permit without taking the request into account, e.g. for a client error.
+         */
+        public void ignore() {
+            release(Outcome.IGNORED);
+        }
+
+        private void release(Outcome outcome) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            AdaptiveConcurrencyLimit.this.release(this, outcome);
+        }
+    }
+
+    private enum Outcome { SUCCESS, DROPPED, IGNORED }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private Permit granted;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final int floor;
+    private final int ceiling;
+    private final LongSupplier nanoClock;
+    private final Deque<Waiter> waiting = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long minRtt = Long.MAX_VALUE;
+    private long samples;
+
+    /**
+     * @param floor The lowest the limit may go
+     * @param ceiling The highest the limit may go
+     * @param initial The limit to start from, e.g. the configured parallel degree
+     */
+    public AdaptiveConcurrencyLimit(int floor, int ceiling, int initial) {
+        this(floor, ceiling, initial, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(int floor, int ceiling, int initial, LongSupplier nanoClock) {
+        if (floor < 1 || ceiling < floor) {
+            throw new IllegalArgumentException("Invalid concurrency limits: between " + floor + " and " + ceiling);
+        }
+        this.floor = floor;
+        this.ceiling = ceiling;
+        this.limit = Math.clamp(initial, floor, ceiling);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return The highest the limit may go
+     */
+    public int ceiling() {
+        return ceiling;
+    }
+
+    /**
+     * @return The current limit on the number of requests in flight
+     */
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return The number of requests currently in flight
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return The minimum round-trip time observed since the last probe, in nanoseconds (0 before any sample)
+     */
+    public synchronized long minRttNanos() {
+        return minRtt == Long.MAX_VALUE ? 0 : minRtt;
+    }
+
+    /**
+     * Waits for a slot under the limit. Cancelling the wait gives up the place in the queue.
+     *
+     * @return A Mono emitting the permit of the request once there is room for it
+     */
+    public Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            Permit permit = null;
+            synchronized (this) {
+                if (waiting.isEmpty() && inFlight < (int) limit) {
+                    permit = new Permit(++inFlight);
+                } else {
+                    waiting.add(waiter);
+                }
+            }
+            if (permit != null) {
+                sink.success(permit);
+                return;
+            }
+            sink.onCancel(() -> {
+                Permit granted;
+                synchronized (this) {
+                    waiting.remove(waiter);
+                    granted = waiter.granted;
+                }
+                // Granted while the wait was being cancelled: nobody will release it
+                if (granted != null) {
+                    granted.ignore();
+                }
+            });
+        });
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        long rtt = nanoClock.getAsLong() - permit.startNanos;
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            if (outcome != Outcome.IGNORED) {
+                update(rtt, permit.inFlightAtStart, outcome == Outcome.DROPPED);
+            }
+            while (!waiting.isEmpty() && inFlight < (int) limit) {
+                Waiter waiter = waiting.poll();
+                waiter.granted = new Permit(++inFlight);
+                granted.add(waiter);
+            }
+        }
+        granted.forEach(waiter -> waiter.sink.success(waiter.granted));
+    }
+
+    private void update(long rtt, int inFlightAtStart, boolean dropped) {
+        int previous = (int) limit;
+        if (dropped) {
+            limit = Math.max(floor, limit * DROP_RATIO);
+        } else {
+            if (samples++ % PROBE_INTERVAL == 0) {
+                minRtt = rtt;
+            }
+            minRtt = Math.min(minRtt, rtt);
+            double gradient = Math.clamp(TOLERANCE * minRtt / Math.max(1, rtt), 0.5, 1.0);
+            if (gradient == 1.0 && inFlightAtStart < limit / 2) {
+                return;
+            }
+            // No queue allowance once requests slow down: at small limits it would outweigh the gradient
+            double target = gradient < 1.0 ? limit * gradient : limit + Math.sqrt(limit);
+            limit = Math.clamp(limit * (1 - SMOOTHING) + target * SMOOTHING, floor, ceiling);
+        }
+        if ((int) limit != previous) {
+            ConcurrencyLimitEvent.commit(previous, (int) limit, rtt, minRttNanos(), dropped);
+            logger.debug("Concurrency limit {} -> {} (RTT {} ms, min RTT {} ms{})", previous, (int) limit,
+                    TimeUnit.NANOSECONDS.toMillis(rtt), TimeUnit.NANOSECONDS.toMillis(minRttNanos()),
+                    dropped ? ", dropped" : "");
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d (between %d and %d), %d in flight, min RTT %d ms", (int) limit, floor, ceiling,
+                inFlight, TimeUnit.NANOSECONDS.toMillis(minRttNanos()));
+    }
+}
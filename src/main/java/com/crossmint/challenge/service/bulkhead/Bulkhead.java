@@ -0,0 +1,117 @@
+package com.crossmint.challenge.service.bulkhead;
+
+import com.crossmint.challenge.service.LatencyHistogram;
+import com.crossmint.challenge.service.jfr.PacingWaitEvent;
+import com.crossmint.challenge.service.ratelimit.SharedRateLimiter;
+import com.crossmint.challenge.service.retry.RetryParking;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Isolates the requests of one endpoint and method: they get their own request slots, their
+ * own rate limit and their own retry parking, so a slow or throttled endpoint can't starve
+ * the others.
+ * <p>
+ * Attempts wait for the rate limit of the bulkhead, then for the one shared with the other
+ * processes if any, before they start: pacing is never part of an attempt, nor of its timeout.
+ */
+public class Bulkhead {
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final int concurrency;
+
+    @Getter
+    private final double ratePerSecond;
+
+    private final RetryParking parking;
+    private final RateLimiter rateLimiter;
+    private final SharedRateLimiter sharedRateLimiter;
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * @param name The name of the bulkhead, e.g. "POST /soloons"
+     * @param concurrency The maximum number of attempts in flight
+     * @param ratePerSecond The maximum rate of attempts per second (zero or negative for no limit)
+     * @param retryStrategy Decides whether and when failed attempts are retried
+     */
+    public Bulkhead(String name, int concurrency, double ratePerSecond, RetryStrategy retryStrategy) {
+        this(name, concurrency, ratePerSecond, retryStrategy, null);
+    }
+
+    /**
+     * @param name The name of the bulkhead, e.g. "POST /soloons"
+     * @param concurrency The maximum number of attempts in flight
+     * @param ratePerSecond The maximum rate of attempts per second (zero or negative for no limit)
+     * @param retryStrategy Decides whether and when failed attempts are retried
+     * @param sharedRateLimiter The rate limiter shared with the other processes of the host, or null
+     */
+    public Bulkhead(String name, int concurrency, double ratePerSecond, RetryStrategy retryStrategy,
+                    SharedRateLimiter sharedRateLimiter) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Invalid concurrency for bulkhead " + name + ": " + concurrency);
+        }
+        this.name = name;
+        this.concurrency = concurrency;
+        this.ratePerSecond = Math.max(0, ratePerSecond);
+        this.parking = new RetryParking(name, retryStrategy, concurrency);
+        this.rateLimiter = ratePerSecond > 0 ? new RateLimiter(ratePerSecond) : null;
+        this.sharedRateLimiter = sharedRateLimiter;
+    }
+
+    /**
+     * Performs an operation within this bulkhead, retrying it according to the {@link RetryStrategy}.
+     *
+     * @param attempt Supplies a single attempt of the operation given its number (starting at 1),
+     *                invoked again for every retry
+     * @return A Mono completing once an attempt succeeded, or failing with the error to give up with
+     */
+    public Mono<Void> submit(IntFunction<Mono<Void>> attempt) {
+        return parking.submit(number -> paced(() -> attempt.apply(number)))
+                .doOnSuccess(v -> succeeded.incrementAndGet())
+                .doOnError(e -> failed.incrementAndGet());
+    }
+
+    private Mono<Void> paced(Supplier<Mono<Void>> attempt) {
+        Duration wait = rateLimiter == null ? Duration.ZERO : rateLimiter.reserve();
+        Mono<Void> measured = Mono.defer(() -> {
+            long start = System.nanoTime();
+            attempts.incrementAndGet();
+            inFlight.incrementAndGet();
+            return Mono.defer(attempt).doFinally(signal -> {
+                inFlight.decrementAndGet();
+                latencies.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            });
+        });
+        // The shared slot is only reserved once the bulkhead lets the attempt through, so that a
+        // process throttled locally doesn't hold slots the other processes could use
+        Mono<Void> shared = sharedRateLimiter == null ? measured : Mono.defer(() -> {
+            Duration sharedWait = sharedRateLimiter.reserve();
+            return sharedWait.isZero() ? measured : PacingWaitEvent.delay("shared", name, sharedWait).then(measured);
+        });
+        return wait.isZero() ? shared : PacingWaitEvent.delay("bulkhead", name, wait).then(shared);
+    }
+
+    /**
+     * @return The current counters of this bulkhead
+     */
+    public BulkheadMetrics metrics() {
+        return new BulkheadMetrics(name, attempts.get(), succeeded.get(), failed.get(), inFlight.get(),
+                parking.parked(), latencies.percentile(50) / 1000, latencies.percentile(99) / 1000);
+    }
+}
@@ -0,0 +1,23 @@
+package com.crossmint.challenge.service.bulkhead;
+
+/**
+ * A point-in-time view of the counters of one {@link Bulkhead}.
+ *
+ * @param name The name of the bulkhead, e.g. "POST /soloons"
+ * @param attempts The attempts started, including retries
+ * @param succeeded The operations that succeeded
+ * @param failed The operations that failed permanently
+ * @param inFlight The attempts currently in flight
+ * @param parked The operations currently waiting out a retry backoff
+ * @param p50Millis The median attempt latency, in milliseconds
+ * @param p99Millis The 99th percentile attempt latency, in milliseconds
+ */
+public record BulkheadMetrics(String name, long attempts, long succeeded, long failed, int inFlight, int parked,
+                              long p50Millis, long p99Millis) {
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d attempts, %d succeeded, %d failed, %d in flight, %d parked, p50 %d ms, p99 %d ms",
+                name, attempts, succeeded, failed, inFlight, parked, p50Millis, p99Millis);
+    }
+}
@@ -0,0 +1,187 @@
+package com.crossmint.challenge.service.bulkhead;
+
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.service.ratelimit.SharedRateLimiter;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link Bulkhead} of every endpoint and method, created on first use.
+ * <p>
+ * Each bulkhead gets the default concurrency and rate limit unless a rule overrides them
+ * (a rule without a rate keeps the default one). Rules are comma-separated, as {@code [METHOD ]path:concurrency[@rate per second]}, e.g.
+ * {@code "/soloons:2@1.5, DELETE /polyanets:4"}. A rule without a method applies to every
+ * method of the path, each method still getting its own bulkhead; a rule with a method wins
+ * over one without.
+ * <p>
+ * With an {@link AdaptiveConcurrencyLimit}, the requests of every bulkhead also share a limit
+ * tuned from their round-trip times, and bulkheads without a rule get its ceiling as their
+ * concurrency, so that the adaptive limit is what bounds them.
+ * <p>
+ * With a {@link SharedRateLimiter}, every bulkhead also paces its attempts by the rate limit
+ * shared with the other processes of the host.
+ */
+@Component
+public class Bulkheads {
+
+    private record Limits(int concurrency, double ratePerSecond) {}
+
+    private final RetryStrategy retryStrategy;
+    private final Limits defaults;
+    private final Map<String, Limits> rules;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final SharedRateLimiter sharedRateLimiter;
+
+    /**
+     * @param retryStrategy Decides whether and when failed attempts are retried
+     * @param defaultConcurrency The concurrency of bulkheads without a rule
+     * @param defaultRatePerSecond The rate limit of bulkheads without a rule (zero for no limit)
+     * @param rules The per-endpoint overrides, e.g. "/soloons:2@1.5, DELETE /polyanets:4"
+     */
+    public Bulkheads(RetryStrategy retryStrategy, int defaultConcurrency, double defaultRatePerSecond, String rules) {
+        this(retryStrategy, defaultConcurrency, defaultRatePerSecond, rules, null);
+    }
+
+    /**
+     * @param retryStrategy Decides whether and when failed attempts are retried
+     * @param defaultConcurrency The concurrency of bulkheads without a rule, and the initial adaptive limit
+     * @param defaultRatePerSecond The rate limit of bulkheads without a rule (zero for no limit)
+     * @param rules The per-endpoint overrides, e.g. "/soloons:2@1.5, DELETE /polyanets:4"
+     * @param adaptive Whether the requests in flight are bounded by an adaptive limit
+     * @param minConcurrency The floor of the adaptive limit
+     * @param maxConcurrency The ceiling of the adaptive limit
+     * @param sharedRateLimiter Provides the rate limiter shared with the other processes of the host, if enabled
+     */
+    @Autowired
+    public Bulkheads(RetryStrategy retryStrategy,
+                     @Value("${crossmint.parallel-degree:3}") int defaultConcurrency,
+                     @Value("${crossmint.bulkhead.rate-per-second:0}") double defaultRatePerSecond,
+                     @Value("${crossmint.bulkhead.rules:}") String rules,
+                     @Value("${crossmint.concurrency.adaptive:false}") boolean adaptive,
+                     @Value("${crossmint.concurrency.min:1}") int minConcurrency,
+                     @Value("${crossmint.concurrency.max:16}") int maxConcurrency,
+                     ObjectProvider<SharedRateLimiter> sharedRateLimiter) {
+        this(retryStrategy, defaultConcurrency, defaultRatePerSecond, rules, adaptive
+                ? new AdaptiveConcurrencyLimit(minConcurrency, maxConcurrency, defaultConcurrency)
+                : null, sharedRateLimiter.getIfAvailable());
+    }
+
+    /**
+     * @param retryStrategy Decides whether and when failed attempts are retried
+     * @param defaultConcurrency The concurrency of bulkheads without a rule (raised to the ceiling of the limit)
+     * @param defaultRatePerSecond The rate limit of bulkheads without a rule (zero for no limit)
+     * @param rules The per-endpoint overrides, e.g. "/soloons:2@1.5, DELETE /polyanets:4"
+     * @param concurrencyLimit The limit shared by the requests of every bulkhead, or null for none
+     */
+    public Bulkheads(RetryStrategy retryStrategy, int defaultConcurrency, double defaultRatePerSecond, String rules,
+                     AdaptiveConcurrencyLimit concurrencyLimit) {
+        this(retryStrategy, defaultConcurrency, defaultRatePerSecond, rules, concurrencyLimit, null);
+    }
+
+    /**
+     * @param retryStrategy Decides whether and when failed attempts are retried
+     * @param defaultConcurrency The concurrency of bulkheads without a rule (raised to the ceiling of the limit)
+     * @param defaultRatePerSecond The rate limit of bulkheads without a rule (zero for no limit)
+     * @param rules The per-endpoint overrides, e.g. "/soloons:2@1.5, DELETE /polyanets:4"
+     * @param concurrencyLimit The limit shared by the requests of every bulkhead, or null for none
+     * @param sharedRateLimiter The rate limiter shared with the other processes of the host, or null for none
+     */
+    public Bulkheads(RetryStrategy retryStrategy, int defaultConcurrency, double defaultRatePerSecond, String rules,
+                     AdaptiveConcurrencyLimit concurrencyLimit, SharedRateLimiter sharedRateLimiter) {
+        this.retryStrategy = retryStrategy;
+        this.defaults = new Limits(concurrencyLimit == null ? defaultConcurrency
+                : Math.max(defaultConcurrency, concurrencyLimit.ceiling()), defaultRatePerSecond);
+        this.rules = parse(rules, defaultRatePerSecond);
+        this.concurrencyLimit = concurrencyLimit;
+        this.sharedRateLimiter = sharedRateLimiter;
+    }
+
+    /**
+     * Creates bulkheads all sharing the same limits.
+     *
+     * @param retryStrategy Decides whether and when failed attempts are retried
+     * @param concurrency The concurrency of each bulkhead
+     * @return The bulkheads
+     */
+    public static Bulkheads uniform(RetryStrategy retryStrategy, int concurrency) {
+        return new Bulkheads(retryStrategy, concurrency, 0, "");
+    }
+
+    /**
+     * @return The limit shared by the requests of every bulkhead, or null if there is none
+     */
+    public AdaptiveConcurrencyLimit concurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * @return The rate limiter shared with the other processes of the host, or null if there is none
+     */
+    public SharedRateLimiter sharedRateLimiter() {
+        return sharedRateLimiter;
+    }
+
+    /**
+     * @param operation An operation
+     * @return The bulkhead of the endpoint and method of the operation
+     */
+    public Bulkhead forOperation(CellOperation operation) {
+        String path = operation.target().getCreationPath();
+        String method = operation.method().name();
+        return bulkheads.computeIfAbsent(method + " " + path, name -> {
+            Limits limits = rules.getOrDefault(name, rules.getOrDefault(path, defaults));
+            return new Bulkhead(name, limits.concurrency(), limits.ratePerSecond(), retryStrategy, sharedRateLimiter);
+        });
+    }
+
+    /**
+     * @return The current counters of every bulkhead used so far, sorted by name
+     */
+    public List<BulkheadMetrics> metrics() {
+        return bulkheads.values().stream()
+                .map(Bulkhead::metrics)
+                .sorted(Comparator.comparing(BulkheadMetrics::name))
+                .toList();
+    }
+
+    private static Map<String, Limits> parse(String rules, double defaultRatePerSecond) {
+        Map<String, Limits> limits = new HashMap<>();
+        for (String rule : rules.split(",")) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            int colon = rule.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Invalid bulkhead rule: " + rule);
+            }
+            String[] target = rule.substring(0, colon).trim().split("\\s+");
+            String[] settings = rule.substring(colon + 1).trim().split("@");
+            if (target.length > 2 || settings.length > 2 || !target[target.length - 1].startsWith("/")) {
+                throw new IllegalArgumentException("Invalid bulkhead rule: " + rule);
+            }
+            String key = target.length == 2 ? target[0].toUpperCase(Locale.ROOT) + " " + target[1] : target[0];
+            try {
+                int concurrency = Integer.parseInt(settings[0].trim());
+                double rate = settings.length == 2 ? Double.parseDouble(settings[1].trim()) : defaultRatePerSecond;
+                if (concurrency <= 0 || rate < 0) {
+                    throw new IllegalArgumentException("Invalid bulkhead rule: " + rule);
+                }
+                limits.put(key, new Limits(concurrency, rate));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid bulkhead rule: " + rule, e);
+            }
+        }
+        return limits;
+    }
+}
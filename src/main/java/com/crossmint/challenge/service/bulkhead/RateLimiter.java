@@ -0,0 +1,43 @@
+package com.crossmint.challenge.service.bulkhead;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Spaces requests evenly at a fixed rate. Each caller reserves the next free time slot and
+ * is told how long to wait for it, so waiting never blocks a thread.
+ */
+public final class RateLimiter {
+
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private long nextFreeNanos;
+
+    /**
+     * @param permitsPerSecond The maximum sustained rate, strictly positive
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, LongSupplier nanoClock) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Invalid rate: " + permitsPerSecond + " per second");
+        }
+        this.intervalNanos = (long) (1e9 / permitsPerSecond);
+        this.nanoClock = nanoClock;
+        this.nextFreeNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Reserves the next permit.
+     *
+     * @return How long the caller must wait before using the permit (zero if it is free now)
+     */
+    public synchronized Duration reserve() {
+        long now = nanoClock.getAsLong();
+        long start = Math.max(now, nextFreeNanos);
+        nextFreeNanos = start + intervalNanos;
+        return Duration.ofNanos(start - now);
+    }
+}
@@ -0,0 +1,80 @@
+package com.crossmint.challenge.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * A single attempt of an API request, from the moment it is sent to its response (or error).
+ * Retried operations record one event per attempt.
+ */
+@Name("crossmint.ApiRequest")
+@Label("API Request")
+@Category({"Crossmint", "API"})
+@Description("A single attempt of an API request")
+@StackTrace(false)
+public class ApiRequestEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Row")
+    @Description("Row of the cell the request applies to, -1 for map-wide requests")
+    public int row = -1;
+
+    @Label("Column")
+    @Description("Column of the cell the request applies to, -1 for map-wide requests")
+    public int column = -1;
+
+    @Label("Attempt")
+    @Description("1 for the first attempt, 2 for the first retry, ...")
+    public int attempt = 1;
+
+    @Label("Status")
+    @Description("HTTP status of the response, 0 if none was received (e.g. timeout)")
+    public int status;
+
+    @Label("Bytes")
+    @Description("Size of the response body, 0 if not known to the transport")
+    @DataAmount
+    public long bytes;
+
+    @Label("Error")
+    public String error;
+
+    /**
+     * Creates and begins the event of a request.
+     *
+     * @param method The HTTP method
+     * @param endpoint The path of the endpoint
+     * @param attempt The number of the attempt, starting at 1
+     * @return The started event, to be committed once the response arrived
+     */
+    public static ApiRequestEvent begin(String method, String endpoint, int attempt) {
+        ApiRequestEvent event = new ApiRequestEvent();
+        event.method = method;
+        event.endpoint = endpoint;
+        event.attempt = attempt;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records the failure of the request, taking the status from HTTP errors.
+     *
+     * @param failure The error of the attempt
+     */
+    public void fail(Throwable failure) {
+        if (failure instanceof WebClientResponseException e) {
+            status = e.getStatusCode().value();
+        }
+        error = failure.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,59 @@
+package com.crossmint.challenge.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A change of the adaptive limit on the number of requests in flight.
+ */
+@Name("crossmint.ConcurrencyLimit")
+@Label("Concurrency Limit")
+@Category({"Crossmint", "API"})
+@Description("A change of the adaptive limit on the number of requests in flight")
+@StackTrace(false)
+public class ConcurrencyLimitEvent extends jdk.jfr.Event {
+
+    @Label("Previous Limit")
+    public int previousLimit;
+
+    @Label("Limit")
+    public int limit;
+
+    @Label("RTT")
+    @Description("The round-trip time of the request that changed the limit")
+    @Timespan(Timespan.NANOSECONDS)
+    public long rtt;
+
+    @Label("Minimum RTT")
+    @Timespan(Timespan.NANOSECONDS)
+    public long minRtt;
+
+    @Label("Dropped")
+    @Description("Whether the request was throttled, failed on the server or timed out")
+    public boolean dropped;
+
+    /**
+     * Commits the event of a limit change, if enabled.
+     *
+     * @param previousLimit The limit before the change
+     * @param limit The new limit
+     * @param rtt The round-trip time of the request that changed the limit, in nanoseconds
+     * @param minRtt The minimum round-trip time observed, in nanoseconds
+     * @param dropped Whether the request was dropped
+     */
+    public static void commit(int previousLimit, int limit, long rtt, long minRtt, boolean dropped) {
+        ConcurrencyLimitEvent event = new ConcurrencyLimitEvent();
+        if (event.isEnabled()) {
+            event.previousLimit = previousLimit;
+            event.limit = limit;
+            event.rtt = rtt;
+            event.minRtt = minRtt;
+            event.dropped = dropped;
+            event.commit();
+        }
+    }
+}
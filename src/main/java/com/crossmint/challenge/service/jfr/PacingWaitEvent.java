@@ -0,0 +1,46 @@
+package com.crossmint.challenge.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * The time a request waited for a rate limiter before being sent.
+ */
+@Name("crossmint.PacingWait")
+@Label("Pacing Wait")
+@Category({"Crossmint", "API"})
+@Description("The time a request waited for a rate limiter before being sent")
+@StackTrace(false)
+public class PacingWaitEvent extends jdk.jfr.Event {
+
+    @Label("Limiter")
+    @Description("The rate limiter, e.g. \"bulkhead\" or \"shared\"")
+    public String limiter;
+
+    @Label("Operation")
+    public String operation;
+
+    /**
+     * Waits out a pacing delay, recording it as an event.
+     *
+     * @param limiter The rate limiter imposing the wait
+     * @param operation The paced requests, e.g. the bulkhead "POST /soloons" or the request path
+     * @param wait The time to wait
+     * @return A Mono completing once the wait is over
+     */
+    public static Mono<Long> delay(String limiter, String operation, Duration wait) {
+        return Mono.defer(() -> {
+            PacingWaitEvent event = new PacingWaitEvent();
+            event.limiter = limiter;
+            event.operation = operation;
+            event.begin();
+            return Mono.delay(wait).doOnNext(tick -> event.commit());
+        });
+    }
+}
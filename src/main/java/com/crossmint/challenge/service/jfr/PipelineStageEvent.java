@@ -0,0 +1,87 @@
+package com.crossmint.challenge.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A stage of the pipeline of a command: fetching the goal or the map, parsing them, planning
+ * and running the operations.
+ */
+@Name("crossmint.PipelineStage")
+@Label("Pipeline Stage")
+@Category({"Crossmint", "Pipeline"})
+@Description("A stage of a command: goal fetch, map fetch, parse, plan or run")
+@StackTrace(false)
+public class PipelineStageEvent extends jdk.jfr.Event {
+
+    /**
+     * The stage fetching the goal from the API.
+     */
+    public static final String GOAL_FETCH = "goal-fetch";
+
+    /**
+     * The stage streaming the map from the API, including its parsing.
+     */
+    public static final String MAP_FETCH = "map-fetch";
+
+    /**
+     * The stage parsing a response. The map is parsed while it streams in, so its parse
+     * stage spans the fetch and its active time is the time spent in the parser.
+     */
+    public static final String PARSE = "parse";
+
+    /**
+     * The stage counting the operations of a run.
+     */
+    public static final String PLAN = "plan";
+
+    /**
+     * The stage validating a plan against the current map, before it is counted and run.
+     */
+    public static final String PLAN_VALIDATION = "plan-validation";
+
+    /**
+     * The stage performing the operations of a run.
+     */
+    public static final String RUN = "run";
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Phase")
+    @Description("The command phase, e.g. \"Replicate\", or the parsed resource")
+    public String phase;
+
+    @Label("Items")
+    @Description("Cells parsed, operations planned or completed, or operations rejected by plan validation")
+    public long items;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Active Time")
+    @Description("Time spent working in the stage, less than the duration when it overlaps with I/O")
+    @Timespan(Timespan.NANOSECONDS)
+    public long activeTime;
+
+    /**
+     * Creates and begins the event of a stage.
+     *
+     * @param stage The stage, one of the constants of this class
+     * @param phase The command phase or the parsed resource
+     * @return The started event, to be committed once the stage is over
+     */
+    public static PipelineStageEvent begin(String stage, String phase) {
+        PipelineStageEvent event = new PipelineStageEvent();
+        event.stage = stage;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+}
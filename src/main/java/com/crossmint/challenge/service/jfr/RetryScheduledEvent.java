@@ -0,0 +1,55 @@
+package com.crossmint.challenge.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.time.Duration;
+
+/**
+ * A failed attempt scheduled for a retry, with the backoff it waits out first.
+ */
+@Name("crossmint.RetryScheduled")
+@Label("Retry Scheduled")
+@Category({"Crossmint", "API"})
+@Description("A failed attempt scheduled for a retry after a backoff")
+@StackTrace(false)
+public class RetryScheduledEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("The retried requests, e.g. the bulkhead \"POST /soloons\"")
+    public String operation;
+
+    @Label("Retry")
+    @Description("1 for the first retry, 2 for the second, ...")
+    public long retry;
+
+    @Label("Backoff")
+    @Timespan(Timespan.NANOSECONDS)
+    public long backoff;
+
+    @Label("Error")
+    public String error;
+
+    /**
+     * Commits the event of a retry, if enabled.
+     *
+     * @param operation The retried requests
+     * @param retry The number of the retry, starting at 1
+     * @param backoff The backoff before the retry
+     * @param failure The error of the failed attempt
+     */
+    public static void commit(String operation, long retry, Duration backoff, Throwable failure) {
+        RetryScheduledEvent event = new RetryScheduledEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.retry = retry;
+            event.backoff = backoff.toNanos();
+            event.error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+            event.commit();
+        }
+    }
+}
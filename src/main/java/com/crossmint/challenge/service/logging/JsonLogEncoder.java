@@ -0,0 +1,77 @@
+package com.crossmint.challenge.service.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Encodes log events as JSON Lines, one object per event: the timestamp, level, thread, logger
+ * and formatted message, the markers, the key-value pairs of the event (e.g. the method, row
+ * and column of an operation) as top-level fields, and the error with its stack trace.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final byte[] NO_BYTES = new byte[0];
+
+    @Override
+    public byte[] headerBytes() {
+        return NO_BYTES;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("ts", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+            json.writeStringField("level", event.getLevel().toString());
+            json.writeStringField("thread", event.getThreadName());
+            json.writeStringField("logger", event.getLoggerName());
+            json.writeStringField("message", event.getFormattedMessage());
+            if (event.getMarkerList() != null && !event.getMarkerList().isEmpty()) {
+                json.writeArrayFieldStart("markers");
+                for (Marker marker : event.getMarkerList()) {
+                    json.writeString(marker.getName());
+                }
+                json.writeEndArray();
+            }
+            if (event.getKeyValuePairs() != null) {
+                for (KeyValuePair pair : event.getKeyValuePairs()) {
+                    json.writeFieldName(pair.key);
+                    if (pair.value instanceof Number || pair.value instanceof Boolean) {
+                        json.writeObject(pair.value);
+                    } else {
+                        json.writeString(String.valueOf(pair.value));
+                    }
+                }
+            }
+            IThrowableProxy error = event.getThrowableProxy();
+            if (error != null) {
+                json.writeStringField("error", error.getClassName() + ": " + error.getMessage());
+                json.writeStringField("stackTrace", ThrowableProxyUtil.asString(error));
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode log event", e);
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return NO_BYTES;
+    }
+}
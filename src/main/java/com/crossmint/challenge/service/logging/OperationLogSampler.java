@@ -0,0 +1,77 @@
+package com.crossmint.challenge.service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Thins out the per-operation logs of bulk runs, the ones carrying the {@link #OPERATION}
+ * marker: only one in {@code sampleEvery} of them is kept, and at most {@code maxPerSecond}
+ * per second. Warnings and errors, and every event without the marker, always go through.
+ */
+public class OperationLogSampler extends Filter<ILoggingEvent> {
+
+    /**
+     * Marks the logs written once per operation, e.g. its success.
+     */
+    public static final Marker OPERATION = MarkerFactory.getMarker("OPERATION");
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int sampleEvery;
+    private final int maxPerSecond;
+    private final LongSupplier nanoClock;
+    private final AtomicLong seen = new AtomicLong();
+    private final AtomicLong windowStart;
+    private final AtomicInteger inWindow = new AtomicInteger();
+
+    /**
+     * @param sampleEvery Keeps one in that many operation logs (1 keeps them all)
+     * @param maxPerSecond The maximum number of operation logs kept per second (0 for no limit)
+     */
+    public OperationLogSampler(int sampleEvery, int maxPerSecond) {
+        this(sampleEvery, maxPerSecond, System::nanoTime);
+    }
+
+    OperationLogSampler(int sampleEvery, int maxPerSecond, LongSupplier nanoClock) {
+        if (sampleEvery < 1 || maxPerSecond < 0) {
+            throw new IllegalArgumentException("Invalid operation log sampling: 1 in " + sampleEvery + ", at most "
+                    + maxPerSecond + " per second");
+        }
+        this.sampleEvery = sampleEvery;
+        this.maxPerSecond = maxPerSecond;
+        this.nanoClock = nanoClock;
+        this.windowStart = new AtomicLong(nanoClock.getAsLong());
+        setName("OPERATION_SAMPLER");
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (event.getLevel().isGreaterOrEqual(Level.WARN) || event.getMarkerList() == null
+                || !event.getMarkerList().contains(OPERATION)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (sampleEvery > 1 && seen.incrementAndGet() % sampleEvery != 0) {
+            return FilterReply.DENY;
+        }
+        return maxPerSecond == 0 || withinRate() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    // Fixed one-second windows: a burst may straddle two of them, which is fine for logs
+    private boolean withinRate() {
+        long now = nanoClock.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= SECOND_NANOS && windowStart.compareAndSet(start, now)) {
+            inWindow.set(0);
+        }
+        return inWindow.incrementAndGet() <= maxPerSecond;
+    }
+}
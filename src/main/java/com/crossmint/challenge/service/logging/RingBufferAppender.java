@@ -0,0 +1,125 @@
+package com.crossmint.challenge.service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands log events over to a bounded ring buffer, written to the wrapped appender in batches by
+ * a background thread, so logging threads never wait on console I/O.
+ * <p>
+ * When the buffer is full, events below WARN are dropped and counted; the number of dropped
+ * events is logged once the writer catches up. Warnings and errors (including every retry) are
+ * never dropped: their logging thread waits for room instead. Stopping the appender writes out
+ * every buffered event.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final Appender<ILoggingEvent> delegate;
+    private final BlockingQueue<ILoggingEvent> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private Thread writer;
+
+    /**
+     * @param delegate The appender events are written to, started with this one if needed, and left
+     *                 running when this one stops so that it can take over
+     * @param capacity The number of events the buffer holds
+     */
+    public RingBufferAppender(Appender<ILoggingEvent> delegate, int capacity) {
+        this.delegate = delegate;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        setName("RING_BUFFER");
+    }
+
+    /**
+     * @return The number of events dropped because the buffer was full, and not reported yet
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!delegate.isStarted()) {
+            delegate.start();
+        }
+        super.start();
+        writer = Thread.ofPlatform().name("log-writer").daemon().start(this::write);
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        try {
+            writer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // The event is read on another thread, after the caller has moved on
+        event.prepareForDeferredProcessing();
+        if (!event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            if (!buffer.offer(event)) {
+                dropped.incrementAndGet();
+            }
+            return;
+        }
+        try {
+            buffer.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            delegate.doAppend(event);
+        }
+    }
+
+    private void write() {
+        List<ILoggingEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (isStarted() || !buffer.isEmpty()) {
+            try {
+                ILoggingEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, BATCH_SIZE - 1);
+            batch.forEach(delegate::doAppend);
+            batch.clear();
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                delegate.doAppend(droppedEvent(lost));
+            }
+        }
+    }
+
+    private static ILoggingEvent droppedEvent(long lost) {
+        Logger logger = (Logger) LoggerFactory.getLogger(RingBufferAppender.class);
+        return new LoggingEvent(RingBufferAppender.class.getName(), logger, Level.WARN,
+                "{} log events below WARN were dropped: the log buffer was full", null, new Object[]{lost});
+    }
+}
@@ -0,0 +1,45 @@
+package com.crossmint.challenge.service.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+
+/**
+ * Publishes the {@code Retry-After} of the throttled responses (429 and 503) of the WebClient
+ * to the other processes through a {@link SharedRateLimiter}.
+ * <p>
+ * Requests are not paced here: the service waits for the shared rate limit before an attempt
+ * starts, so that the wait doesn't count against the timeout of the request.
+ */
+public class SharedRateLimitFilter implements ExchangeFilterFunction {
+
+    private final SharedRateLimiter limiter;
+    private final Clock clock;
+
+    /**
+     * @param limiter The limiter shared by the processes of the host
+     */
+    public SharedRateLimitFilter(SharedRateLimiter limiter) {
+        this(limiter, Clock.systemUTC());
+    }
+
+    SharedRateLimitFilter(SharedRateLimiter limiter, Clock clock) {
+        this.limiter = limiter;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return next.exchange(request).doOnNext(this::observe);
+    }
+
+    private void observe(ClientResponse response) {
+        limiter.onResponse(response.statusCode().value(),
+                response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER), clock.instant());
+    }
+}
@@ -0,0 +1,171 @@
+package com.crossmint.challenge.service.ratelimit;
+
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A rate limiter shared by every process of the host through a small memory-mapped file.
+ * <p>
+ * The bucket is kept as a single "theoretical arrival time" (the generic cell rate algorithm,
+ * equivalent to a token bucket), so each reservation is one compare-and-set on the mapped
+ * memory and no lock is ever taken, within or across processes. A second word holds the
+ * moment until which the server asked every client to back off (e.g. from a
+ * {@code Retry-After} header), so a throttle seen by one process is honoured by all of them.
+ * <p>
+ * Layout (native byte order, 8-byte aligned):
+ * <pre>
+ * long  magic and version
+ * long  theoretical arrival time of the next request (epoch micros)
+ * long  throttled until (epoch micros)
+ * </pre>
+ * Times are wall-clock, the only clock all processes share; every process should be
+ * configured with the same rate.
+ */
+public final class SharedRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(SharedRateLimiter.class);
+
+    static final long MAGIC = 0x434D524C_00000001L;
+    private static final int FILE_BYTES = 64;
+    private static final int MAGIC_INDEX = 0;
+    private static final int ARRIVAL_INDEX = 8;
+    private static final int THROTTLE_INDEX = 16;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    @Getter
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long intervalMicros;
+    private final long burstMicros;
+    private final LongSupplier epochMicros;
+
+    /**
+     * Maps the shared file, creating it if needed.
+     *
+     * @param path The file shared by every process, on a local disk
+     * @param requestsPerSecond The sustained rate allowed across all processes
+     * @param burst The number of requests that may be sent back to back after an idle period
+     * @throws IOException if the file can't be mapped
+     * @throws IllegalStateException if the file is not a rate limiter file
+     */
+    public SharedRateLimiter(Path path, double requestsPerSecond, int burst) throws IOException {
+        this(path, requestsPerSecond, burst, () -> ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now()));
+    }
+
+    SharedRateLimiter(Path path, double requestsPerSecond, int burst, LongSupplier epochMicros) throws IOException {
+        if (!(requestsPerSecond > 0) || burst <= 0) {
+            throw new IllegalArgumentException("Invalid shared rate limit: " + requestsPerSecond
+                    + " requests per second, burst " + burst);
+        }
+        this.path = path;
+        this.intervalMicros = Math.max(1, (long) (1e6 / requestsPerSecond));
+        this.burstMicros = (burst - 1) * intervalMicros;
+        this.epochMicros = epochMicros;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+        }
+        // A new file is all zeros: the first process to see it stamps it
+        if (!LONGS.compareAndSet(buffer, MAGIC_INDEX, 0L, MAGIC)
+                && (long) LONGS.getVolatile(buffer, MAGIC_INDEX) != MAGIC) {
+            throw new IllegalStateException("Not a shared rate limiter file: " + path);
+        }
+    }
+
+    /**
+     * Reserves the next request slot shared by all processes.
+     *
+     * @return How long the caller must wait before sending its request (zero if it may go now)
+     */
+    public Duration reserve() {
+        long now = epochMicros.getAsLong();
+        long throttledUntil = (long) LONGS.getVolatile(buffer, THROTTLE_INDEX);
+        while (true) {
+            long arrival = (long) LONGS.getVolatile(buffer, ARRIVAL_INDEX);
+            long start = Math.max(Math.max(now, arrival - burstMicros), throttledUntil);
+            long next = Math.max(Math.max(arrival, now), throttledUntil) + intervalMicros;
+            if (LONGS.compareAndSet(buffer, ARRIVAL_INDEX, arrival, next)) {
+                return Duration.of(start - now, ChronoUnit.MICROS);
+            }
+        }
+    }
+
+    /**
+     * Makes every process hold its requests until the given moment. Earlier moments than the
+     * current throttle are ignored.
+     *
+     * @param until The moment requests may be sent again
+     */
+    public void throttleUntil(Instant until) {
+        long untilMicros = ChronoUnit.MICROS.between(Instant.EPOCH, until);
+        long current;
+        do {
+            current = (long) LONGS.getVolatile(buffer, THROTTLE_INDEX);
+            if (current >= untilMicros) {
+                return;
+            }
+        } while (!LONGS.compareAndSet(buffer, THROTTLE_INDEX, current, untilMicros));
+    }
+
+    /**
+     * Holds the requests of every process when a response asks clients to back off, i.e. a
+     * 429 or 503 with a {@code Retry-After} header.
+     *
+     * @param status The status of the response
+     * @param retryAfter The Retry-After header of the response, or null
+     * @param now The moment the response was received
+     */
+    public void onResponse(int status, String retryAfter, Instant now) {
+        if (retryAfter == null || (status != HttpStatus.TOO_MANY_REQUESTS.value()
+                && status != HttpStatus.SERVICE_UNAVAILABLE.value())) {
+            return;
+        }
+        Instant until = parseRetryAfter(retryAfter.trim(), now);
+        if (until != null) {
+            logger.warn("Throttled by the server, holding requests of every process until {}", until);
+            throttleUntil(until);
+        }
+    }
+
+    /**
+     * @return The moment until which requests are held, possibly in the past
+     */
+    public Instant throttledUntil() {
+        return Instant.EPOCH.plus((long) LONGS.getVolatile(buffer, THROTTLE_INDEX), ChronoUnit.MICROS);
+    }
+
+    /**
+     * @param retryAfter The value of a Retry-After header, in seconds or as an HTTP date
+     * @param now The current moment
+     * @return The moment requests may be sent again, or null if the value is invalid
+     */
+    static Instant parseRetryAfter(String retryAfter, Instant now) {
+        try {
+            return now.plusSeconds(Long.parseLong(retryAfter));
+        } catch (NumberFormatException e) {
+            try {
+                return ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            } catch (DateTimeParseException invalid) {
+                logger.debug("Ignoring invalid Retry-After header: {}", retryAfter);
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.crossmint.challenge.service.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * "Decorrelated jitter" backoff: each backoff is drawn uniformly between the base
+ * and three times the previous backoff, capped at a maximum. Retries from different
+ * requests spread out quickly instead of moving in lockstep.
+ *
+ * @param base The minimum backoff
+ * @param max The maximum backoff
+ */
+public record DecorrelatedJitterPolicy(Duration base, Duration max) implements RetryPolicy {
+
+    @Override
+    public Duration backoff(long attempt, Duration previous) {
+        long baseMillis = base.toMillis();
+        long upper = Math.min(max.toMillis(), Math.max(baseMillis, previous.toMillis()) * 3);
+        if (upper <= baseMillis) {
+            return Duration.ofMillis(Math.min(baseMillis, max.toMillis()));
+        }
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(baseMillis, upper + 1));
+    }
+}
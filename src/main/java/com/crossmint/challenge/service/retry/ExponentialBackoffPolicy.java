@@ -0,0 +1,36 @@
+package com.crossmint.challenge.service.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Doubles the backoff on every retry, capped at a maximum, and spreads it by
+ * a random offset of up to {@code jitterFactor} times the backoff in either direction.
+ * This matches the behaviour of Reactor's {@code Retry.backoff(...).jitter(...)}.
+ *
+ * @param base The backoff before the first retry
+ * @param max The maximum backoff
+ * @param jitterFactor The jitter factor (0-1)
+ */
+public record ExponentialBackoffPolicy(Duration base, Duration max, double jitterFactor) implements RetryPolicy {
+
+    public ExponentialBackoffPolicy {
+        if (jitterFactor < 0 || jitterFactor > 1) {
+            throw new IllegalArgumentException("Jitter factor must be between 0 and 1: " + jitterFactor);
+        }
+    }
+
+    @Override
+    public Duration backoff(long attempt, Duration previous) {
+        long baseMillis = base.toMillis();
+        long maxMillis = max.toMillis();
+        long millis = attempt >= Long.SIZE - 2 || baseMillis > (maxMillis >> attempt)
+                ? maxMillis
+                : Math.min(maxMillis, baseMillis << attempt);
+        long jitter = (long) (millis * jitterFactor);
+        if (jitter > 0) {
+            millis += ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+        }
+        return Duration.ofMillis(Math.max(0, Math.min(maxMillis, millis)));
+    }
+}
@@ -0,0 +1,16 @@
+package com.crossmint.challenge.service.retry;
+
+import java.time.Duration;
+
+/**
+ * Waits the same amount of time before every retry.
+ *
+ * @param delay The backoff before each retry
+ */
+public record FixedBackoffPolicy(Duration delay) implements RetryPolicy {
+
+    @Override
+    public Duration backoff(long attempt, Duration previous) {
+        return delay;
+    }
+}
@@ -0,0 +1,95 @@
+package com.crossmint.challenge.service.retry;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps retries at a percentage of the total traffic over a sliding window, shared by
+ * every request of the process.
+ * <p>
+ * While the server is healthy, retries are rare and the budget is never hit. During an
+ * incident, every parallel request failing and retrying would multiply the load on a server
+ * that is already struggling; the budget turns those retries into fast failures instead.
+ * A small number of retries per window is always allowed, so that low-traffic runs
+ * (e.g. a single create) still get their retries.
+ */
+public final class RetryBudget {
+
+    private final double ratio;
+    private final int minRetries;
+    private final long bucketNanos;
+    private final long[] bucketIds;
+    private final long[] requests;
+    private final long[] retries;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param percent The maximum retries, as a percentage of the requests in the window
+     * @param window The length of the sliding window
+     * @param minRetries The retries always allowed per window, regardless of the traffic
+     */
+    public RetryBudget(double percent, Duration window, int minRetries) {
+        this(percent, window, minRetries, System::nanoTime);
+    }
+
+    RetryBudget(double percent, Duration window, int minRetries, LongSupplier nanoClock) {
+        if (percent < 0 || window.isNegative() || window.isZero() || minRetries < 0) {
+            throw new IllegalArgumentException("Invalid retry budget: " + percent + "% over " + window
+                    + " with " + minRetries + " minimum retries");
+        }
+        int buckets = 10;
+        this.ratio = percent / 100.0;
+        this.minRetries = minRetries;
+        this.bucketNanos = Math.max(1, window.toNanos() / buckets);
+        this.bucketIds = new long[buckets];
+        this.requests = new long[buckets];
+        this.retries = new long[buckets];
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Records one request attempt (first attempts and retries alike).
+     */
+    public synchronized void recordRequest() {
+        requests[bucket(currentBucketId())]++;
+    }
+
+    /**
+     * Withdraws one retry from the budget if there is any left.
+     *
+     * @return true if the retry may proceed, false if the budget is exhausted
+     */
+    public synchronized boolean tryAcquireRetry() {
+        long id = currentBucketId();
+        int current = bucket(id);
+        long totalRequests = 0, totalRetries = 0;
+        for (int i = 0; i < requests.length; i++) {
+            if (id - bucketIds[i] < bucketIds.length) {
+                totalRequests += requests[i];
+                totalRetries += retries[i];
+            }
+        }
+        if (totalRetries >= Math.max(minRetries, (long) (totalRequests * ratio))) {
+            return false;
+        }
+        retries[current]++;
+        return true;
+    }
+
+    private long currentBucketId() {
+        return Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+    }
+
+    /**
+     * Resolves the slot of a bucket, recycling it if it still holds an older bucket.
+     */
+    private int bucket(long id) {
+        int slot = (int) Math.floorMod(id, (long) bucketIds.length);
+        if (bucketIds[slot] != id) {
+            bucketIds[slot] = id;
+            requests[slot] = 0;
+            retries[slot] = 0;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,106 @@
+package com.crossmint.challenge.service.retry;
+
+import com.crossmint.challenge.service.jfr.RetryScheduledEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Runs request attempts in a fixed number of slots, parking failed attempts in a
+ * {@link TimingWheel} while they wait out their backoff.
+ * <p>
+ * With {@code retryWhen}, a failed request keeps its slot for the whole backoff, so a few
+ * throttled requests can leave most slots idle. Here a slot is only held while an attempt is
+ * in flight: a retried operation gives its slot back, sleeps in the wheel, and queues again
+ * for a slot once its backoff is over.
+ */
+public class RetryParking {
+
+    private final String name;
+    private final RetryStrategy retryStrategy;
+    private final TimingWheel wheel;
+    private final AtomicInteger parked = new AtomicInteger();
+    private FluxSink<Task> tasks;
+
+    private static final class Task {
+        private final IntFunction<Mono<Void>> attempt;
+        private final MonoSink<Void> outcome;
+        private volatile boolean cancelled;
+        private long retries;
+        private Duration previousBackoff = Duration.ZERO;
+
+        private Task(IntFunction<Mono<Void>> attempt, MonoSink<Void> outcome) {
+            this.attempt = attempt;
+            this.outcome = outcome;
+        }
+    }
+
+    /**
+     * @param name The name of the parked operations, e.g. "POST /soloons", used in retry events
+     * @param retryStrategy Decides whether and when failed attempts are retried
+     * @param slots The maximum number of attempts in flight
+     */
+    public RetryParking(String name, RetryStrategy retryStrategy, int slots) {
+        this(name, retryStrategy, slots, new TimingWheel(Duration.ofMillis(50), 512));
+    }
+
+    RetryParking(String name, RetryStrategy retryStrategy, int slots, TimingWheel wheel) {
+        this.name = name;
+        this.retryStrategy = retryStrategy;
+        this.wheel = wheel;
+        Flux.<Task>create(sink -> this.tasks = sink)
+                .flatMap(this::attempt, slots)
+                .subscribe();
+    }
+
+    /**
+     * Performs an operation, retrying it according to the {@link RetryStrategy}.
+     *
+     * @param attempt Supplies a single attempt of the operation given its number (starting at 1),
+     *                invoked again for every retry
+     * @return A Mono completing once an attempt succeeded, or failing with the error to give up with
+     */
+    public Mono<Void> submit(IntFunction<Mono<Void>> attempt) {
+        return Mono.create(outcome -> {
+            Task task = new Task(attempt, outcome);
+            outcome.onCancel(() -> task.cancelled = true);
+            tasks.next(task);
+        });
+    }
+
+    /**
+     * @return The number of operations currently waiting out a backoff
+     */
+    public int parked() {
+        return parked.get();
+    }
+
+    private Mono<Void> attempt(Task task) {
+        if (task.cancelled) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> task.attempt.apply(Math.toIntExact(task.retries + 1)))
+                .doOnSuccess(v -> task.outcome.success())
+                .onErrorResume(error -> {
+                    RetryStrategy.Decision decision = retryStrategy.decide(error, task.retries, task.previousBackoff);
+                    if (!decision.retry()) {
+                        task.outcome.error(decision.error());
+                        return Mono.empty();
+                    }
+                    task.retries++;
+                    task.previousBackoff = decision.backoff();
+                    RetryScheduledEvent.commit(name, task.retries, decision.backoff(), error);
+                    parked.incrementAndGet();
+                    wheel.schedule(() -> {
+                        parked.decrementAndGet();
+                        tasks.next(task);
+                    }, decision.backoff());
+                    return Mono.empty();
+                });
+    }
+}
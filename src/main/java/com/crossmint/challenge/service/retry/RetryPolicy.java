@@ -0,0 +1,35 @@
+package com.crossmint.challenge.service.retry;
+
+import java.time.Duration;
+
+/**
+ * Computes how long to wait before retrying a failed request.
+ */
+public interface RetryPolicy {
+
+    /**
+     * @param attempt The zero-based index of the retry about to be scheduled
+     * @param previous The backoff used before the previous retry, or {@link Duration#ZERO} for the first one
+     * @return The backoff to wait before the next attempt
+     */
+    Duration backoff(long attempt, Duration previous);
+
+    /**
+     * Creates a policy by name, as used in {@code crossmint.retry.policy}.
+     *
+     * @param name One of "exponential", "decorrelated-jitter" or "fixed"
+     * @param base The base backoff
+     * @param max The maximum backoff
+     * @param jitterFactor The jitter factor (0-1), only used by the exponential policy
+     * @return The matching policy
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    static RetryPolicy of(String name, Duration base, Duration max, double jitterFactor) {
+        return switch (name.trim().toLowerCase()) {
+            case "exponential" -> new ExponentialBackoffPolicy(base, max, jitterFactor);
+            case "decorrelated-jitter" -> new DecorrelatedJitterPolicy(base, max);
+            case "fixed" -> new FixedBackoffPolicy(base);
+            default -> throw new IllegalArgumentException("Unknown retry policy: " + name);
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package com.crossmint.challenge.service.retry;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.SocketException;
+import java.net.http.HttpTimeoutException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decides which failures are retried, and how many times, based on the HTTP status code.
+ * <p>
+ * By default, too many requests (429), all 5xx errors, attempts that timed out and connection
+ * errors (refused, reset or timed out connections, which may go to another endpoint when
+ * retried) are retried up to the default number of attempts, and everything else fails
+ * immediately. Rules can override single status codes (e.g. "503:8"), whole classes (e.g.
+ * "5xx:2"), timeouts ("timeout:1") or connection errors ("connection:3"); an attempt count of 0
+ * disables retries for that status.
+ */
+public final class RetryRules {
+
+    private final int defaultAttempts;
+    private final Map<Integer, Integer> statusAttempts;
+    private final Map<Integer, Integer> classAttempts;
+    private final int timeoutAttempts;
+    private final int connectionAttempts;
+
+    private RetryRules(int defaultAttempts, Map<Integer, Integer> statusAttempts, Map<Integer, Integer> classAttempts,
+                       int timeoutAttempts, int connectionAttempts) {
+        this.defaultAttempts = defaultAttempts;
+        this.statusAttempts = statusAttempts;
+        this.classAttempts = classAttempts;
+        this.timeoutAttempts = timeoutAttempts;
+        this.connectionAttempts = connectionAttempts;
+    }
+
+    /**
+     * @param defaultAttempts The number of retries for 429, 5xx, timeout and connection errors without a specific rule
+     * @return The default rules
+     */
+    public static RetryRules defaults(int defaultAttempts) {
+        return parse(defaultAttempts, "");
+    }
+
+    /**
+     * Parses a comma-separated list of {@code status:attempts} rules, e.g. "429:8,5xx:3,501:0,timeout:2,connection:4".
+     *
+     * @param defaultAttempts The number of retries for 429, 5xx, timeout and connection errors without a specific rule
+     * @param rules The rules to parse (blank for the defaults)
+     * @return The parsed rules
+     * @throws IllegalArgumentException if a rule is malformed
+     */
+    public static RetryRules parse(int defaultAttempts, String rules) {
+        Map<Integer, Integer> statusAttempts = new HashMap<>();
+        Map<Integer, Integer> classAttempts = new HashMap<>();
+        int timeoutAttempts = defaultAttempts;
+        int connectionAttempts = defaultAttempts;
+        for (String rule : rules.split(",")) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            String[] parts = rule.trim().split(":");
+            try {
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid retry rule: " + rule);
+                }
+                String status = parts[0].trim().toLowerCase();
+                int attempts = Integer.parseInt(parts[1].trim());
+                if (status.equals("timeout")) {
+                    timeoutAttempts = attempts;
+                } else if (status.equals("connection")) {
+                    connectionAttempts = attempts;
+                } else if (status.length() == 3 && status.endsWith("xx")) {
+                    classAttempts.put(Character.digit(status.charAt(0), 10), attempts);
+                } else {
+                    statusAttempts.put(Integer.parseInt(status), attempts);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid retry rule: " + rule, e);
+            }
+        }
+        return new RetryRules(defaultAttempts, statusAttempts, classAttempts, timeoutAttempts, connectionAttempts);
+    }
+
+    /**
+     * @param failure The error that failed the request
+     * @return How many times a request failing with this error may be retried (0 if never)
+     */
+    public int maxAttempts(Throwable failure) {
+        if (failure instanceof TimeoutException) {
+            return timeoutAttempts;
+        }
+        if (isConnectionError(failure)) {
+            return connectionAttempts;
+        }
+        if (!(failure instanceof WebClientResponseException ex)) {
+            return 0;
+        }
+        int status = ex.getStatusCode().value();
+        Integer attempts = statusAttempts.get(status);
+        if (attempts == null) {
+            attempts = classAttempts.get(status / 100);
+        }
+        if (attempts != null) {
+            return attempts;
+        }
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || ex.getStatusCode().is5xxServerError()
+                ? defaultAttempts : 0;
+    }
+
+    /**
+     * @param failure The error that failed the request
+     * @return true if the error may be retried at least once
+     */
+    public boolean isRetryable(Throwable failure) {
+        return maxAttempts(failure) > 0;
+    }
+
+    /**
+     * @param failure The error that failed the request
+     * @return true if the request failed before any response was received: the connection was
+     * refused, reset or timed out, whichever client sent it
+     */
+    private static boolean isConnectionError(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientRequestException || cause instanceof SocketException
+                    || cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,181 @@
+package com.crossmint.challenge.service.retry;
+
+import com.crossmint.challenge.service.jfr.RetryScheduledEvent;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Combines a {@link RetryPolicy}, per-status {@link RetryRules} and a process-wide
+ * {@link RetryBudget} into the Reactor {@link Retry} used for every API request.
+ */
+@Component
+public class RetryStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(RetryStrategy.class);
+
+    @Getter
+    private final RetryPolicy policy;
+
+    @Getter
+    private final RetryRules rules;
+
+    @Getter
+    private final RetryBudget budget;
+
+    /**
+     * Constructs a new RetryStrategy from its parts.
+     *
+     * @param policy The policy computing the backoff between attempts
+     * @param rules The rules deciding which failures are retried and how many times
+     * @param budget The budget capping retries across all requests
+     */
+    public RetryStrategy(RetryPolicy policy, RetryRules rules, RetryBudget budget) {
+        this.policy = policy;
+        this.rules = rules;
+        this.budget = budget;
+    }
+
+    /**
+     * Constructs a new RetryStrategy with the specified configuration.
+     *
+     * @param policyName The retry policy (exponential, decorrelated-jitter or fixed)
+     * @param maxRetryAttempts The maximum number of retry attempts for 429 and 5xx errors
+     * @param backoffSeconds The base duration in seconds of the backoff
+     * @param maxBackoffSeconds The maximum duration in seconds of the backoff
+     * @param jitterFactor The jitter factor applied to exponential backoff durations
+     * @param statusRules Per-status overrides of the number of retries, e.g. "429:8,5xx:3"
+     * @param budgetPercent The maximum retries as a percentage of the total traffic
+     * @param budgetWindowSeconds The sliding window of the retry budget, in seconds
+     * @param budgetMinRetries The retries always allowed per window
+     */
+    @Autowired
+    public RetryStrategy(@Value("${crossmint.retry.policy:exponential}") String policyName,
+                         @Value("${crossmint.retry.max-attempts:5}") int maxRetryAttempts,
+                         @Value("${crossmint.retry.backoff-seconds:10}") int backoffSeconds,
+                         @Value("${crossmint.retry.max-backoff-seconds:120}") int maxBackoffSeconds,
+                         @Value("${crossmint.retry.jitter-factor:0.5}") double jitterFactor,
+                         @Value("${crossmint.retry.status-rules:}") String statusRules,
+                         @Value("${crossmint.retry.budget.percent:20}") double budgetPercent,
+                         @Value("${crossmint.retry.budget.window-seconds:10}") int budgetWindowSeconds,
+                         @Value("${crossmint.retry.budget.min-retries:10}") int budgetMinRetries) {
+        this(RetryPolicy.of(policyName, Duration.ofSeconds(backoffSeconds), Duration.ofSeconds(maxBackoffSeconds),
+                        jitterFactor),
+                RetryRules.parse(maxRetryAttempts, statusRules),
+                new RetryBudget(budgetPercent, Duration.ofSeconds(budgetWindowSeconds), budgetMinRetries));
+    }
+
+    /**
+     * Creates the strategy the service used before policies were configurable: exponential
+     * backoff with jitter on 429 and 5xx errors, behind a default retry budget.
+     *
+     * @param maxRetryAttempts The maximum number of retry attempts
+     * @param backoffSeconds The base duration in seconds of the backoff
+     * @param jitterFactor The jitter factor applied to backoff durations
+     * @return The strategy
+     */
+    public static RetryStrategy exponential(int maxRetryAttempts, int backoffSeconds, double jitterFactor) {
+        return new RetryStrategy("exponential", maxRetryAttempts, backoffSeconds, 120, jitterFactor, "",
+                20, 10, 10);
+    }
+
+    /**
+     * Records a request attempt against the retry budget. Must be called for every attempt,
+     * including retries, so that the budget reflects the total traffic.
+     */
+    public void recordAttempt() {
+        budget.recordRequest();
+    }
+
+    /**
+     * @param failure The error that failed a request
+     * @return true if the error may be retried
+     */
+    public boolean isRetryable(Throwable failure) {
+        return rules.isRetryable(failure);
+    }
+
+    /**
+     * The outcome of a failed attempt: either the backoff to wait before the next attempt, or
+     * the error to give up with.
+     *
+     * @param backoff The backoff before the next attempt, null when giving up
+     * @param error The error to fail the operation with, null when retrying
+     */
+    public record Decision(Duration backoff, Throwable error) {
+
+        /**
+         * @return true if the operation must be attempted again after the backoff
+         */
+        public boolean retry() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Decides what to do after a failed attempt, acquiring a retry from the budget when the
+     * failure is retried.
+     *
+     * @param failure The error that failed the attempt
+     * @param retries The number of retries already performed for the same operation
+     * @param previousBackoff The previous backoff of the same operation (zero for the first retry)
+     * @return The decision
+     */
+    public Decision decide(Throwable failure, long retries, Duration previousBackoff) {
+        int maxAttempts = rules.maxAttempts(failure);
+        if (maxAttempts == 0) {
+            return new Decision(null, failure);
+        }
+        if (retries >= maxAttempts) {
+            return new Decision(null, Exceptions.retryExhausted(
+                    "Retries exhausted: " + retries + "/" + maxAttempts, failure));
+        }
+        if (!budget.tryAcquireRetry()) {
+            logger.warn("Retry budget exhausted, giving up after error: {}", failure.getMessage());
+            return new Decision(null, Exceptions.retryExhausted("Retry budget exhausted", failure));
+        }
+        Duration backoff = policy.backoff(retries, previousBackoff);
+        logger.warn("Retrying {}/{} in {} ms after error: {}",
+                retries + 1, maxAttempts, backoff.toMillis(), failure.getMessage());
+        return new Decision(backoff, null);
+    }
+
+    /**
+     * Builds the Reactor retry spec. Each subscription keeps its own backoff state, so the
+     * same instance can be shared by every request.
+     *
+     * @return The retry spec to pass to {@code retryWhen}
+     */
+    public Retry toRetry() {
+        return toRetry("request");
+    }
+
+    /**
+     * Builds the Reactor retry spec of the requests of one operation, named in retry events.
+     *
+     * @param operation The name of the retried requests, e.g. "GET /map"
+     * @return The retry spec to pass to {@code retryWhen}
+     */
+    public Retry toRetry(String operation) {
+        return Retry.from(signals -> {
+            Duration[] previous = {Duration.ZERO};
+            return signals.concatMap(signal -> {
+                long attempt = signal.totalRetries();
+                Decision decision = decide(signal.failure(), attempt, previous[0]);
+                if (!decision.retry()) {
+                    return Mono.error(decision.error());
+                }
+                previous[0] = decision.backoff();
+                RetryScheduledEvent.commit(operation, attempt + 1, decision.backoff(), signal.failure());
+                return Mono.delay(decision.backoff()).thenReturn(attempt);
+            });
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.crossmint.challenge.service.retry;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A hashed timing wheel running delayed tasks with a resolution of one tick.
+ * <p>
+ * Tasks are hashed into a fixed ring of buckets by their due tick; tasks due more than one
+ * revolution away also keep the number of remaining revolutions. Scheduling is O(1) and
+ * each tick only visits one bucket, so thousands of parked tasks cost next to nothing. The
+ * ticker only runs while tasks are pending.
+ */
+public class TimingWheel {
+
+    private static final class Entry {
+        private final Runnable task;
+        private long rounds;
+
+        private Entry(Runnable task, long rounds) {
+            this.task = task;
+            this.rounds = rounds;
+        }
+    }
+
+    private final Duration tick;
+    private final ArrayDeque<Entry>[] buckets;
+    private final boolean autoTick;
+
+    private int cursor;
+    private int size;
+    private Disposable ticker;
+
+    /**
+     * @param tick The resolution of the wheel; delays are rounded up to a whole number of ticks
+     * @param bucketCount The number of buckets of one revolution
+     */
+    public TimingWheel(Duration tick, int bucketCount) {
+        this(tick, bucketCount, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(Duration tick, int bucketCount, boolean autoTick) {
+        if (tick.isNegative() || tick.isZero() || bucketCount <= 0) {
+            throw new IllegalArgumentException("Invalid timing wheel: tick " + tick + ", " + bucketCount + " buckets");
+        }
+        this.tick = tick;
+        this.autoTick = autoTick;
+        this.buckets = new ArrayDeque[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Schedules a task to run once the delay has elapsed, on the ticker thread.
+     *
+     * @param task The task to run; it must not block
+     * @param delay The delay before running the task
+     */
+    public synchronized void schedule(Runnable task, Duration delay) {
+        long ticks = Math.max(1, (delay.toNanos() + tick.toNanos() - 1) / tick.toNanos());
+        int bucket = (int) ((cursor + ticks) % buckets.length);
+        buckets[bucket].add(new Entry(task, (ticks - 1) / buckets.length));
+        if (size++ == 0 && autoTick) {
+            ticker = Flux.interval(tick, tick).subscribe(t -> advance());
+        }
+    }
+
+    /**
+     * @return The number of tasks waiting for their tick
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Moves the wheel forward by one tick and runs the tasks that became due.
+     */
+    void advance() {
+        List<Runnable> due = new ArrayList<>();
+        synchronized (this) {
+            cursor = (cursor + 1) % buckets.length;
+            for (Iterator<Entry> it = buckets[cursor].iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (entry.rounds-- == 0) {
+                    it.remove();
+                    due.add(entry.task);
+                }
+            }
+            size -= due.size();
+            if (size == 0 && ticker != null) {
+                ticker.dispose();
+                ticker = null;
+            }
+        }
+        // Run outside the lock, as tasks commonly schedule again
+        due.forEach(Runnable::run);
+    }
+}
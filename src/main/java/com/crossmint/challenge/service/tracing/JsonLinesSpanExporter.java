@@ -0,0 +1,83 @@
+package com.crossmint.challenge.service.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports spans to a local JSON Lines file, one span per line, for runs without a collector.
+ * The file is appended to, so the spans of several runs can be told apart by their trace id.
+ */
+public class JsonLinesSpanExporter implements SpanExporter {
+    private static final Logger logger = LoggerFactory.getLogger(JsonLinesSpanExporter.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * One line of the file.
+     */
+    record Entry(String traceId, String spanId, String parentSpanId, String name, long startEpochNanos,
+                 long endEpochNanos, String status, Map<String, Object> attributes, List<String> events) {}
+
+    /**
+     * The file spans are appended to.
+     */
+    @Getter
+    private final Path path;
+
+    /**
+     * @param path The file spans are appended to
+     */
+    public JsonLinesSpanExporter(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (SpanData span : spans) {
+                writer.write(MAPPER.writeValueAsString(entry(span)));
+                writer.newLine();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            logger.error("Failed to export {} spans to {}", spans.size(), path, e);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static Entry entry(SpanData span) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        String parent = span.getParentSpanContext().isValid() ? span.getParentSpanId() : null;
+        return new Entry(span.getTraceId(), span.getSpanId(), parent, span.getName(), span.getStartEpochNanos(),
+                span.getEndEpochNanos(), span.getStatus().getStatusCode().name(), attributes,
+                span.getEvents().stream().map(EventData::getName).toList());
+    }
+}
@@ -0,0 +1,58 @@
+package com.crossmint.challenge.service.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+
+/**
+ * The attributes of the spans of a run. HTTP attributes follow the OpenTelemetry semantic
+ * conventions, the others are specific to the challenge.
+ */
+public final class TraceAttributes {
+
+    /**
+     * The HTTP method of a request.
+     */
+    public static final AttributeKey<String> HTTP_METHOD = AttributeKey.stringKey("http.request.method");
+
+    /**
+     * The status of the response of a request.
+     */
+    public static final AttributeKey<Long> HTTP_STATUS = AttributeKey.longKey("http.response.status_code");
+
+    /**
+     * The path of a request.
+     */
+    public static final AttributeKey<String> URL_PATH = AttributeKey.stringKey("url.path");
+
+    /**
+     * The number of an attempt, 1 for the first one.
+     */
+    public static final AttributeKey<Long> ATTEMPT = AttributeKey.longKey("crossmint.attempt");
+
+    /**
+     * The row of the cell of an operation.
+     */
+    public static final AttributeKey<Long> ROW = AttributeKey.longKey("crossmint.cell.row");
+
+    /**
+     * The column of the cell of an operation.
+     */
+    public static final AttributeKey<Long> COLUMN = AttributeKey.longKey("crossmint.cell.column");
+
+    /**
+     * The content of the cell of an operation, e.g. POLYANET or RED_SOLOON.
+     */
+    public static final AttributeKey<String> CELL_TYPE = AttributeKey.stringKey("crossmint.cell.type");
+
+    /**
+     * The phase of a run, e.g. Replicate.
+     */
+    public static final AttributeKey<String> PHASE = AttributeKey.stringKey("crossmint.phase");
+
+    /**
+     * The number of operations of a plan or completed by a run.
+     */
+    public static final AttributeKey<Long> OPERATIONS = AttributeKey.longKey("crossmint.operations");
+
+    private TraceAttributes() {
+    }
+}
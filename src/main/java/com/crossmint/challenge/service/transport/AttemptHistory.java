@@ -0,0 +1,54 @@
+package com.crossmint.challenge.service.transport;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The endpoints the previous attempts of one operation failed on, so that transports spreading
+ * requests over several endpoints send its retries somewhere else. One history is created per
+ * operation; its attempts run one after the other.
+ * <p>
+ * It also tells whether the current attempt timed out, as transports only see the cancellation
+ * of their request, whether it timed out or lost to a hedge.
+ */
+public final class AttemptHistory {
+
+    private final Set<String> failedEndpoints = new HashSet<>();
+    private boolean timedOut;
+
+    /**
+     * Starts a new attempt, not timed out yet.
+     */
+    public synchronized void nextAttempt() {
+        timedOut = false;
+    }
+
+    /**
+     * Marks the current attempt as timed out, before its requests are cancelled.
+     */
+    public synchronized void timedOut() {
+        timedOut = true;
+    }
+
+    /**
+     * @return true if the current attempt timed out
+     */
+    public synchronized boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @param endpoint The base URL an attempt failed on
+     */
+    public synchronized void failedOn(String endpoint) {
+        failedEndpoints.add(endpoint);
+    }
+
+    /**
+     * @param endpoint The base URL of an endpoint
+     * @return true if a previous attempt failed on it
+     */
+    public synchronized boolean hasFailedOn(String endpoint) {
+        return failedEndpoints.contains(endpoint);
+    }
+}
@@ -0,0 +1,182 @@
+package com.crossmint.challenge.service.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Merges concurrent GETs of the same path (the map and the goal) into a single request, and
+ * keeps their responses for a short time.
+ * <p>
+ * Every GET joins the request in flight for its path if there is one, or gets the cached body
+ * if it is younger than the time to live; otherwise a new request is sent, conditional on the
+ * ETag and Last-Modified date of the cached body when the server gave any, so an unchanged map
+ * costs a 304 instead of a full body. Any POST or DELETE drops the cache, whether it succeeded
+ * or not (a write that timed out may still have been applied), and GETs started before it are
+ * neither joined nor cached anymore.
+ * <p>
+ * Bodies are read whole before they are handed out, instead of being streamed.
+ */
+public class CachingTransport implements HttpTransport {
+    private static final Logger logger = LoggerFactory.getLogger(CachingTransport.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private record Entry(ConditionalResponse response, long fetchedAtNanos) {
+    }
+
+    private record Flight(long generation, Mono<ConditionalResponse> response) {
+    }
+
+    private final HttpTransport delegate;
+    private final Duration timeToLive;
+    private final Duration requestTimeout;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder joins = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private long generation;
+
+    /**
+     * @param delegate The transport sending the requests
+     * @param timeToLive How long a body is served without revalidating it (zero to always revalidate)
+     * @param requestTimeout The maximum duration of a shared request: callers giving up on it don't cancel it
+     */
+    public CachingTransport(HttpTransport delegate, Duration timeToLive, Duration requestTimeout) {
+        this(delegate, timeToLive, requestTimeout, System::nanoTime);
+    }
+
+    CachingTransport(HttpTransport delegate, Duration timeToLive, Duration requestTimeout, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.timeToLive = timeToLive;
+        this.requestTimeout = requestTimeout;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return The number of GETs answered from the cache without any request
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of GETs that joined a request already in flight
+     */
+    public long joins() {
+        return joins.sum();
+    }
+
+    /**
+     * @return The number of requests answered 304 Not Modified
+     */
+    public long revalidations() {
+        return revalidations.sum();
+    }
+
+    @Override
+    public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body) {
+        return send(method, path, body, null);
+    }
+
+    @Override
+    public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body,
+                                        AttemptHistory history) {
+        return delegate.send(method, path, body, history)
+                .doFinally(signal -> invalidate());
+    }
+
+    @Override
+    public Flux<DataBuffer> stream(String path) {
+        return get(path).<DataBuffer>map(response -> DefaultDataBufferFactory.sharedInstance
+                .wrap(ByteBuffer.wrap(response.body()).asReadOnlyBuffer())).flux();
+    }
+
+    @Override
+    public <T> Mono<T> getJson(String path, Class<T> type) {
+        return get(path).handle((response, sink) -> {
+            try {
+                sink.next(MAPPER.readValue(response.body(), type));
+            } catch (IOException e) {
+                sink.error(new UncheckedIOException("Invalid response received from " + path, e));
+            }
+        });
+    }
+
+    @Override
+    public Mono<ConditionalResponse> getConditional(String path, ConditionalResponse previous) {
+        return get(path);
+    }
+
+    private Mono<ConditionalResponse> get(String path) {
+        return Mono.defer(() -> {
+            Entry entry = entries.get(path);
+            if (entry != null && nanoClock.getAsLong() - entry.fetchedAtNanos() < timeToLive.toNanos()) {
+                hits.increment();
+                return Mono.just(entry.response());
+            }
+            long current = generation();
+            Flight flight = flights.compute(path, (p, inFlight) -> {
+                if (inFlight != null && inFlight.generation() == current) {
+                    joins.increment();
+                    return inFlight;
+                }
+                return new Flight(current, fetch(path, entry, current));
+            });
+            return flight.response();
+        });
+    }
+
+    private Mono<ConditionalResponse> fetch(String path, Entry entry, long fetchGeneration) {
+        ConditionalResponse previous = entry != null && entry.response().hasValidators() ? entry.response() : null;
+        return delegate.getConditional(path, previous)
+                .timeout(requestTimeout)
+                .flatMap(response -> {
+                    if (!response.notModified()) {
+                        return Mono.just(response);
+                    }
+                    if (previous == null) {
+                        return Mono.error(new IllegalStateException("Unexpected 304 Not Modified from " + path));
+                    }
+                    revalidations.increment();
+                    logger.debug("{} not modified", path);
+                    return Mono.just(previous);
+                })
+                .doOnNext(response -> store(path, response, fetchGeneration))
+                .doOnTerminate(() -> flights.computeIfPresent(path,
+                        (p, flight) -> flight.generation() == fetchGeneration ? null : flight))
+                // Shared by every caller joining it, and run to completion even if they all give up
+                .cache();
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void store(String path, ConditionalResponse response, long fetchGeneration) {
+        if (fetchGeneration == generation) {
+            entries.put(path, new Entry(response, nanoClock.getAsLong()));
+        }
+    }
+
+    private synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+}
@@ -0,0 +1,31 @@
+package com.crossmint.challenge.service.transport;
+
+/**
+ * The outcome of a successful conditional GET sent through an {@link HttpTransport}: either a
+ * full body with the validators the server gave for it, or a 304 Not Modified.
+ *
+ * @param body The response body, or null if the server answered 304 Not Modified
+ * @param etag The ETag of the body, or null if the server gave none
+ * @param lastModified The Last-Modified date of the body, as sent by the server, or null if it gave none
+ */
+public record ConditionalResponse(byte[] body, String etag, String lastModified) {
+
+    /**
+     * The answer to a request whose validators still match.
+     */
+    public static final ConditionalResponse NOT_MODIFIED = new ConditionalResponse(null, null, null);
+
+    /**
+     * @return true if the server answered 304 Not Modified
+     */
+    public boolean notModified() {
+        return body == null;
+    }
+
+    /**
+     * @return true if the response can be revalidated with a conditional request
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+}
@@ -0,0 +1,203 @@
+package com.crossmint.challenge.service.transport;
+
+import com.crossmint.challenge.service.LatencyHistogram;
+import com.crossmint.challenge.service.retry.RetryBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cuts the tail latency of idempotent requests (GETs and DELETEs) by sending a second copy of
+ * a request still pending after the given percentile of the latencies of its endpoint, and
+ * keeping whichever answers first; the other one is cancelled. POSTs are never duplicated.
+ * <p>
+ * Only original requests are timed, from their own start until they answer or are cancelled
+ * (by a hedge answering first, or a timeout), so the tail keeps being sampled once hedging
+ * starts. Until an endpoint has {@value #MIN_SAMPLES} latencies recorded, the initial delay is used
+ * instead. Hedges are drawn from a {@link RetryBudget}, so they stay a small share of the
+ * traffic even when the server slows down as a whole. A hedge failing before the original
+ * answers is ignored: the original decides the outcome, and retries handle its errors.
+ * Behind a {@link LoadBalancedTransport}, the hedge usually lands on another endpoint, the
+ * original one being busy with the pending request.
+ */
+public class HedgingTransport implements HttpTransport {
+    private static final Logger logger = LoggerFactory.getLogger(HedgingTransport.class);
+
+    static final int MIN_SAMPLES = 20;
+
+    private final HttpTransport delegate;
+    private final double percentile;
+    private final Duration initialDelay;
+    private final RetryBudget budget;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * @param delegate The transport sending the requests and their hedges
+     * @param percentile The percentile of the latencies of an endpoint after which a request is hedged
+     * @param initialDelay The delay before hedging a request to an endpoint with too few latencies recorded
+     * @param budget The budget hedges are drawn from, fed with every request sent
+     */
+    public HedgingTransport(HttpTransport delegate, double percentile, Duration initialDelay, RetryBudget budget) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid hedging percentile: " + percentile);
+        }
+        this.delegate = delegate;
+        this.percentile = percentile;
+        this.initialDelay = initialDelay;
+        this.budget = budget;
+    }
+
+    /**
+     * @return The number of hedges sent so far
+     */
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * @return The number of hedges that answered before the request they duplicated
+     */
+    public long hedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    @Override
+    public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body) {
+        return send(method, path, body, null);
+    }
+
+    @Override
+    public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body,
+                                        AttemptHistory history) {
+        if (method != HttpMethod.DELETE) {
+            return delegate.send(method, path, body, history);
+        }
+        return hedged(method.name() + " " + path, () -> delegate.send(method, path, body, history));
+    }
+
+    @Override
+    public Flux<DataBuffer> stream(String path) {
+        String key = "GET " + path;
+        return Flux.defer(() -> {
+            budget.recordRequest();
+            Flux<DataBuffer> original = firstByteTimed(key, delegate.stream(path));
+            Flux<DataBuffer> hedge = Mono.delay(hedgeDelay(key))
+                    .filter(tick -> acquireHedge(key))
+                    .flatMapMany(tick -> {
+                        // Failures after the first chunk are the outcome of a hedge that already won
+                        AtomicBoolean started = new AtomicBoolean();
+                        return delegate.stream(path)
+                                .doOnNext(buffer -> {
+                                    if (started.compareAndSet(false, true)) {
+                                        hedgeWins.increment();
+                                    }
+                                })
+                                .onErrorResume(error -> started.get() ? Flux.error(error) : Flux.never());
+                    })
+                    .switchIfEmpty(Flux.never());
+            return Flux.firstWithSignal(original, hedge)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    @Override
+    public <T> Mono<T> getJson(String path, Class<T> type) {
+        return hedged("GET " + path, () -> delegate.getJson(path, type));
+    }
+
+    @Override
+    public Mono<ConditionalResponse> getConditional(String path, ConditionalResponse previous) {
+        return hedged("GET " + path, () -> delegate.getConditional(path, previous));
+    }
+
+    private <T> Mono<T> hedged(String key, Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            budget.recordRequest();
+            Mono<T> original = timed(key, request.get());
+            Mono<T> hedge = Mono.delay(hedgeDelay(key))
+                    .filter(tick -> acquireHedge(key))
+                    .flatMap(tick -> request.get())
+                    .doOnNext(value -> hedgeWins.increment())
+                    .onErrorResume(error -> Mono.never())
+                    .switchIfEmpty(Mono.never());
+            return Mono.firstWithSignal(original, hedge);
+        });
+    }
+
+    /**
+     * @param key The method and path of the request
+     * @return How long the request may stay pending before it is hedged
+     */
+    Duration hedgeDelay(String key) {
+        LatencyHistogram histogram = latencies.get(key);
+        if (histogram == null || histogram.count() < MIN_SAMPLES) {
+            return initialDelay;
+        }
+        return Duration.ofNanos(histogram.percentile(percentile) * 1000);
+    }
+
+    private boolean acquireHedge(String key) {
+        if (!budget.tryAcquireRetry()) {
+            return false;
+        }
+        budget.recordRequest();
+        hedges.increment();
+        logger.debug("Hedging {} after {}", key, hedgeDelay(key));
+        return true;
+    }
+
+    /**
+     * Times an original request until it answers or is cancelled; failures aren't timed. The answer
+     * is recorded before it's passed on, so a caller sees its own latency in the next hedge delay.
+     */
+    private <T> Mono<T> timed(String key, Mono<T> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            Runnable recordOnce = () -> {
+                if (recorded.compareAndSet(false, true)) {
+                    record(key, start);
+                }
+            };
+            return request.doOnSuccess(value -> recordOnce.run()).doOnCancel(recordOnce);
+        });
+    }
+
+    /**
+     * Times an original stream until its first chunk, or until it completes or is cancelled
+     * without any; failures aren't timed.
+     */
+    private Flux<DataBuffer> firstByteTimed(String key, Flux<DataBuffer> stream) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            Runnable recordOnce = () -> {
+                if (recorded.compareAndSet(false, true)) {
+                    record(key, start);
+                }
+            };
+            return stream
+                    .doOnNext(buffer -> recordOnce.run())
+                    .doOnComplete(recordOnce)
+                    .doOnCancel(recordOnce);
+        });
+    }
+
+    private void record(String key, long startNanos) {
+        latencies.computeIfAbsent(key, k -> new LatencyHistogram())
+                .record((System.nanoTime() - startNanos) / 1000);
+    }
+}
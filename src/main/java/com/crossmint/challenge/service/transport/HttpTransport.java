@@ -0,0 +1,85 @@
+package com.crossmint.challenge.service.transport;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * The HTTP client used by {@link com.crossmint.challenge.service.AstralObjectService} to talk
+ * to the API, so the client library can be swapped without touching the service.
+ * <p>
+ * Paths are relative to the base URL of the API. Every implementation reports error statuses
+ * as a {@link org.springframework.web.reactive.function.client.WebClientResponseException}
+ * carrying the status, headers and body of the response, so retry rules and dead-lettering
+ * behave the same whatever the transport.
+ */
+public interface HttpTransport {
+
+    /**
+     * Sends a request with a JSON body, ignoring the body of the response.
+     *
+     * @param method The HTTP method
+     * @param path The path of the endpoint
+     * @param body The request body, serialized as JSON
+     * @return The status and size of the successful response
+     */
+    Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body);
+
+    /**
+     * Like {@link #send(HttpMethod, String, Map)}, for one attempt of an operation. Transports
+     * spreading requests over several endpoints send it to one the previous attempts didn't fail
+     * on when they can, and record the endpoint if it fails; the others ignore the history.
+     *
+     * @param method The HTTP method
+     * @param path The path of the endpoint
+     * @param body The request body, serialized as JSON
+     * @param history The endpoints the previous attempts of the operation failed on
+     * @return The status and size of the successful response
+     */
+    default Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body,
+                                         AttemptHistory history) {
+        return send(method, path, body);
+    }
+
+    /**
+     * Streams the body of a GET request as it is received. Subscribers must release every buffer.
+     *
+     * @param path The path of the endpoint
+     * @return The chunks of the response body
+     */
+    Flux<DataBuffer> stream(String path);
+
+    /**
+     * Sends a GET request and decodes its JSON response.
+     *
+     * @param path The path of the endpoint
+     * @param type The type to decode the response to
+     * @param <T> The type of the response
+     * @return The decoded response
+     */
+    <T> Mono<T> getJson(String path, Class<T> type);
+
+    /**
+     * Sends a GET request, conditional on the ETag and Last-Modified date of a previous response
+     * to it if there is one, and reads the whole body. Transports unable to send conditional
+     * requests fetch the body unconditionally, without validators.
+     *
+     * @param path The path of the endpoint
+     * @param previous The previous response whose validators to send, or null
+     * @return The body and validators of the response, or {@link ConditionalResponse#NOT_MODIFIED}
+     */
+    default Mono<ConditionalResponse> getConditional(String path, ConditionalResponse previous) {
+        return DataBufferUtils.join(stream(path))
+                .map(buffer -> {
+                    byte[] body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return new ConditionalResponse(body, null, null);
+                })
+                .defaultIfEmpty(new ConditionalResponse(new byte[0], null, null));
+    }
+}
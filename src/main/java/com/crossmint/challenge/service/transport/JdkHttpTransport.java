@@ -0,0 +1,161 @@
+package com.crossmint.challenge.service.transport;
+
+import com.crossmint.challenge.service.ratelimit.SharedRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * The {@link HttpTransport} backed by the JDK {@link HttpClient}: no Netty event loops or
+ * connection pool to start, which makes short CLI runs start faster and use less memory.
+ * <p>
+ * The {@code Retry-After} of throttled responses is published to an optional
+ * {@link SharedRateLimiter}, as the WebClient filter does, so the other processes honour it
+ * whichever transport each of them uses.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final SharedRateLimiter rateLimiter;
+
+    /**
+     * @param baseUrl The base URL of the API
+     * @param connectTimeout The maximum time to establish a connection
+     * @param rateLimiter The rate limiter shared with the other processes of the host, told about throttled responses, or null
+     */
+    public JdkHttpTransport(String baseUrl, Duration connectTimeout, SharedRateLimiter rateLimiter) {
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.baseUrl = baseUrl;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body) {
+        return exchange(path, builder -> builder
+                        .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .method(method.name(), HttpRequest.BodyPublishers.ofByteArray(toJson(body))),
+                HttpResponse.BodyHandlers.ofByteArray())
+                .flatMap(response -> response.statusCode() >= 400
+                        ? Mono.error(error(response, response.body()))
+                        : Mono.just(new TransportResponse(response.statusCode(), response.body().length)));
+    }
+
+    @Override
+    public Flux<DataBuffer> stream(String path) {
+        return exchange(path, HttpRequest.Builder::GET, HttpResponse.BodyHandlers.ofPublisher())
+                .flatMapMany(response -> {
+                    Flux<ByteBuffer> chunks = JdkFlowAdapter.flowPublisherToFlux(response.body())
+                            .concatMapIterable(Function.<List<ByteBuffer>>identity());
+                    if (response.statusCode() >= 400) {
+                        return chunks.reduce(new ByteArrayOutputStream(), (out, chunk) -> {
+                                    byte[] bytes = new byte[chunk.remaining()];
+                                    chunk.get(bytes);
+                                    out.writeBytes(bytes);
+                                    return out;
+                                })
+                                .flatMapMany(out -> Flux.error(error(response, out.toByteArray())));
+                    }
+                    return chunks.map(DefaultDataBufferFactory.sharedInstance::wrap);
+                });
+    }
+
+    @Override
+    public <T> Mono<T> getJson(String path, Class<T> type) {
+        return exchange(path, HttpRequest.Builder::GET, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, sink) -> {
+                    if (response.statusCode() >= 400) {
+                        sink.error(error(response, response.body()));
+                        return;
+                    }
+                    try {
+                        sink.next(MAPPER.readValue(response.body(), type));
+                    } catch (IOException e) {
+                        sink.error(new UncheckedIOException("Invalid response received from " + path, e));
+                    }
+                });
+    }
+
+    @Override
+    public Mono<ConditionalResponse> getConditional(String path, ConditionalResponse previous) {
+        return exchange(path, builder -> {
+                    if (previous != null && previous.etag() != null) {
+                        builder.header(HttpHeaders.IF_NONE_MATCH, previous.etag());
+                    }
+                    if (previous != null && previous.lastModified() != null) {
+                        builder.header(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                    }
+                    return builder.GET();
+                }, HttpResponse.BodyHandlers.ofByteArray())
+                .flatMap(response -> {
+                    if (response.statusCode() >= 400) {
+                        return Mono.error(error(response, response.body()));
+                    }
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                        return Mono.just(ConditionalResponse.NOT_MODIFIED);
+                    }
+                    return Mono.just(new ConditionalResponse(response.body(),
+                            response.headers().firstValue(HttpHeaders.ETAG).orElse(null),
+                            response.headers().firstValue(HttpHeaders.LAST_MODIFIED).orElse(null)));
+                });
+    }
+
+    private <B> Mono<HttpResponse<B>> exchange(String path,
+                                               Function<HttpRequest.Builder, HttpRequest.Builder> request,
+                                               HttpResponse.BodyHandler<B> bodyHandler) {
+        return Mono.fromFuture(() -> {
+            CompletableFuture<HttpResponse<B>> response = client.sendAsync(
+                    request.apply(HttpRequest.newBuilder(URI.create(baseUrl + path))).build(), bodyHandler);
+            return rateLimiter == null ? response : response.whenComplete((r, e) -> {
+                if (r != null) {
+                    rateLimiter.onResponse(r.statusCode(),
+                            r.headers().firstValue(HttpHeaders.RETRY_AFTER).orElse(null), Instant.now());
+                }
+            });
+        });
+    }
+
+    private static WebClientResponseException error(HttpResponse<?> response, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        HttpStatus status = HttpStatus.resolve(response.statusCode());
+        return WebClientResponseException.create(response.statusCode(), status == null ? "" : status.getReasonPhrase(),
+                headers, body, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toJson(Map<String, Object> body) {
+        try {
+            return MAPPER.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize request body", e);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.crossmint.challenge.service.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Spreads requests over several endpoints of the API (e.g. regional proxies), each with its own
+ * {@link HttpTransport}.
+ * <p>
+ * Every request goes to the less busy of two endpoints picked at random (power of two choices
+ * on the number of outstanding requests). An endpoint failing {@code failureThreshold} requests
+ * in a row (5xx responses, connection errors and timed out attempts, as told by their
+ * {@link AttemptHistory}; 4xx responses count as answers, other cancellations as nothing) is ejected for the ejection duration, doubled at each consecutive ejection up to 8
+ * times. Once that time is over it takes requests again: a success re-admits it, a failure
+ * ejects it again. When every endpoint is ejected, the one ejected first is used anyway.
+ * <p>
+ * The attempts of one operation prefer the endpoints its previous attempts didn't fail on
+ * (see {@link AttemptHistory}).
+ */
+public class LoadBalancedTransport implements HttpTransport {
+    private static final Logger logger = LoggerFactory.getLogger(LoadBalancedTransport.class);
+
+    private static final int MAX_EJECTION_FACTOR = 8;
+
+    /**
+     * One endpoint of the API, and its health.
+     */
+    public static final class Endpoint {
+        private final String baseUrl;
+        private final HttpTransport transport;
+        private int outstanding;
+        private int consecutiveFailures;
+        private int ejections;
+        private long ejectedUntilNanos;
+
+        /**
+         * @param baseUrl The base URL of the endpoint, identifying it in logs and attempt histories
+         * @param transport The transport sending requests to that base URL
+         */
+        public Endpoint(String baseUrl, HttpTransport transport) {
+            this.baseUrl = baseUrl;
+            this.transport = transport;
+        }
+
+        public String baseUrl() {
+            return baseUrl;
+        }
+
+        /**
+         * @return The number of requests sent to the endpoint and not answered yet
+         */
+        public synchronized int outstanding() {
+            return outstanding;
+        }
+
+        /**
+         * @param nowNanos The current time
+         * @return true if the endpoint is ejected at that time
+         */
+        public synchronized boolean isEjected(long nowNanos) {
+            return ejectedUntilNanos - nowNanos > 0;
+        }
+
+        private synchronized long ejectedUntilNanos() {
+            return ejectedUntilNanos;
+        }
+
+        private synchronized void begin() {
+            outstanding++;
+        }
+
+        private synchronized void end() {
+            outstanding--;
+        }
+
+        private synchronized void succeeded() {
+            consecutiveFailures = 0;
+            if (ejections > 0) {
+                ejections = 0;
+                logger.info("Endpoint {} re-admitted", baseUrl);
+            }
+        }
+
+        private synchronized void failed(int failureThreshold, Duration ejection, long nowNanos) {
+            if (++consecutiveFailures < failureThreshold || isEjected(nowNanos)) {
+                return;
+            }
+            Duration duration = ejection.multipliedBy(Math.min(1L << Math.min(ejections, 30), MAX_EJECTION_FACTOR));
+            ejections++;
+            ejectedUntilNanos = nowNanos + duration.toNanos();
+            logger.warn("Endpoint {} ejected for {} s after {} consecutive failures", baseUrl,
+                    duration.toSeconds(), consecutiveFailures);
+        }
+    }
+
+    private final List<Endpoint> endpoints;
+    private final int failureThreshold;
+    private final Duration ejection;
+    private final LongSupplier nanoClock;
+    private final IntUnaryOperator random;
+
+    /**
+     * @param endpoints The endpoints of the API, at least one
+     * @param failureThreshold The number of consecutive failures ejecting an endpoint
+     * @param ejection How long a first ejection lasts
+     */
+    public LoadBalancedTransport(List<Endpoint> endpoints, int failureThreshold, Duration ejection) {
+        this(endpoints, failureThreshold, ejection, System::nanoTime,
+                bound -> ThreadLocalRandom.current().nextInt(bound));
+    }
+
+    LoadBalancedTransport(List<Endpoint> endpoints, int failureThreshold, Duration ejection, LongSupplier nanoClock,
+                          IntUnaryOperator random) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("No endpoint to balance requests over");
+        }
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Invalid failure threshold: " + failureThreshold);
+        }
+        this.endpoints = List.copyOf(endpoints);
+        this.failureThreshold = failureThreshold;
+        this.ejection = ejection;
+        this.nanoClock = nanoClock;
+        this.random = random;
+    }
+
+    /**
+     * @return The endpoints requests are spread over
+     */
+    public List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    @Override
+    public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body) {
+        return send(method, path, body, null);
+    }
+
+    @Override
+    public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body,
+                                        AttemptHistory history) {
+        return Mono.defer(() -> {
+            Endpoint endpoint = select(history);
+            endpoint.begin();
+            return endpoint.transport.send(method, path, body)
+                    .doOnSuccess(response -> endpoint.succeeded())
+                    .doOnError(error -> onError(endpoint, error, history))
+                    .doFinally(signal -> {
+                        endpoint.end();
+                        // A request cancelled because a hedge answered first is no failure
+                        if (signal == SignalType.CANCEL && history != null && history.isTimedOut()) {
+                            onFailure(endpoint, history);
+                        }
+                    });
+        });
+    }
+
+    @Override
+    public Flux<DataBuffer> stream(String path) {
+        return Flux.defer(() -> {
+            Endpoint endpoint = select(null);
+            endpoint.begin();
+            return endpoint.transport.stream(path)
+                    .doOnComplete(endpoint::succeeded)
+                    .doOnError(error -> onError(endpoint, error, null))
+                    .doFinally(signal -> endpoint.end());
+        });
+    }
+
+    @Override
+    public <T> Mono<T> getJson(String path, Class<T> type) {
+        return Mono.defer(() -> {
+            Endpoint endpoint = select(null);
+            endpoint.begin();
+            return endpoint.transport.getJson(path, type)
+                    .doOnSuccess(value -> endpoint.succeeded())
+                    .doOnError(error -> onError(endpoint, error, null))
+                    .doFinally(signal -> endpoint.end());
+        });
+    }
+
+    @Override
+    public Mono<ConditionalResponse> getConditional(String path, ConditionalResponse previous) {
+        return Mono.defer(() -> {
+            Endpoint endpoint = select(null);
+            endpoint.begin();
+            return endpoint.transport.getConditional(path, previous)
+                    .doOnSuccess(response -> endpoint.succeeded())
+                    .doOnError(error -> onError(endpoint, error, null))
+                    .doFinally(signal -> endpoint.end());
+        });
+    }
+
+    /**
+     * Picks the endpoint of the next request.
+     *
+     * @param history The endpoints to avoid, or null
+     * @return The less busy of two endpoints picked at random among the available ones
+     */
+    Endpoint select(AttemptHistory history) {
+        long now = nanoClock.getAsLong();
+        List<Endpoint> available = new ArrayList<>(endpoints.size());
+        List<Endpoint> untried = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.isEjected(now)) {
+                available.add(endpoint);
+                if (history == null || !history.hasFailedOn(endpoint.baseUrl)) {
+                    untried.add(endpoint);
+                }
+            }
+        }
+        List<Endpoint> candidates = !untried.isEmpty() ? untried : available;
+        if (candidates.isEmpty()) {
+            return endpoints.stream().min(Comparator.comparingLong(Endpoint::ejectedUntilNanos)).orElseThrow();
+        }
+        if (candidates.size() == 1) {
+            return candidates.getFirst();
+        }
+        Endpoint first = candidates.get(random.applyAsInt(candidates.size()));
+        Endpoint second = candidates.get(random.applyAsInt(candidates.size()));
+        return second.outstanding() < first.outstanding() ? second : first;
+    }
+
+    private void onError(Endpoint endpoint, Throwable error, AttemptHistory history) {
+        if (error instanceof WebClientResponseException response && !response.getStatusCode().is5xxServerError()) {
+            // The endpoint answered: the request itself was wrong or throttled
+            endpoint.succeeded();
+            if (history != null) {
+                history.failedOn(endpoint.baseUrl);
+            }
+            return;
+        }
+        onFailure(endpoint, history);
+    }
+
+    private void onFailure(Endpoint endpoint, AttemptHistory history) {
+        endpoint.failed(failureThreshold, ejection, nanoClock.getAsLong());
+        if (history != null) {
+            history.failedOn(endpoint.baseUrl);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.crossmint.challenge.service.transport;
+
+/**
+ * The outcome of a successful request sent through an {@link HttpTransport}.
+ *
+ * @param status The HTTP status of the response
+ * @param bytes The size of the response body
+ */
+public record TransportResponse(int status, long bytes) {
+}
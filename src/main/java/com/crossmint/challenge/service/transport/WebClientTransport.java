@@ -0,0 +1,74 @@
+package com.crossmint.challenge.service.transport;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * The {@link HttpTransport} backed by a Spring {@link WebClient}, on Reactor Netty by default.
+ */
+public class WebClientTransport implements HttpTransport {
+
+    private final WebClient webClient;
+
+    /**
+     * @param webClient The WebClient, configured with the base URL of the API
+     */
+    public WebClientTransport(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body) {
+        return webClient.method(method)
+                .uri(path)
+                .bodyValue(body)
+                .retrieve()
+                .toEntity(byte[].class)
+                .map(response -> new TransportResponse(response.getStatusCode().value(),
+                        response.getBody() == null ? 0 : response.getBody().length));
+    }
+
+    @Override
+    public Flux<DataBuffer> stream(String path) {
+        return webClient.get()
+                .uri(path)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+    }
+
+    @Override
+    public <T> Mono<T> getJson(String path, Class<T> type) {
+        return webClient.get()
+                .uri(path)
+                .retrieve()
+                .bodyToMono(type);
+    }
+
+    @Override
+    public Mono<ConditionalResponse> getConditional(String path, ConditionalResponse previous) {
+        return webClient.get()
+                .uri(path)
+                .headers(headers -> {
+                    if (previous != null && previous.etag() != null) {
+                        headers.set(HttpHeaders.IF_NONE_MATCH, previous.etag());
+                    }
+                    if (previous != null && previous.lastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                    }
+                })
+                .retrieve()
+                .toEntity(byte[].class)
+                .map(response -> response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()
+                        ? ConditionalResponse.NOT_MODIFIED
+                        : new ConditionalResponse(response.getBody() == null ? new byte[0] : response.getBody(),
+                        response.getHeaders().getFirst(HttpHeaders.ETAG),
+                        response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED)));
+    }
+}
@@ -0,0 +1,17 @@
+package com.crossmint.challenge.service.validation;
+
+import com.crossmint.challenge.model.CellOperation;
+
+/**
+ * An operation the API would reject, with the reason why.
+ *
+ * @param operation The rejected operation
+ * @param reason Why the operation can't succeed
+ */
+public record ConstraintViolation(CellOperation operation, String reason) {
+
+    @Override
+    public String toString() {
+        return operation + ": " + reason;
+    }
+}
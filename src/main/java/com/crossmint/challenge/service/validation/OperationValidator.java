@@ -0,0 +1,190 @@
+package com.crossmint.challenge.service.validation;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.Soloon;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Checks operations against the constraints of the Megaverse before they are sent, so that
+ * impossible ones fail fast with a clear reason instead of costing a round trip and a 4xx:
+ * <ul>
+ *     <li>every operation must target a cell inside the map</li>
+ *     <li>a Soloon must be next to a Polyanet (up, down, left or right)</li>
+ * </ul>
+ */
+@UtilityClass
+public class OperationValidator {
+
+    private static final String NO_ADJACENT_POLYANET = "a Soloon must be next to a Polyanet";
+
+    /**
+     * Checks a single operation against an occupancy index of the map.
+     *
+     * @param operation The operation to check
+     * @param occupancy The state of the map the operation applies to
+     * @return The reason the operation would be rejected, or empty if it is valid
+     */
+    public Optional<String> check(CellOperation operation, CellGrid occupancy) {
+        int row = operation.row(), col = operation.column();
+        if (!isInside(row, col, occupancy)) {
+            return Optional.of(outOfBounds(occupancy));
+        }
+        if (isSoloonCreation(operation) && !hasAdjacentPolyanet(occupancy, row, col)) {
+            return Optional.of(NO_ADJACENT_POLYANET);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Validates a whole plan up front: the plan is applied to a copy of the current map, and
+     * the Soloons of the resulting map are checked all at once with bitset adjacency, so even
+     * very large grids validate in a few passes over packed bits.
+     * <p>
+     * The operations of a plan run concurrently, so checking Soloons against the resulting map
+     * only holds if they are created once the other operations are done: when the plan also
+     * creates Polyanets, {@link PlanValidation#soloonsNeedCreatedPolyanets()} tells the caller
+     * to run its Soloon creations last. Deleting a Polyanet next to a Soloon doesn't matter to
+     * the API, which only checks the neighbours of a Soloon when it is created.
+     *
+     * @param current The current state of the map
+     * @param plan Supplies the operations of the plan
+     * @return The validation of the plan
+     */
+    public PlanValidation validatePlan(CellGrid current, Supplier<Stream<CellOperation>> plan) {
+        int rows = current.getRows(), cols = current.getCols();
+        CellGrid result = new CellGrid(rows, cols, current.cells().clone());
+        List<ConstraintViolation> violations = new ArrayList<>();
+        boolean createsPolyanets = false, createsSoloons = false;
+
+        try (Stream<CellOperation> operations = plan.get()) {
+            for (Iterator<CellOperation> iterator = operations.iterator(); iterator.hasNext(); ) {
+                CellOperation operation = iterator.next();
+                if (!isInside(operation.row(), operation.column(), result)) {
+                    violations.add(new ConstraintViolation(operation, outOfBounds(result)));
+                    continue;
+                }
+                GridCell cell = operation.method() == HttpMethod.POST ? GridCell.of(operation.target()) : GridCell.SPACE;
+                result.set(operation.row(), operation.column(), cell);
+                createsPolyanets |= cell == GridCell.POLYANET;
+                createsSoloons |= isSoloonCreation(operation);
+            }
+        }
+
+        long[] isolated = isolatedSoloons(result);
+        if (hasAnyBit(isolated)) {
+            int words = wordsPerRow(cols);
+            try (Stream<CellOperation> operations = plan.get()) {
+                operations
+                        .filter(OperationValidator::isSoloonCreation)
+                        .filter(operation -> isInside(operation.row(), operation.column(), result))
+                        .filter(operation -> isSet(isolated, operation.row() * words, operation.column()))
+                        .forEach(operation -> violations.add(new ConstraintViolation(operation, NO_ADJACENT_POLYANET)));
+            }
+        }
+        return new PlanValidation(violations, createsPolyanets && createsSoloons);
+    }
+
+    /**
+     * @param operation An operation
+     * @return true if the operation creates a Soloon, which needs a Polyanet next to it
+     */
+    public boolean isSoloonCreation(CellOperation operation) {
+        return operation.method() == HttpMethod.POST && operation.target() instanceof Soloon;
+    }
+
+    /**
+     * Finds the Soloons without any adjacent Polyanet. Each row is packed into words of 64 cells;
+     * the cells next to a Polyanet are the Polyanet bits of the rows above and below, plus the
+     * bits of the same row shifted by one cell in both directions.
+     *
+     * @param grid The grid to check
+     * @return The isolated Soloons, packed row by row in {@code ceil(cols / 64)} words per row
+     */
+    long[] isolatedSoloons(CellGrid grid) {
+        int rows = grid.getRows(), cols = grid.getCols(), words = wordsPerRow(cols);
+        long[] polyanets = new long[rows * words];
+        long[] soloons = new long[rows * words];
+        byte[] cells = grid.cells();
+        byte polyanet = GridCell.POLYANET.code();
+        byte firstSoloon = GridCell.WHITE_SOLOON.code(), lastSoloon = GridCell.PURPLE_SOLOON.code();
+
+        for (int row = 0, i = 0; row < rows; row++) {
+            int base = row * words;
+            for (int col = 0; col < cols; col++, i++) {
+                byte cell = cells[i];
+                if (cell == polyanet) {
+                    polyanets[base + (col >>> 6)] |= 1L << col;
+                } else if (cell >= firstSoloon && cell <= lastSoloon) {
+                    soloons[base + (col >>> 6)] |= 1L << col;
+                }
+            }
+        }
+
+        long[] isolated = new long[rows * words];
+        for (int row = 0; row < rows; row++) {
+            int base = row * words;
+            for (int w = 0; w < words; w++) {
+                long here = polyanets[base + w];
+                long adjacent = (here << 1) | (here >>> 1);
+                if (w > 0) {
+                    adjacent |= polyanets[base + w - 1] >>> 63;
+                }
+                if (w < words - 1) {
+                    adjacent |= polyanets[base + w + 1] << 63;
+                }
+                if (row > 0) {
+                    adjacent |= polyanets[base - words + w];
+                }
+                if (row < rows - 1) {
+                    adjacent |= polyanets[base + words + w];
+                }
+                isolated[base + w] = soloons[base + w] & ~adjacent;
+            }
+        }
+        return isolated;
+    }
+
+    private static String outOfBounds(CellGrid grid) {
+        return "outside of the " + grid.getRows() + "x" + grid.getCols() + " map";
+    }
+
+    private static boolean isInside(int row, int col, CellGrid grid) {
+        return row >= 0 && col >= 0 && row < grid.getRows() && col < grid.getCols();
+    }
+
+    private static boolean hasAdjacentPolyanet(CellGrid grid, int row, int col) {
+        return isPolyanet(grid, row - 1, col) || isPolyanet(grid, row + 1, col)
+                || isPolyanet(grid, row, col - 1) || isPolyanet(grid, row, col + 1);
+    }
+
+    private static boolean isPolyanet(CellGrid grid, int row, int col) {
+        return isInside(row, col, grid) && grid.get(row, col) == GridCell.POLYANET;
+    }
+
+    private static int wordsPerRow(int cols) {
+        return (cols + 63) >>> 6;
+    }
+
+    private static boolean isSet(long[] bits, int base, int col) {
+        return (bits[base + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    private static boolean hasAnyBit(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
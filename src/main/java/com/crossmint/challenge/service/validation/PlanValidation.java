@@ -0,0 +1,52 @@
+package com.crossmint.challenge.service.validation;
+
+import com.crossmint.challenge.model.CellOperation;
+import org.springframework.http.HttpMethod;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The outcome of validating a whole plan with {@link OperationValidator#validatePlan}.
+ */
+public final class PlanValidation {
+
+    private final List<ConstraintViolation> violations;
+    private final Set<Long> rejectedCreations = new HashSet<>();
+    private final Set<Long> rejectedDeletions = new HashSet<>();
+    private final boolean soloonsNeedCreatedPolyanets;
+
+    PlanValidation(List<ConstraintViolation> violations, boolean soloonsNeedCreatedPolyanets) {
+        this.violations = List.copyOf(violations);
+        this.soloonsNeedCreatedPolyanets = soloonsNeedCreatedPolyanets;
+        for (ConstraintViolation violation : violations) {
+            CellOperation operation = violation.operation();
+            (operation.method() == HttpMethod.POST ? rejectedCreations : rejectedDeletions).add(operation.cellKey());
+        }
+    }
+
+    /**
+     * @return The operations of the plan the API would reject
+     */
+    public List<ConstraintViolation> violations() {
+        return violations;
+    }
+
+    /**
+     * @return true if the plan creates both Polyanets and Soloons, so that its Soloons may only be
+     * valid once the Polyanets are created
+     */
+    public boolean soloonsNeedCreatedPolyanets() {
+        return soloonsNeedCreatedPolyanets;
+    }
+
+    /**
+     * @param operation An operation of the validated plan
+     * @return true if the operation would be rejected
+     */
+    public boolean rejects(CellOperation operation) {
+        return (operation.method() == HttpMethod.POST ? rejectedCreations : rejectedDeletions)
+                .contains(operation.cellKey());
+    }
+}
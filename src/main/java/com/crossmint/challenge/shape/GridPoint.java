@@ -0,0 +1,25 @@
+package com.crossmint.challenge.shape;
+
+/**
+ * A cell position in the grid.
+ *
+ * @param row The row coordinate
+ * @param col The column coordinate
+ */
+public record GridPoint(int row, int col) {
+
+    /**
+     * Parses a point written as "row,col".
+     *
+     * @param value The text to parse
+     * @return The parsed point
+     * @throws IllegalArgumentException if the text isn't a valid point
+     */
+    public static GridPoint parse(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid point, expected row,col: " + value);
+        }
+        return new GridPoint(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.crossmint.challenge.shape;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A straight line between two cells, rasterized with Bresenham's algorithm.
+ * Horizontal, vertical and 45-degree lines (diagonals) cover exactly the expected cells.
+ *
+ * @param from The first cell of the line
+ * @param to The last cell of the line
+ */
+public record LineShape(GridPoint from, GridPoint to) implements Shape {
+
+    @Override
+    public Stream<GridPoint> cells() {
+        int cells = Math.max(Math.abs(to.row() - from.row()), Math.abs(to.col() - from.col())) + 1;
+        return StreamSupport.stream(Spliterators.spliterator(new BresenhamIterator(), cells,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    private final class BresenhamIterator implements Iterator<GridPoint> {
+        private final int dRow = Math.abs(to.row() - from.row());
+        private final int dCol = -Math.abs(to.col() - from.col());
+        private final int stepRow = from.row() < to.row() ? 1 : -1;
+        private final int stepCol = from.col() < to.col() ? 1 : -1;
+        private int row = from.row();
+        private int col = from.col();
+        private int error = dRow + dCol;
+        private boolean done;
+
+        @Override
+        public boolean hasNext() {
+            return !done;
+        }
+
+        @Override
+        public GridPoint next() {
+            if (done) {
+                throw new NoSuchElementException();
+            }
+            GridPoint point = new GridPoint(row, col);
+            if (row == to.row() && col == to.col()) {
+                done = true;
+            } else {
+                int doubled = 2 * error;
+                if (doubled >= dCol) {
+                    error += dCol;
+                    row += stepRow;
+                }
+                if (doubled <= dRow) {
+                    error += dRow;
+                    col += stepCol;
+                }
+            }
+            return point;
+        }
+    }
+}
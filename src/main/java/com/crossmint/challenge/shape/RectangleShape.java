@@ -0,0 +1,24 @@
+package com.crossmint.challenge.shape;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A rectangle between two opposite corners, either as an outline or filled.
+ *
+ * @param topLeft The top-left corner
+ * @param bottomRight The bottom-right corner
+ * @param filled true to cover the whole region, false for the outline only
+ */
+public record RectangleShape(GridPoint topLeft, GridPoint bottomRight, boolean filled) implements Shape {
+
+    @Override
+    public Stream<GridPoint> cells() {
+        int top = topLeft.row(), left = topLeft.col();
+        int bottom = bottomRight.row(), right = bottomRight.col();
+        return IntStream.rangeClosed(top, bottom).boxed()
+                .flatMap(row -> filled || row == top || row == bottom
+                        ? IntStream.rangeClosed(left, right).mapToObj(col -> new GridPoint(row, col))
+                        : Stream.of(new GridPoint(row, left), new GridPoint(row, right)));
+    }
+}
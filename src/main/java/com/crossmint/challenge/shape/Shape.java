@@ -0,0 +1,16 @@
+package com.crossmint.challenge.shape;
+
+import java.util.stream.Stream;
+
+/**
+ * A set of grid cells described geometrically. Shapes only enumerate their cells;
+ * clipping to the map, deduplication and turning cells into operations is done by
+ * {@link ShapeRasterizer}.
+ */
+public sealed interface Shape permits LineShape, RectangleShape, XShape {
+
+    /**
+     * @return The cells covered by the shape, lazily generated, possibly with duplicates
+     */
+    Stream<GridPoint> cells();
+}
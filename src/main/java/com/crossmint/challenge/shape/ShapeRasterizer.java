@@ -0,0 +1,49 @@
+package com.crossmint.challenge.shape;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.GridCell;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpMethod;
+
+import java.util.BitSet;
+import java.util.stream.Stream;
+
+/**
+ * Turns shapes into the creation operations needed to draw them on the current map.
+ * <p>
+ * Cells are clipped to the map, deduplicated (e.g. the center of an X) and skipped when
+ * the current map already holds something there, so only missing cells are issued.
+ * Operations are generated lazily as the returned stream is consumed.
+ */
+@UtilityClass
+public class ShapeRasterizer {
+
+    /**
+     * Plans the creations needed to draw a shape.
+     *
+     * @param shape The shape to draw
+     * @param cell The astral object to place on every cell of the shape
+     * @param current The current state of the map
+     * @return The creation operations, one per empty cell of the shape
+     * @throws IllegalArgumentException if the cell is {@link GridCell#SPACE}
+     */
+    public Stream<CellOperation> plan(Shape shape, GridCell cell, CellGrid current) {
+        if (cell.isEmpty()) {
+            throw new IllegalArgumentException("Shapes must be drawn with an astral object, not " + cell);
+        }
+        int rows = current.getRows(), cols = current.getCols();
+        BitSet seen = new BitSet(rows * cols);
+        return shape.cells()
+                .filter(point -> point.row() >= 0 && point.row() < rows && point.col() >= 0 && point.col() < cols)
+                .filter(point -> {
+                    int index = point.row() * cols + point.col();
+                    if (seen.get(index)) {
+                        return false;
+                    }
+                    seen.set(index);
+                    return current.get(point.row(), point.col()).isEmpty();
+                })
+                .map(point -> new CellOperation(cell.toAstralObject(point.row(), point.col()), HttpMethod.POST, true));
+    }
+}
@@ -0,0 +1,20 @@
+package com.crossmint.challenge.shape;
+
+import java.util.stream.Stream;
+
+/**
+ * An X made of the two diagonals of a rectangular region.
+ *
+ * @param topLeft The top-left corner of the region
+ * @param bottomRight The bottom-right corner of the region
+ */
+public record XShape(GridPoint topLeft, GridPoint bottomRight) implements Shape {
+
+    @Override
+    public Stream<GridPoint> cells() {
+        return Stream.concat(
+                new LineShape(topLeft, bottomRight).cells(),
+                new LineShape(new GridPoint(topLeft.row(), bottomRight.col()),
+                        new GridPoint(bottomRight.row(), topLeft.col())).cells());
+    }
+}
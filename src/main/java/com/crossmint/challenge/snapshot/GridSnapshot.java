@@ -0,0 +1,201 @@
+package com.crossmint.challenge.snapshot;
+
+import com.crossmint.challenge.model.ApiSerializable;
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GoalMap;
+import com.crossmint.challenge.model.GridCell;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A grid snapshot read by {@link GridSnapshotCodec}.
+ * <p>
+ * The run-length encoded cells stay in the memory-mapped file: converting to a
+ * {@link CellGrid} or {@link GoalMap} and diffing two snapshots all walk the runs
+ * in place, without decoding the file into an intermediate representation.
+ */
+@Getter
+public final class GridSnapshot {
+
+    /**
+     * Receives the cells that differ between two grids.
+     */
+    @FunctionalInterface
+    public interface DifferenceConsumer {
+        void accept(int row, int col, GridCell expected, GridCell actual);
+    }
+
+    private final String candidateId;
+    private final int rows;
+    private final int cols;
+    private final Instant timestamp;
+    private final long checksum;
+    private final int runCount;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final ByteBuffer runs;
+
+    GridSnapshot(String candidateId, int rows, int cols, Instant timestamp, long checksum,
+                 int runCount, ByteBuffer runs) {
+        this.candidateId = candidateId;
+        this.rows = rows;
+        this.cols = cols;
+        this.timestamp = timestamp;
+        this.checksum = checksum;
+        this.runCount = runCount;
+        this.runs = runs;
+    }
+
+    /**
+     * @param run The index of a run, in [0, runCount)
+     * @return The cell value repeated by that run
+     */
+    public GridCell runCell(int run) {
+        return GridCell.fromCode(runs.get(run * GridSnapshotCodec.RUN_BYTES));
+    }
+
+    /**
+     * @param run The index of a run, in [0, runCount)
+     * @return The number of consecutive cells covered by that run
+     */
+    public int runLength(int run) {
+        return runs.getInt(run * GridSnapshotCodec.RUN_BYTES + Byte.BYTES);
+    }
+
+    /**
+     * Decodes the snapshot into a dense grid.
+     *
+     * @return The decoded grid
+     * @throws IllegalStateException if the runs don't cover exactly rows * cols cells
+     */
+    public CellGrid toGrid() {
+        requireFullCoverage();
+        byte[] cells = new byte[Math.multiplyExact(rows, cols)];
+        int position = 0;
+        for (int run = 0; run < runCount; run++) {
+            int length = runLength(run);
+            Arrays.fill(cells, position, position + length, runCell(run).code());
+            position += length;
+        }
+        return new CellGrid(rows, cols, cells);
+    }
+
+    /**
+     * Builds a goal map straight from the runs, skipping empty runs entirely.
+     *
+     * @return The goal map described by this snapshot
+     * @throws IllegalStateException if the runs don't cover exactly rows * cols cells
+     */
+    public GoalMap toGoalMap() {
+        requireFullCoverage();
+        Set<ApiSerializable> astralObjects = new HashSet<>();
+        int position = 0;
+        for (int run = 0; run < runCount; run++) {
+            GridCell cell = runCell(run);
+            int length = runLength(run);
+            if (!cell.isEmpty()) {
+                for (int i = position; i < position + length; i++) {
+                    astralObjects.add(cell.toAstralObject(i / cols, i % cols));
+                }
+            }
+            position += length;
+        }
+        return new GoalMap(rows, cols, astralObjects);
+    }
+
+    /**
+     * Reports every cell whose value differs between this snapshot and another one.
+     * Both run lists are walked side by side, so equal spans are skipped a run at a time.
+     *
+     * @param other The snapshot to compare against, with the same dimensions
+     * @param consumer Receives each differing cell, with this snapshot's value as expected
+     * @return The number of differing cells
+     * @throws IllegalArgumentException if the dimensions differ
+     * @throws IllegalStateException if the runs of either snapshot don't cover exactly rows * cols cells
+     */
+    public long forEachDifference(GridSnapshot other, DifferenceConsumer consumer) {
+        requireSameShape(other.rows, other.cols);
+        requireFullCoverage();
+        other.requireFullCoverage();
+        long differences = 0;
+        int position = 0, mine = 0, theirs = 0;
+        int mineLeft = runCount > 0 ? runLength(0) : 0;
+        int theirsLeft = other.runCount > 0 ? other.runLength(0) : 0;
+
+        while (mine < runCount && theirs < other.runCount) {
+            int span = Math.min(mineLeft, theirsLeft);
+            GridCell expected = runCell(mine);
+            GridCell actual = other.runCell(theirs);
+            if (expected != actual) {
+                for (int i = position; i < position + span; i++) {
+                    consumer.accept(i / cols, i % cols, expected, actual);
+                }
+                differences += span;
+            }
+            position += span;
+            mineLeft -= span;
+            theirsLeft -= span;
+            if (mineLeft == 0 && ++mine < runCount) {
+                mineLeft = runLength(mine);
+            }
+            if (theirsLeft == 0 && ++theirs < other.runCount) {
+                theirsLeft = other.runLength(theirs);
+            }
+        }
+        return differences;
+    }
+
+    /**
+     * Reports every cell whose value differs between this snapshot and a dense grid.
+     *
+     * @param other The grid to compare against, with the same dimensions
+     * @param consumer Receives each differing cell, with this snapshot's value as expected
+     * @return The number of differing cells
+     * @throws IllegalArgumentException if the dimensions differ
+     * @throws IllegalStateException if the runs don't cover exactly rows * cols cells
+     */
+    public long forEachDifference(CellGrid other, DifferenceConsumer consumer) {
+        requireSameShape(other.getRows(), other.getCols());
+        requireFullCoverage();
+        byte[] cells = other.cells();
+        long differences = 0;
+        int position = 0;
+        for (int run = 0; run < runCount; run++) {
+            GridCell expected = runCell(run);
+            byte code = expected.code();
+            int end = position + runLength(run);
+            for (int i = position; i < end; i++) {
+                if (cells[i] != code) {
+                    consumer.accept(i / cols, i % cols, expected, GridCell.fromCode(cells[i]));
+                    differences++;
+                }
+            }
+            position = end;
+        }
+        return differences;
+    }
+
+    // The checksum only covers the runs: a header with the wrong dimensions would otherwise go unnoticed
+    private void requireFullCoverage() {
+        long position = 0;
+        for (int run = 0; run < runCount && position >= 0; run++) {
+            int length = runLength(run);
+            position = length > 0 ? position + length : -1;
+        }
+        if (position < 0 || position != (long) rows * cols) {
+            throw new IllegalStateException("Snapshot runs don't match a " + rows + "x" + cols + " grid");
+        }
+    }
+
+    private void requireSameShape(int otherRows, int otherCols) {
+        if (otherRows != rows || otherCols != cols) {
+            throw new IllegalArgumentException("Cannot diff a " + rows + "x" + cols
+                    + " grid against a " + otherRows + "x" + otherCols + " grid");
+        }
+    }
+}
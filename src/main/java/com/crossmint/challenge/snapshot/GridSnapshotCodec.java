@@ -0,0 +1,150 @@
+package com.crossmint.challenge.snapshot;
+
+import com.crossmint.challenge.model.CellGrid;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes grid snapshots in a compact binary format.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int    magic ("CMGS")
+ * short  version
+ * short  candidate id length (unsigned), followed by the UTF-8 candidate id
+ * int    rows
+ * int    cols
+ * long   timestamp (epoch millis)
+ * int    run count
+ * long   CRC32C checksum of the run section
+ * runs   run count x (byte cell code, int run length)
+ * </pre>
+ * Cells are run-length encoded in row-major order, and every run has a fixed size,
+ * so snapshots can be read straight from a memory-mapped file without decoding them first.
+ */
+@UtilityClass
+public class GridSnapshotCodec {
+
+    static final int MAGIC = 0x434D4753;
+    static final short VERSION = 1;
+    static final int RUN_BYTES = Byte.BYTES + Integer.BYTES;
+    static final int MAX_CANDIDATE_BYTES = 0xFFFF;
+
+    /**
+     * Writes a grid to the given file, replacing it if it already exists.
+     *
+     * @param path The destination file
+     * @param candidateId The candidate the grid belongs to
+     * @param grid The grid to write
+     * @param timestamp The moment the grid was captured
+     * @throws IOException if the file can't be written
+     * @throws IllegalArgumentException if the candidate id is longer than 65535 bytes in UTF-8
+     */
+    public void write(Path path, String candidateId, CellGrid grid, Instant timestamp) throws IOException {
+        byte[] candidate = candidateId.getBytes(StandardCharsets.UTF_8);
+        if (candidate.length > MAX_CANDIDATE_BYTES) {
+            throw new IllegalArgumentException("Candidate id too long for a snapshot: " + candidate.length + " bytes");
+        }
+        byte[] cells = grid.cells();
+        int runCount = countRuns(cells);
+        int headerBytes = Integer.BYTES + Short.BYTES + Short.BYTES + candidate.length
+                + Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+        long size = headerBytes + (long) runCount * RUN_BYTES;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC)
+                    .putShort(VERSION)
+                    .putShort((short) candidate.length)
+                    .put(candidate)
+                    .putInt(grid.getRows())
+                    .putInt(grid.getCols())
+                    .putLong(timestamp.toEpochMilli())
+                    .putInt(runCount);
+            int checksumPosition = buffer.position();
+            buffer.putLong(0L);
+
+            ByteBuffer runs = buffer.slice();
+            int start = 0;
+            for (int i = 1; i <= cells.length; i++) {
+                if (i == cells.length || cells[i] != cells[start]) {
+                    runs.put(cells[start]).putInt(i - start);
+                    start = i;
+                }
+            }
+            buffer.putLong(checksumPosition, checksum(runs.flip()));
+            buffer.force();
+        }
+    }
+
+    /**
+     * Maps a snapshot file into memory and validates its header and checksum.
+     *
+     * @param path The snapshot file
+     * @return The snapshot, backed by the memory-mapped file
+     * @throws IOException if the file can't be read
+     * @throws IllegalStateException if the file isn't a valid snapshot
+     */
+    public GridSnapshot read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a grid snapshot: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported snapshot version " + version + ": " + path);
+            }
+            byte[] candidate = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(candidate);
+            int rows = buffer.getInt();
+            int cols = buffer.getInt();
+            Instant timestamp = Instant.ofEpochMilli(buffer.getLong());
+            int runCount = buffer.getInt();
+            long checksum = buffer.getLong();
+
+            ByteBuffer runs = buffer.slice(buffer.position(), Math.multiplyExact(runCount, RUN_BYTES));
+            if (checksum(runs) != checksum) {
+                throw new IllegalStateException("Corrupted snapshot (checksum mismatch): " + path);
+            }
+            return new GridSnapshot(new String(candidate, StandardCharsets.UTF_8), rows, cols, timestamp,
+                    checksum, runCount, runs);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalStateException("Truncated snapshot: " + path, e);
+        }
+    }
+
+    private static int countRuns(byte[] cells) {
+        if (cells.length == 0) {
+            return 0;
+        }
+        int runs = 1;
+        for (int i = 1; i < cells.length; i++) {
+            if (cells[i] != cells[i - 1]) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    private static long checksum(ByteBuffer runs) {
+        CRC32C crc = new CRC32C();
+        crc.update(runs.duplicate());
+        return crc.getValue();
+    }
+}
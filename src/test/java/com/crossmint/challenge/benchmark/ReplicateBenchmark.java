@@ -0,0 +1,253 @@
+package com.crossmint.challenge.benchmark;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.LatencyHistogram;
+import com.crossmint.challenge.service.RunDeadline;
+import com.crossmint.challenge.service.RunReport;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.retry.FixedBackoffPolicy;
+import com.crossmint.challenge.service.retry.RetryBudget;
+import com.crossmint.challenge.service.retry.RetryRules;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import com.crossmint.challenge.service.transport.ApiSimulator;
+import com.crossmint.challenge.service.transport.HttpTransport;
+import com.crossmint.challenge.service.transport.JdkHttpTransport;
+import com.crossmint.challenge.service.transport.TransportResponse;
+import com.crossmint.challenge.service.transport.WebClientTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@code replicategoal} and {@code deleteall} end to end, through the real service and
+ * transport, against the {@link ApiSimulator} for a set of synthetic goals, and fails when the
+ * throughput of a run falls below the stored baseline.
+ * <p>
+ * Each run records its operations per second, the p50/p99 latency of its requests, the peak
+ * heap (sum of the peaks of the heap pools) and the peak thread count. The results are written
+ * to {@code target/benchmark/replicate.json}.
+ * <p>
+ * Run it with {@code mvn verify -Pbenchmark}. System properties:
+ * <ul>
+ *     <li>{@code benchmark.scenarios}: {@code all}, or the names of the scenarios to run (default: the gate set)</li>
+ *     <li>{@code benchmark.transport}: {@code reactor-netty} (default) or {@code jdk}</li>
+ *     <li>{@code benchmark.tolerance}: the share of the baseline a run may lose (default: from the baseline file)</li>
+ *     <li>{@code benchmark.update-baseline}: {@code true} to store the results as the new baseline</li>
+ * </ul>
+ */
+@Tag("benchmark")
+class ReplicateBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicateBenchmark.class);
+
+    private static final Path BASELINE = Path.of("src/test/resources/benchmark/baseline.properties");
+    private static final Path RESULTS = Path.of("target/benchmark/replicate.json");
+    private static final int CONCURRENCY = 16;
+
+    /**
+     * A goal and the behaviour of the server replicating it.
+     *
+     * @param name The name of the scenario, used as key of its baseline
+     * @param goal Generates the goal
+     * @param latency The time the server takes to answer every request
+     * @param throttleEvery The period of the requests answered with a 429 (0 for none)
+     * @param gate true if the scenario is part of the default, gated set
+     */
+    record Scenario(String name, Supplier<CellGrid> goal, Duration latency, int throttleEvery, boolean gate) {}
+
+    /**
+     * The measurements of one phase of a scenario.
+     */
+    record Result(String scenario, String phase, int operations, double seconds, double opsPerSecond,
+                  double p50Millis, double p99Millis, long peakHeapMb, int peakThreads) {
+
+        @Override
+        public String toString() {
+            return String.format("%-14s %-9s %7d ops %8.2f s %9.1f ops/s  p50 %6.2f ms  p99 %7.2f ms  heap %5d MB"
+                            + "  threads %3d", scenario, phase, operations, seconds, opsPerSecond, p50Millis,
+                    p99Millis, peakHeapMb, peakThreads);
+        }
+    }
+
+    static List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("x-30", () -> SyntheticGoals.xShape(30), Duration.ZERO, 0, true),
+                new Scenario("x-1000", () -> SyntheticGoals.xShape(1000), Duration.ZERO, 0, true),
+                new Scenario("dense-100", () -> SyntheticGoals.denseRandom(100, 0.3, 42), Duration.ZERO, 0, true),
+                new Scenario("soloons-60", () -> SyntheticGoals.soloonHeavy(60, 42), Duration.ofMillis(1), 50, true),
+                new Scenario("comeths-80", () -> SyntheticGoals.comethHeavy(80, 42), Duration.ofMillis(1), 50, true),
+                new Scenario("x-2000", () -> SyntheticGoals.xShape(2000), Duration.ZERO, 0, false),
+                new Scenario("dense-300", () -> SyntheticGoals.denseRandom(300, 0.5, 42), Duration.ZERO, 0, false),
+                new Scenario("soloons-200", () -> SyntheticGoals.soloonHeavy(200, 42), Duration.ofMillis(2), 20,
+                        false),
+                new Scenario("comeths-200", () -> SyntheticGoals.comethHeavy(200, 42), Duration.ofMillis(2), 20,
+                        false));
+    }
+
+    @Test
+    void replicateAndDeleteSyntheticGoals() throws Exception {
+        String selection = System.getProperty("benchmark.scenarios", "");
+        List<Scenario> scenarios = scenarios().stream()
+                .filter(scenario -> selection.isBlank() ? scenario.gate()
+                        : selection.equals("all") || Arrays.asList(selection.split(",")).contains(scenario.name()))
+                .toList();
+        assertTrue(!scenarios.isEmpty(), "No scenario matches " + selection);
+
+        // Warms up the JIT and the connection pool: the first run is always slower
+        run(scenarios().getFirst());
+        List<Result> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            results.addAll(run(scenario));
+        }
+        logger.info("Replicate benchmark ({} transport, concurrency {}):{}{}", transport(), CONCURRENCY,
+                System.lineSeparator(), String.join(System.lineSeparator(), results.stream().map(Result::toString)
+                        .toList()));
+        Files.createDirectories(RESULTS.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(RESULTS.toFile(), results);
+
+        Properties baseline = new Properties();
+        try (InputStream in = Files.newInputStream(BASELINE)) {
+            baseline.load(in);
+        }
+        if (Boolean.getBoolean("benchmark.update-baseline")) {
+            results.forEach(result -> baseline.setProperty(key(result), String.format("%.1f", result.opsPerSecond())));
+            try (OutputStream out = Files.newOutputStream(BASELINE)) {
+                baseline.store(out, "Operations per second of each benchmark run, see ReplicateBenchmark");
+            }
+            logger.info("Baseline updated in {}", BASELINE);
+            return;
+        }
+
+        double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance",
+                baseline.getProperty("tolerance", "0.3")));
+        List<String> regressions = new ArrayList<>();
+        for (Result result : results) {
+            String expected = baseline.getProperty(key(result));
+            if (expected != null && result.opsPerSecond() < Double.parseDouble(expected) * (1 - tolerance)) {
+                regressions.add(String.format("%s: %.1f ops/s, baseline %s ops/s", key(result),
+                        result.opsPerSecond(), expected));
+            }
+        }
+        assertTrue(regressions.isEmpty(), "Throughput below the baseline (tolerance " + tolerance + "): "
+                + regressions);
+    }
+
+    private static List<Result> run(Scenario scenario) throws IOException {
+        CellGrid goal = scenario.goal().get();
+        int objects = SyntheticGoals.objects(goal);
+        try (ApiSimulator simulator = new ApiSimulator(goal, scenario.latency())) {
+            simulator.throttleEvery(scenario.throttleEvery());
+            TimedTransport transport = new TimedTransport(transport(simulator.baseUrl()));
+            RetryStrategy retryStrategy = new RetryStrategy(new FixedBackoffPolicy(Duration.ofMillis(20)),
+                    RetryRules.defaults(5), new RetryBudget(100, Duration.ofSeconds(10), 100));
+            AstralObjectService service = new AstralObjectService(transport, retryStrategy,
+                    Bulkheads.uniform(retryStrategy, CONCURRENCY), "benchmark", CONCURRENCY, 0, 30, 0, "/map/%s",
+                    "/map/%s/goal", "", "", 64);
+
+            Result replicate = measure(scenario, "replicate", transport,
+                    () -> service.replicateGoalMap(RunDeadline.none()));
+            assertEquals(objects, replicate.operations(), scenario.name() + " was not fully replicated");
+            assertEquals(objects, SyntheticGoals.objects(simulator.map()));
+
+            Result delete = measure(scenario, "deleteall", transport, () -> service.clearGoalMap(RunDeadline.none()));
+            assertEquals(objects, delete.operations(), scenario.name() + " was not fully deleted");
+            return List.of(replicate, delete);
+        }
+    }
+
+    private static Result measure(Scenario scenario, String phase, TimedTransport transport, Supplier<RunReport> run) {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        transport.latencies = new LatencyHistogram();
+
+        long start = System.nanoTime();
+        RunReport report = run.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        return new Result(scenario.name(), phase, report.completed(), seconds, report.completed() / seconds,
+                transport.latencies.percentile(50) / 1000.0, transport.latencies.percentile(99) / 1000.0,
+                peakHeap >> 20, threads.getPeakThreadCount());
+    }
+
+    private static String transport() {
+        return System.getProperty("benchmark.transport", "reactor-netty");
+    }
+
+    private static HttpTransport transport(String baseUrl) {
+        return switch (transport()) {
+            case "reactor-netty" -> new WebClientTransport(WebClient.builder().baseUrl(baseUrl)
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1)).build());
+            case "jdk" -> new JdkHttpTransport(baseUrl, Duration.ofSeconds(5), null);
+            default -> throw new IllegalArgumentException("Unknown transport: " + transport());
+        };
+    }
+
+    private static String key(Result result) {
+        return result.scenario() + "." + result.phase();
+    }
+
+    /**
+     * Records the latency of every request sent through a transport.
+     */
+    private static final class TimedTransport implements HttpTransport {
+        private final HttpTransport delegate;
+        private volatile LatencyHistogram latencies = new LatencyHistogram();
+
+        private TimedTransport(HttpTransport delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return delegate.send(method, path, body).doFinally(signal -> latencies.record(
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+            });
+        }
+
+        @Override
+        public Flux<DataBuffer> stream(String path) {
+            return delegate.stream(path);
+        }
+
+        @Override
+        public <T> Mono<T> getJson(String path, Class<T> type) {
+            return delegate.getJson(path, type);
+        }
+    }
+}
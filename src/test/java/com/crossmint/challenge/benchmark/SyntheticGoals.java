@@ -0,0 +1,119 @@
+package com.crossmint.challenge.benchmark;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates goals of any size for the benchmarks. Every layout is valid: each Soloon has a
+ * Polyanet next to it, so no operation of the plan is rejected by the validation.
+ */
+final class SyntheticGoals {
+
+    private static final GridCell[] SOLOONS = {GridCell.WHITE_SOLOON, GridCell.BLUE_SOLOON, GridCell.RED_SOLOON,
+            GridCell.PURPLE_SOLOON};
+    private static final GridCell[] COMETHS = {GridCell.UP_COMETH, GridCell.DOWN_COMETH, GridCell.LEFT_COMETH,
+            GridCell.RIGHT_COMETH};
+
+    private SyntheticGoals() {
+    }
+
+    /**
+     * @param size The number of rows and columns
+     * @return Both diagonals of the grid filled with Polyanets, leaving a margin of 2 cells
+     */
+    static CellGrid xShape(int size) {
+        CellGrid goal = new CellGrid(size, size);
+        for (int i = 2; i < size - 2; i++) {
+            goal.set(i, i, GridCell.POLYANET);
+            goal.set(i, size - 1 - i, GridCell.POLYANET);
+        }
+        return goal;
+    }
+
+    /**
+     * @param size The number of rows and columns
+     * @param density The share of cells holding an astral object
+     * @param seed The seed of the random layout
+     * @return A random mix of Polyanets, Soloons next to them and Comeths
+     */
+    static CellGrid denseRandom(int size, double density, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CellGrid goal = new CellGrid(size, size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (random.nextDouble() >= density) {
+                    continue;
+                }
+                int kind = random.nextInt(3);
+                if (kind == 0 || (kind == 1 && !nextToPolyanet(goal, row, col))) {
+                    goal.set(row, col, GridCell.POLYANET);
+                } else if (kind == 1) {
+                    goal.set(row, col, SOLOONS[random.nextInt(SOLOONS.length)]);
+                } else {
+                    goal.set(row, col, COMETHS[random.nextInt(COMETHS.length)]);
+                }
+            }
+        }
+        return goal;
+    }
+
+    /**
+     * @param size The number of rows and columns
+     * @param seed The seed of the colors
+     * @return A Polyanet in every third column, with Soloons on both of its sides
+     */
+    static CellGrid soloonHeavy(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CellGrid goal = new CellGrid(size, size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 1; col < size; col += 3) {
+                goal.set(row, col, GridCell.POLYANET);
+                goal.set(row, col - 1, SOLOONS[random.nextInt(SOLOONS.length)]);
+                if (col + 1 < size) {
+                    goal.set(row, col + 1, SOLOONS[random.nextInt(SOLOONS.length)]);
+                }
+            }
+        }
+        return goal;
+    }
+
+    /**
+     * @param size The number of rows and columns
+     * @param seed The seed of the directions
+     * @return Comeths on every other cell of a checkerboard
+     */
+    static CellGrid comethHeavy(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CellGrid goal = new CellGrid(size, size);
+        for (int row = 0; row < size; row++) {
+            for (int col = row % 2; col < size; col += 2) {
+                goal.set(row, col, COMETHS[random.nextInt(COMETHS.length)]);
+            }
+        }
+        return goal;
+    }
+
+    /**
+     * @param goal A goal
+     * @return The number of astral objects of the goal
+     */
+    static int objects(CellGrid goal) {
+        int objects = 0;
+        for (int row = 0; row < goal.getRows(); row++) {
+            for (int col = 0; col < goal.getCols(); col++) {
+                if (!goal.get(row, col).isEmpty()) {
+                    objects++;
+                }
+            }
+        }
+        return objects;
+    }
+
+    private static boolean nextToPolyanet(CellGrid goal, int row, int col) {
+        // Cells are filled row by row: only the cells above and to the left are already known
+        return (row > 0 && goal.get(row - 1, col) == GridCell.POLYANET)
+                || (col > 0 && goal.get(row, col - 1) == GridCell.POLYANET);
+    }
+}
@@ -1,23 +1,56 @@
 package com.crossmint.challenge.commands;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import com.crossmint.challenge.commands.create.CreateComethCommand;
+import com.crossmint.challenge.commands.create.CreateShapeCommand;
 import com.crossmint.challenge.commands.create.CreateSoloonCommand;
 import com.crossmint.challenge.commands.delete.DeleteAllCommand;
 import com.crossmint.challenge.commands.delete.DeleteCommand;
+import com.crossmint.challenge.commands.snapshot.ExportCommand;
+import com.crossmint.challenge.commands.snapshot.ImportCommand;
 import com.crossmint.challenge.model.*;
 import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.DeadLetterFile;
+import com.crossmint.challenge.service.FailedOperation;
+import com.crossmint.challenge.service.RunDeadline;
+import com.crossmint.challenge.service.RunReport;
+import com.crossmint.challenge.shape.GridPoint;
+import com.crossmint.challenge.shape.LineShape;
+import com.crossmint.challenge.shape.RectangleShape;
+import com.crossmint.challenge.shape.XShape;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpMethod;
+import picocli.CommandLine;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -36,6 +69,19 @@ class CommandsTest {
         objects.add(new Polyanet(0, 0));
         GoalMap goalMap = new GoalMap(10, 10, objects);
         lenient().when(astralObjectService.getGoalMap()).thenReturn(goalMap);
+        lenient().when(astralObjectService.clearGoalMap(any(CellFilter.class), any(RunDeadline.class))).thenReturn(RunReport.empty());
+        lenient().when(astralObjectService.replicateGoalMap(any(GoalMap.class), any(RunDeadline.class)))
+                .thenReturn(RunReport.empty());
+        lenient().when(astralObjectService.replicateGoalMap(any(RunDeadline.class))).thenReturn(RunReport.empty());
+        lenient().when(astralObjectService.getDeadLetters()).thenReturn(new DeadLetterFile(null));
+    }
+
+    @Test
+    void testCommandLineOfEveryCommandCanBeBuilt() {
+        // Picocli validates the options of every subcommand when the command line is built
+        CommandLine commandLine = new CommandLine(new MainCommand());
+        assertTrue(commandLine.getSubcommands().containsKey("deleteall"));
+        assertEquals(0, commandLine.execute("shape", "--help"));
     }
 
     @Test
@@ -129,7 +175,7 @@ class CommandsTest {
         replicateGoalCommand.run();
 
         // Verify the service method was called
-        verify(astralObjectService).replicateGoalMap();
+        verify(astralObjectService).replicateGoalMap(any(RunDeadline.class));
     }
 
     @Test
@@ -143,7 +189,7 @@ class CommandsTest {
         deleteAllCommand.run();
 
         // Verify the service method was called
-        verify(astralObjectService).clearGoalMap();
+        verify(astralObjectService).clearGoalMap(any(CellFilter.class), any(RunDeadline.class));
     }
 
     @Test
@@ -164,4 +210,246 @@ class CommandsTest {
                 eq(HttpMethod.DELETE)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExportAndImportCommands(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("goal.snap");
+        when(astralObjectService.getCandidateId()).thenReturn("test-candidate-id");
+
+        ExportCommand.builder()
+                .service(astralObjectService)
+                .source(ExportCommand.Source.GOAL)
+                .file(file)
+                .build()
+                .run();
+
+        ImportCommand.builder()
+                .service(astralObjectService)
+                .file(file)
+                .build()
+                .run();
+
+        // The imported goal must contain the single Polyanet of the mocked goal map
+        ArgumentCaptor<GoalMap> captor = ArgumentCaptor.forClass(GoalMap.class);
+        verify(astralObjectService).replicateGoalMap(captor.capture(), any(RunDeadline.class));
+        assertEquals(1, captor.getValue().astralObjects().size());
+        assertInstanceOf(Polyanet.class, captor.getValue().astralObjects().iterator().next());
+        // The current map is only fetched by the replication itself
+        verify(astralObjectService, never()).fetchCurrentGrid();
+    }
+
+    @Test
+    void testExportMapCommand(@TempDir Path tempDir) {
+        CellGrid grid = new CellGrid(2, 2);
+        grid.set(1, 1, GridCell.RED_SOLOON);
+        when(astralObjectService.getCandidateId()).thenReturn("test-candidate-id");
+        when(astralObjectService.fetchCurrentGrid()).thenReturn(grid);
+
+        ExportCommand.builder()
+                .service(astralObjectService)
+                .source(ExportCommand.Source.MAP)
+                .file(tempDir.resolve("map.snap"))
+                .build()
+                .run();
+
+        verify(astralObjectService).fetchCurrentGrid();
+        assertThrows(UncheckedIOException.class, () -> ImportCommand.builder()
+                .service(astralObjectService)
+                .file(tempDir.resolve("missing.snap"))
+                .build()
+                .run());
+    }
+
+    @Test
+    void testBulkCommandsReportRemainingOperations() {
+        RunReport partial = new RunReport(3, List.of(new CellOperation(new Polyanet(1, 1), HttpMethod.POST)));
+        when(astralObjectService.clearGoalMap(any(CellFilter.class), any(RunDeadline.class))).thenReturn(partial);
+        when(astralObjectService.replicateGoalMap(any(RunDeadline.class))).thenReturn(partial);
+        BulkRunOptions options = BulkRunOptions.builder().deadline(Duration.ofMinutes(5)).build();
+
+        DeleteAllCommand.builder().service(astralObjectService).options(options).build().run();
+        ReplicateGoalCommand.builder().service(astralObjectService).options(options).build().run();
+
+        ArgumentCaptor<RunDeadline> captor = ArgumentCaptor.forClass(RunDeadline.class);
+        verify(astralObjectService).clearGoalMap(any(CellFilter.class), captor.capture());
+        assertTrue(captor.getValue().isSet());
+        assertFalse(captor.getValue().isNear(Duration.ofMinutes(1)));
+        assertTrue(captor.getValue().isNear(Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void testBulkCommandsReportFailedOperations(@TempDir Path tempDir) {
+        CellOperation operation = new CellOperation(new Polyanet(1, 1), HttpMethod.POST);
+        RunReport failed = new RunReport(2, List.of(new FailedOperation(operation, 500, "oops")), List.of());
+        when(astralObjectService.clearGoalMap(any(CellFilter.class), any(RunDeadline.class))).thenReturn(failed);
+        when(astralObjectService.replicateGoalMap(any(RunDeadline.class))).thenReturn(failed);
+        Path file = tempDir.resolve("dead-letters.jsonl");
+        when(astralObjectService.getDeadLetters()).thenReturn(new DeadLetterFile(file));
+        ListAppender<ILoggingEvent> replicateLog = listen(ReplicateGoalCommand.class);
+        ListAppender<ILoggingEvent> deleteLog = listen(DeleteAllCommand.class);
+
+        try {
+            ReplicateGoalCommand.builder().service(astralObjectService).build().run();
+            DeleteAllCommand.builder().service(astralObjectService).build().run();
+        } finally {
+            detach(ReplicateGoalCommand.class, replicateLog);
+            detach(DeleteAllCommand.class, deleteLog);
+        }
+
+        for (ListAppender<ILoggingEvent> log : List.of(replicateLog, deleteLog)) {
+            List<String> messages = log.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+            assertEquals(List.of("1 operations failed and were written to " + file + "; run 'redrive' to retry them."),
+                    log.list.stream().filter(event -> event.getLevel() == Level.WARN)
+                            .map(ILoggingEvent::getFormattedMessage).toList());
+            assertFalse(messages.contains("Goal map replicated."), messages::toString);
+            assertFalse(messages.contains("All astral objects deleted."), messages::toString);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testShapeCommandOnlyCreatesMissingCells() {
+        CellGrid current = new CellGrid(5, 5);
+        current.set(2, 2, GridCell.POLYANET);
+        when(astralObjectService.fetchCurrentGrid()).thenReturn(current);
+        when(astralObjectService.runOperations(eq("Shape"), any(CellGrid.class), any(), any(RunDeadline.class)))
+                .thenReturn(new RunReport(8, List.of()));
+
+        CreateShapeCommand.builder()
+                .service(astralObjectService)
+                .kind(CreateShapeCommand.Kind.X)
+                .object(GridCell.BLUE_SOLOON)
+                .build()
+                .run();
+
+        ArgumentCaptor<Supplier<Stream<CellOperation>>> captor = ArgumentCaptor.forClass(Supplier.class);
+        verify(astralObjectService).runOperations(eq("Shape"), any(CellGrid.class), captor.capture(), any(RunDeadline.class));
+        List<CellOperation> operations = captor.getValue().get().toList();
+        assertEquals(8, operations.size());
+        assertTrue(operations.stream().allMatch(operation -> operation.target() instanceof Soloon));
+        assertTrue(operations.stream().noneMatch(operation -> operation.row() == 2 && operation.column() == 2));
+    }
+
+    @Test
+    void testShapeCommandRegions() {
+        CreateShapeCommand.CreateShapeCommandBuilder builder = CreateShapeCommand.builder()
+                .from(new GridPoint(1, 1))
+                .to(new GridPoint(4, 6));
+
+        assertEquals(new LineShape(new GridPoint(1, 1), new GridPoint(4, 6)),
+                builder.kind(CreateShapeCommand.Kind.LINE).build().toShape(10, 10));
+        assertEquals(new LineShape(new GridPoint(1, 1), new GridPoint(4, 6)),
+                builder.kind(CreateShapeCommand.Kind.DIAGONAL).build().toShape(10, 10));
+        assertEquals(new LineShape(new GridPoint(1, 6), new GridPoint(4, 1)),
+                builder.kind(CreateShapeCommand.Kind.ANTI_DIAGONAL).build().toShape(10, 10));
+        assertEquals(new RectangleShape(new GridPoint(2, 2), new GridPoint(3, 5), false),
+                builder.kind(CreateShapeCommand.Kind.RECTANGLE).margin(1).build().toShape(10, 10));
+        assertEquals(new RectangleShape(new GridPoint(1, 1), new GridPoint(4, 6), true),
+                builder.kind(CreateShapeCommand.Kind.FILL).margin(0).build().toShape(10, 10));
+        assertEquals(new XShape(new GridPoint(2, 2), new GridPoint(8, 8)), CreateShapeCommand.builder()
+                .kind(CreateShapeCommand.Kind.X).margin(2).build().toShape(11, 11));
+        assertEquals(new GridPoint(2, 3), new GridPointConverter().convert("2,3"));
+    }
+
+    @Test
+    void testShapeCommandRejectsEmptyRegionsAndObjects() {
+        when(astralObjectService.fetchCurrentGrid()).thenReturn(new CellGrid(4, 4));
+
+        CreateShapeCommand.builder().service(astralObjectService)
+                .kind(CreateShapeCommand.Kind.X).margin(3).build().run();
+        CreateShapeCommand.builder().service(astralObjectService)
+                .kind(CreateShapeCommand.Kind.FILL).object(GridCell.SPACE).build().run();
+
+        when(astralObjectService.runOperations(eq("Shape"), any(CellGrid.class), any(), any(RunDeadline.class)))
+                .thenReturn(new RunReport(1, List.of(new CellOperation(new Polyanet(0, 1), HttpMethod.POST))));
+        CreateShapeCommand.builder().service(astralObjectService)
+                .kind(CreateShapeCommand.Kind.LINE).from(new GridPoint(0, 0)).to(new GridPoint(0, 1)).build().run();
+
+        verify(astralObjectService, times(1)).runOperations(eq("Shape"), any(CellGrid.class), any(), any(RunDeadline.class));
+    }
+
+    @Test
+    void testDeleteAllCommandFilters() {
+        Set<ApiSerializable> goal = new HashSet<>();
+        goal.add(new Polyanet(1, 1));
+        goal.add(new Soloon(1, 2, SoloonColor.BLUE));
+        when(astralObjectService.getGoalMap()).thenReturn(new GoalMap(4, 4, goal));
+
+        assertTrue(DeleteAllCommand.builder().build().filter().test(3, 3, GridCell.UP_COMETH));
+        assertFalse(DeleteAllCommand.builder().build().filter().test(3, 3, GridCell.SPACE));
+
+        CellFilter region = DeleteAllCommand.builder()
+                .from(new GridPoint(1, 1)).to(new GridPoint(2, 2)).build().filter();
+        assertTrue(region.test(2, 2, GridCell.POLYANET));
+        assertFalse(region.test(0, 1, GridCell.POLYANET));
+        assertTrue(DeleteAllCommand.builder().from(new GridPoint(2, 0)).build().filter().test(9, 9, GridCell.POLYANET));
+
+        CellFilter soloons = DeleteAllCommand.builder().type(DeleteAllCommand.Type.SOLOON).build().filter();
+        assertTrue(soloons.test(0, 0, GridCell.PURPLE_SOLOON));
+        assertFalse(soloons.test(0, 0, GridCell.POLYANET));
+        CellFilter red = DeleteAllCommand.builder().color(SoloonColor.RED).build().filter();
+        assertTrue(red.test(0, 0, GridCell.RED_SOLOON));
+        assertFalse(red.test(0, 0, GridCell.BLUE_SOLOON));
+        CellFilter left = DeleteAllCommand.builder().direction(ComethDirection.LEFT).build().filter();
+        assertTrue(left.test(0, 0, GridCell.LEFT_COMETH));
+        assertFalse(left.test(0, 0, GridCell.UP_COMETH));
+
+        CellFilter notInGoal = DeleteAllCommand.builder().service(astralObjectService).notInGoal(true).build().filter();
+        assertFalse(notInGoal.test(1, 1, GridCell.POLYANET));
+        assertTrue(notInGoal.test(1, 2, GridCell.RED_SOLOON));
+        assertTrue(notInGoal.test(0, 0, GridCell.POLYANET));
+        assertTrue(notInGoal.test(5, 5, GridCell.POLYANET));
+    }
+
+    @Test
+    void testDurationConverter() {
+        BulkRunOptions.DurationConverter converter = new BulkRunOptions.DurationConverter();
+
+        assertEquals(Duration.ofSeconds(90), converter.convert("90s"));
+        assertEquals(Duration.ofMinutes(15), converter.convert("15m"));
+        assertEquals(Duration.ofHours(1), converter.convert("1h"));
+        assertEquals(Duration.ofMillis(250), converter.convert("250ms"));
+        assertEquals(Duration.ofMinutes(15), converter.convert("PT15M"));
+        assertThrows(IllegalArgumentException.class, () -> converter.convert("15d"));
+    }
+    @Test
+    void testRedriveCommand(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("dead-letters.jsonl");
+        DeadLetterFile deadLetters = new DeadLetterFile(file);
+        deadLetters.append(new FailedOperation(new CellOperation(new Polyanet(1, 2), HttpMethod.POST), 500, "oops"));
+        deadLetters.append(new FailedOperation(new CellOperation(new Soloon(1, 3, SoloonColor.BLUE), HttpMethod.POST), 0, "timeout"));
+        when(astralObjectService.getDeadLetters()).thenReturn(deadLetters);
+
+        AtomicReference<List<CellOperation>> redriven = new AtomicReference<>();
+        when(astralObjectService.runOperations(eq("Redrive"), any(), any(RunDeadline.class))).thenAnswer(invocation -> {
+            Supplier<Stream<CellOperation>> plan = invocation.getArgument(1);
+            redriven.set(plan.get().toList());
+            return RunReport.empty();
+        });
+
+        RedriveCommand.builder().service(astralObjectService).build().run();
+
+        assertEquals(2, redriven.get().size());
+        assertEquals(HttpMethod.POST, redriven.get().get(1).method());
+        assertInstanceOf(Soloon.class, redriven.get().get(1).target());
+        assertEquals(3, redriven.get().get(1).column());
+        // The replayed entries are dropped, new failures are written to a fresh file
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(tempDir.resolve("dead-letters.jsonl.redriving")));
+
+        // Nothing left to redrive
+        RedriveCommand.builder().service(astralObjectService).build().run();
+        verify(astralObjectService, times(1)).runOperations(eq("Redrive"), any(), any(RunDeadline.class));
+    }
+
+    private static ListAppender<ILoggingEvent> listen(Class<?> command) {
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        ((Logger) LoggerFactory.getLogger(command)).addAppender(appender);
+        return appender;
+    }
+
+    private static void detach(Class<?> command, ListAppender<ILoggingEvent> appender) {
+        ((Logger) LoggerFactory.getLogger(command)).detachAppender(appender);
+    }
+}
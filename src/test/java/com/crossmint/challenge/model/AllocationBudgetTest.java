@@ -0,0 +1,164 @@
+package com.crossmint.challenge.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Keeps the allocation of the per-operation hot path under a budget: bytes allocated by the
+ * test thread per cell parsed, per operation planned and per request body built. The budgets
+ * have some headroom over the measured values; a failure means something now allocates on
+ * every operation that didn't before.
+ */
+class AllocationBudgetTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int SIZE = 100;
+    private static final int ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static CellGrid goal;
+
+    @BeforeAll
+    static void setUp() {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled());
+        goal = randomGoal();
+    }
+
+    @Test
+    void testParsingBudget() {
+        byte[] body = mapResponse(goal).getBytes(StandardCharsets.UTF_8);
+        int[] cells = new int[1];
+        MapContentReader.CellConsumer consumer = (row, col, cell) -> cells[0]++;
+
+        double perCell = bytesPerOperation(SIZE * SIZE, () -> {
+            MapContentReader reader = new MapContentReader(consumer);
+            reader.feed(ByteBuffer.wrap(body));
+            reader.endOfInput();
+        });
+        assertTrue(cells[0] > 0);
+        assertBudget("parsing, per cell", perCell, 64);
+    }
+
+    @Test
+    void testFromStringBudget() {
+        String[] colors = {"white", "blue", "red", "purple"};
+        String[] directions = {"up", "down", "left", "right"};
+        int[] found = new int[1];
+
+        double perCall = bytesPerOperation(8 * 1000, () -> {
+            for (int i = 0; i < 1000; i++) {
+                found[0] += SoloonColor.fromString(colors[i & 3]).ordinal();
+                found[0] += ComethDirection.fromString(directions[i & 3]).ordinal();
+            }
+        });
+        assertTrue(found[0] > 0);
+        assertBudget("fromString, per call", perCall, 0);
+    }
+
+    @Test
+    void testPlanningBudget() {
+        CellGrid current = new CellGrid(SIZE, SIZE);
+        int operations = (int) GridDiff.operations(goal, current).count();
+
+        double perOperation = bytesPerOperation(operations, () ->
+                assertEquals(operations, GridDiff.operations(goal, current).count()));
+        assertBudget("planning, per operation", perOperation, 160);
+    }
+
+    @Test
+    void testRequestConstructionBudget() {
+        List<CellOperation> operations = GridDiff.operations(goal, new CellGrid(SIZE, SIZE)).toList();
+        long[] bytes = new long[1];
+
+        double perRequest = bytesPerOperation(operations.size(), () -> {
+            for (CellOperation operation : operations) {
+                bytes[0] += json(operation.target().toRequestBody("candidate-id")).length;
+            }
+        });
+        assertTrue(bytes[0] > 0);
+        assertBudget("request construction, per request", perRequest, 1024);
+    }
+
+    /**
+     * Runs a task a few times to warm it up, then reports the lowest allocation of the
+     * measured rounds, divided by the number of operations it performs.
+     */
+    private static double bytesPerOperation(int operations, Runnable task) {
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < ROUNDS; i++) {
+            task.run();
+        }
+        long lowest = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long before = THREADS.getThreadAllocatedBytes(threadId);
+            task.run();
+            lowest = Math.min(lowest, THREADS.getThreadAllocatedBytes(threadId) - before);
+        }
+        return (double) lowest / operations;
+    }
+
+    private static void assertBudget(String path, double measured, double budget) {
+        assertTrue(measured <= budget, String.format("Allocation of %s: %.1f bytes, budget %.0f bytes",
+                path, measured, budget));
+    }
+
+    private static byte[] json(Object body) {
+        try {
+            return MAPPER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CellGrid randomGoal() {
+        SplittableRandom random = new SplittableRandom(42);
+        GridCell[] cells = GridCell.values();
+        CellGrid grid = new CellGrid(SIZE, SIZE);
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                if (random.nextInt(3) == 0) {
+                    grid.set(row, col, cells[1 + random.nextInt(cells.length - 1)]);
+                }
+            }
+        }
+        return grid;
+    }
+
+    private static String mapResponse(CellGrid grid) {
+        List<String> rows = new ArrayList<>();
+        for (int row = 0; row < grid.getRows(); row++) {
+            StringJoiner cells = new StringJoiner(",", "[", "]");
+            for (int col = 0; col < grid.getCols(); col++) {
+                cells.add(mapCell(grid.get(row, col).toAstralObject(row, col)));
+            }
+            rows.add(cells.toString());
+        }
+        return "{\"map\": {\"_id\": \"id\", \"content\": [" + String.join(",", rows) + "], \"phase\": 2}}";
+    }
+
+    private static String mapCell(ApiSerializable astralObject) {
+        if (astralObject instanceof Soloon soloon) {
+            return "{\"type\": 1, \"color\": \"" + soloon.getColor().getApiValue() + "\"}";
+        }
+        if (astralObject instanceof Cometh cometh) {
+            return "{\"type\": 2, \"direction\": \"" + cometh.getDirection().getApiValue() + "\"}";
+        }
+        return astralObject == null ? "null" : "{\"type\": 0}";
+    }
+}
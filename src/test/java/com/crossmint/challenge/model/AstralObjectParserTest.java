@@ -2,6 +2,8 @@ package com.crossmint.challenge.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -125,4 +127,41 @@ class AstralObjectParserTest {
             }
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testParseLargeGoalAcrossBands() {
+        // 600x600 is above the parallel threshold, so rows are split into bands
+        int size = 600;
+        List<List<String>> goal = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<String> row = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                row.add(i == j ? "POLYANET" : (i + j == size - 1 ? "LEFT_COMETH" : "SPACE"));
+            }
+            goal.add(row);
+        }
+
+        Set<ApiSerializable> astralObjects = AstralObjectParser.parseAstralObjects(goal);
+
+        assertEquals(2 * size, astralObjects.size());
+        assertTrue(astralObjects.stream()
+                .filter(obj -> obj instanceof Polyanet)
+                .allMatch(obj -> ((Polyanet) obj).getRow() == ((Polyanet) obj).getColumn()));
+        assertTrue(astralObjects.stream()
+                .filter(obj -> obj instanceof Cometh)
+                .allMatch(obj -> ((Cometh) obj).getDirection() == ComethDirection.LEFT &&
+                        ((Cometh) obj).getRow() + ((Cometh) obj).getColumn() == size - 1));
+    }
+
+    @Test
+    void testParseLargeGoalWithInvalidObjectType() {
+        int size = 300;
+        List<List<String>> goal = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            goal.add(new ArrayList<>(Collections.nCopies(size, "SPACE")));
+        }
+        goal.get(size - 1).set(size - 1, "INVALID_TYPE");
+
+        assertThrows(IllegalArgumentException.class, () -> AstralObjectParser.parseAstralObjects(goal));
+    }
+}
@@ -0,0 +1,131 @@
+package com.crossmint.challenge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridDiffTest {
+
+    @Test
+    void testKernelsFindEveryDifference() {
+        List<DiffKernel> kernels = kernels();
+        SplittableRandom random = new SplittableRandom(7);
+        // Lengths around the 8-cell words of the scalar kernel and the 16 to 64 lanes of the vector one
+        for (int length : new int[]{0, 1, 7, 8, 9, 63, 64, 65, 200, 1000}) {
+            byte[] a = new byte[length];
+            byte[] b = new byte[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = (byte) random.nextInt(3);
+                b[i] = random.nextInt(4) == 0 ? (byte) random.nextInt(3) : a[i];
+            }
+            for (DiffKernel kernel : kernels) {
+                String name = kernel.getClass().getSimpleName() + ", " + length + " cells";
+                // Shifted in the bitmap, so the bits straddle words
+                DiffBitmap pairs = new DiffBitmap(length + 5);
+                kernel.compare(a, 0, b, 0, length, pairs, 5);
+                DiffBitmap constant = new DiffBitmap(length + 5);
+                kernel.compare(a, 0, (byte) 1, length, constant, 5);
+                for (int i = 0; i < length; i++) {
+                    assertEquals(a[i] != b[i], pairs.get(i + 5), name);
+                    assertEquals(a[i] != 1, constant.get(i + 5), name);
+                }
+                assertEquals(IntStream.range(0, length).filter(i -> a[i] != b[i]).count(), pairs.cardinality(), name);
+            }
+        }
+    }
+
+    @Test
+    void testDifferencesOfGridsOfTheSameSize() {
+        CellGrid target = new CellGrid(30, 70);
+        target.set(0, 0, GridCell.POLYANET);
+        target.set(12, 69, GridCell.RED_SOLOON);
+        target.set(29, 69, GridCell.UP_COMETH);
+        CellGrid current = new CellGrid(30, 70);
+        current.set(12, 69, GridCell.RED_SOLOON);
+        current.set(20, 5, GridCell.POLYANET);
+
+        DiffBitmap differences = GridDiff.differences(target, current);
+
+        assertEquals(30 * 70, differences.size());
+        assertEquals(List.of(0, 20 * 70 + 5, 29 * 70 + 69), differences.stream().boxed().toList());
+        assertTrue(GridDiff.differences(target, target).isEmpty());
+    }
+
+    @Test
+    void testDifferencesOfGridsOfDifferentSizes() {
+        CellGrid current = new CellGrid(4, 20);
+        current.set(0, 19, GridCell.POLYANET);
+        current.set(3, 2, GridCell.BLUE_SOLOON);
+        current.set(1, 1, GridCell.POLYANET);
+
+        // Smaller target: the current cells outside of it must be empty
+        CellGrid smaller = new CellGrid(2, 10);
+        smaller.set(1, 1, GridCell.POLYANET);
+        assertEquals(List.of(19, 3 * 20 + 2), GridDiff.differences(smaller, current).stream().boxed().toList());
+
+        // Larger target: its cells outside of the map are ignored
+        CellGrid larger = new CellGrid(10, 30);
+        larger.set(1, 1, GridCell.POLYANET);
+        larger.set(0, 19, GridCell.POLYANET);
+        larger.set(3, 2, GridCell.BLUE_SOLOON);
+        larger.set(9, 29, GridCell.POLYANET);
+        assertTrue(GridDiff.differences(larger, current).isEmpty());
+    }
+
+    @Test
+    void testOperationsFollowTheDifferences() {
+        SplittableRandom random = new SplittableRandom(11);
+        GridCell[] cells = GridCell.values();
+        CellGrid target = new CellGrid(50, 50);
+        CellGrid current = new CellGrid(50, 50);
+        for (int row = 0; row < 50; row++) {
+            for (int col = 0; col < 50; col++) {
+                target.set(row, col, cells[random.nextInt(cells.length)]);
+                current.set(row, col, random.nextBoolean() ? target.get(row, col) : cells[random.nextInt(cells.length)]);
+            }
+        }
+
+        List<CellOperation> operations = GridDiff.operations(target, current).toList();
+
+        // Applying the operations replicates the target
+        for (CellOperation operation : operations) {
+            current.set(operation.row(), operation.column(), operation.method().name().equals("DELETE")
+                    ? GridCell.SPACE : GridCell.of(operation.target()));
+        }
+        assertTrue(GridDiff.differences(target, current).isEmpty());
+        assertEquals(0, GridDiff.operations(target, current).count());
+    }
+
+    @Test
+    void testBitmapIteration() {
+        DiffBitmap bitmap = new DiffBitmap(200);
+        assertTrue(bitmap.isEmpty());
+        assertEquals(-1, bitmap.nextSetBit(0));
+
+        bitmap.set(3);
+        bitmap.set(60, 0b11111L);
+        bitmap.set(199);
+
+        assertFalse(bitmap.isEmpty());
+        assertEquals(7, bitmap.cardinality());
+        assertEquals(List.of(3, 60, 61, 62, 63, 64, 199), bitmap.stream().boxed().toList());
+        assertEquals(60, bitmap.nextSetBit(4));
+        assertEquals(199, bitmap.nextSetBit(65));
+        assertEquals(-1, bitmap.nextSetBit(200));
+    }
+
+    private static List<DiffKernel> kernels() {
+        DiffKernel selected = DiffKernel.select();
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            // The default build leaves the vector kernel out; -Pvector builds and tests it
+            assertInstanceOf(ScalarDiffKernel.class, selected);
+            return List.of(selected);
+        }
+        assertEquals("VectorDiffKernel", selected.getClass().getSimpleName());
+        return List.of(new ScalarDiffKernel(), selected);
+    }
+}
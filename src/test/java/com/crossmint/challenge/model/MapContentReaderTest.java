@@ -0,0 +1,65 @@
+package com.crossmint.challenge.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MapContentReaderTest {
+
+    private static final String MAP = """
+            {
+              "candidateId": "ignored",
+              "map": {
+                "_id": "abc",
+                "content": [
+                  [null, {"type": 0, "extra": {"nested": [1, 2]}}, null],
+                  [{"type": 1, "color": "blue"}, null, {"type": "LEFT_COMETH"}]
+                ],
+                "phase": 2
+              }
+            }
+            """;
+
+    private static List<String> read(String json, int chunkSize) {
+        List<String> cells = new ArrayList<>();
+        MapContentReader reader = new MapContentReader((row, col, cell) -> cells.add(row + "," + col + "=" + cell));
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            reader.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        }
+        reader.endOfInput();
+        cells.add(reader.rows() + "x" + reader.cols());
+        return cells;
+    }
+
+    @Test
+    void testCellsAreReportedWhileStreaming() {
+        List<String> expected = List.of("0,0=SPACE", "0,1=POLYANET", "0,2=SPACE",
+                "1,0=BLUE_SOLOON", "1,1=SPACE", "1,2=LEFT_COMETH", "2x3");
+
+        assertEquals(expected, read(MAP, MAP.length()));
+        // The same cells come out whatever the chunk boundaries
+        assertEquals(expected, read(MAP, 1));
+        assertEquals(expected, read(MAP, 7));
+    }
+
+    @Test
+    void testInvalidResponses() {
+        assertThrows(IllegalStateException.class, () -> read("{\"map\": null}", 4));
+        assertThrows(IllegalStateException.class, () -> read("{\"content\": [[null]]}", 4));
+        assertThrows(IllegalStateException.class, () -> read("{\"map\": {\"content\": []}}", 4));
+        assertThrows(IllegalStateException.class, () -> read("{\"map\": {\"content\": [[null], [null, null]]}}", 4));
+        assertThrows(IllegalStateException.class, () -> read("{\"map\": {\"content\": [[null, null], [null]]}}", 4));
+        assertThrows(IllegalStateException.class, () -> read("{\"map\": {\"content\": [null]}}", 4));
+        assertThrows(IllegalStateException.class, () -> read("{\"map\": {\"content\": [[null]", 4));
+        assertThrows(IllegalStateException.class, () -> read("{\"map\": {\"content\": [[nul", 4));
+        assertThrows(IllegalArgumentException.class, () -> read("{\"map\": {\"content\": [[1]]}}", 4));
+        assertThrows(IllegalArgumentException.class, () -> read("{\"map\": {\"content\": [[{\"type\": 7}]]}}", 4));
+    }
+}
@@ -3,7 +3,10 @@ package com.crossmint.challenge.model;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.http.HttpMethod;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -112,4 +115,88 @@ class ModelClassesTest {
 
         assertTrue(foundPolyanet, "Should contain a Polyanet at (0,0)");
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @EnumSource(GridCell.class)
+    void testGridCellRoundTrip(GridCell cell) {
+        assertEquals(cell, GridCell.fromToken(cell.name()));
+        assertEquals(cell, GridCell.fromCode(cell.code()));
+
+        ApiSerializable astralObject = cell.toAstralObject(1, 2);
+        assertEquals(cell.isEmpty(), astralObject == null);
+        if (astralObject != null) {
+            assertEquals(1, ((AstralObject) astralObject).getRow());
+            assertEquals(2, ((AstralObject) astralObject).getColumn());
+        }
+    }
+
+    @Test
+    void testGridCellInvalidLookups() {
+        assertThrows(IllegalArgumentException.class, () -> GridCell.fromToken("invalid"));
+        assertThrows(IllegalArgumentException.class, () -> GridCell.fromCode((byte) 42));
+        assertThrows(IllegalArgumentException.class, () -> GridCell.fromCode((byte) -1));
+    }
+
+    @Test
+    void testCellGridFromMapCells() {
+        List<List<Object>> content = Arrays.asList(
+                Arrays.asList(Map.of("type", 0), null, Map.of("type", 1, "color", "blue")),
+                Arrays.asList(null, Map.of("type", 2, "direction", "left"), Map.of("type", "POLYANET"))
+        );
+
+        CellGrid grid = new CellGrid(2, 3);
+        for (int row = 0; row < 2; row++) {
+            for (int col = 0; col < 3; col++) {
+                grid.set(row, col, GridCell.fromMapCell(content.get(row).get(col)));
+            }
+        }
+
+        assertEquals(2, grid.getRows());
+        assertEquals(3, grid.getCols());
+        assertEquals(GridCell.POLYANET, grid.get(0, 0));
+        assertEquals(GridCell.SPACE, grid.get(0, 1));
+        assertEquals(GridCell.BLUE_SOLOON, grid.get(0, 2));
+        assertEquals(GridCell.LEFT_COMETH, grid.get(1, 1));
+        assertEquals(GridCell.POLYANET, grid.get(1, 2));
+
+        GoalMap goalMap = grid.toGoalMap();
+        assertEquals(4, goalMap.astralObjects().size());
+        assertArrayEquals(grid.cells(), CellGrid.of(goalMap).cells());
+    }
+
+    @Test
+    void testCellKeysAreDistinctPerCell() {
+        CellOperation creation = new CellOperation(new Polyanet(1, -1), HttpMethod.POST);
+        CellOperation deletion = new CellOperation(new Polyanet(1, -1), HttpMethod.DELETE);
+
+        assertEquals(creation.cellKey(), deletion.cellKey());
+        // A negative column must not spill into the row half of the key
+        assertNotEquals(creation.cellKey(), new CellOperation(new Polyanet(2, -1), HttpMethod.POST).cellKey());
+        assertNotEquals(creation.cellKey(), new CellOperation(new Polyanet(-1, -1), HttpMethod.POST).cellKey());
+        assertNotEquals(new CellOperation(new Polyanet(0, 5), HttpMethod.POST).cellKey(),
+                new CellOperation(new Polyanet(5, 0), HttpMethod.POST).cellKey());
+    }
+
+    @Test
+    void testCellGridRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> new CellGrid(2, 2, new byte[3]));
+        assertThrows(IllegalArgumentException.class, () -> GridCell.fromMapCell("POLYANET"));
+        assertThrows(IllegalArgumentException.class, () -> GridCell.fromMapCell(Map.of("type", 7)));
+    }
+
+    @Test
+    void testGridDiffOrdersOperationsPerCell() {
+        CellGrid target = new CellGrid(2, 3);
+        target.set(0, 1, GridCell.POLYANET);
+        target.set(1, 1, GridCell.UP_COMETH);
+        CellGrid current = new CellGrid(2, 2);
+        current.set(0, 0, GridCell.BLUE_SOLOON);
+        current.set(0, 1, GridCell.POLYANET);
+        current.set(1, 1, GridCell.DOWN_COMETH);
+
+        // (0, 2) lies outside the current map and is ignored
+        assertEquals(List.of("DELETE /polyanets (0, 0)", "DELETE /polyanets (1, 1)", "POST /comeths (1, 1)"),
+                GridDiff.operations(target, current).map(Object::toString).toList());
+        assertEquals(0, GridDiff.operations(current, current).count());
+    }
+}
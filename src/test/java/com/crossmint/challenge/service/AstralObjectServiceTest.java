@@ -1,9 +1,18 @@
 package com.crossmint.challenge.service;
 
+import com.crossmint.challenge.model.CellFilter;
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
 import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import com.crossmint.challenge.service.transport.HttpTransport;
+import com.crossmint.challenge.service.transport.WebClientTransport;
+import com.crossmint.challenge.snapshot.GridSnapshotCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -12,7 +21,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.*;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +40,7 @@ public class AstralObjectServiceTest {
     private ExchangeFunction exchangeFunction;
 
     private WebClient webClient;
+    private HttpTransport transport;
     private AstralObjectService service;
 
     private int maxRetryAttempts = 3;
@@ -36,6 +52,7 @@ public class AstralObjectServiceTest {
         this.webClient = WebClient.builder()
                 .exchangeFunction(exchangeFunction)
                 .build();
+        this.transport = new WebClientTransport(webClient);
     }
 
     @Test
@@ -102,18 +119,8 @@ public class AstralObjectServiceTest {
 
     @Test
     void testReplicateGoalMap() {
-        // Setup - Mock all responses directly in the test
-        when(exchangeFunction.exchange(any(ClientRequest.class)))
-                .thenReturn(Mono.just(mockGoalMapClientResponse()))     // Initial goal map fetch
-                .thenReturn(Mono.just(mockMapContentClientResponse()))  // Map content fetch for clearGoalMap
-                .thenReturn(Mono.just(mockSuccessClientResponse()))     // DELETE 1
-                .thenReturn(Mono.just(mockSuccessClientResponse()))     // DELETE 2
-                .thenReturn(Mono.just(mockSuccessClientResponse()))     // DELETE 3
-                .thenReturn(Mono.just(mockSuccessClientResponse()))     // DELETE 4
-                .thenReturn(Mono.just(mockSuccessClientResponse()))     // POST 1
-                .thenReturn(Mono.just(mockSuccessClientResponse()))     // POST 2
-                .thenReturn(Mono.just(mockSuccessClientResponse()))     // POST 3
-                .thenReturn(Mono.just(mockSuccessClientResponse()));    // POST 4
+        // The goal and the map are fetched concurrently, so responses are routed by request
+        when(exchangeFunction.exchange(any(ClientRequest.class))).thenAnswer(invocation -> respond(invocation.getArgument(0)));
 
         // Create service
         setupService();
@@ -121,33 +128,25 @@ public class AstralObjectServiceTest {
         // Execute
         service.replicateGoalMap();
 
-        // Verify correct number of requests (10 total):
-        // 1 for initial goal map fetch + 5 for clearGoalMap (1 map fetch + 4 deletes) + 4 for creating objects
+        // Verify correct number of requests (7 total):
+        // 1 goal fetch + 1 map fetch + 2 deletions + 3 creations
         ArgumentCaptor<ClientRequest> requestCaptor = ArgumentCaptor.forClass(ClientRequest.class);
-        verify(exchangeFunction, times(10)).exchange(requestCaptor.capture());
+        verify(exchangeFunction, times(7)).exchange(requestCaptor.capture());
 
-        // Verify that GET, DELETE and POST requests were made with correct URLs
         List<ClientRequest> requests = requestCaptor.getAllValues();
 
         // Check goal map request
         assertEquals(HttpMethod.GET, requests.get(0).method());
         assertEquals("/map/test-candidate-id/goal", requests.get(0).url().getPath());
 
-        // Check map content request for clearGoalMap
+        // Check map content request
         assertEquals(HttpMethod.GET, requests.get(1).method());
         assertEquals("/map/test-candidate-id", requests.get(1).url().getPath());
 
-        // Check DELETE requests (indexes 2-5)
-        for (int i = 2; i <= 5; i++) {
-            assertEquals(HttpMethod.DELETE, requests.get(i).method());
-            assertEquals("/polyanets", requests.get(i).url().getPath());
-        }
-
-        // Check POST requests (indexes 6-9)
-        for (int i = 6; i <= 9; i++) {
-            assertEquals(HttpMethod.POST, requests.get(i).method());
-            assertEquals("/polyanets", requests.get(i).url().getPath());
-        }
+        // Only the differences are applied: (0, 0) deleted, (1, 0) replaced, (1, 2) and (2, 1) created
+        assertEquals(2, requests.stream().filter(request -> request.method() == HttpMethod.DELETE).count());
+        assertEquals(3, requests.stream().filter(request -> request.method() == HttpMethod.POST).count());
+        requests.subList(2, 7).forEach(request -> assertEquals("/polyanets", request.url().getPath()));
 
         // Verify goal map data
         assertNotNull(service.getGoalMap());
@@ -156,6 +155,26 @@ public class AstralObjectServiceTest {
         assertEquals(4, service.getGoalMap().astralObjects().size());
     }
 
+    @Test
+    void testReplicateGoalMapFetchesGoalAndMapConcurrently() {
+        when(exchangeFunction.exchange(any(ClientRequest.class))).thenAnswer(invocation -> {
+            ClientRequest request = invocation.getArgument(0);
+            // Both fetches take 500 ms: fetched one after the other, they would take a second
+            return request.method() == HttpMethod.GET
+                    ? respond(request).delayElement(Duration.ofMillis(500))
+                    : respond(request);
+        });
+        RetryStrategy retryStrategy = RetryStrategy.exponential(maxRetryAttempts, backoffSeconds, jitterFactor);
+        this.service = new AstralObjectService(transport, retryStrategy, Bulkheads.uniform(retryStrategy, 2),
+                "test-candidate-id", 2, 0, 30, 10, "/map/%s", "/map/%s/goal", "", "", 64);
+
+        long start = System.nanoTime();
+        RunReport report = service.replicateGoalMap(RunDeadline.none());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 950);
+        assertEquals(5, report.completed());
+    }
+
     @Test
     void testHandleWebClientError() {
         // Reduce retry parameters
@@ -331,6 +350,172 @@ public class AstralObjectServiceTest {
         verify(exchangeFunction, times(2)).exchange(any(ClientRequest.class));
     }
 
+    @Test
+    void testFailedOperationIsDeadLetteredWithoutCancellingTheRun(@TempDir Path tempDir) throws IOException {
+        Path deadLetterFile = tempDir.resolve("dead-letters.jsonl");
+        AtomicInteger deletions = new AtomicInteger();
+        when(exchangeFunction.exchange(any(ClientRequest.class))).thenAnswer(invocation -> {
+            ClientRequest request = invocation.getArgument(0);
+            if (request.method() == HttpMethod.GET) {
+                return Mono.just(request.url().getPath().endsWith("/goal")
+                        ? mockGoalMapClientResponse()
+                        : mockMapContentClientResponse());
+            }
+            // The first deletion is rejected, the others succeed
+            return deletions.getAndIncrement() == 0
+                    ? Mono.error(WebClientResponseException.create(HttpStatus.BAD_REQUEST.value(), "Bad Request",
+                            null, "{\"error\":\"nope\"}".getBytes(), null))
+                    : Mono.just(mockSuccessClientResponse());
+        });
+
+        RetryStrategy retryStrategy = RetryStrategy.exponential(maxRetryAttempts, backoffSeconds, jitterFactor);
+        this.service = new AstralObjectService(transport, retryStrategy, Bulkheads.uniform(retryStrategy, 2),
+                "test-candidate-id", 2, 0, 30, 10, "/map/%s", "/map/%s/goal", "", deadLetterFile.toString(), 64);
+        RunReport report = service.clearGoalMap(RunDeadline.none());
+
+        assertEquals(3, report.completed());
+        assertEquals(1, report.failed().size());
+        assertTrue(report.isComplete());
+        assertEquals(4, deletions.get());
+
+        List<FailedOperation> deadLetters = DeadLetterFile.read(deadLetterFile);
+        assertEquals(1, deadLetters.size());
+        assertEquals(report.failed().getFirst().operation().cellKey(), deadLetters.getFirst().operation().cellKey());
+        assertEquals(400, deadLetters.getFirst().status());
+        assertEquals("{\"error\":\"nope\"}", deadLetters.getFirst().body());
+        assertEquals(HttpMethod.DELETE, deadLetters.getFirst().operation().method());
+    }
+
+    @Test
+    void testClearGoalMapWithFilter() {
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(mockGoalMapClientResponse()))
+                .thenReturn(Mono.just(mockMapContentClientResponse()))
+                .thenReturn(Mono.just(mockSuccessClientResponse()));
+
+        setupService();
+
+        // Only the Polyanet in (1, 2) lies in the region
+        RunReport report = service.clearGoalMap(CellFilter.region(1, 2, 2, 2), RunDeadline.none());
+
+        assertEquals(1, report.completed());
+        ArgumentCaptor<ClientRequest> requestCaptor = ArgumentCaptor.forClass(ClientRequest.class);
+        verify(exchangeFunction, times(3)).exchange(requestCaptor.capture());
+        assertEquals(HttpMethod.DELETE, requestCaptor.getAllValues().get(2).method());
+    }
+
+    @Test
+    void testFetchCurrentGrid() {
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(mockGoalMapClientResponse()))
+                .thenReturn(Mono.just(mockMapContentClientResponse()));
+
+        setupService();
+
+        CellGrid grid = service.fetchCurrentGrid();
+
+        assertEquals(3, grid.getRows());
+        assertEquals(3, grid.getCols());
+        assertEquals(GridCell.SPACE, grid.get(0, 0));
+        assertEquals(GridCell.POLYANET, grid.get(0, 1));
+        assertEquals(GridCell.POLYANET, grid.get(1, 2));
+    }
+
+    @Test
+    void testGoalMapLoadedFromSnapshot(@TempDir Path tempDir) throws IOException {
+        CellGrid goal = new CellGrid(2, 4);
+        goal.set(1, 3, GridCell.WHITE_SOLOON);
+        Path file = tempDir.resolve("goal.snap");
+        GridSnapshotCodec.write(file, "other-candidate-id", goal, Instant.now());
+
+        RetryStrategy retryStrategy = RetryStrategy.exponential(maxRetryAttempts, backoffSeconds, jitterFactor);
+        this.service = new AstralObjectService(transport, retryStrategy, Bulkheads.uniform(retryStrategy, 2),
+                "test-candidate-id", 2, 0, 30, 10, "/map/%s", "/map/%s/goal", file.toString(), "", 64);
+
+        // The goal comes from the snapshot, so no request must be made
+        verifyNoInteractions(exchangeFunction);
+        assertEquals(2, service.getGoalMap().rows());
+        assertEquals(4, service.getGoalMap().cols());
+        assertEquals(1, service.getGoalMap().astralObjects().size());
+        AstralObjectService missing = new AstralObjectService(transport, retryStrategy,
+                Bulkheads.uniform(retryStrategy, 2), "test-candidate-id", 2, 0, 30, 10, "/map/%s", "/map/%s/goal",
+                tempDir.resolve("missing.snap").toString(), "", 64);
+        assertThrows(UncheckedIOException.class, missing::getGoalMap);
+    }
+
+    @Test
+    void testTimedOutAttemptIsRetried() {
+        RetryStrategy retryStrategy = RetryStrategy.exponential(1, 0, 0);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(mockGoalMapClientResponse()))
+                .thenReturn(Mono.never())                              // Hung connection
+                .thenReturn(Mono.just(mockSuccessClientResponse()));   // Retry succeeds
+
+        this.service = new AstralObjectService(transport, retryStrategy, Bulkheads.uniform(retryStrategy, 2),
+                "test-candidate-id", 2, 0, 1, 10, "/map/%s", "/map/%s/goal", "", "", 64);
+        service.getGoalMap();
+        service.processAstralObject(new Polyanet(1, 2), HttpMethod.POST);
+
+        verify(exchangeFunction, times(3)).exchange(any(ClientRequest.class));
+    }
+
+    @Test
+    void testReplicateGoalMapStopsSchedulingNearDeadline() {
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(mockGoalMapClientResponse()))
+                .thenReturn(Mono.just(mockPartialMapContentClientResponse()));
+
+        setupService();
+
+        // A deadline that is already reached: nothing may be scheduled
+        RunReport report = service.replicateGoalMap(service.getGoalMap(), RunDeadline.after(Duration.ZERO));
+
+        assertFalse(report.isComplete());
+        assertEquals(0, report.completed());
+        // Deletions and creations interleave in row-major order, the replaced cell deleted first
+        assertEquals(List.of("DELETE /polyanets (0, 0)", "DELETE /polyanets (1, 0)", "POST /polyanets (1, 0)",
+                        "POST /polyanets (1, 2)", "POST /polyanets (2, 1)"),
+                report.remaining().stream().map(Object::toString).toList());
+        verify(exchangeFunction, times(2)).exchange(any(ClientRequest.class));
+    }
+
+    @Test
+    void testReplicateGoalMapSkipsInvalidOperations() {
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(mockGoalMapClientResponse()))
+                .thenReturn(Mono.just(mockMapContentClientResponse()))
+                .thenAnswer(invocation -> Mono.just(mockSuccessClientResponse()));
+
+        setupService();
+
+        // (0, 0) stays next to a Polyanet, (2, 2) loses both of its neighbours: it is never sent
+        CellGrid target = CellGrid.of(service.getGoalMap());
+        target.set(0, 0, GridCell.BLUE_SOLOON);
+        target.set(2, 2, GridCell.RED_SOLOON);
+        target.set(1, 2, GridCell.SPACE);
+        target.set(2, 1, GridCell.SPACE);
+        RunReport report = service.replicateGoalMap(target.toGoalMap(), RunDeadline.none());
+
+        // Delete (1, 2) and (2, 1), create the Soloon in (0, 0)
+        assertEquals(3, report.completed());
+        verify(exchangeFunction, times(5)).exchange(any(ClientRequest.class));
+    }
+
+    @Test
+    void testReplicateGoalMapWithinDeadline() {
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(mockGoalMapClientResponse()))
+                .thenReturn(Mono.just(mockPartialMapContentClientResponse()))
+                .thenAnswer(invocation -> Mono.just(mockSuccessClientResponse()));
+
+        setupService();
+
+        RunReport report = service.replicateGoalMap(service.getGoalMap(), RunDeadline.after(Duration.ofHours(1)));
+
+        assertTrue(report.isComplete());
+        assertEquals(5, report.completed());
+    }
+
     private void setupService() {
         String candidateId = "test-candidate-id";
         int parallelDegree = 2;
@@ -348,6 +533,17 @@ public class AstralObjectServiceTest {
                 mapPathFormat,
                 goalPathFormat
         );
+        // The goal is loaded lazily: load it first, as the commands validating coordinates do
+        service.getGoalMap();
+    }
+
+    private Mono<ClientResponse> respond(ClientRequest request) {
+        if (request.method() != HttpMethod.GET) {
+            return Mono.just(mockSuccessClientResponse());
+        }
+        return Mono.just(request.url().getPath().endsWith("/goal")
+                ? mockGoalMapClientResponse()
+                : mockPartialMapContentClientResponse());
     }
 
 
@@ -389,6 +585,27 @@ public class AstralObjectServiceTest {
                 .build();
     }
 
+    private ClientResponse mockPartialMapContentClientResponse() {
+        // Differs from the goal: an extra Polyanet in (0, 0), a Soloon instead of a Polyanet
+        // in (1, 0) and two missing Polyanets
+        String responseJson = """
+                {
+                  "map": {
+                    "content": [
+                      [{"type": 0}, {"type": 0}, null],
+                      [{"type": 1, "color": "red"}, null, null],
+                      [null, null, null]
+                    ]
+                  }
+                }
+                """;
+
+        return ClientResponse.create(HttpStatus.OK)
+                .header("Content-Type", "application/json")
+                .body(responseJson)
+                .build();
+    }
+
     private ClientResponse mockSuccessClientResponse() {
         return ClientResponse.create(HttpStatus.OK)
                 .build();
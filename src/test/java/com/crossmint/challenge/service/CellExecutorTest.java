@@ -0,0 +1,133 @@
+package com.crossmint.challenge.service;
+
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.model.Soloon;
+import com.crossmint.challenge.model.SoloonColor;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CellExecutorTest {
+
+    private static CellOperation create(int row, int col) {
+        return new CellOperation(new Polyanet(row, col), HttpMethod.POST);
+    }
+
+    private static CellOperation createOntoEmptyCell(int row, int col) {
+        return new CellOperation(new Polyanet(row, col), HttpMethod.POST, true);
+    }
+
+    private static CellOperation delete(int row, int col) {
+        return new CellOperation(new Polyanet(row, col), HttpMethod.DELETE);
+    }
+
+    @Test
+    void testOperationsOnOneCellAreSerialized() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        CellExecutor executor = new CellExecutor(operation -> Mono.fromRunnable(() -> events.add("start " + operation))
+                .then(Mono.delay(Duration.ofMillis(100)))
+                .doOnSuccess(v -> events.add("end " + operation))
+                .then());
+
+        Flux.merge(executor.submit(delete(1, 1)), executor.submit(create(1, 1))).blockLast();
+
+        assertEquals(List.of("start DELETE /polyanets (1, 1)", "end DELETE /polyanets (1, 1)",
+                "start POST /polyanets (1, 1)", "end POST /polyanets (1, 1)"), events);
+        assertEquals(0, executor.activeCells());
+    }
+
+    @Test
+    void testDifferentCellsRunInParallel() {
+        CellExecutor executor = new CellExecutor(operation -> Mono.delay(Duration.ofMillis(300)).then());
+
+        long start = System.nanoTime();
+        Flux.range(0, 8).flatMap(i -> executor.submit(create(i, i))).blockLast();
+
+        // 8 sequential operations would take 2.4 s
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+    }
+
+    @Test
+    void testPendingOperationsAreCoalesced() {
+        List<CellOperation> performed = new CopyOnWriteArrayList<>();
+        Sinks.Empty<Void> blocker = Sinks.empty();
+        CellExecutor executor = new CellExecutor(operation -> {
+            performed.add(operation);
+            return performed.size() == 1 ? blocker.asMono() : Mono.empty();
+        });
+
+        // The first deletion runs and holds the cell, the others wait behind it
+        Mono<Void> running = executor.submit(delete(2, 3)).cache();
+        running.subscribe();
+        Mono<Void> created = executor.submit(createOntoEmptyCell(2, 3)).cache();
+        created.subscribe();
+        Mono<Void> deleted = executor.submit(delete(2, 3)).cache();
+        deleted.subscribe();
+        Mono<Void> soloon = executor.submit(new CellOperation(new Soloon(2, 3, SoloonColor.RED), HttpMethod.POST)).cache();
+        soloon.subscribe();
+        Mono<Void> duplicate = executor.submit(new CellOperation(new Soloon(2, 3, SoloonColor.RED), HttpMethod.POST)).cache();
+        duplicate.subscribe();
+
+        blocker.tryEmitEmpty();
+        Flux.merge(running, created, deleted, soloon, duplicate).blockLast(Duration.ofSeconds(5));
+
+        // The creation and deletion cancelled each other, the duplicate creation was merged
+        assertEquals(List.of("DELETE /polyanets (2, 3)", "POST /soloons (2, 3)"),
+                performed.stream().map(Object::toString).toList());
+    }
+
+    @Test
+    void testDeletionAfterACreationOntoAnOccupiedCellStillRuns() {
+        List<CellOperation> performed = new CopyOnWriteArrayList<>();
+        Sinks.Empty<Void> blocker = Sinks.empty();
+        CellExecutor executor = new CellExecutor(operation -> {
+            performed.add(operation);
+            return performed.size() == 1 ? blocker.asMono() : Mono.empty();
+        });
+
+        // The cell may hold an object: replacing it then deleting it must leave it empty
+        Mono<Void> running = executor.submit(create(4, 4)).cache();
+        running.subscribe();
+        Mono<Void> replaced = executor.submit(new CellOperation(new Soloon(4, 4, SoloonColor.BLUE), HttpMethod.POST))
+                .cache();
+        replaced.subscribe();
+        Mono<Void> deleted = executor.submit(delete(4, 4)).cache();
+        deleted.subscribe();
+        // A creation planned onto an empty cell, but undone through another endpoint
+        Mono<Void> planned = executor.submit(new CellOperation(new Soloon(4, 4, SoloonColor.RED), HttpMethod.POST,
+                true)).cache();
+        planned.subscribe();
+        Mono<Void> duplicate = executor.submit(delete(4, 4)).cache();
+        duplicate.subscribe();
+
+        blocker.tryEmitEmpty();
+        Flux.merge(running, replaced, deleted, planned, duplicate).blockLast(Duration.ofSeconds(5));
+
+        // Both creations were dropped, the deletions merged into one
+        assertEquals(List.of("POST /polyanets (4, 4)", "DELETE /polyanets (4, 4)"),
+                performed.stream().map(Object::toString).toList());
+        assertEquals(0, executor.activeCells());
+    }
+
+    @Test
+    void testFailuresReachTheSubmitterAndDoNotBlockTheCell() {
+        CellExecutor executor = new CellExecutor(operation -> operation.method() == HttpMethod.DELETE
+                ? Mono.error(new IllegalStateException("boom"))
+                : Mono.empty());
+
+        assertThrows(IllegalStateException.class, () -> executor.submit(delete(0, 0)).block());
+        executor.submit(create(0, 0)).block();
+        assertEquals(0, executor.activeCells());
+    }
+}
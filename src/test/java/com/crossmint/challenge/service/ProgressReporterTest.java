@@ -0,0 +1,75 @@
+package com.crossmint.challenge.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgressReporterTest {
+
+    @Test
+    void testLatencyHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(50));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+
+        assertEquals(1001, histogram.count());
+        assertWithin(500_000, histogram.percentile(50), 0.07);
+        assertWithin(990_000, histogram.percentile(99), 0.07);
+        assertWithin(1_000_000, histogram.percentile(100), 0.07);
+        assertEquals(0, new LatencyHistogram().count());
+    }
+
+    @Test
+    void testTrackCountsOutcomes() {
+        AtomicLong clock = new AtomicLong();
+        try (ProgressReporter progress = new ProgressReporter("Create", 4, Duration.ZERO, clock::get)) {
+            Sinks.Empty<Void> pending = Sinks.empty();
+            progress.track(Mono.empty()).block();
+            progress.track(Mono.<Void>error(new IllegalStateException("boom"))).onErrorComplete().block();
+            progress.track(pending.asMono()).subscribe();
+
+            assertEquals(1, progress.completed());
+            assertEquals(1, progress.failed());
+            assertEquals(1, progress.inFlight());
+            assertEquals(1, progress.remaining());
+
+            clock.set(Duration.ofSeconds(2).toNanos());
+            String line = progress.progressLine();
+            assertTrue(line.startsWith("Create: 1/4 completed, 1 failed, 1 in flight, 1 remaining, 1.0 req/s"), line);
+            // 2 operations done in 2 seconds, 2 left
+            assertTrue(line.endsWith("ETA 2s"), line);
+
+            pending.tryEmitEmpty();
+            assertEquals(2, progress.completed());
+            assertEquals(0, progress.inFlight());
+
+            assertTrue(progress.summaryLine().startsWith("Create finished in 2s: 2/4 completed, 1 failed, 1 not started"),
+                    progress.summaryLine());
+        }
+    }
+
+    @Test
+    void testPeriodicReportsAreStoppedOnClose() throws InterruptedException {
+        ProgressReporter progress = new ProgressReporter("Delete", 10, Duration.ofMillis(10));
+        progress.track(Mono.empty()).block();
+        Thread.sleep(50);
+        progress.close();
+
+        String line = progress.progressLine();
+        assertTrue(line.startsWith("Delete: 1/10 completed"), line);
+    }
+
+    private static void assertWithin(long expected, long actual, double tolerance) {
+        assertTrue(Math.abs(actual - expected) <= expected * tolerance,
+                "Expected " + actual + " to be within " + tolerance + " of " + expected);
+    }
+}
@@ -0,0 +1,50 @@
+package com.crossmint.challenge.service;
+
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.Polyanet;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunDeadlineTest {
+
+    @Test
+    void testDeadlineIsNearWithinMargin() {
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        RunDeadline deadline = RunDeadline.after(Duration.ofMinutes(1), clock);
+
+        assertTrue(deadline.isSet());
+        assertFalse(deadline.isNear(Duration.ofSeconds(30)));
+        assertTrue(deadline.isNear(Duration.ofSeconds(60)));
+        assertEquals("2024-01-01T00:01:00Z", deadline.toString());
+    }
+
+    @Test
+    void testNoDeadlineIsNeverNear() {
+        assertSame(RunDeadline.none(), RunDeadline.after(null));
+        assertFalse(RunDeadline.none().isSet());
+        assertFalse(RunDeadline.none().isNear(Duration.ofDays(36500)));
+        assertEquals("none", RunDeadline.none().toString());
+    }
+
+    @Test
+    void testRunReportsAreCombined() {
+        CellOperation deletion = new CellOperation(new Polyanet(0, 1), HttpMethod.DELETE);
+        CellOperation creation = new CellOperation(new Polyanet(2, 3), HttpMethod.POST);
+
+        RunReport report = new RunReport(2, List.of(deletion)).plus(new RunReport(1, List.of(creation)));
+
+        assertEquals(3, report.completed());
+        assertEquals(List.of(deletion, creation), report.remaining());
+        assertFalse(report.isComplete());
+        assertTrue(RunReport.empty().isComplete());
+        assertEquals("POST /polyanets (2, 3)", creation.toString());
+    }
+}
@@ -0,0 +1,183 @@
+package com.crossmint.challenge.service.bulkhead;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.RunDeadline;
+import com.crossmint.challenge.service.RunReport;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import com.crossmint.challenge.service.transport.ApiSimulator;
+import com.crossmint.challenge.service.transport.WebClientTransport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testLimitGrowsWhileRoundTripsStayNearTheMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 16, 3, now::get);
+
+        for (int i = 0; i < 50; i++) {
+            saturate(limit, 100 * MILLI);
+        }
+
+        assertEquals(16, limit.limit(), "Capped at the ceiling");
+        assertEquals(100 * MILLI, limit.minRttNanos());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void testLimitShrinksWhenRequestsQueueUpOrAreDropped() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 16, 12, now::get);
+        saturate(limit, 100 * MILLI);
+        int beforeQueueing = limit.limit();
+
+        // Twice as slow: the server is queueing
+        saturate(limit, 200 * MILLI);
+        int afterQueueing = limit.limit();
+        assertTrue(afterQueueing < beforeQueueing, afterQueueing + " < " + beforeQueueing);
+
+        limit.acquire().block().dropped();
+        limit.acquire().block().dropped();
+        assertTrue(limit.limit() < afterQueueing, limit.limit() + " < " + afterQueueing);
+        for (int i = 0; i < 50; i++) {
+            limit.acquire().block().dropped();
+        }
+        assertEquals(2, limit.limit(), "Never below the floor");
+
+        // Client errors say nothing about the load
+        limit.acquire().block().ignore();
+        assertEquals(2, limit.limit());
+    }
+
+    @Test
+    void testSmallLimitShrinksWhenRequestsSlowDown() {
+        for (long slowdown : new long[]{2, 3}) {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 16, 3, now::get);
+            saturate(limit, 100 * MILLI);
+            int beforeQueueing = limit.limit();
+
+            for (int i = 0; i < 3; i++) {
+                saturate(limit, slowdown * 100 * MILLI);
+            }
+
+            assertTrue(limit.limit() < beforeQueueing, slowdown + "x slower: " + limit.limit() + " < " + beforeQueueing);
+        }
+    }
+
+    @Test
+    void testIdleLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 16, 8, now::get);
+
+        for (int i = 0; i < 20; i++) {
+            AdaptiveConcurrencyLimit.Permit permit = limit.acquire().block();
+            now.addAndGet(100 * MILLI);
+            permit.success();
+        }
+
+        assertEquals(8, limit.limit());
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(0, 4, 2));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(4, 3, 2));
+    }
+
+    @Test
+    void testRequestsOverTheLimitWaitInOrder() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 4, 1, now::get);
+        List<String> granted = new ArrayList<>();
+        AdaptiveConcurrencyLimit.Permit first = limit.acquire().block();
+
+        Disposable cancelled = limit.acquire().subscribe(permit -> granted.add("cancelled"));
+        List<AdaptiveConcurrencyLimit.Permit> permits = new ArrayList<>();
+        limit.acquire().subscribe(permit -> {
+            granted.add("second");
+            permits.add(permit);
+        });
+        cancelled.dispose();
+        assertTrue(granted.isEmpty());
+
+        first.ignore();
+        first.ignore();
+        assertEquals(List.of("second"), granted);
+        assertEquals(1, limit.inFlight());
+        permits.getFirst().ignore();
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void testServiceRunsOperationsUnderTheLimit() throws IOException {
+        CellGrid goal = new CellGrid(4, 4);
+        for (int i = 0; i < 4; i++) {
+            goal.set(i, i, GridCell.POLYANET);
+            goal.set(i, 3 - i, GridCell.POLYANET);
+        }
+        try (ApiSimulator simulator = new ApiSimulator(goal, Duration.ofMillis(5))) {
+            simulator.throttleEvery(5);
+            RetryStrategy retryStrategy = RetryStrategy.exponential(3, 0, 0);
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 6, 2);
+            Bulkheads bulkheads = new Bulkheads(retryStrategy, 2, 0, "", limit);
+            AstralObjectService service = new AstralObjectService(
+                    new WebClientTransport(WebClient.builder().baseUrl(simulator.baseUrl()).build()), retryStrategy,
+                    bulkheads, "id", 2, 0, 5, 0, "/map/%s", "/map/%s/goal", "", "", 64);
+
+            RunReport report = service.replicateGoalMap(RunDeadline.none());
+            service.processAstralObject(new Polyanet(0, 1), HttpMethod.POST);
+
+            assertEquals(8, report.completed());
+            assertEquals(GridCell.POLYANET, simulator.map().get(0, 1));
+            assertSame(limit, bulkheads.concurrencyLimit());
+            assertEquals(0, limit.inFlight());
+            assertTrue(limit.limit() >= 1 && limit.limit() <= 6);
+        }
+    }
+
+    @Test
+    void testWaitingForThePermitIsNotPartOfTheAttempt() throws IOException {
+        CellGrid goal = new CellGrid(1, 8);
+        for (int i = 0; i < 8; i++) {
+            goal.set(0, i, GridCell.POLYANET);
+        }
+        try (ApiSimulator simulator = new ApiSimulator(goal, Duration.ofMillis(400))) {
+            RetryStrategy retryStrategy = RetryStrategy.exponential(0, 0, 0);
+            // One request at a time: the last ones wait longer than the 2 s timeout of an attempt
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1);
+            AstralObjectService service = new AstralObjectService(
+                    new WebClientTransport(WebClient.builder().baseUrl(simulator.baseUrl()).build()), retryStrategy,
+                    new Bulkheads(retryStrategy, 8, 0, "", limit), "id", 8, 0, 2, 0, "/map/%s", "/map/%s/goal",
+                    "", "", 64);
+
+            RunReport report = service.replicateGoalMap(RunDeadline.none());
+
+            assertEquals(8, report.completed());
+            assertTrue(report.failed().isEmpty());
+            assertEquals(0, limit.inFlight());
+        }
+    }
+
+    /**
+     * Fills the limit with requests, all answered after the given round-trip time.
+     */
+    private void saturate(AdaptiveConcurrencyLimit limit, long rtt) {
+        List<AdaptiveConcurrencyLimit.Permit> permits = new ArrayList<>();
+        for (int i = limit.limit(); i > 0; i--) {
+            permits.add(limit.acquire().block());
+        }
+        now.addAndGet(rtt);
+        permits.forEach(AdaptiveConcurrencyLimit.Permit::success);
+    }
+}
@@ -0,0 +1,95 @@
+package com.crossmint.challenge.service.bulkhead;
+
+import com.crossmint.challenge.model.ApiSerializable;
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.Cometh;
+import com.crossmint.challenge.model.ComethDirection;
+import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.model.Soloon;
+import com.crossmint.challenge.model.SoloonColor;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadsTest {
+
+    private static final RetryStrategy RETRY_STRATEGY = RetryStrategy.exponential(0, 1, 0);
+
+    @Test
+    void testRulesSelectLimitsPerEndpointAndMethod() {
+        Bulkheads bulkheads = new Bulkheads(RETRY_STRATEGY, 3, 0, "/soloons:2@1.5, delete /polyanets:4, /comeths:1");
+
+        Bulkhead createSoloon = bulkheads.forOperation(post(new Soloon(0, 0, SoloonColor.RED)));
+        assertEquals("POST /soloons", createSoloon.getName());
+        assertEquals(2, createSoloon.getConcurrency());
+        assertEquals(1.5, createSoloon.getRatePerSecond());
+
+        // Same endpoint, other method: same limits but its own bulkhead
+        Bulkhead deleteSoloon = bulkheads.forOperation(new CellOperation(new Soloon(0, 0, SoloonColor.RED),
+                HttpMethod.DELETE));
+        assertEquals(2, deleteSoloon.getConcurrency());
+        assertNotSame(createSoloon, deleteSoloon);
+
+        assertEquals(4, bulkheads.forOperation(new CellOperation(new Polyanet(0, 0), HttpMethod.DELETE))
+                .getConcurrency());
+        assertEquals(3, bulkheads.forOperation(post(new Polyanet(0, 0))).getConcurrency());
+        assertEquals(1, bulkheads.forOperation(post(new Cometh(0, 0, ComethDirection.UP))).getConcurrency());
+        assertSame(createSoloon, bulkheads.forOperation(post(new Soloon(5, 5, SoloonColor.BLUE))));
+
+        assertThrows(IllegalArgumentException.class, () -> new Bulkheads(RETRY_STRATEGY, 3, 0, "/soloons"));
+        assertThrows(IllegalArgumentException.class, () -> new Bulkheads(RETRY_STRATEGY, 3, 0, "soloons:2"));
+        assertThrows(IllegalArgumentException.class, () -> new Bulkheads(RETRY_STRATEGY, 3, 0, "/soloons:0"));
+        assertThrows(IllegalArgumentException.class, () -> new Bulkheads(RETRY_STRATEGY, 3, 0, "/soloons:2@x"));
+    }
+
+    @Test
+    void testStalledEndpointDoesNotStarveTheOthers() {
+        Bulkheads bulkheads = Bulkheads.uniform(RETRY_STRATEGY, 1);
+        Sinks.Empty<Void> stalled = Sinks.empty();
+
+        // The only Soloon slot is held by a request that never answers
+        bulkheads.forOperation(post(new Soloon(0, 0, SoloonColor.RED))).submit(attempt -> stalled.asMono()).subscribe();
+        bulkheads.forOperation(post(new Soloon(0, 1, SoloonColor.RED))).submit(attempt -> Mono.empty()).subscribe();
+
+        bulkheads.forOperation(post(new Polyanet(1, 1))).submit(attempt -> Mono.empty()).block(Duration.ofSeconds(1));
+
+        List<BulkheadMetrics> metrics = bulkheads.metrics();
+        assertEquals(List.of("POST /polyanets", "POST /soloons"), metrics.stream().map(BulkheadMetrics::name).toList());
+        assertEquals(1, metrics.get(0).succeeded());
+        assertEquals(1, metrics.get(1).attempts());
+        assertEquals(1, metrics.get(1).inFlight());
+
+        stalled.tryEmitEmpty();
+        assertEquals(2, bulkheads.metrics().get(1).succeeded());
+        assertEquals(0, bulkheads.metrics().get(1).inFlight());
+    }
+
+    @Test
+    void testRateLimiterSpacesPermits() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(4, clock::get);
+
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ofMillis(250), limiter.reserve());
+        assertEquals(Duration.ofMillis(500), limiter.reserve());
+
+        // Idle time doesn't accumulate into a burst
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ofMillis(250), limiter.reserve());
+
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0));
+    }
+
+    private static CellOperation post(ApiSerializable target) {
+        return new CellOperation(target, HttpMethod.POST);
+    }
+}
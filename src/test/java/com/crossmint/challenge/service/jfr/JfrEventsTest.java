@@ -0,0 +1,102 @@
+package com.crossmint.challenge.service.jfr;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.RunDeadline;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.retry.FixedBackoffPolicy;
+import com.crossmint.challenge.service.retry.RetryBudget;
+import com.crossmint.challenge.service.retry.RetryParking;
+import com.crossmint.challenge.service.retry.RetryRules;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import com.crossmint.challenge.service.transport.ApiSimulator;
+import com.crossmint.challenge.service.transport.JdkHttpTransport;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+
+    @Test
+    void testBundledProfileRecordsTheCrossmintEvents(@TempDir Path tempDir) throws Exception {
+        CellGrid goal = new CellGrid(2, 2);
+        goal.set(0, 0, GridCell.POLYANET);
+        goal.set(0, 1, GridCell.POLYANET);
+        goal.set(1, 1, GridCell.RED_SOLOON);
+        Path file = tempDir.resolve("crossmint.jfr");
+
+        try (Reader jfc = new InputStreamReader(getClass().getResourceAsStream("/jfr/crossmint.jfc"),
+                StandardCharsets.UTF_8);
+             Recording recording = new Recording(Configuration.create(jfc));
+             ApiSimulator simulator = new ApiSimulator(goal, Duration.ZERO)) {
+            recording.start();
+
+            RetryStrategy retryStrategy = new RetryStrategy(new FixedBackoffPolicy(Duration.ofMillis(10)),
+                    RetryRules.defaults(2), new RetryBudget(100, Duration.ofSeconds(10), 10));
+            // A rate of 20/s per bulkhead makes the second Polyanet request wait
+            AstralObjectService service = new AstralObjectService(
+                    new JdkHttpTransport(simulator.baseUrl(), Duration.ofSeconds(5), null), retryStrategy,
+                    new Bulkheads(retryStrategy, 2, 20, ""), "id", 2, 0, 5, 0, "/map/%s", "/map/%s/goal",
+                    "", "", 64);
+            service.replicateGoalMap(RunDeadline.none());
+
+            // One throttled attempt, retried once
+            RetryParking parking = new RetryParking("POST /polyanets", retryStrategy, 1);
+            parking.submit(attempt -> attempt == 1
+                    ? Mono.error(WebClientResponseException.create(429, "Too Many Requests", null, null, null))
+                    : Mono.empty()).block(Duration.ofSeconds(1));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("crossmint."))
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        List<RecordedEvent> requests = events.get("crossmint.ApiRequest");
+        assertEquals(5, requests.size(), "goal, map and three creations");
+        RecordedEvent creation = requests.stream()
+                .filter(event -> event.getString("method").equals("POST") && event.getInt("row") == 1)
+                .findFirst().orElseThrow();
+        assertEquals("/soloons", creation.getString("endpoint"));
+        assertEquals(1, creation.getInt("column"));
+        assertEquals(1, creation.getInt("attempt"));
+        assertEquals(HttpStatus.OK.value(), creation.getInt("status"));
+        assertTrue(requests.stream().anyMatch(event -> event.getString("endpoint").equals("/map/id")
+                && event.getLong("bytes") > 0));
+
+        // The Soloon is created in a second run, once the Polyanet exists
+        assertEquals(List.of("goal-fetch", "map-fetch", "parse", "parse", "plan", "plan", "plan-validation", "run",
+                        "run"),
+                events.get("crossmint.PipelineStage").stream().map(event -> event.getString("stage")).sorted()
+                        .toList());
+
+        RecordedEvent wait = events.get("crossmint.PacingWait").getFirst();
+        assertEquals("bulkhead", wait.getString("limiter"));
+        assertEquals("POST /polyanets", wait.getString("operation"));
+
+        RecordedEvent retry = events.get("crossmint.RetryScheduled").getFirst();
+        assertEquals("POST /polyanets", retry.getString("operation"));
+        assertEquals(1, retry.getLong("retry"));
+        assertEquals(Duration.ofMillis(10), retry.getDuration("backoff"));
+    }
+}
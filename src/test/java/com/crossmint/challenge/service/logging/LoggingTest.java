@@ -0,0 +1,159 @@
+package com.crossmint.challenge.service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggingTest {
+
+    private static final LoggerContext CONTEXT = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private static final Logger LOGGER = CONTEXT.getLogger(LoggingTest.class);
+
+    @Test
+    void testRingBufferWritesEveryEventInOrderBeforeStopping() {
+        ListAppender<ILoggingEvent> console = new ListAppender<>();
+        console.setContext(CONTEXT);
+        RingBufferAppender appender = new RingBufferAppender(console, 1024);
+        appender.setContext(CONTEXT);
+        appender.start();
+        assertTrue(console.isStarted());
+
+        IntStream.range(0, 500).forEach(i -> appender.doAppend(event(Level.INFO, "event " + i)));
+        appender.stop();
+
+        assertEquals(IntStream.range(0, 500).mapToObj(i -> "event " + i).toList(),
+                console.list.stream().map(ILoggingEvent::getFormattedMessage).toList());
+        // The console takes over once the buffer stops
+        assertTrue(console.isStarted());
+    }
+
+    @Test
+    void testFullRingBufferDropsOnlyEventsBelowWarn() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = new CopyOnWriteArrayList<>();
+        AppenderBase<ILoggingEvent> slowConsole = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                writing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.add(event.getLevel() + " " + event.getFormattedMessage());
+            }
+        };
+        slowConsole.setContext(CONTEXT);
+        RingBufferAppender appender = new RingBufferAppender(slowConsole, 2);
+        appender.setContext(CONTEXT);
+        appender.start();
+
+        // The writer is stuck on the first event, the next two fill the buffer, the last two are dropped
+        appender.doAppend(event(Level.INFO, "first"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (String message : List.of("second", "third", "fourth", "fifth")) {
+            appender.doAppend(event(Level.INFO, message));
+        }
+        assertEquals(2, appender.dropped());
+        Thread retry = Thread.ofPlatform().start(() -> appender.doAppend(event(Level.WARN, "retry")));
+        release.countDown();
+        retry.join(5000);
+        appender.stop();
+
+        // The drop is reported right after the batch being written when it happened
+        assertEquals(List.of("INFO first", "WARN 2 log events below WARN were dropped: the log buffer was full",
+                "INFO second", "INFO third", "WARN retry"), written);
+        assertEquals(0, appender.dropped());
+    }
+
+    @Test
+    void testJsonEncoderWritesOneObjectPerLine() throws Exception {
+        LoggingEvent event = event(Level.DEBUG, "Performed {} {}", "POST", "/polyanets");
+        event.addMarker(OperationLogSampler.OPERATION);
+        event.addKeyValuePair(new KeyValuePair("method", "POST"));
+        event.addKeyValuePair(new KeyValuePair("row", 3));
+        LoggingEvent failure = new LoggingEvent(LoggingTest.class.getName(), LOGGER, Level.ERROR, "Failed",
+                new IllegalStateException("boom"), null);
+        JsonLogEncoder encoder = new JsonLogEncoder();
+        encoder.setContext(CONTEXT);
+        encoder.start();
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+        assertTrue(line.endsWith("}\n"));
+        JsonNode json = new ObjectMapper().readTree(line);
+        assertEquals("DEBUG", json.get("level").asText());
+        assertEquals(LoggingTest.class.getName(), json.get("logger").asText());
+        assertEquals("Performed POST /polyanets", json.get("message").asText());
+        assertEquals("OPERATION", json.get("markers").get(0).asText());
+        assertEquals("POST", json.get("method").asText());
+        assertEquals(3, json.get("row").asInt());
+        assertTrue(json.get("row").isInt());
+        assertNotNull(json.get("ts").asText());
+
+        JsonNode error = new ObjectMapper().readTree(encoder.encode(failure));
+        assertEquals("java.lang.IllegalStateException: boom", error.get("error").asText());
+        assertTrue(error.get("stackTrace").asText().contains("LoggingTest"));
+        assertEquals(0, encoder.headerBytes().length);
+        assertEquals(0, encoder.footerBytes().length);
+    }
+
+    @Test
+    void testSamplerThinsOutOnlyOperationLogs() {
+        OperationLogSampler sampler = new OperationLogSampler(3, 0);
+
+        long kept = IntStream.range(0, 30)
+                .mapToObj(i -> sampler.decide(operationEvent(Level.DEBUG)))
+                .filter(reply -> reply == FilterReply.NEUTRAL)
+                .count();
+
+        assertEquals(10, kept);
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(operationEvent(Level.WARN)));
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(event(Level.DEBUG, "not an operation")));
+        assertThrows(IllegalArgumentException.class, () -> new OperationLogSampler(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OperationLogSampler(1, -1));
+    }
+
+    @Test
+    void testSamplerCapsOperationLogsPerSecond() {
+        AtomicLong now = new AtomicLong();
+        OperationLogSampler sampler = new OperationLogSampler(1, 5, now::get);
+
+        assertEquals(5, IntStream.range(0, 20)
+                .filter(i -> sampler.decide(operationEvent(Level.INFO)) == FilterReply.NEUTRAL).count());
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(operationEvent(Level.ERROR)), "Errors are always kept");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(operationEvent(Level.INFO)));
+    }
+
+    private static LoggingEvent event(Level level, String message, Object... arguments) {
+        return new LoggingEvent(LoggingTest.class.getName(), LOGGER, level, message, null, arguments);
+    }
+
+    private static LoggingEvent operationEvent(Level level) {
+        LoggingEvent event = event(level, "Performed");
+        event.addMarker(OperationLogSampler.OPERATION);
+        return event;
+    }
+}
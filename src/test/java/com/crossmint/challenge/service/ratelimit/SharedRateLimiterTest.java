@@ -0,0 +1,113 @@
+package com.crossmint.challenge.service.ratelimit;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import com.crossmint.challenge.service.transport.ApiSimulator;
+import com.crossmint.challenge.service.transport.WebClientTransport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedRateLimiterTest {
+
+    @Test
+    void testLimitersMappingTheSameFileShareTheBucket(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("crossmint.rate");
+        AtomicLong clock = new AtomicLong(1_000_000_000L);
+        // Two mappings of one file behave like two processes of the host
+        SharedRateLimiter first = new SharedRateLimiter(file, 4, 2, clock::get);
+        SharedRateLimiter second = new SharedRateLimiter(file, 4, 2, clock::get);
+
+        // A burst of 2, then one request every 250 ms, whichever process asks
+        assertEquals(Duration.ZERO, first.reserve());
+        assertEquals(Duration.ZERO, second.reserve());
+        assertEquals(Duration.ofMillis(250), first.reserve());
+        assertEquals(Duration.ofMillis(500), second.reserve());
+
+        // A throttle seen by one process holds the requests of the other
+        clock.addAndGet(Duration.ofSeconds(10).toNanos() / 1000);
+        Instant now = Instant.EPOCH.plus(clock.get(), ChronoUnit.MICROS);
+        first.throttleUntil(now.plusSeconds(3));
+        first.throttleUntil(now.plusSeconds(1));
+        assertEquals(now.plusSeconds(3), second.throttledUntil());
+        // The bucket refilled meanwhile, so the burst is allowed again once the throttle is over
+        assertEquals(Duration.ofSeconds(3), second.reserve());
+        assertEquals(Duration.ofSeconds(3), first.reserve());
+        assertEquals(Duration.ofMillis(3250), second.reserve());
+    }
+
+    @Test
+    void testInvalidFileIsRejected(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("not-a-limiter");
+        Files.writeString(file, "some other content that is not a rate limiter");
+
+        assertThrows(IllegalStateException.class, () -> new SharedRateLimiter(file, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SharedRateLimiter(tempDir.resolve("x"), 0, 1));
+    }
+
+    @Test
+    void testFilterPublishesRetryAfter(@TempDir Path tempDir) throws IOException {
+        Instant now = Instant.parse("2024-03-01T10:00:00Z");
+        SharedRateLimiter limiter = new SharedRateLimiter(tempDir.resolve("crossmint.rate"), 100, 1);
+        SharedRateLimitFilter filter = new SharedRateLimitFilter(limiter, Clock.fixed(now, ZoneOffset.UTC));
+        ClientRequest request = ClientRequest.create(HttpMethod.POST, URI.create("/polyanets")).build();
+
+        ClientResponse throttled = filter.filter(request, r -> Mono.just(ClientResponse
+                .create(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "5").build())).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, throttled.statusCode());
+        assertEquals(now.plusSeconds(5), limiter.throttledUntil());
+
+        // Successful responses and invalid headers leave the throttle alone
+        filter.filter(request, r -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "soon").build())).block();
+        assertEquals(now.plusSeconds(5), limiter.throttledUntil());
+
+        assertEquals(Instant.parse("2030-01-01T00:00:00Z"),
+                SharedRateLimiter.parseRetryAfter("Tue, 1 Jan 2030 00:00:00 GMT", now));
+        assertNull(SharedRateLimiter.parseRetryAfter("soon", now));
+    }
+
+    @Test
+    void testWaitIsNotPartOfTheRequestTimeout(@TempDir Path tempDir) throws IOException {
+        try (ApiSimulator simulator = new ApiSimulator(new CellGrid(1, 2), Duration.ZERO)) {
+            // A request every 1.5 s, while each attempt times out after 1 s and is never retried
+            SharedRateLimiter limiter = new SharedRateLimiter(tempDir.resolve("crossmint.rate"), 1 / 1.5, 1);
+            RetryStrategy retryStrategy = RetryStrategy.exponential(0, 0, 0);
+            WebClientTransport transport = new WebClientTransport(WebClient.builder()
+                    .baseUrl(simulator.baseUrl()).filter(new SharedRateLimitFilter(limiter)).build());
+            // Warms the client up outside of any timeout: the transport itself is never paced
+            transport.send(HttpMethod.DELETE, "/polyanets", Map.of("row", 0, "column", 0)).block();
+            AstralObjectService service = new AstralObjectService(transport, retryStrategy,
+                    new Bulkheads(retryStrategy, 2, 0, "", null, limiter), "id", 2, 0, 1, 0,
+                    "/map/%s", "/map/%s/goal", "", "", 64);
+
+            service.processAstralObject(new Polyanet(0, 0), HttpMethod.POST);
+            service.processAstralObject(new Polyanet(0, 1), HttpMethod.POST);
+
+            assertEquals(GridCell.POLYANET, service.fetchCurrentGrid().get(0, 1));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.crossmint.challenge.service.retry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryStrategyTest {
+
+    @Test
+    void testExponentialBackoffPolicy() {
+        RetryPolicy policy = RetryPolicy.of("exponential", Duration.ofSeconds(1), Duration.ofSeconds(10), 0);
+
+        assertEquals(Duration.ofSeconds(1), policy.backoff(0, Duration.ZERO));
+        assertEquals(Duration.ofSeconds(2), policy.backoff(1, Duration.ZERO));
+        assertEquals(Duration.ofSeconds(8), policy.backoff(3, Duration.ZERO));
+        assertEquals(Duration.ofSeconds(10), policy.backoff(4, Duration.ZERO));
+        assertEquals(Duration.ofSeconds(10), policy.backoff(80, Duration.ZERO));
+
+        RetryPolicy jittered = new ExponentialBackoffPolicy(Duration.ofSeconds(4), Duration.ofSeconds(60), 0.5);
+        for (int i = 0; i < 100; i++) {
+            long millis = jittered.backoff(0, Duration.ZERO).toMillis();
+            assertTrue(millis >= 2000 && millis <= 6000, "Backoff out of range: " + millis);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExponentialBackoffPolicy(Duration.ZERO, Duration.ZERO, 2));
+    }
+
+    @Test
+    void testDecorrelatedJitterPolicy() {
+        RetryPolicy policy = RetryPolicy.of("decorrelated-jitter", Duration.ofMillis(100), Duration.ofSeconds(2), 0);
+
+        Duration previous = Duration.ZERO;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            Duration backoff = policy.backoff(attempt, previous);
+            assertTrue(backoff.toMillis() >= 100, "Backoff below base: " + backoff);
+            assertTrue(backoff.toMillis() <= Math.min(2000, Math.max(100, previous.toMillis()) * 3),
+                    "Backoff above bound: " + backoff);
+            previous = backoff;
+        }
+        assertEquals(Duration.ZERO, new DecorrelatedJitterPolicy(Duration.ZERO, Duration.ZERO)
+                .backoff(3, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testFixedBackoffPolicy() {
+        RetryPolicy policy = RetryPolicy.of("FIXED", Duration.ofSeconds(3), Duration.ofSeconds(10), 0.5);
+
+        assertEquals(Duration.ofSeconds(3), policy.backoff(0, Duration.ZERO));
+        assertEquals(Duration.ofSeconds(3), policy.backoff(7, Duration.ofSeconds(3)));
+        assertThrows(IllegalArgumentException.class,
+                () -> RetryPolicy.of("linear", Duration.ZERO, Duration.ZERO, 0));
+    }
+
+    @Test
+    void testRetryRules() {
+        RetryRules defaults = RetryRules.defaults(5);
+        assertEquals(5, defaults.maxAttempts(error(HttpStatus.TOO_MANY_REQUESTS)));
+        assertEquals(5, defaults.maxAttempts(error(HttpStatus.BAD_GATEWAY)));
+        assertEquals(0, defaults.maxAttempts(error(HttpStatus.BAD_REQUEST)));
+        assertEquals(0, defaults.maxAttempts(new RuntimeException("not an HTTP error")));
+
+        RetryRules rules = RetryRules.parse(5, "429:8, 5xx:2, 501:0, 409:1");
+        assertEquals(8, rules.maxAttempts(error(HttpStatus.TOO_MANY_REQUESTS)));
+        assertEquals(2, rules.maxAttempts(error(HttpStatus.SERVICE_UNAVAILABLE)));
+        assertEquals(0, rules.maxAttempts(error(HttpStatus.NOT_IMPLEMENTED)));
+        assertTrue(rules.isRetryable(error(HttpStatus.CONFLICT)));
+        assertFalse(rules.isRetryable(error(HttpStatus.NOT_FOUND)));
+
+        // Connection errors, whether wrapped by WebClient or thrown by the JDK client
+        ConnectException refused = new ConnectException("Connection refused");
+        assertEquals(5, defaults.maxAttempts(new WebClientRequestException(refused, HttpMethod.POST,
+                URI.create("http://localhost/api/polyanets"), new HttpHeaders())));
+        assertEquals(5, defaults.maxAttempts(new HttpConnectTimeoutException("Connect timed out")));
+        assertEquals(1, RetryRules.parse(5, "connection:1").maxAttempts(refused));
+
+        assertThrows(IllegalArgumentException.class, () -> RetryRules.parse(5, "429"));
+        assertThrows(IllegalArgumentException.class, () -> RetryRules.parse(5, "abc:1"));
+    }
+
+    @Test
+    void testRetryBudgetSlidingWindow() {
+        AtomicLong clock = new AtomicLong();
+        RetryBudget budget = new RetryBudget(10, Duration.ofSeconds(10), 1, clock::get);
+
+        for (int i = 0; i < 50; i++) {
+            budget.recordRequest();
+        }
+        // 10% of 50 requests = 5 retries
+        for (int i = 0; i < 5; i++) {
+            assertTrue(budget.tryAcquireRetry());
+        }
+        assertFalse(budget.tryAcquireRetry());
+
+        // Once the window has slid past the traffic, only the minimum is left
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(-1, Duration.ofSeconds(1), 0));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(10, Duration.ZERO, 0));
+    }
+
+    @Test
+    void testRetrySpecHonoursRulesAndAttempts() {
+        RetryStrategy strategy = new RetryStrategy(new FixedBackoffPolicy(Duration.ZERO),
+                RetryRules.parse(2, "400:0"), new RetryBudget(100, Duration.ofSeconds(10), 10));
+
+        AtomicInteger attempts = new AtomicInteger();
+        Exception exhausted = assertThrows(Exception.class, () -> Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.error(error(HttpStatus.SERVICE_UNAVAILABLE));
+                }).retryWhen(strategy.toRetry()).block());
+        assertTrue(Exceptions.isRetryExhausted(exhausted));
+        assertEquals(3, attempts.get());
+
+        attempts.set(0);
+        assertThrows(WebClientResponseException.class, () -> Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.error(error(HttpStatus.BAD_REQUEST));
+                }).retryWhen(strategy.toRetry()).block());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testRetrySpecStopsWhenBudgetIsExhausted() {
+        RetryStrategy strategy = new RetryStrategy(new FixedBackoffPolicy(Duration.ZERO),
+                RetryRules.defaults(5), new RetryBudget(0, Duration.ofSeconds(10), 1));
+
+        AtomicInteger attempts = new AtomicInteger();
+        Exception exhausted = assertThrows(Exception.class, () -> Mono.defer(() -> {
+                    strategy.recordAttempt();
+                    attempts.incrementAndGet();
+                    return Mono.error(error(HttpStatus.TOO_MANY_REQUESTS));
+                }).retryWhen(strategy.toRetry()).block());
+        assertTrue(Exceptions.isRetryExhausted(exhausted));
+        assertTrue(exhausted.getMessage().contains("budget"));
+        // One initial attempt and the single retry allowed by the budget
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testTimingWheelRunsTasksWhenDue() {
+        TimingWheel wheel = new TimingWheel(Duration.ofMillis(10), 4, false);
+        List<String> ran = new ArrayList<>();
+        wheel.schedule(() -> ran.add("soon"), Duration.ofMillis(15));
+        wheel.schedule(() -> ran.add("next revolution"), Duration.ofMillis(60));
+        wheel.schedule(() -> ran.add("immediate"), Duration.ZERO);
+        assertEquals(3, wheel.size());
+
+        wheel.advance();
+        assertEquals(List.of("immediate"), ran);
+        wheel.advance();
+        assertEquals(List.of("immediate", "soon"), ran);
+        // 6 ticks share a bucket with 2 ticks, one revolution later
+        for (int i = 0; i < 3; i++) {
+            wheel.advance();
+        }
+        assertEquals(1, wheel.size());
+        wheel.advance();
+        assertEquals(List.of("immediate", "soon", "next revolution"), ran);
+        assertEquals(0, wheel.size());
+
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(Duration.ZERO, 4));
+    }
+
+    @Test
+    void testParkedRetryReleasesItsSlot() throws InterruptedException {
+        RetryStrategy strategy = new RetryStrategy(new FixedBackoffPolicy(Duration.ofMillis(300)),
+                RetryRules.defaults(2), new RetryBudget(100, Duration.ofSeconds(10), 10));
+        RetryParking parking = new RetryParking("test", strategy, 1);
+
+        // The first operation fails once, then waits out its backoff without holding the only slot
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch throttledDone = new CountDownLatch(1);
+        parking.submit(attempt -> Mono.defer(() -> attempts.incrementAndGet() == 1
+                        ? Mono.error(error(HttpStatus.TOO_MANY_REQUESTS))
+                        : Mono.empty()))
+                .subscribe(null, e -> {}, throttledDone::countDown);
+        assertEquals(1, parking.parked());
+
+        long start = System.nanoTime();
+        parking.submit(attempt -> Mono.empty()).block(Duration.ofSeconds(1));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 300, "Waited for the parked retry");
+
+        assertTrue(throttledDone.await(2, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        assertEquals(0, parking.parked());
+
+        // Permanent failures are not parked
+        assertThrows(WebClientResponseException.class,
+                () -> parking.submit(attempt -> Mono.error(error(HttpStatus.BAD_REQUEST))).block());
+    }
+
+    private static WebClientResponseException error(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), null, null, null);
+    }
+}
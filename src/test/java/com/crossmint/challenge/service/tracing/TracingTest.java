@@ -0,0 +1,159 @@
+package com.crossmint.challenge.service.tracing;
+
+import com.crossmint.challenge.commands.TracingExecutionStrategy;
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.RunDeadline;
+import com.crossmint.challenge.service.RunReport;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.retry.FixedBackoffPolicy;
+import com.crossmint.challenge.service.retry.RetryBudget;
+import com.crossmint.challenge.service.retry.RetryRules;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import com.crossmint.challenge.service.transport.ApiSimulator;
+import com.crossmint.challenge.service.transport.JdkHttpTransport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracingTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    private Path tempDir;
+
+    private Path file;
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        file = tempDir.resolve("traces.jsonl");
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new JsonLinesSpanExporter(file)))
+                .build();
+        tracer = tracerProvider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void testReplicationIsTracedAsOneTrace() throws IOException {
+        CellGrid goal = new CellGrid(2, 2);
+        goal.set(0, 0, GridCell.POLYANET);
+        goal.set(0, 1, GridCell.RED_SOLOON);
+        RetryStrategy retryStrategy = new RetryStrategy(new FixedBackoffPolicy(Duration.ofMillis(10)),
+                RetryRules.defaults(2), new RetryBudget(100, Duration.ofSeconds(10), 10));
+
+        Span command = tracer.spanBuilder("crossmint replicategoal").startSpan();
+        try (ApiSimulator simulator = new ApiSimulator(goal, Duration.ZERO);
+             Scope scope = command.makeCurrent()) {
+            AstralObjectService service = new AstralObjectService(
+                    new JdkHttpTransport(simulator.baseUrl(), Duration.ofSeconds(5), null), retryStrategy,
+                    Bulkheads.uniform(retryStrategy, 1), "id", 1, 0, 5, 0, "/map/%s", "/map/%s/goal", "", "", 64,
+                    tracer);
+            // Operations run one at a time: the first one to reach the server is throttled once
+            simulator.failNext(429, 1);
+            RunReport report = service.replicateGoalMap(RunDeadline.none());
+            assertEquals(2, report.completed());
+        } finally {
+            command.end();
+        }
+        tracerProvider.forceFlush();
+
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            spans.add(MAPPER.readTree(line));
+        }
+        Map<String, JsonNode> byId = spans.stream()
+                .collect(Collectors.toMap(span -> span.get("spanId").asText(), Function.identity()));
+        assertTrue(spans.stream().allMatch(span -> span.get("traceId").asText()
+                .equals(command.getSpanContext().getTraceId())), "All spans belong to the trace of the command");
+
+        JsonNode root = byName(spans, "crossmint replicategoal").getFirst();
+        for (String phase : List.of("goal-fetch", "map-fetch", "plan-validation", "plan", "run")) {
+            assertEquals(root.get("spanId"), byName(spans, phase).getFirst().get("parentSpanId"), phase);
+        }
+        assertEquals("Replicate", byName(spans, "run").getFirst().get("attributes").get("crossmint.phase").asText());
+        JsonNode goalRequest = byName(spans, "GET /map/id/goal").getFirst();
+        assertEquals(byName(spans, "goal-fetch").getFirst().get("spanId"), goalRequest.get("parentSpanId"));
+        assertEquals(200, goalRequest.get("attributes").get("http.response.status_code").asInt());
+
+        // The throttled operation, whichever reached the server first: its two attempts, and the backoff between them
+        JsonNode creation = byName(spans, "create").stream()
+                .filter(span -> children(spans, span).size() == 4)
+                .findFirst().orElseThrow();
+        assertEquals(byName(spans, "run").getFirst().get("spanId"), creation.get("parentSpanId"));
+        assertEquals(0, creation.get("attributes").get("crossmint.cell.row").asInt());
+        String request = creation.get("attributes").get("crossmint.cell.type").asText().equals("POLYANET")
+                ? "POST /polyanets" : "POST /soloons";
+        List<JsonNode> children = children(spans, creation);
+        assertEquals(List.of("pacing", request, "backoff", request),
+                children.stream().map(span -> span.get("name").asText()).toList());
+        assertEquals(429, children.get(1).get("attributes").get("http.response.status_code").asInt());
+        assertEquals("ERROR", children.get(1).get("status").asText());
+        assertEquals(2, children.get(3).get("attributes").get("crossmint.attempt").asInt());
+        assertEquals(200, children.get(3).get("attributes").get("http.response.status_code").asInt());
+        assertTrue(byId.containsKey(creation.get("parentSpanId").asText()));
+    }
+
+    @Test
+    void testCommandIsTheRootSpan() throws IOException {
+        int exitCode = new CommandLine(new Probe())
+                .setExecutionStrategy(new TracingExecutionStrategy(tracer))
+                .execute();
+        tracerProvider.forceFlush();
+
+        assertEquals(0, exitCode);
+        JsonNode span = MAPPER.readTree(Files.readAllLines(file).getFirst());
+        assertEquals("probe", span.get("name").asText());
+        assertTrue(span.get("parentSpanId").isNull());
+        assertEquals("UNSET", span.get("status").asText());
+    }
+
+    @CommandLine.Command(name = "probe")
+    static class Probe implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    private static List<JsonNode> children(List<JsonNode> spans, JsonNode parent) {
+        return spans.stream()
+                .filter(span -> parent.get("spanId").equals(span.get("parentSpanId")))
+                .sorted((a, b) -> Long.compare(a.get("startEpochNanos").asLong(), b.get("startEpochNanos").asLong()))
+                .toList();
+    }
+
+    private static List<JsonNode> byName(List<JsonNode> spans, String name) {
+        List<JsonNode> named = spans.stream().filter(span -> span.get("name").asText().equals(name)).toList();
+        assertFalse(named.isEmpty(), "No span named " + name);
+        return named;
+    }
+}
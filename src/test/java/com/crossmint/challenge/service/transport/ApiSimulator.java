@@ -0,0 +1,244 @@
+package com.crossmint.challenge.service.transport;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.ComethDirection;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.SoloonColor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for the Crossmint API, serving the goal, the map and the astral object
+ * endpoints from memory on an ephemeral port. Used to exercise the transports end to end and
+ * to benchmark them without touching the real API.
+ */
+public class ApiSimulator implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final CellGrid goal;
+    private final CellGrid map;
+    private final Duration latency;
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile int failureStatus;
+    private final AtomicInteger cellRequests = new AtomicInteger();
+    private volatile int throttleEvery;
+
+    /**
+     * Starts a simulator with an empty map.
+     *
+     * @param goal The goal served by the simulator
+     * @param latency The time every request takes to be answered
+     * @throws IOException if the server can't be started
+     */
+    public ApiSimulator(CellGrid goal, Duration latency) throws IOException {
+        this.goal = goal;
+        this.map = new CellGrid(goal.getRows(), goal.getCols());
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    /**
+     * @return The base URL of the simulated API
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return The current map (live, not a copy)
+     */
+    public CellGrid map() {
+        return map;
+    }
+
+    /**
+     * @return The number of requests served so far
+     */
+    public int requests() {
+        return requests.get();
+    }
+
+    /**
+     * Answers the next astral object requests with an error instead of applying them.
+     *
+     * @param status The status of the error, e.g. 429
+     * @param count The number of requests to fail
+     */
+    public void failNext(int status, int count) {
+        failureStatus = status;
+        failures.set(count);
+    }
+
+    /**
+     * Answers every n-th astral object request with a 429, like a server under load.
+     *
+     * @param n The period of the throttled requests (0 to never throttle)
+     */
+    public void throttleEvery(int n) {
+        throttleEvery = n;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (method.equals("GET") && path.endsWith("/goal")) {
+                respondCacheable(exchange, Map.of("goal", goalTokens()));
+            } else if (method.equals("GET") && path.startsWith("/map/")) {
+                respondCacheable(exchange, Map.of("map", Map.of("content", mapContent())));
+            } else if (path.equals("/polyanets") || path.equals("/soloons") || path.equals("/comeths")) {
+                if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    respond(exchange, failureStatus, Map.of("error", "Simulated failure"));
+                    return;
+                }
+                int period = throttleEvery;
+                if (period > 0 && cellRequests.incrementAndGet() % period == 0) {
+                    respond(exchange, 429, Map.of("error", "Too many requests"));
+                    return;
+                }
+                updateCell(exchange, path, method);
+            } else {
+                respond(exchange, 404, Map.of("error", "Not found: " + method + " " + path));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void updateCell(HttpExchange exchange, String path, String method) throws IOException {
+        Map<?, ?> body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = MAPPER.readValue(in, Map.class);
+        }
+        int row = ((Number) body.get("row")).intValue();
+        int column = ((Number) body.get("column")).intValue();
+        if (row < 0 || column < 0 || row >= map.getRows() || column >= map.getCols()) {
+            respond(exchange, 400, Map.of("error", "Cell (" + row + ", " + column + ") is out of bounds"));
+            return;
+        }
+        GridCell cell = method.equals("DELETE") ? GridCell.SPACE : switch (path) {
+            case "/polyanets" -> GridCell.POLYANET;
+            case "/soloons" -> GridCell.of(SoloonColor.fromString(String.valueOf(body.get("color"))));
+            default -> GridCell.of(ComethDirection.fromString(String.valueOf(body.get("direction"))));
+        };
+        synchronized (map) {
+            // Like the real API, a Soloon can only be created next to a Polyanet
+            if (path.equals("/soloons") && cell != GridCell.SPACE && !hasAdjacentPolyanet(row, column)) {
+                respond(exchange, 400, Map.of("error", "Soloon (" + row + ", " + column + ") has no adjacent Polyanet"));
+                return;
+            }
+            map.set(row, column, cell);
+        }
+        respond(exchange, 200, Map.of());
+    }
+
+    private boolean hasAdjacentPolyanet(int row, int column) {
+        int[][] neighbours = {{row - 1, column}, {row + 1, column}, {row, column - 1}, {row, column + 1}};
+        for (int[] cell : neighbours) {
+            if (cell[0] >= 0 && cell[1] >= 0 && cell[0] < map.getRows() && cell[1] < map.getCols()
+                    && map.get(cell[0], cell[1]) == GridCell.POLYANET) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<List<String>> goalTokens() {
+        List<List<String>> rows = new ArrayList<>();
+        for (int i = 0; i < goal.getRows(); i++) {
+            List<String> row = new ArrayList<>();
+            for (int j = 0; j < goal.getCols(); j++) {
+                row.add(goal.get(i, j).name());
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<List<Map<String, Object>>> mapContent() {
+        List<List<Map<String, Object>>> rows = new ArrayList<>();
+        synchronized (map) {
+            for (int i = 0; i < map.getRows(); i++) {
+                List<Map<String, Object>> row = new ArrayList<>();
+                for (int j = 0; j < map.getCols(); j++) {
+                    row.add(mapCell(map.get(i, j)));
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static Map<String, Object> mapCell(GridCell cell) {
+        if (cell.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        String name = cell.name();
+        if (cell == GridCell.POLYANET) {
+            attributes.put("type", 0);
+        } else if (name.endsWith("_SOLOON")) {
+            attributes.put("type", 1);
+            attributes.put("color", name.substring(0, name.indexOf('_')).toLowerCase());
+        } else {
+            attributes.put("type", 2);
+            attributes.put("direction", name.substring(0, name.indexOf('_')).toLowerCase());
+        }
+        return attributes;
+    }
+
+    // Tags the body with an ETag, and answers 304 Not Modified if the request carries it
+    private static void respondCacheable(HttpExchange exchange, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        String etag = "\"" + Integer.toHexString(Arrays.hashCode(bytes)) + "\"";
+        exchange.getResponseHeaders().add("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.crossmint.challenge.service.transport;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingTransportTest {
+
+    private static final Duration TTL = Duration.ofSeconds(2);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testConcurrentGetsShareOneRequest() {
+        PendingTransport delegate = new PendingTransport();
+        CachingTransport transport = new CachingTransport(delegate, TTL, Duration.ofSeconds(5), now::get);
+
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            transport.stream("/map/id").map(CachingTransportTest::text).subscribe(bodies::add);
+        }
+        Mono<Map> goal = transport.getJson("/map/id/goal", Map.class);
+        goal.subscribe();
+
+        assertEquals(List.of("/map/id", "/map/id/goal"), delegate.paths);
+        assertEquals(2, transport.joins());
+        delegate.answer(0, "{\"map\":1}", "\"v1\"");
+        delegate.answer(1, "{\"goal\":2}", null);
+
+        assertEquals(List.of("{\"map\":1}", "{\"map\":1}", "{\"map\":1}"), bodies);
+        assertEquals(Map.of("goal", 2), goal.block());
+        assertEquals(1, transport.hits());
+        assertEquals(2, delegate.paths.size());
+    }
+
+    @Test
+    void testStaleBodyIsRevalidated() {
+        PendingTransport delegate = new PendingTransport();
+        CachingTransport transport = new CachingTransport(delegate, TTL, Duration.ofSeconds(5), now::get);
+        transport.stream("/map/id").subscribe(DataBufferUtils::release);
+        delegate.answer(0, "{\"map\":1}", "\"v1\"");
+
+        now.addAndGet(TTL.toNanos());
+        Mono<String> revalidated = transport.stream("/map/id").map(CachingTransportTest::text).next();
+        revalidated.subscribe();
+        assertEquals("\"v1\"", delegate.previous.get(1).etag());
+        delegate.notModified(1);
+
+        assertEquals("{\"map\":1}", revalidated.block());
+        assertEquals(1, transport.revalidations());
+        // The revalidated body is fresh again
+        assertEquals("{\"map\":1}", transport.stream("/map/id").map(CachingTransportTest::text).blockLast());
+        assertEquals(2, delegate.paths.size());
+    }
+
+    @Test
+    void testWritesDropTheCacheAndGetsInFlight() {
+        PendingTransport delegate = new PendingTransport();
+        CachingTransport transport = new CachingTransport(delegate, TTL, Duration.ofSeconds(5), now::get);
+        transport.stream("/map/id").subscribe(DataBufferUtils::release);
+        delegate.answer(0, "{\"map\":1}", null);
+
+        transport.stream("/map/id").subscribe(DataBufferUtils::release);
+        assertEquals(1, transport.hits());
+
+        // A GET started before a write is neither joined nor cached
+        transport.send(HttpMethod.POST, "/polyanets", Map.of()).block();
+        transport.stream("/map/id").subscribe(DataBufferUtils::release);
+        transport.send(HttpMethod.DELETE, "/polyanets", Map.of()).block();
+        Mono<String> after = transport.stream("/map/id").map(CachingTransportTest::text).next();
+        after.subscribe();
+        assertEquals(3, delegate.paths.size());
+        delegate.answer(1, "{\"map\":2}", null);
+        delegate.answer(2, "{\"map\":3}", null);
+
+        assertEquals("{\"map\":3}", after.block());
+        assertEquals("{\"map\":3}", transport.stream("/map/id").map(CachingTransportTest::text).blockLast());
+        assertEquals(3, delegate.paths.size());
+    }
+
+    @Test
+    void testSharedRequestOutlivesItsCallers() {
+        PendingTransport delegate = new PendingTransport();
+        CachingTransport transport = new CachingTransport(delegate, TTL, Duration.ofSeconds(5), now::get);
+
+        Disposable caller = transport.getJson("/map/id/goal", Map.class).subscribe();
+        caller.dispose();
+        delegate.answer(0, "{\"goal\":1}", null);
+
+        assertEquals(Map.of("goal", 1), transport.getJson("/map/id/goal", Map.class).block());
+        assertEquals(1, delegate.paths.size());
+        assertEquals(1, transport.hits());
+    }
+
+    @Test
+    void testServiceRevalidatesTheMapOverHttp() throws IOException {
+        CellGrid goal = new CellGrid(2, 2);
+        goal.set(0, 0, GridCell.POLYANET);
+        try (ApiSimulator simulator = new ApiSimulator(goal, Duration.ZERO)) {
+            CachingTransport transport = new CachingTransport(
+                    new WebClientTransport(WebClient.builder().baseUrl(simulator.baseUrl()).build()),
+                    Duration.ZERO, Duration.ofSeconds(5));
+            RetryStrategy retryStrategy = RetryStrategy.exponential(1, 0, 0);
+            AstralObjectService service = new AstralObjectService(transport, retryStrategy,
+                    Bulkheads.uniform(retryStrategy, 2), "id", 2, 0, 5, 0, "/map/%s", "/map/%s/goal", "", "", 64);
+
+            assertEquals(GridCell.SPACE, service.fetchCurrentGrid().get(0, 0));
+            assertEquals(GridCell.SPACE, service.fetchCurrentGrid().get(0, 0));
+            assertEquals(1, transport.revalidations(), "Unchanged map");
+
+            service.processAstralObject(new Polyanet(0, 0), HttpMethod.POST);
+            assertEquals(GridCell.POLYANET, service.fetchCurrentGrid().get(0, 0));
+            assertEquals(1, transport.revalidations());
+            assertEquals(4, simulator.requests());
+        }
+    }
+
+    private static String text(DataBuffer buffer) {
+        String text = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return text;
+    }
+
+    /**
+     * Holds every conditional GET until the test answers it.
+     */
+    private static final class PendingTransport implements HttpTransport {
+        private final List<String> paths = new ArrayList<>();
+        private final List<ConditionalResponse> previous = new ArrayList<>();
+        private final List<Sinks.One<ConditionalResponse>> responses = new ArrayList<>();
+
+        void answer(int request, String body, String etag) {
+            responses.get(request).tryEmitValue(
+                    new ConditionalResponse(body.getBytes(StandardCharsets.UTF_8), etag, null));
+        }
+
+        void notModified(int request) {
+            responses.get(request).tryEmitValue(ConditionalResponse.NOT_MODIFIED);
+        }
+
+        @Override
+        public Mono<ConditionalResponse> getConditional(String path, ConditionalResponse previous) {
+            return Mono.defer(() -> {
+                Sinks.One<ConditionalResponse> response = Sinks.one();
+                synchronized (this) {
+                    paths.add(path);
+                    this.previous.add(previous);
+                    responses.add(response);
+                }
+                return response.asMono();
+            });
+        }
+
+        @Override
+        public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body) {
+            return Mono.just(new TransportResponse(200, 0));
+        }
+
+        @Override
+        public Flux<DataBuffer> stream(String path) {
+            return Flux.error(new UnsupportedOperationException());
+        }
+
+        @Override
+        public <T> Mono<T> getJson(String path, Class<T> type) {
+            return Mono.error(new UnsupportedOperationException());
+        }
+    }
+}
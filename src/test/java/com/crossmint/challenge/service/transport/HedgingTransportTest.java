@@ -0,0 +1,181 @@
+package com.crossmint.challenge.service.transport;
+
+import com.crossmint.challenge.service.retry.RetryBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingTransportTest {
+
+    private static final Duration SLOW = Duration.ofSeconds(5);
+    private static final Duration HEDGE_AFTER = Duration.ofMillis(50);
+
+    @Test
+    void testSlowDeleteIsHedgedAndTheFirstAnswerWins() {
+        ScriptedTransport delegate = new ScriptedTransport(SLOW, Duration.ZERO);
+        HedgingTransport transport = new HedgingTransport(delegate, 95, HEDGE_AFTER, budget(100));
+
+        long start = System.nanoTime();
+        TransportResponse response = transport.send(HttpMethod.DELETE, "/polyanets", Map.of()).block();
+
+        assertEquals(2, response.bytes(), "The answer of the hedge");
+        assertTrue(System.nanoTime() - start < SLOW.toNanos() / 2);
+        assertEquals(2, delegate.calls.get());
+        assertEquals(1, transport.hedges());
+        assertEquals(1, transport.hedgeWins());
+    }
+
+    @Test
+    void testPostsAndFastRequestsAreNotHedged() {
+        ScriptedTransport delegate = new ScriptedTransport(Duration.ofMillis(200), Duration.ZERO, Duration.ZERO);
+        HedgingTransport transport = new HedgingTransport(delegate, 95, HEDGE_AFTER, budget(100));
+
+        assertEquals(1, transport.send(HttpMethod.POST, "/polyanets", Map.of()).block().bytes());
+        assertEquals(2, transport.send(HttpMethod.DELETE, "/polyanets", Map.of(), new AttemptHistory())
+                .block().bytes());
+        assertEquals(3, transport.getJson("/map/id/goal", Integer.class).block());
+
+        assertEquals(3, delegate.calls.get());
+        assertEquals(0, transport.hedges());
+    }
+
+    @Test
+    void testHedgeDelayFollowsTheLatencyPercentile() {
+        ScriptedTransport delegate = new ScriptedTransport(Duration.ZERO);
+        HedgingTransport transport = new HedgingTransport(delegate, 95, SLOW, budget(100));
+
+        assertEquals(SLOW, transport.hedgeDelay("GET /map/id/goal"));
+        for (int i = 0; i < HedgingTransport.MIN_SAMPLES; i++) {
+            transport.getJson("/map/id/goal", Integer.class).block();
+        }
+
+        assertTrue(transport.hedgeDelay("GET /map/id/goal").compareTo(Duration.ofMillis(100)) < 0);
+        assertEquals(SLOW, transport.hedgeDelay("DELETE /polyanets"), "Every endpoint has its own latencies");
+        assertThrows(IllegalArgumentException.class, () -> new HedgingTransport(delegate, 0, SLOW, budget(5)));
+    }
+
+    @Test
+    void testBudgetCapsHedges() {
+        ScriptedTransport delegate = new ScriptedTransport(Duration.ofMillis(200));
+        HedgingTransport transport = new HedgingTransport(delegate, 95, HEDGE_AFTER, budget(0));
+
+        for (int i = 0; i < 3; i++) {
+            transport.getJson("/map/id/goal", Integer.class).block();
+        }
+
+        assertEquals(1, transport.hedges(), "Only the hedge always allowed per window");
+        assertEquals(4, delegate.calls.get());
+    }
+
+    @Test
+    void testFailedHedgeLeavesTheOutcomeToTheOriginal() {
+        ScriptedTransport delegate = new ScriptedTransport(Duration.ofMillis(200), Duration.ZERO);
+        delegate.failures.add(2);
+        HedgingTransport transport = new HedgingTransport(delegate, 95, HEDGE_AFTER, budget(100));
+
+        assertEquals(1, transport.getJson("/map/id/goal", Integer.class).block());
+        assertEquals(1, transport.hedges());
+        assertEquals(0, transport.hedgeWins());
+    }
+
+    @Test
+    void testSlowMapStreamIsHedged() {
+        ScriptedTransport delegate = new ScriptedTransport(SLOW, Duration.ZERO);
+        HedgingTransport transport = new HedgingTransport(delegate, 95, HEDGE_AFTER, budget(100));
+
+        String body = transport.stream("/map/id")
+                .map(buffer -> {
+                    String chunk = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return chunk;
+                })
+                .collectList()
+                .map(chunks -> String.join("", chunks))
+                .block();
+
+        assertEquals("{\"call\":2}", body);
+        assertEquals(1, transport.hedgeWins());
+    }
+
+    @Test
+    void testHedgeDelayKeepsSamplingTheSlowOriginals() {
+        // Every original is slow and every hedge is fast
+        Duration[] delays = new Duration[4 * HedgingTransport.MIN_SAMPLES];
+        for (int i = 0; i < delays.length; i++) {
+            delays[i] = i % 2 == 0 ? SLOW : Duration.ZERO;
+        }
+        HedgingTransport transport = new HedgingTransport(new ScriptedTransport(delays), 95, HEDGE_AFTER, budget(100));
+        HedgingTransport streams = new HedgingTransport(new ScriptedTransport(delays), 95, HEDGE_AFTER, budget(100));
+
+        for (int i = 0; i < 2 * HedgingTransport.MIN_SAMPLES; i++) {
+            transport.getJson("/map/id/goal", Integer.class).block();
+            streams.stream("/map/id").doOnNext(DataBufferUtils::release).blockLast();
+        }
+
+        assertEquals(2 * HedgingTransport.MIN_SAMPLES, transport.hedges());
+        assertEquals(2 * HedgingTransport.MIN_SAMPLES, streams.hedges());
+        // The originals are timed until their hedge answers, never less than the initial delay
+        assertTrue(transport.hedgeDelay("GET /map/id/goal").compareTo(HEDGE_AFTER) >= 0);
+        assertTrue(streams.hedgeDelay("GET /map/id").compareTo(HEDGE_AFTER) >= 0);
+    }
+
+    private static RetryBudget budget(double percent) {
+        return new RetryBudget(percent, Duration.ofSeconds(10), 1);
+    }
+
+    /**
+     * Answers its n-th request after the n-th delay (the last one repeated), with n as the size of the response.
+     */
+    private static final class ScriptedTransport implements HttpTransport {
+        private final List<Duration> delays;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final ConcurrentLinkedQueue<Integer> failures = new ConcurrentLinkedQueue<>();
+
+        ScriptedTransport(Duration... delays) {
+            this.delays = List.of(delays);
+        }
+
+        private Mono<Integer> next() {
+            return Mono.defer(() -> {
+                int call = calls.incrementAndGet();
+                Duration delay = delays.get(Math.min(call, delays.size()) - 1);
+                if (failures.contains(call)) {
+                    return Mono.delay(delay).then(Mono.error(
+                            WebClientResponseException.create(503, "Service Unavailable", null, null, null)));
+                }
+                return Mono.delay(delay).thenReturn(call);
+            });
+        }
+
+        @Override
+        public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body) {
+            return next().map(call -> new TransportResponse(200, call));
+        }
+
+        @Override
+        public Flux<DataBuffer> stream(String path) {
+            return next().flatMapMany(call -> Flux.just("{\"call\":", call + "}")
+                    .map(chunk -> (DataBuffer) DefaultDataBufferFactory.sharedInstance
+                            .wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        }
+
+        @Override
+        public <T> Mono<T> getJson(String path, Class<T> type) {
+            return next().map(type::cast);
+        }
+    }
+}
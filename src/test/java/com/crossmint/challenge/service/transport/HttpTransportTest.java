@@ -0,0 +1,122 @@
+package com.crossmint.challenge.service.transport;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.model.Soloon;
+import com.crossmint.challenge.model.SoloonColor;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.RunDeadline;
+import com.crossmint.challenge.service.RunReport;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportTest {
+
+    private ApiSimulator simulator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        CellGrid goal = new CellGrid(3, 3);
+        goal.set(0, 0, GridCell.POLYANET);
+        goal.set(0, 1, GridCell.BLUE_SOLOON);
+        goal.set(2, 2, GridCell.UP_COMETH);
+        simulator = new ApiSimulator(goal, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.close();
+    }
+
+    static HttpTransport transport(String name, String baseUrl) {
+        return switch (name) {
+            case "reactor-netty" -> new WebClientTransport(WebClient.builder().baseUrl(baseUrl).build());
+            case "jdk" -> new JdkHttpTransport(baseUrl, Duration.ofSeconds(5), null);
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"reactor-netty", "jdk"})
+    void testTransportsBehaveTheSame(String name) {
+        HttpTransport transport = transport(name, simulator.baseUrl());
+        // The Soloon needs a Polyanet next to it
+        simulator.map().set(1, 2, GridCell.POLYANET);
+
+        assertEquals(200, transport.send(HttpMethod.POST, "/soloons", new Soloon(1, 1, SoloonColor.RED)
+                .toRequestBody("id")).block().status());
+        assertEquals(GridCell.RED_SOLOON, simulator.map().get(1, 1));
+        transport.send(HttpMethod.DELETE, "/soloons", new Soloon(1, 1, SoloonColor.RED).toRequestBody("id")).block();
+        assertEquals(GridCell.SPACE, simulator.map().get(1, 1));
+
+        record Goal(List<List<String>> goal) {}
+        assertEquals("BLUE_SOLOON", transport.getJson("/map/id/goal", Goal.class).block().goal().get(0).get(1));
+
+        String map = DataBufferUtils.join(transport.stream("/map/id"))
+                .map(buffer -> {
+                    String content = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return content;
+                })
+                .block();
+        assertTrue(map.startsWith("{\"map\":{\"content\":[[null"), map);
+
+        // Errors carry the status and body whatever the transport
+        WebClientResponseException error = assertThrows(WebClientResponseException.class, () -> transport
+                .send(HttpMethod.POST, "/polyanets", new Polyanet(5, 5).toRequestBody("id")).block());
+        assertEquals(400, error.getStatusCode().value());
+        assertTrue(error.getResponseBodyAsString().contains("out of bounds"));
+        assertThrows(WebClientResponseException.NotFound.class, () -> transport.stream("/nowhere").blockLast());
+        assertThrows(WebClientResponseException.NotFound.class,
+                () -> transport.getJson("/nowhere", Map.class).block());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"reactor-netty", "jdk"})
+    void testServiceReplicatesGoalOverEitherTransport(String name) {
+        RetryStrategy retryStrategy = RetryStrategy.exponential(1, 1, 0);
+        AstralObjectService service = new AstralObjectService(transport(name, simulator.baseUrl()), retryStrategy,
+                Bulkheads.uniform(retryStrategy, 4), "id", 4, 0, 5, 0, "/map/%s", "/map/%s/goal", "", "", 64);
+
+        RunReport report = service.replicateGoalMap(RunDeadline.none());
+
+        assertEquals(3, report.completed());
+        assertEquals(GridCell.POLYANET, simulator.map().get(0, 0));
+        assertEquals(GridCell.BLUE_SOLOON, simulator.map().get(0, 1));
+        assertEquals(GridCell.UP_COMETH, simulator.map().get(2, 2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"reactor-netty", "jdk"})
+    void testConditionalGetsRevalidateTheMap(String name) {
+        HttpTransport transport = transport(name, simulator.baseUrl());
+
+        ConditionalResponse first = transport.getConditional("/map/id", null).block();
+        assertFalse(first.notModified());
+        assertNotNull(first.etag());
+        assertTrue(new String(first.body(), StandardCharsets.UTF_8).startsWith("{\"map\""));
+        assertTrue(transport.getConditional("/map/id", first).block().notModified());
+
+        transport.send(HttpMethod.POST, "/polyanets", Map.of("row", 1, "column", 1)).block();
+        ConditionalResponse changed = transport.getConditional("/map/id", first).block();
+        assertFalse(changed.notModified());
+        assertNotEquals(first.etag(), changed.etag());
+    }
+}
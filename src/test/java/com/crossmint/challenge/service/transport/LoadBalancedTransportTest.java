@@ -0,0 +1,283 @@
+package com.crossmint.challenge.service.transport;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.retry.RetryBudget;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancedTransportTest {
+
+    private static final Duration EJECTION = Duration.ofSeconds(30);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testPicksTheLessBusyOfTwoEndpoints() {
+        StubTransport busy = new StubTransport(Mono::never);
+        StubTransport idle = new StubTransport(StubTransport::ok);
+        Queue<Integer> picks = new ArrayDeque<>(List.of(0, 0, 0, 1, 1, 0));
+        LoadBalancedTransport transport = balancer(picks, busy, idle);
+
+        Disposable pending = transport.send(HttpMethod.POST, "/polyanets", Map.of()).subscribe();
+        LoadBalancedTransport.Endpoint first = transport.endpoints().getFirst();
+        assertEquals(1, first.outstanding());
+
+        // Whichever order they are picked in, the idle endpoint wins
+        assertNotNull(transport.send(HttpMethod.POST, "/polyanets", Map.of()).block());
+        assertNotNull(transport.send(HttpMethod.POST, "/polyanets", Map.of()).block());
+        assertEquals(2, idle.calls.get());
+        assertEquals(1, busy.calls.get());
+
+        pending.dispose();
+        assertEquals(0, first.outstanding());
+    }
+
+    @Test
+    void testEjectsFailingEndpointThenReadmitsIt() {
+        AtomicInteger failures = new AtomicInteger(5);
+        StubTransport flaky = new StubTransport(() -> failures.getAndDecrement() > 0
+                ? Mono.error(WebClientResponseException.create(503, "Service Unavailable", null, null, null))
+                : StubTransport.ok());
+        LoadBalancedTransport transport = balancer(null, flaky, new StubTransport(StubTransport::ok));
+        LoadBalancedTransport.Endpoint endpoint = transport.endpoints().getFirst();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(WebClientResponseException.class, () -> flaky(transport).block());
+        }
+        assertFalse(endpoint.isEjected(now.get()), "Below the failure threshold");
+        assertThrows(WebClientResponseException.class, () -> flaky(transport).block());
+        assertTrue(endpoint.isEjected(now.get()));
+        assertSame(transport.endpoints().get(1), transport.select(null));
+
+        // Half-open once the ejection is over: a failure ejects it again, for twice as long
+        now.addAndGet(EJECTION.toNanos());
+        assertFalse(endpoint.isEjected(now.get()));
+        assertThrows(WebClientResponseException.class, () -> flaky(transport).block());
+        now.addAndGet(EJECTION.toNanos());
+        assertTrue(endpoint.isEjected(now.get()));
+        now.addAndGet(EJECTION.toNanos());
+        assertThrows(WebClientResponseException.class, () -> flaky(transport).block());
+        now.addAndGet(EJECTION.multipliedBy(3).toNanos());
+        assertTrue(endpoint.isEjected(now.get()));
+
+        // A success re-admits it
+        now.addAndGet(EJECTION.toNanos());
+        assertNotNull(flaky(transport).block());
+        assertFalse(endpoint.isEjected(now.get()));
+        assertEquals(6, flaky.calls.get());
+    }
+
+    @Test
+    void testThrottledAndTimedOutRequests() {
+        StubTransport throttled = new StubTransport(() ->
+                Mono.error(WebClientResponseException.create(429, "Too Many Requests", null, null, null)));
+        StubTransport hanging = new StubTransport(Mono::never);
+        LoadBalancedTransport transport = balancer(null, throttled, hanging);
+
+        // A 429 is an answer: the endpoint is not ejected, but the next attempt goes elsewhere
+        AttemptHistory history = new AttemptHistory();
+        for (int i = 0; i < 3; i++) {
+            assertThrows(WebClientResponseException.class,
+                    () -> transport.send(HttpMethod.POST, "/polyanets", Map.of(), new AttemptHistory()).block());
+        }
+        assertFalse(transport.endpoints().getFirst().isEjected(now.get()));
+        assertThrows(WebClientResponseException.class,
+                () -> transport.send(HttpMethod.POST, "/polyanets", Map.of(), history).block());
+        assertTrue(history.hasFailedOn("a"));
+
+        // Attempts timing out count as failures
+        assertThrows(RuntimeException.class, () -> timingOut(transport, history).block());
+        assertTrue(history.hasFailedOn("b"));
+        for (int i = 0; i < 2; i++) {
+            assertThrows(RuntimeException.class, () -> timingOut(transport, history("a")).block());
+        }
+        assertEquals(3, hanging.calls.get());
+        assertTrue(transport.endpoints().get(1).isEjected(now.get()));
+        assertEquals(0, transport.endpoints().get(1).outstanding());
+    }
+
+    @Test
+    void testHedgesCancelledByTheOriginalAnswerAreNoFailures() {
+        StubTransport a = new StubTransport(() -> Mono.delay(Duration.ofMillis(100)).then(StubTransport.ok()));
+        StubTransport b = new StubTransport(() -> Mono.delay(Duration.ofMillis(100)).then(StubTransport.ok()));
+        // Each original goes to "a", each hedge to the idle "b"
+        Queue<Integer> picks = new ArrayDeque<>();
+        for (int i = 0; i < 10; i++) {
+            picks.addAll(List.of(0, 1));
+        }
+        LoadBalancedTransport balancer = balancer(picks, a, b);
+        HedgingTransport transport = new HedgingTransport(balancer, 95, Duration.ofMillis(20),
+                new RetryBudget(100, Duration.ofSeconds(10), 1));
+
+        for (int i = 0; i < 5; i++) {
+            AttemptHistory history = new AttemptHistory();
+            assertNotNull(transport.send(HttpMethod.DELETE, "/polyanets", Map.of(), history).block());
+            assertFalse(history.hasFailedOn("b"));
+            awaitIdle(balancer);
+        }
+
+        assertEquals(5, transport.hedges());
+        assertEquals(5, b.calls.get());
+        for (LoadBalancedTransport.Endpoint endpoint : balancer.endpoints()) {
+            assertFalse(endpoint.isEjected(now.get()), endpoint.baseUrl());
+        }
+    }
+
+    /**
+     * Waits for the winning request to release its endpoint, which it does right after answering.
+     */
+    private static void awaitIdle(LoadBalancedTransport balancer) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (balancer.endpoints().stream().anyMatch(endpoint -> endpoint.outstanding() > 0)) {
+            assertTrue(System.nanoTime() < deadline, "Endpoints still busy");
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void testEveryEndpointEjectedFallsBackToTheFirstReadmitted() {
+        StubTransport down = new StubTransport(() -> Mono.error(new IOException("Connection refused")));
+        LoadBalancedTransport transport = balancer(null, down, down);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(Exception.class, () -> flaky(transport).block());
+        }
+        now.addAndGet(1);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(Exception.class, () -> transport.getJson("/map/id", Map.class).block());
+        }
+
+        assertTrue(transport.endpoints().stream().allMatch(endpoint -> endpoint.isEjected(now.get())));
+        assertSame(transport.endpoints().getFirst(), transport.select(null));
+        assertThrows(IllegalArgumentException.class, () -> new LoadBalancedTransport(List.of(), 3, EJECTION));
+    }
+
+    @Test
+    void testRetriesOfAnOperationGoToAnotherEndpoint() throws IOException {
+        try (ApiSimulator failing = new ApiSimulator(new CellGrid(3, 3), Duration.ZERO);
+             ApiSimulator healthy = new ApiSimulator(new CellGrid(3, 3), Duration.ZERO)) {
+            failing.failNext(503, 100);
+            LoadBalancedTransport transport = new LoadBalancedTransport(List.of(
+                    new LoadBalancedTransport.Endpoint(failing.baseUrl(), webClient(failing)),
+                    new LoadBalancedTransport.Endpoint(healthy.baseUrl(), webClient(healthy))),
+                    3, EJECTION, System::nanoTime, bound -> 0);
+            RetryStrategy retryStrategy = RetryStrategy.exponential(1, 0, 0);
+            AstralObjectService service = new AstralObjectService(transport, retryStrategy,
+                    Bulkheads.uniform(retryStrategy, 2), "id", 2, 0, 5, 0, "/map/%s", "/map/%s/goal", "", "", 64);
+
+            service.processAstralObject(new Polyanet(1, 1), HttpMethod.POST);
+
+            assertEquals(1, failing.requests());
+            assertEquals(GridCell.POLYANET, healthy.map().get(1, 1));
+            assertTrue(transport.stream("/map/id").map(DataBuffer::readableByteCount).count().block() > 0);
+        }
+    }
+
+    @Test
+    void testOperationSucceedsWhenAnEndpointRefusesConnections() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        try (ApiSimulator healthy = new ApiSimulator(new CellGrid(3, 3), Duration.ZERO)) {
+            String refusing = "http://localhost:" + closedPort + "/api";
+            LoadBalancedTransport transport = new LoadBalancedTransport(List.of(
+                    new LoadBalancedTransport.Endpoint(refusing,
+                            new WebClientTransport(WebClient.builder().baseUrl(refusing).build())),
+                    new LoadBalancedTransport.Endpoint(healthy.baseUrl(), webClient(healthy))),
+                    3, EJECTION, System::nanoTime, bound -> 0);
+            RetryStrategy retryStrategy = RetryStrategy.exponential(1, 0, 0);
+            AstralObjectService service = new AstralObjectService(transport, retryStrategy,
+                    Bulkheads.uniform(retryStrategy, 2), "id", 2, 0, 5, 0, "/map/%s", "/map/%s/goal", "", "", 64);
+
+            service.processAstralObject(new Polyanet(2, 0), HttpMethod.POST);
+
+            assertEquals(GridCell.POLYANET, healthy.map().get(2, 0));
+            assertEquals(1, healthy.requests());
+        }
+    }
+
+    /**
+     * Times the request out the way the service does, telling its history before cancelling it.
+     */
+    private static Mono<TransportResponse> timingOut(LoadBalancedTransport transport, AttemptHistory history) {
+        return transport.send(HttpMethod.POST, "/polyanets", Map.of(), history)
+                .timeout(Mono.delay(Duration.ofMillis(10)).doOnNext(tick -> history.timedOut()));
+    }
+
+    private static Mono<TransportResponse> flaky(LoadBalancedTransport transport) {
+        return transport.send(HttpMethod.DELETE, "/polyanets", Map.of(), history("b"));
+    }
+
+    private static AttemptHistory history(String failedEndpoint) {
+        AttemptHistory history = new AttemptHistory();
+        history.failedOn(failedEndpoint);
+        return history;
+    }
+
+    private static HttpTransport webClient(ApiSimulator simulator) {
+        return new WebClientTransport(WebClient.builder().baseUrl(simulator.baseUrl()).build());
+    }
+
+    private LoadBalancedTransport balancer(Queue<Integer> picks, HttpTransport a, HttpTransport b) {
+        return new LoadBalancedTransport(List.of(new LoadBalancedTransport.Endpoint("a", a),
+                new LoadBalancedTransport.Endpoint("b", b)), 3, EJECTION, now::get,
+                bound -> picks != null && !picks.isEmpty() ? picks.poll() : 0);
+    }
+
+    private static final class StubTransport implements HttpTransport {
+        private final Supplier<Mono<TransportResponse>> responses;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubTransport(Supplier<Mono<TransportResponse>> responses) {
+            this.responses = responses;
+        }
+
+        static Mono<TransportResponse> ok() {
+            return Mono.just(new TransportResponse(HttpStatus.OK.value(), 0));
+        }
+
+        @Override
+        public Mono<TransportResponse> send(HttpMethod method, String path, Map<String, Object> body) {
+            return Mono.defer(() -> {
+                calls.incrementAndGet();
+                return responses.get();
+            });
+        }
+
+        @Override
+        public Flux<DataBuffer> stream(String path) {
+            return send(HttpMethod.GET, path, null).thenMany(Flux.empty());
+        }
+
+        @Override
+        public <T> Mono<T> getJson(String path, Class<T> type) {
+            return send(HttpMethod.GET, path, null).then(Mono.empty());
+        }
+    }
+}
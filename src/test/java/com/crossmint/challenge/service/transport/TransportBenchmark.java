@@ -0,0 +1,84 @@
+package com.crossmint.challenge.service.transport;
+
+import com.crossmint.challenge.model.CellGrid;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the transports against the {@link ApiSimulator} on start-up time, throughput and
+ * resident memory, each run in its own JVM. Excluded from the default build; run it with
+ * {@code mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=TransportBenchmark}.
+ */
+@Tag("benchmark")
+class TransportBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(TransportBenchmark.class);
+
+    private static final int RUNS = 3;
+    private static final int REQUESTS = 2000;
+    private static final int CONCURRENCY = 16;
+    private static final int GRID_SIZE = 50;
+
+    @Test
+    void compareTransports() throws Exception {
+        try (ApiSimulator simulator = new ApiSimulator(new CellGrid(GRID_SIZE, GRID_SIZE), Duration.ofMillis(2))) {
+            List<String> report = new ArrayList<>();
+            for (String transport : List.of("reactor-netty", "jdk")) {
+                List<Map<String, Double>> runs = new ArrayList<>();
+                for (int run = 0; run < RUNS; run++) {
+                    runs.add(probe(transport, simulator.baseUrl()));
+                }
+                report.add(String.format("%-14s startup %6.0f ms, throughput %8.1f req/s, RSS %7.0f KB", transport,
+                        median(runs, "startup_ms"), median(runs, "throughput"), median(runs, "rss_kb")));
+            }
+            logger.info("Transport comparison ({} requests, concurrency {}, median of {} JVMs):{}{}", REQUESTS,
+                    CONCURRENCY, RUNS, System.lineSeparator(), String.join(System.lineSeparator(), report));
+        }
+    }
+
+    private static Map<String, Double> probe(String transport, String baseUrl)
+            throws IOException, InterruptedException {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Process process = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                TransportProbe.class.getName(), transport, baseUrl, String.valueOf(REQUESTS),
+                String.valueOf(CONCURRENCY), String.valueOf(GRID_SIZE))
+                .redirectErrorStream(true)
+                .start();
+        Map<String, Double> metrics = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("startup_ms=")) {
+                    for (String pair : line.split(" ")) {
+                        String[] keyValue = pair.split("=");
+                        metrics.put(keyValue[0], Double.parseDouble(keyValue[1]));
+                    }
+                }
+            }
+        }
+        assertEquals(0, process.waitFor(), "Probe of " + transport + " failed");
+        assertTrue(metrics.containsKey("throughput"), "No metrics reported by the probe of " + transport);
+        return metrics;
+    }
+
+    private static double median(List<Map<String, Double>> runs, String metric) {
+        double[] values = runs.stream().mapToDouble(run -> run.get(metric)).sorted().toArray();
+        return values[values.length / 2];
+    }
+}
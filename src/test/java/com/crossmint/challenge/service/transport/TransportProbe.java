@@ -0,0 +1,56 @@
+package com.crossmint.challenge.service.transport;
+
+import com.crossmint.challenge.model.Polyanet;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures one transport in a fresh JVM, so start-up time and resident memory are not skewed
+ * by the other transports: prints {@code startup_ms=... throughput=... rss_kb=...}.
+ * <p>
+ * Arguments: transport name, base URL of the simulator, number of requests, concurrency, grid size.
+ */
+public final class TransportProbe {
+
+    private TransportProbe() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String name = args[0];
+        String baseUrl = args[1];
+        int requests = Integer.parseInt(args[2]);
+        int concurrency = Integer.parseInt(args[3]);
+        int size = Integer.parseInt(args[4]);
+
+        HttpTransport transport = HttpTransportTest.transport(name, baseUrl);
+        transport.send(HttpMethod.POST, "/polyanets", new Polyanet(0, 0).toRequestBody("probe")).block();
+        long startupMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> transport.send(HttpMethod.POST, "/polyanets",
+                        new Polyanet(i / size % size, i % size).toRequestBody("probe")), concurrency)
+                .blockLast();
+        double throughput = requests * 1e9 / (System.nanoTime() - start);
+
+        System.out.printf("startup_ms=%d throughput=%.1f rss_kb=%d%n", startupMillis, throughput, residentKilobytes());
+        System.exit(0);
+    }
+
+    private static long residentKilobytes() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1);
+    }
+}
@@ -0,0 +1,140 @@
+package com.crossmint.challenge.service.validation;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.Polyanet;
+import com.crossmint.challenge.model.Soloon;
+import com.crossmint.challenge.model.SoloonColor;
+import com.crossmint.challenge.service.AstralObjectService;
+import com.crossmint.challenge.service.RunDeadline;
+import com.crossmint.challenge.service.RunReport;
+import com.crossmint.challenge.service.bulkhead.Bulkheads;
+import com.crossmint.challenge.service.retry.RetryStrategy;
+import com.crossmint.challenge.service.transport.ApiSimulator;
+import com.crossmint.challenge.service.transport.WebClientTransport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OperationValidatorTest {
+
+    private static CellOperation soloon(int row, int col) {
+        return new CellOperation(new Soloon(row, col, SoloonColor.RED), HttpMethod.POST);
+    }
+
+    private static CellOperation polyanet(int row, int col, HttpMethod method) {
+        return new CellOperation(new Polyanet(row, col), method);
+    }
+
+    @Test
+    void testSingleOperations() {
+        CellGrid occupancy = new CellGrid(3, 3);
+        occupancy.set(1, 1, GridCell.POLYANET);
+
+        assertEquals(Optional.empty(), OperationValidator.check(soloon(0, 1), occupancy));
+        assertEquals(Optional.empty(), OperationValidator.check(soloon(1, 2), occupancy));
+        assertEquals(Optional.of("a Soloon must be next to a Polyanet"), OperationValidator.check(soloon(0, 0), occupancy));
+        assertEquals(Optional.of("outside of the 3x3 map"),
+                OperationValidator.check(polyanet(3, 0, HttpMethod.POST), occupancy));
+        assertEquals(Optional.empty(), OperationValidator.check(polyanet(2, 2, HttpMethod.DELETE), occupancy));
+    }
+
+    @Test
+    void testPlansAreValidatedAgainstTheirOutcome() {
+        CellGrid current = new CellGrid(3, 4);
+        current.set(0, 0, GridCell.POLYANET);
+        List<CellOperation> plan = List.of(
+                polyanet(0, 0, HttpMethod.DELETE),   // Removes the neighbour of (0, 1)
+                soloon(0, 1),
+                polyanet(2, 3, HttpMethod.POST),     // Created in the same plan, next to (1, 3)
+                soloon(1, 3),
+                polyanet(5, 5, HttpMethod.POST));
+
+        PlanValidation validation = OperationValidator.validatePlan(current, plan::stream);
+
+        assertEquals(List.of("POST /polyanets (5, 5): outside of the 3x4 map",
+                        "POST /soloons (0, 1): a Soloon must be next to a Polyanet"),
+                validation.violations().stream().map(Object::toString).toList());
+        assertTrue(validation.rejects(soloon(0, 1)));
+        assertTrue(validation.rejects(polyanet(5, 5, HttpMethod.POST)));
+        assertFalse(validation.rejects(soloon(1, 3)));
+        assertFalse(validation.rejects(polyanet(0, 0, HttpMethod.DELETE)));
+        assertTrue(validation.soloonsNeedCreatedPolyanets());
+
+        current.set(2, 3, GridCell.POLYANET);
+        assertFalse(OperationValidator.validatePlan(current, () -> Stream.of(soloon(1, 3)))
+                .soloonsNeedCreatedPolyanets());
+    }
+
+    @Test
+    void testSoloonsAreCreatedOnceThePolyanetsOfThePlanExist() throws IOException {
+        // Every Soloon comes before its Polyanet in row-major order
+        CellGrid goal = new CellGrid(4, 3);
+        for (int col = 0; col < 3; col++) {
+            goal.set(0, col, GridCell.BLUE_SOLOON);
+            goal.set(1, col, GridCell.POLYANET);
+            goal.set(2, col, GridCell.RED_SOLOON);
+        }
+        try (ApiSimulator simulator = new ApiSimulator(goal, Duration.ofMillis(20))) {
+            RetryStrategy retryStrategy = RetryStrategy.exponential(0, 0, 0);
+            AstralObjectService service = new AstralObjectService(
+                    new WebClientTransport(WebClient.builder().baseUrl(simulator.baseUrl()).build()), retryStrategy,
+                    Bulkheads.uniform(retryStrategy, 8), "id", 8, 0, 5, 0, "/map/%s", "/map/%s/goal", "", "", 64);
+
+            RunReport report = service.replicateGoalMap(RunDeadline.none());
+
+            assertEquals(List.of(), report.failed());
+            assertEquals(9, report.completed());
+            assertArrayEquals(goal.cells(), simulator.map().cells());
+        }
+    }
+
+    @Test
+    void testAdjacencyCrossesWordBoundaries() {
+        CellGrid grid = new CellGrid(2, 130);
+        grid.set(0, 63, GridCell.POLYANET);
+        grid.set(0, 64, GridCell.BLUE_SOLOON);   // Right of a Polyanet in the previous word
+        grid.set(0, 128, GridCell.POLYANET);
+        grid.set(0, 127, GridCell.WHITE_SOLOON); // Left of a Polyanet in the next word
+        grid.set(1, 63, GridCell.PURPLE_SOLOON); // Below a Polyanet
+        grid.set(1, 129, GridCell.RED_SOLOON);   // Isolated
+
+        long[] isolated = OperationValidator.isolatedSoloons(grid);
+
+        // 3 words per row: only bit 129 of the second row, i.e. bit 1 of its last word
+        assertEquals(6, isolated.length);
+        assertEquals(List.of(0L, 0L, 0L, 0L, 0L, 2L), IntStream.range(0, 6).mapToObj(i -> isolated[i]).toList());
+    }
+
+    @Test
+    void testLargeGridsValidateQuickly() {
+        int size = 2000;
+        CellGrid current = new CellGrid(size, size);
+        for (int i = 0; i < size; i++) {
+            current.set(i, i, GridCell.POLYANET);
+            current.set(i, size - 1 - i, GridCell.BLUE_SOLOON);
+        }
+
+        long start = System.nanoTime();
+        PlanValidation validation = OperationValidator.validatePlan(current, () -> IntStream.range(0, size)
+                .mapToObj(i -> soloon(i, (i + 1) % size)));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+        // Every new Soloon is right of a Polyanet, except the one wrapping around to column 0
+        assertEquals(List.of("POST /soloons (1999, 0): a Soloon must be next to a Polyanet"),
+                validation.violations().stream().map(Object::toString).toList());
+    }
+}
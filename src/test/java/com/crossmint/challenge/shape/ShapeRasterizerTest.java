@@ -0,0 +1,92 @@
+package com.crossmint.challenge.shape;
+
+import com.crossmint.challenge.model.CellGrid;
+import com.crossmint.challenge.model.CellOperation;
+import com.crossmint.challenge.model.Cometh;
+import com.crossmint.challenge.model.ComethDirection;
+import com.crossmint.challenge.model.GridCell;
+import com.crossmint.challenge.model.Polyanet;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShapeRasterizerTest {
+
+    private static Set<GridPoint> points(List<CellOperation> operations) {
+        return operations.stream()
+                .map(operation -> new GridPoint(operation.row(), operation.column()))
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void testLinesAreRasterized() {
+        assertEquals(List.of(new GridPoint(0, 0), new GridPoint(1, 1), new GridPoint(2, 2)),
+                new LineShape(new GridPoint(0, 0), new GridPoint(2, 2)).cells().toList());
+        assertEquals(List.of(new GridPoint(2, 3), new GridPoint(2, 2), new GridPoint(2, 1)),
+                new LineShape(new GridPoint(2, 3), new GridPoint(2, 1)).cells().toList());
+        assertEquals(List.of(new GridPoint(0, 0), new GridPoint(1, 1), new GridPoint(1, 2), new GridPoint(2, 3)),
+                new LineShape(new GridPoint(0, 0), new GridPoint(2, 3)).cells().toList());
+        assertEquals(List.of(new GridPoint(4, 4)), new LineShape(new GridPoint(4, 4), new GridPoint(4, 4)).cells().toList());
+    }
+
+    @Test
+    void testRectangles() {
+        GridPoint topLeft = new GridPoint(1, 1), bottomRight = new GridPoint(3, 4);
+        assertEquals(12, new RectangleShape(topLeft, bottomRight, true).cells().count());
+        Set<GridPoint> outline = new RectangleShape(topLeft, bottomRight, false).cells().collect(Collectors.toSet());
+        assertEquals(10, outline.size());
+        assertTrue(outline.contains(new GridPoint(2, 1)));
+        assertTrue(outline.contains(new GridPoint(2, 4)));
+        assertFalse(outline.contains(new GridPoint(2, 2)));
+    }
+
+    @Test
+    void testXShapeMatchesTheFirstPhaseAndDeduplicatesItsCenter() {
+        CellGrid empty = new CellGrid(11, 11);
+        List<CellOperation> operations = ShapeRasterizer.plan(
+                new XShape(new GridPoint(2, 2), new GridPoint(8, 8)), GridCell.POLYANET, empty).toList();
+
+        // 7 cells per diagonal sharing the center
+        assertEquals(13, operations.size());
+        assertEquals(13, points(operations).size());
+        for (int i = 2; i <= 8; i++) {
+            assertTrue(points(operations).contains(new GridPoint(i, i)));
+            assertTrue(points(operations).contains(new GridPoint(i, 10 - i)));
+        }
+        operations.forEach(operation -> {
+            assertEquals(HttpMethod.POST, operation.method());
+            assertTrue(operation.target() instanceof Polyanet);
+        });
+    }
+
+    @Test
+    void testOnlyMissingCellsInsideTheMapAreIssued() {
+        CellGrid current = new CellGrid(3, 5);
+        current.set(0, 0, GridCell.POLYANET);
+        current.set(0, 2, GridCell.RED_SOLOON);
+
+        List<CellOperation> operations = ShapeRasterizer.plan(
+                new LineShape(new GridPoint(0, -2), new GridPoint(0, 7)), GridCell.LEFT_COMETH, current).toList();
+
+        assertEquals(Set.of(new GridPoint(0, 1), new GridPoint(0, 3), new GridPoint(0, 4)), points(operations));
+        assertEquals(ComethDirection.LEFT, ((Cometh) operations.getFirst().target()).getDirection());
+    }
+
+    @Test
+    void testInvalidInput() {
+        CellGrid empty = new CellGrid(2, 2);
+        Shape line = new LineShape(new GridPoint(0, 0), new GridPoint(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> ShapeRasterizer.plan(line, GridCell.SPACE, empty));
+        assertThrows(IllegalArgumentException.class, () -> GridPoint.parse("1"));
+        assertThrows(NumberFormatException.class, () -> GridPoint.parse("a,b"));
+        assertEquals(new GridPoint(3, 4), GridPoint.parse(" 3, 4"));
+    }
+}
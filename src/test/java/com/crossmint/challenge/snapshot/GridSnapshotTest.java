@@ -0,0 +1,172 @@
+package com.crossmint.challenge.snapshot;
+
+import com.crossmint.challenge.model.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridSnapshotTest {
+
+    private static final String TEST_CANDIDATE_ID = "test-candidate-id";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteAndReadRoundTrip() throws IOException {
+        CellGrid grid = new CellGrid(4, 5);
+        grid.set(0, 0, GridCell.POLYANET);
+        grid.set(1, 2, GridCell.BLUE_SOLOON);
+        grid.set(3, 4, GridCell.LEFT_COMETH);
+        Instant timestamp = Instant.ofEpochMilli(1_700_000_000_000L);
+        Path file = tempDir.resolve("goal.snap");
+
+        GridSnapshotCodec.write(file, TEST_CANDIDATE_ID, grid, timestamp);
+        GridSnapshot snapshot = GridSnapshotCodec.read(file);
+
+        assertEquals(TEST_CANDIDATE_ID, snapshot.getCandidateId());
+        assertEquals(4, snapshot.getRows());
+        assertEquals(5, snapshot.getCols());
+        assertEquals(timestamp, snapshot.getTimestamp());
+        // POLYANET, SPACE x6, BLUE_SOLOON, SPACE x11, LEFT_COMETH
+        assertEquals(5, snapshot.getRunCount());
+        assertEquals(GridCell.SPACE, snapshot.runCell(1));
+        assertEquals(6, snapshot.runLength(1));
+        assertArrayEquals(grid.cells(), snapshot.toGrid().cells());
+
+        GoalMap goalMap = snapshot.toGoalMap();
+        assertEquals(3, goalMap.astralObjects().size());
+        assertArrayEquals(grid.cells(), CellGrid.of(goalMap).cells());
+    }
+
+    @Test
+    void testEmptyGridCompressesToSingleRun() throws IOException {
+        Path file = tempDir.resolve("empty.snap");
+
+        GridSnapshotCodec.write(file, TEST_CANDIDATE_ID, new CellGrid(1000, 1000), Instant.now());
+
+        GridSnapshot snapshot = GridSnapshotCodec.read(file);
+        assertEquals(1, snapshot.getRunCount());
+        assertEquals(1_000_000, snapshot.runLength(0));
+        assertTrue(Files.size(file) < 100);
+        assertTrue(snapshot.toGoalMap().astralObjects().isEmpty());
+    }
+
+    @Test
+    void testDiffBetweenSnapshots() throws IOException {
+        CellGrid goal = new CellGrid(3, 3);
+        goal.set(0, 0, GridCell.POLYANET);
+        goal.set(1, 1, GridCell.POLYANET);
+        goal.set(2, 2, GridCell.POLYANET);
+        CellGrid current = new CellGrid(3, 3);
+        current.set(0, 0, GridCell.POLYANET);
+        current.set(1, 1, GridCell.RED_SOLOON);
+        current.set(2, 0, GridCell.UP_COMETH);
+
+        GridSnapshot goalSnapshot = write("goal.snap", goal);
+        GridSnapshot currentSnapshot = write("map.snap", current);
+
+        List<String> differences = new ArrayList<>();
+        long count = goalSnapshot.forEachDifference(currentSnapshot,
+                (row, col, expected, actual) -> differences.add(row + "," + col + ":" + expected + "/" + actual));
+
+        assertEquals(3, count);
+        assertEquals(List.of("1,1:POLYANET/RED_SOLOON", "2,0:SPACE/UP_COMETH", "2,2:POLYANET/SPACE"), differences);
+
+        // Diffing against the dense grid must report the same cells
+        List<String> gridDifferences = new ArrayList<>();
+        assertEquals(3, goalSnapshot.forEachDifference(current,
+                (row, col, expected, actual) -> gridDifferences.add(row + "," + col + ":" + expected + "/" + actual)));
+        assertEquals(differences, gridDifferences);
+
+        assertEquals(0, goalSnapshot.forEachDifference(goalSnapshot, (row, col, expected, actual) -> fail()));
+    }
+
+    @Test
+    void testDiffRejectsDifferentShapes() throws IOException {
+        GridSnapshot snapshot = write("goal.snap", new CellGrid(3, 3));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> snapshot.forEachDifference(new CellGrid(3, 4), (row, col, expected, actual) -> {}));
+    }
+
+    @Test
+    void testCorruptedSnapshotIsRejected() throws IOException {
+        CellGrid grid = new CellGrid(2, 2);
+        grid.set(0, 1, GridCell.POLYANET);
+        Path file = tempDir.resolve("corrupted.snap");
+        GridSnapshotCodec.write(file, TEST_CANDIDATE_ID, grid, Instant.now());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> GridSnapshotCodec.read(file));
+        assertTrue(exception.getMessage().contains("checksum"));
+    }
+
+    @Test
+    void testRunsMustCoverTheWholeGrid() throws IOException {
+        CellGrid grid = new CellGrid(2, 2);
+        grid.set(1, 1, GridCell.POLYANET);
+        Path file = tempDir.resolve("taller.snap");
+        GridSnapshotCodec.write(file, TEST_CANDIDATE_ID, grid, Instant.now());
+
+        // Claim 3 rows: the checksum only covers the runs, so the file still reads
+        byte[] bytes = Files.readAllBytes(file);
+        int rowsOffset = Integer.BYTES + Short.BYTES + Short.BYTES + TEST_CANDIDATE_ID.length();
+        bytes[rowsOffset + Integer.BYTES - 1] = 3;
+        Files.write(file, bytes);
+        GridSnapshot snapshot = GridSnapshotCodec.read(file);
+
+        assertEquals(3, snapshot.getRows());
+        assertThrows(IllegalStateException.class, snapshot::toGrid);
+        assertThrows(IllegalStateException.class, snapshot::toGoalMap);
+        assertThrows(IllegalStateException.class,
+                () -> snapshot.forEachDifference(new CellGrid(3, 2), (row, col, expected, actual) -> {}));
+        GridSnapshot valid = write("valid.snap", new CellGrid(3, 2));
+        assertThrows(IllegalStateException.class,
+                () -> valid.forEachDifference(snapshot, (row, col, expected, actual) -> {}));
+        assertThrows(IllegalStateException.class,
+                () -> snapshot.forEachDifference(valid, (row, col, expected, actual) -> {}));
+    }
+
+    @Test
+    void testLongCandidateIds() throws IOException {
+        String longest = "c".repeat(GridSnapshotCodec.MAX_CANDIDATE_BYTES);
+        Path file = tempDir.resolve("long.snap");
+
+        GridSnapshotCodec.write(file, longest, new CellGrid(1, 1), Instant.now());
+        assertEquals(longest, GridSnapshotCodec.read(file).getCandidateId());
+        assertThrows(IllegalArgumentException.class,
+                () -> GridSnapshotCodec.write(file, longest + "c", new CellGrid(1, 1), Instant.now()));
+    }
+
+    @Test
+    void testInvalidFilesAreRejected() throws IOException {
+        Path notASnapshot = tempDir.resolve("random.bin");
+        Files.write(notASnapshot, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IllegalStateException.class, () -> GridSnapshotCodec.read(notASnapshot));
+
+        Path file = tempDir.resolve("truncated.snap");
+        GridSnapshotCodec.write(file, TEST_CANDIDATE_ID, new CellGrid(2, 2), Instant.now());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IllegalStateException.class, () -> GridSnapshotCodec.read(file));
+    }
+
+    private GridSnapshot write(String name, CellGrid grid) throws IOException {
+        Path file = tempDir.resolve(name);
+        GridSnapshotCodec.write(file, TEST_CANDIDATE_ID, grid, Instant.now());
+        return GridSnapshotCodec.read(file);
+    }
+}